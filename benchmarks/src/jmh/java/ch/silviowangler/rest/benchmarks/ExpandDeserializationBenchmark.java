@@ -0,0 +1,86 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.benchmarks;
+
+import ch.silviowangler.rest.benchmarks.fixtures.CityModel;
+import ch.silviowangler.rest.benchmarks.fixtures.Fixtures;
+import ch.silviowangler.rest.model.Expand;
+import ch.silviowangler.rest.model.ResourceModel;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.serde.ObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Deserializes an {@link Expand} of {@code entities} resource models the way a client of an
+ * expanded collection does, i.e. through the {@code ResourceModelDeserializer}.
+ *
+ * @author Silvio Wangler
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExpandDeserializationBenchmark {
+
+  @Param({"1000"})
+  public int entities;
+
+  private ApplicationContext context;
+  private ObjectMapper objectMapper;
+  private byte[] json;
+
+  @Setup
+  public void setUp() throws IOException {
+    context = Fixtures.start(Map.of());
+    objectMapper = context.getBean(ObjectMapper.class);
+
+    List<ResourceModel> cities = new ArrayList<>(entities);
+    for (int i = 0; i < entities; i++) {
+      cities.add(new CityModel("CH-" + i, "City " + i));
+    }
+    json = objectMapper.writeValueAsBytes(new Expand("cities", cities));
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public Expand deserialize() throws IOException {
+    return objectMapper.readValue(json, Expand.class);
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.benchmarks;
+
+import ch.silviowangler.rest.benchmarks.fixtures.CountriesResource;
+import ch.silviowangler.rest.benchmarks.fixtures.CountryModel;
+import ch.silviowangler.rest.benchmarks.fixtures.Fixtures;
+import ch.silviowangler.rest.micronaut.HateoasResponseFilter;
+import ch.silviowangler.rest.model.pagination.DefaultPage;
+import ch.silviowangler.rest.model.pagination.DefaultPageable;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.http.MutableHttpRequest;
+import io.micronaut.http.MutableHttpResponse;
+import io.reactivex.Flowable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Wraps the bodies of delegates into entity and collection models with {@link
+ * HateoasResponseFilter}.
+ *
+ * <p>{@code entity} wraps a single country, {@code collection} a list and {@code page} a {@code
+ * Page} of {@code entities} countries (the latter including the pagination links).
+ *
+ * @author Silvio Wangler
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HateoasWrappingBenchmark {
+
+  @Param({"1", "100", "1000"})
+  public int entities;
+
+  private ApplicationContext context;
+  private HateoasResponseFilter filter;
+  private List<CountryModel> countries;
+
+  @Setup
+  public void setUp() {
+    context = Fixtures.start(Map.of());
+    filter = context.getBean(HateoasResponseFilter.class);
+    countries = CountriesResource.countries(entities);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public MutableHttpResponse<?> entity() {
+    MutableHttpRequest<Object> request = Fixtures.get(context, "/v1/countries/C0", Map.of());
+    return wrap(request, countries.get(0));
+  }
+
+  @Benchmark
+  public MutableHttpResponse<?> collection() {
+    MutableHttpRequest<Object> request = Fixtures.get(context, "/v1/countries", Map.of());
+    return wrap(request, countries);
+  }
+
+  @Benchmark
+  public MutableHttpResponse<?> page() {
+    MutableHttpRequest<Object> request =
+        Fixtures.get(
+            context, "/v1/countries", Map.of("page", "2", "limit", String.valueOf(entities)));
+    return wrap(
+        request,
+        new DefaultPage<>(countries, new DefaultPageable(2, entities), 10L * entities));
+  }
+
+  private MutableHttpResponse<?> wrap(MutableHttpRequest<Object> request, Object body) {
+    MutableHttpResponse<Object> response = Fixtures.ok(request, body);
+    return Flowable.fromPublisher(filter.doFilter(request, r -> Flowable.just(response)))
+        .blockingFirst();
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.benchmarks;
+
+import ch.silviowangler.rest.benchmarks.fixtures.BoundsModel;
+import ch.silviowangler.rest.benchmarks.fixtures.Fixtures;
+import ch.silviowangler.rest.benchmarks.fixtures.TreeBoundsModel;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.core.type.Argument;
+import io.micronaut.serde.ObjectMapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Deserializes {@code entities} objects with an integral and a fractional number, once with the
+ * streaming {@code NumberSerde} and once with the former tree based implementation ({@link
+ * ch.silviowangler.rest.benchmarks.fixtures.TreeNumberSerde}). Every second fraction has more
+ * digits than a double represents.
+ *
+ * @author Silvio Wangler
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NumberSerdeBenchmark {
+
+  private static final Argument<List<BoundsModel>> BOUNDS = Argument.listOf(BoundsModel.class);
+  private static final Argument<List<TreeBoundsModel>> TREE_BOUNDS =
+      Argument.listOf(TreeBoundsModel.class);
+
+  @Param({"1000"})
+  public int entities;
+
+  private ApplicationContext context;
+  private ObjectMapper objectMapper;
+  private byte[] json;
+
+  @Setup
+  public void setUp() {
+    context = Fixtures.start(Map.of());
+    objectMapper = context.getBean(ObjectMapper.class);
+
+    StringBuilder builder = new StringBuilder("[");
+    for (int i = 0; i < entities; i++) {
+      if (i > 0) {
+        builder.append(',');
+      }
+      builder.append("{\"min\":").append(i).append(",\"max\":").append(i);
+      builder.append(i % 2 == 0 ? ".5}" : ".12345678901234567890}");
+    }
+    json = builder.append(']').toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public List<BoundsModel> streaming() throws IOException {
+    return objectMapper.readValue(json, BOUNDS);
+  }
+
+  /** The baseline: every number is read into a tree node first. */
+  @Benchmark
+  public List<TreeBoundsModel> tree() throws IOException {
+    return objectMapper.readValue(json, TREE_BOUNDS);
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.benchmarks;
+
+import ch.silviowangler.rest.benchmarks.fixtures.CountriesResource;
+import ch.silviowangler.rest.benchmarks.fixtures.CountryModel;
+import ch.silviowangler.rest.benchmarks.fixtures.Fixtures;
+import ch.silviowangler.rest.benchmarks.fixtures.UncompiledExpands;
+import ch.silviowangler.rest.model.CollectionModel;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.http.MutableHttpRequest;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Expands every entity of a collection with the former per entity resolution ({@link
+ * UncompiledExpands}). The baseline of {@link ExpandPlanBenchmark}: compare its score with {@code
+ * ExpandPlanBenchmark} at {@code planCacheSize=256}, {@code dispatcher=false} and {@code
+ * batch=false}.
+ *
+ * @author Silvio Wangler
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UncompiledExpandBenchmark {
+
+  @Param({"500"})
+  public int entities;
+
+  private ApplicationContext context;
+  private UncompiledExpands expands;
+  private List<CountryModel> countries;
+
+  @Setup
+  public void setUp() {
+    context = Fixtures.start(Map.of());
+    expands = new UncompiledExpands(context);
+    countries = CountriesResource.countries(entities);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public CollectionModel<?> expandCollection() {
+    MutableHttpRequest<Object> request =
+        Fixtures.get(context, "/v1/countries", Map.of("expands", "cities"));
+
+    return expands.expand(request, "cities", Fixtures.collectionModel(countries));
+  }
+}
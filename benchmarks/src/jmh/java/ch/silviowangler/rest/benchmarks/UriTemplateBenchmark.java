@@ -0,0 +1,105 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.benchmarks;
+
+import ch.silviowangler.rest.model.ResourceLink;
+import ch.silviowangler.rest.model.UriTemplate;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Renders a single link with {@link UriTemplate} and with the string operations it replaced.
+ *
+ * <p>{@code *Href} renders the {@code href} of a sub resource ({@code String.format}, {@code
+ * indexOf} and {@code replace} per variable before). {@code *SelfLink} renders the self link of an
+ * entity of a collection with a base URL (concatenation and two {@code URI.create} calls before).
+ * Compare {@code gc.alloc.rate.norm} of the pairs.
+ *
+ * @author Silvio Wangler
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UriTemplateBenchmark {
+
+  private static final String HREF = "/v1/countries/{:country}/cities/{:entity}/municipalities";
+  private static final String BASE_URL = "https://api.example.com";
+  private static final String COLLECTION_URI = "/v1/countries/CHE/cities";
+
+  private Map<String, Object> variables;
+  private StringBuilder builder;
+  private StringBuilder selfLinkBuilder;
+  private int selfLinkPrefixLength;
+
+  @Setup
+  public void setUp() {
+    variables = Map.of("country", "CHE", "id", "ZH");
+    builder = new StringBuilder(64);
+    selfLinkBuilder = new StringBuilder(BASE_URL).append(COLLECTION_URI).append('/');
+    selfLinkPrefixLength = selfLinkBuilder.length();
+  }
+
+  @Benchmark
+  public String legacyHref() {
+    StringBuilder sb = new StringBuilder(HREF);
+
+    for (String argumentName : variables.keySet()) {
+      String placeHolder =
+          String.format("{:%s}", "id".equals(argumentName) ? "entity" : argumentName);
+      int index = sb.indexOf(placeHolder);
+      sb.replace(index, index + placeHolder.length(), String.valueOf(variables.get(argumentName)));
+    }
+    return sb.toString();
+  }
+
+  @Benchmark
+  public String templateHref() {
+    builder.setLength(0);
+    return UriTemplate.of(HREF)
+        .expand(builder, name -> variables.get("entity".equals(name) ? "id" : name))
+        .toString();
+  }
+
+  @Benchmark
+  public ResourceLink legacySelfLink() {
+    ResourceLink link = ResourceLink.selfLink(COLLECTION_URI + "/" + variables.get("id"));
+    return new ResourceLink(
+        link.getRel(), link.getMethod(), URI.create(BASE_URL + link.getHref()), link.getParams());
+  }
+
+  @Benchmark
+  public ResourceLink templateSelfLink() {
+    selfLinkBuilder.setLength(selfLinkPrefixLength);
+    UriTemplate.appendPathSegment(selfLinkBuilder, String.valueOf(variables.get("id")));
+    return ResourceLink.selfLink(selfLinkBuilder.toString());
+  }
+}
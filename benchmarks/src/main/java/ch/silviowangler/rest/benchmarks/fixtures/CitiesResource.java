@@ -0,0 +1,67 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.benchmarks.fixtures;
+
+import ch.silviowangler.rest.micronaut.BatchExpandable;
+import ch.silviowangler.rest.micronaut.ExpandContext;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Stub of a generated controller of the {@code cities} sub resource of {@link CountriesResource}.
+ * It also acts as the delegate that reads the cities of many countries at once.
+ *
+ * @author Silvio Wangler
+ */
+@Controller("/v1/countries/{country}/cities")
+public class CitiesResource implements BatchExpandable<String, CityModel> {
+
+  public static final String OPTIONS_CONTENT =
+      "{\"general\":{\"name\":\"cities\",\"version\":\"1.0.0\"},"
+          + "\"verbs\":[{\"verb\":\"GET_COLLECTION\",\"rel\":\"Read all cities\"}]}";
+
+  @Get
+  public List<CityModel> getCollection(String country) {
+    return List.of(
+        new CityModel(country + "-1", "Capital"),
+        new CityModel(country + "-2", "Second city"),
+        new CityModel(country + "-3", "Third city"));
+  }
+
+  @Override
+  public CompletionStage<Map<String, List<CityModel>>> expandAllAsync(
+      Collection<String> parentIds, ExpandContext context) {
+    Map<String, List<CityModel>> cities = new HashMap<>();
+    for (String country : parentIds) {
+      cities.put(country, getCollection(country));
+    }
+    return CompletableFuture.completedFuture(cities);
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.benchmarks.fixtures;
+
+import ch.silviowangler.rest.micronaut.BatchExpandable;
+import ch.silviowangler.rest.micronaut.ExpandContext;
+import ch.silviowangler.rest.micronaut.ExpandDispatcher;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Singleton;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Stub of the expand dispatcher the REST API Gradle plugin generates for {@link
+ * CountriesResource}. Enabled with {@code benchmarks.expand-dispatcher=true}, the cities of a
+ * collection are read at once if {@code benchmarks.batch-expand=true}.
+ *
+ * @author Silvio Wangler
+ */
+@Singleton
+@Requires(property = "benchmarks.expand-dispatcher", value = "true")
+public class CountriesExpandDispatcher implements ExpandDispatcher {
+
+  private static final Set<String> EXPAND_NAMES = Set.of("cities");
+
+  private final CitiesResource citiesResource;
+  private final boolean batch;
+
+  public CountriesExpandDispatcher(
+      CitiesResource citiesResource, @Value("${benchmarks.batch-expand:false}") boolean batch) {
+    this.citiesResource = citiesResource;
+    this.batch = batch;
+  }
+
+  @Override
+  public Class<?> getResourceClass() {
+    return CountriesResource.class;
+  }
+
+  @Override
+  public Set<String> getExpandNames() {
+    return EXPAND_NAMES;
+  }
+
+  @Override
+  public Object expand(String expandName, ExpandContext context) {
+    switch (expandName) {
+      case "cities":
+        return citiesResource.getCollection(context.pathVariable("country"));
+      default:
+        throw new IllegalArgumentException("Unknown expand " + expandName);
+    }
+  }
+
+  @Override
+  public Optional<BatchExpandable<?, ?>> findBatchExpandable(String expandName) {
+    return batch && "cities".equals(expandName) ? Optional.of(citiesResource) : Optional.empty();
+  }
+}
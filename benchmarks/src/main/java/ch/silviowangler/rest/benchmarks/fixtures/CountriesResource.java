@@ -0,0 +1,108 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.benchmarks.fixtures;
+
+import ch.silviowangler.rest.model.pagination.DefaultPage;
+import ch.silviowangler.rest.model.pagination.DefaultPageable;
+import ch.silviowangler.rest.model.pagination.Page;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.annotation.Body;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.Post;
+import io.micronaut.http.annotation.QueryValue;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stub of a generated controller with the expandable sub resources {@code cities} ({@link
+ * CitiesResource}) and {@code lakes}, {@code mountains}, {@code rivers} and {@code languages}
+ * ({@link GeographyResource}).
+ *
+ * @author Silvio Wangler
+ */
+@Controller("/v1/countries")
+public class CountriesResource {
+
+  private static final long TOTAL_SIZE = 10_000;
+
+  public static final String OPTIONS_CONTENT =
+      "{\"general\":{\"name\":\"countries\",\"version\":\"1.0.0\"},"
+          + "\"verbs\":[{\"verb\":\"GET_COLLECTION\",\"rel\":\"Read all countries\"}],"
+          + "\"subresources\":["
+          + subResource("cities")
+          + ","
+          + subResource(GeographyResource.LAKES)
+          + ","
+          + subResource(GeographyResource.MOUNTAINS)
+          + ","
+          + subResource(GeographyResource.RIVERS)
+          + ","
+          + subResource(GeographyResource.LANGUAGES)
+          + "]}";
+
+  /**
+   * Creates a collection of countries.
+   *
+   * @param size the number of countries.
+   * @return the countries.
+   */
+  public static List<CountryModel> countries(int size) {
+    List<CountryModel> countries = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      countries.add(new CountryModel("C" + i, "Country " + i));
+    }
+    return countries;
+  }
+
+  @Get
+  public Page<CountryModel> getCollection(
+      @QueryValue(defaultValue = "0") int page, @QueryValue(defaultValue = "10") int limit) {
+    List<CountryModel> countries = new ArrayList<>(limit);
+    for (int i = page * limit; i < (page + 1) * limit; i++) {
+      countries.add(new CountryModel("C" + i, "Country " + i));
+    }
+    return new DefaultPage<>(countries, new DefaultPageable(page, limit), TOTAL_SIZE);
+  }
+
+  @Get("/{id}")
+  public CountryModel getEntity(String id) {
+    return new CountryModel(id, "Country " + id);
+  }
+
+  @Post
+  public HttpResponse<CountryModel> createEntity(@Body CountryModel country) {
+    return HttpResponse.created(country);
+  }
+
+  private static String subResource(String name) {
+    return "{\"name\":\""
+        + name
+        + "\",\"type\":\"application/json\",\"rel\":\""
+        + name
+        + "\",\"href\":\"/v1/countries/{:entity}/"
+        + name
+        + "\",\"method\":\"GET\",\"expandable\":true}";
+  }
+}
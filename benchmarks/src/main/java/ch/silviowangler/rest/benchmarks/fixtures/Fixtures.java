@@ -0,0 +1,135 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.benchmarks.fixtures;
+
+import ch.silviowangler.rest.model.CollectionModel;
+import ch.silviowangler.rest.model.EntityModel;
+import ch.silviowangler.rest.model.ResourceModel;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.http.HttpAttributes;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MutableHttpRequest;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.runtime.server.EmbeddedServer;
+import io.micronaut.web.router.Router;
+import io.micronaut.web.router.UriRouteMatch;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts an in-process Micronaut context with the HATEOAS filters and the stub resources of this
+ * package and creates the requests and bodies the benchmarks run against.
+ *
+ * @author Silvio Wangler
+ */
+public final class Fixtures {
+
+  private Fixtures() {
+    // do not create instances of me please
+  }
+
+  /**
+   * Starts an application context with the HATEOAS filters enabled.
+   *
+   * @param properties additional configuration properties.
+   * @return the running context.
+   */
+  public static ApplicationContext start(Map<String, Object> properties) {
+    Map<String, Object> config = new HashMap<>();
+    config.put("restapi.hateoas.filter.enabled", "true");
+    config.put("restapi.hateoas.filter.uri", "/v1/**");
+    config.putAll(properties);
+    return ApplicationContext.run(config);
+  }
+
+  /**
+   * Starts an embedded HTTP server on a random local port with the HATEOAS filters enabled.
+   *
+   * @param properties additional configuration properties.
+   * @return the running server.
+   */
+  public static EmbeddedServer startServer(Map<String, Object> properties) {
+    Map<String, Object> config = new HashMap<>(properties);
+    config.putIfAbsent("micronaut.server.port", -1);
+    config.putIfAbsent("micronaut.server.host", "localhost");
+    return start(config).getBean(EmbeddedServer.class).start();
+  }
+
+  /**
+   * Creates a GET request that carries the route match of the given URI the same way the
+   * Micronaut HTTP server does.
+   *
+   * @param context the application context.
+   * @param path the path of the request.
+   * @param parameters the query parameters of the request.
+   * @return the request.
+   */
+  public static MutableHttpRequest<Object> get(
+      ApplicationContext context, String path, Map<String, String> parameters) {
+
+    UriRouteMatch<Object, Object> routeMatch =
+        context
+            .getBean(Router.class)
+            .GET(path)
+            .orElseThrow(() -> new IllegalArgumentException("No route for " + path));
+
+    MutableHttpRequest<Object> request = HttpRequest.GET(path);
+    parameters.forEach(
+        (name, value) -> request.getParameters().add(name, List.<CharSequence>of(value)));
+    request.setAttribute(HttpAttributes.ROUTE_MATCH, routeMatch);
+    return request;
+  }
+
+  /**
+   * Creates a successful response to the given request that carries the route match of the
+   * request the same way the Micronaut HTTP server does.
+   *
+   * @param request a request created by {@link #get(ApplicationContext, String, Map)}.
+   * @param body the body of the response.
+   * @return the response.
+   */
+  public static MutableHttpResponse<Object> ok(HttpRequest<?> request, Object body) {
+    MutableHttpResponse<Object> response = HttpResponse.ok(body);
+    request
+        .getAttribute(HttpAttributes.ROUTE_MATCH)
+        .ifPresent(routeMatch -> response.setAttribute(HttpAttributes.ROUTE_MATCH, routeMatch));
+    return response;
+  }
+
+  /**
+   * Wraps the given models the same way the {@code HateoasResponseFilter} does (without links).
+   *
+   * @param models the models to wrap.
+   * @return the collection model.
+   */
+  public static <R extends ResourceModel> CollectionModel<R> collectionModel(List<R> models) {
+    CollectionModel<R> collectionModel = new CollectionModel<>();
+    for (R model : models) {
+      collectionModel.getData().add(new EntityModel<>(model));
+    }
+    return collectionModel;
+  }
+}
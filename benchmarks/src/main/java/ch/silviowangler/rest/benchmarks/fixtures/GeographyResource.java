@@ -0,0 +1,65 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.benchmarks.fixtures;
+
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import java.util.List;
+
+/**
+ * Stub of the generated controllers of the further sub resources of {@link CountriesResource}. The
+ * sub resources return the {@link CityModel} fixture since only their number matters.
+ *
+ * @author Silvio Wangler
+ */
+@Controller("/v1/countries/{country}")
+public class GeographyResource {
+
+  public static final String LAKES = "lakes";
+  public static final String MOUNTAINS = "mountains";
+  public static final String RIVERS = "rivers";
+  public static final String LANGUAGES = "languages";
+
+  @Get("/" + LAKES)
+  public List<CityModel> getLakes(String country) {
+    return List.of(new CityModel(country + "-L1", "Lake"));
+  }
+
+  @Get("/" + MOUNTAINS)
+  public List<CityModel> getMountains(String country) {
+    return List.of(
+        new CityModel(country + "-M1", "Mountain"), new CityModel(country + "-M2", "Hill"));
+  }
+
+  @Get("/" + RIVERS)
+  public List<CityModel> getRivers(String country) {
+    return List.of(new CityModel(country + "-R1", "River"));
+  }
+
+  @Get("/" + LANGUAGES)
+  public List<CityModel> getLanguages(String country) {
+    return List.of(
+        new CityModel(country + "-DE", "German"), new CityModel(country + "-FR", "French"));
+  }
+}
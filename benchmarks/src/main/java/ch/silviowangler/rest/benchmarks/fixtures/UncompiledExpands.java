@@ -0,0 +1,157 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.benchmarks.fixtures;
+
+import static io.micronaut.core.naming.NameUtils.hyphenate;
+
+import ch.silviowangler.rest.contract.model.v1.ResourceContract;
+import ch.silviowangler.rest.contract.model.v1.SubResource;
+import ch.silviowangler.rest.micronaut.ContractRegistry;
+import ch.silviowangler.rest.model.CollectionModel;
+import ch.silviowangler.rest.model.EntityModel;
+import ch.silviowangler.rest.model.Expand;
+import ch.silviowangler.rest.model.Identifiable;
+import ch.silviowangler.rest.model.ResourceModel;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.core.convert.ConversionService;
+import io.micronaut.http.HttpAttributes;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.annotation.Header;
+import io.micronaut.inject.ExecutableMethod;
+import io.micronaut.web.router.Router;
+import io.micronaut.web.router.UriRouteMatch;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * The former implementation of the {@code ExpandedGetResponseFilter} that resolves every expand of
+ * every entity from scratch: it looks up the sub resource in the contract, routes the sub resource
+ * URI, looks up the bean and binds the arguments reflectively. Used as the baseline of the expand
+ * plan benchmark.
+ *
+ * @author Silvio Wangler
+ */
+public class UncompiledExpands {
+
+  private final ApplicationContext applicationContext;
+  private final Router router;
+  private final ContractRegistry contractRegistry;
+
+  public UncompiledExpands(ApplicationContext applicationContext) {
+    this.applicationContext = applicationContext;
+    this.router = applicationContext.getBean(Router.class);
+    this.contractRegistry = applicationContext.getBean(ContractRegistry.class);
+  }
+
+  /**
+   * Expands every entity of a collection.
+   *
+   * @param request a request created by {@link Fixtures#get(ApplicationContext, String, Map)}.
+   * @param expands the value of the {@code expands} parameter.
+   * @param body the collection to expand.
+   * @return the expanded collection.
+   */
+  @SuppressWarnings("unchecked")
+  public CollectionModel<? extends ResourceModel> expand(
+      HttpRequest<?> request, String expands, CollectionModel<? extends ResourceModel> body) {
+
+    UriRouteMatch<Object, Object> routeMatch =
+        request.getAttribute(HttpAttributes.ROUTE_MATCH, UriRouteMatch.class).orElseThrow();
+    ResourceContract contract =
+        contractRegistry
+            .findContract(routeMatch.getExecutableMethod().getDeclaringType())
+            .orElseThrow();
+
+    for (EntityModel<? extends ResourceModel> entity : body.getData()) {
+      for (String expandName : expands.trim().split(",")) {
+        Optional<SubResource> subResource =
+            contract.getSubresources().stream()
+                .filter(s -> Objects.equals(expandName, s.getName()))
+                .filter(SubResource::isExpandable)
+                .findAny();
+
+        if (subResource.isEmpty()) {
+          continue;
+        }
+
+        Map<String, Object> variables = new HashMap<>(routeMatch.getVariableValues());
+        variables.put("id", ((Identifiable<?>) entity.getData()).getId());
+
+        String targetUri =
+            subResource.get().getHref().replace("{:entity}", String.valueOf(variables.get("id")));
+
+        Optional<UriRouteMatch<Object, Object>> subResourceMatch = router.GET(targetUri);
+
+        if (subResourceMatch.isEmpty()) {
+          continue;
+        }
+
+        ExecutableMethod<Object, Object> method = subResourceMatch.get().getExecutableMethod();
+        Object bean = applicationContext.getBean(method.getDeclaringType());
+        variables.putAll(subResourceMatch.get().getVariableValues());
+
+        Object[] arguments =
+            Stream.of(method.getArguments())
+                .map(
+                    argument -> {
+                      if (argument.getAnnotationMetadata().hasAnnotation(Header.class)) {
+                        String headerValue =
+                            request
+                                .getHeaders()
+                                .findFirst(hyphenate(argument.getName()))
+                                .orElse(null);
+
+                        if (headerValue != null
+                            && ConversionService.SHARED.canConvert(
+                                headerValue.getClass(), argument.getType())) {
+                          return ConversionService.SHARED
+                              .convert(headerValue, argument.getType())
+                              .get();
+                        }
+                        return headerValue;
+                      }
+                      return variables.getOrDefault(argument.getName(), variables.get("id"));
+                    })
+                .toArray();
+
+        Object result = method.invoke(bean, arguments);
+        Expand expand = new Expand(expandName);
+
+        if (result instanceof Collection) {
+          expand.setData((List<ResourceModel>) result);
+        } else if (result instanceof ResourceModel) {
+          expand.setData(Collections.singletonList((ResourceModel) result));
+        }
+        entity.getExpands().add(expand);
+      }
+    }
+    return body;
+  }
+}
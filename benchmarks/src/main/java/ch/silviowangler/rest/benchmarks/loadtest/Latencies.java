@@ -0,0 +1,90 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.benchmarks.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Collects latencies in nanoseconds. An instance is confined to a single worker thread, the
+ * latencies of all workers are merged after the run.
+ *
+ * @author Silvio Wangler
+ */
+final class Latencies {
+
+  private long[] values = new long[1024];
+  private int size;
+  private int errors;
+
+  void add(long nanos) {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, size * 2);
+    }
+    values[size++] = nanos;
+  }
+
+  void addError() {
+    errors++;
+  }
+
+  /**
+   * @param other the latencies of another worker.
+   * @return this instance.
+   */
+  Latencies merge(Latencies other) {
+    for (int i = 0; i < other.size; i++) {
+      add(other.values[i]);
+    }
+    errors += other.errors;
+    return this;
+  }
+
+  /**
+   * @param seconds the duration of the run.
+   * @return the number of requests and errors, the throughput and the p50 and p99 latency in
+   *     milliseconds (nearest rank).
+   */
+  Map<String, Object> summary(double seconds) {
+    long[] sorted = Arrays.copyOf(values, size);
+    Arrays.sort(sorted);
+
+    Map<String, Object> summary = new LinkedHashMap<>();
+    summary.put("requests", size);
+    summary.put("errors", errors);
+    summary.put("requestsPerSecond", size / seconds);
+    summary.put("p50Millis", percentileMillis(sorted, 50));
+    summary.put("p99Millis", percentileMillis(sorted, 99));
+    return summary;
+  }
+
+  private static double percentileMillis(long[] sorted, double percentile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+    return sorted[Math.max(0, rank - 1)] / 1_000_000.0;
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.benchmarks.loadtest;
+
+import ch.silviowangler.rest.benchmarks.fixtures.Fixtures;
+import io.micronaut.runtime.server.EmbeddedServer;
+import io.micronaut.serde.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Drives the stub resources of the benchmarks on an embedded Micronaut server with a fixed number
+ * of concurrent clients and reports the throughput and the p50/p99 latencies per concurrency level
+ * and {@link Scenario} as JSON.
+ *
+ * <pre>
+ * LoadTest [concurrency levels, e.g. 1,8,32] [seconds per level] [warmup seconds] [report file]
+ *     [label]
+ * </pre>
+ *
+ * <p>Every client sends one request after the other (closed model), so the latencies are not
+ * distorted by queueing in the client. Server and clients run in the same JVM on localhost.
+ *
+ * @author Silvio Wangler
+ */
+public final class LoadTest {
+
+  private final URI baseUri;
+  private final HttpClient client;
+
+  private LoadTest(URI baseUri) {
+    this.baseUri = baseUri;
+    this.client =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+  }
+
+  public static void main(String[] args) throws Exception {
+    List<Integer> concurrencyLevels = new ArrayList<>();
+    for (String level : (args.length > 0 ? args[0] : "1,8,32").split(",")) {
+      concurrencyLevels.add(Integer.parseInt(level.trim()));
+    }
+    Duration duration = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 10);
+    Duration warmup = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 5);
+    Path report = Path.of(args.length > 3 ? args[3] : "loadtest.json");
+    String label = args.length > 4 ? args[4] : "";
+
+    try (EmbeddedServer server = Fixtures.startServer(Map.of())) {
+      LoadTest loadTest = new LoadTest(server.getURI());
+
+      List<Map<String, Object>> levels = new ArrayList<>();
+      for (int concurrency : concurrencyLevels) {
+        loadTest.run(concurrency, warmup);
+        Map<String, Object> level = loadTest.run(concurrency, duration);
+        levels.add(level);
+        System.out.printf(
+            "concurrency %3d: %10.1f req/s, p50 %8.3f ms, p99 %8.3f ms, %d errors%n",
+            concurrency,
+            level.get("requestsPerSecond"),
+            level.get("p50Millis"),
+            level.get("p99Millis"),
+            level.get("errors"));
+      }
+
+      Map<String, Object> result = new LinkedHashMap<>();
+      result.put("label", label);
+      result.put("timestamp", Instant.now().toString());
+      result.put("java", Runtime.version().toString());
+      result.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+      result.put("levels", levels);
+
+      Files.createDirectories(report.toAbsolutePath().getParent());
+      Files.writeString(
+          report,
+          server.getApplicationContext().getBean(ObjectMapper.class).writeValueAsString(result));
+      System.out.println("Report written to " + report.toAbsolutePath());
+    }
+  }
+
+  /** Runs all scenarios with the given number of clients for the given duration. */
+  private Map<String, Object> run(int concurrency, Duration duration)
+      throws InterruptedException, ExecutionException {
+
+    ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+    try {
+      long start = System.nanoTime();
+      long deadline = start + duration.toNanos();
+
+      List<Future<Map<Scenario, Latencies>>> results = new ArrayList<>(concurrency);
+      for (int i = 0; i < concurrency; i++) {
+        int offset = i;
+        results.add(clients.submit(() -> sendRequests(offset, deadline)));
+      }
+
+      Map<Scenario, Latencies> latencies = new EnumMap<>(Scenario.class);
+      for (Future<Map<Scenario, Latencies>> result : results) {
+        result.get().forEach((scenario, l) -> latencies.merge(scenario, l, Latencies::merge));
+      }
+      double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+      Latencies total = new Latencies();
+      Map<String, Object> scenarios = new LinkedHashMap<>();
+      for (Map.Entry<Scenario, Latencies> entry : latencies.entrySet()) {
+        total.merge(entry.getValue());
+        scenarios.put(entry.getKey().getLabel(), entry.getValue().summary(seconds));
+      }
+
+      Map<String, Object> level = new LinkedHashMap<>();
+      level.put("concurrency", concurrency);
+      level.put("seconds", seconds);
+      level.putAll(total.summary(seconds));
+      level.put("scenarios", scenarios);
+      return level;
+    } finally {
+      clients.shutdownNow();
+    }
+  }
+
+  /** Sends the scenarios in turn until the deadline, starting with the given scenario. */
+  private Map<Scenario, Latencies> sendRequests(int offset, long deadline) {
+    Scenario[] scenarios = Scenario.values();
+    Map<Scenario, Latencies> latencies = new EnumMap<>(Scenario.class);
+    for (Scenario scenario : scenarios) {
+      latencies.put(scenario, new Latencies());
+    }
+
+    for (int i = offset; System.nanoTime() - deadline < 0; i++) {
+      Scenario scenario = scenarios[i % scenarios.length];
+      Latencies scenarioLatencies = latencies.get(scenario);
+
+      long start = System.nanoTime();
+      try {
+        HttpResponse<Void> response =
+            client.send(scenario.request(baseUri), HttpResponse.BodyHandlers.discarding());
+
+        if (response.statusCode() == scenario.getExpectedStatus()) {
+          scenarioLatencies.add(System.nanoTime() - start);
+        } else {
+          scenarioLatencies.addError();
+        }
+      } catch (IOException e) {
+        scenarioLatencies.addError();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+    return latencies;
+  }
+}
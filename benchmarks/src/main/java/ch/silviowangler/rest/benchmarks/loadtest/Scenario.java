@@ -0,0 +1,84 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.benchmarks.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+
+/**
+ * The requests of the load test. Every worker sends the scenarios in turn, so each scenario makes
+ * up the same share of the requests.
+ *
+ * @author Silvio Wangler
+ */
+enum Scenario {
+  ENTITY("entity", "GET", "/v1/countries/C42", null, 200),
+  PAGED_COLLECTION("pagedCollection", "GET", "/v1/countries?page=3&limit=20", null, 200),
+  EXPAND_ALL("expandAll", "GET", "/v1/countries/C42?expands=*", null, 200),
+  CREATE("create", "POST", "/v1/countries", "{\"id\":\"NEW\",\"name\":\"New country\"}", 201);
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  private final String label;
+  private final String method;
+  private final String path;
+  private final String body;
+  private final int expectedStatus;
+
+  Scenario(String label, String method, String path, String body, int expectedStatus) {
+    this.label = label;
+    this.method = method;
+    this.path = path;
+    this.body = body;
+    this.expectedStatus = expectedStatus;
+  }
+
+  String getLabel() {
+    return label;
+  }
+
+  int getExpectedStatus() {
+    return expectedStatus;
+  }
+
+  /**
+   * @param baseUri the URI of the server.
+   * @return the request of this scenario.
+   */
+  HttpRequest request(URI baseUri) {
+    HttpRequest.Builder builder =
+        HttpRequest.newBuilder(baseUri.resolve(path))
+            .timeout(TIMEOUT)
+            .header("Accept", "application/json");
+
+    if (body == null) {
+      return builder.method(method, HttpRequest.BodyPublishers.noBody()).build();
+    }
+    return builder
+        .header("Content-Type", "application/json")
+        .method(method, HttpRequest.BodyPublishers.ofString(body))
+        .build();
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.model.pagination;
+
+/**
+ * A slice of a collection that is paginated with opaque cursors instead of page numbers.
+ *
+ * @author Silvio Wangler
+ */
+public interface CursorSlice<T> extends Slice<T> {
+
+  /**
+   * @return The cursor of this slice or {@code null} if this is the first slice.
+   */
+  String getCursor();
+
+  /**
+   * @return The cursor of the next slice or {@code null} if this is the last slice.
+   */
+  String getNextCursor();
+
+  /**
+   * @return The cursor of the previous slice or {@code null} if there is none (or it is unknown).
+   */
+  default String getPreviousCursor() {
+    return null;
+  }
+}
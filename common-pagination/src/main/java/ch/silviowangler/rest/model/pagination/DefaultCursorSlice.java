@@ -0,0 +1,72 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.model.pagination;
+
+import io.micronaut.serde.annotation.Serdeable;
+import java.util.List;
+
+/**
+ * Default implementation of a {@link CursorSlice}.
+ *
+ * @author Silvio Wangler
+ */
+@Serdeable
+public class DefaultCursorSlice<T> extends DefaultSlice<T> implements CursorSlice<T> {
+
+  private final String cursor;
+  private final String nextCursor;
+  private final String previousCursor;
+
+  /**
+   * Constructor to create a cursor slice.
+   *
+   * @param content slice content.
+   * @param size the requested size of the slice.
+   * @param cursor the cursor of this slice ({@code null} for the first slice).
+   * @param nextCursor the cursor of the next slice ({@code null} for the last slice).
+   * @param previousCursor the cursor of the previous slice ({@code null} if there is none).
+   */
+  public DefaultCursorSlice(
+      List<T> content, int size, String cursor, String nextCursor, String previousCursor) {
+    super(content, Pageable.from(0, size));
+    this.cursor = cursor;
+    this.nextCursor = nextCursor;
+    this.previousCursor = previousCursor;
+  }
+
+  @Override
+  public String getCursor() {
+    return this.cursor;
+  }
+
+  @Override
+  public String getNextCursor() {
+    return this.nextCursor;
+  }
+
+  @Override
+  public String getPreviousCursor() {
+    return this.previousCursor;
+  }
+}
@@ -36,6 +36,8 @@ public class GeneratedSpecContainer {
   private String packageName;
   private TypeSpec restInterface;
   private TypeSpec restImplementation;
+  private TypeSpec resourceContract;
+  private TypeSpec expandDispatcher;
   private Collection<TypeSpec> models = new ArrayList<>();
   private Collection<TypeSpec> types = new ArrayList<>();
 
@@ -63,6 +65,22 @@ public class GeneratedSpecContainer {
     this.restImplementation = restImplementation;
   }
 
+  public TypeSpec getResourceContract() {
+    return resourceContract;
+  }
+
+  public void setResourceContract(TypeSpec resourceContract) {
+    this.resourceContract = resourceContract;
+  }
+
+  public TypeSpec getExpandDispatcher() {
+    return expandDispatcher;
+  }
+
+  public void setExpandDispatcher(TypeSpec expandDispatcher) {
+    this.expandDispatcher = expandDispatcher;
+  }
+
   public Collection<TypeSpec> getModels() {
     return models;
   }
@@ -91,6 +109,12 @@ public class GeneratedSpecContainer {
     if (this.restInterface != null) {
       all.add(this.restInterface);
     }
+    if (this.resourceContract != null) {
+      all.add(this.resourceContract);
+    }
+    if (this.expandDispatcher != null) {
+      all.add(this.expandDispatcher);
+    }
     all.addAll(this.models);
     all.addAll(this.types);
     return all;
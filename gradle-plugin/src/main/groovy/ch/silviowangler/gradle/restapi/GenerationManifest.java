@@ -0,0 +1,180 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.gradle.restapi;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Records per specification what the last generation produced, so the next generation only has to
+ * regenerate the changed specifications.
+ *
+ * @author Silvio Wangler
+ */
+public class GenerationManifest {
+
+  private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+  private String settings;
+  private Map<String, Entry> specifications = new TreeMap<>();
+
+  /**
+   * Reads a manifest.
+   *
+   * @param file the manifest file.
+   * @return the manifest or an empty manifest if the file does not exist or cannot be read.
+   */
+  public static GenerationManifest read(File file) {
+    if (file == null || !file.isFile()) {
+      return new GenerationManifest();
+    }
+
+    try (Reader reader = Files.newBufferedReader(file.toPath(), UTF_8)) {
+      GenerationManifest manifest = GSON.fromJson(reader, GenerationManifest.class);
+      return manifest != null && manifest.specifications != null
+          ? manifest
+          : new GenerationManifest();
+    } catch (IOException | JsonParseException e) {
+      // an unreadable manifest leads to a full generation
+      return new GenerationManifest();
+    }
+  }
+
+  /**
+   * Writes the manifest.
+   *
+   * @param file the manifest file.
+   */
+  public void write(File file) {
+    try {
+      Files.createDirectories(file.getParentFile().toPath());
+
+      try (Writer writer = Files.newBufferedWriter(file.toPath(), UTF_8)) {
+        GSON.toJson(this, writer);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to write " + file.getAbsolutePath(), e);
+    }
+  }
+
+  /**
+   * @param file a specification file.
+   * @return the SHA-256 hash of the content of the file.
+   */
+  public static String fingerprint(File file) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(Files.readAllBytes(file.toPath())));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to read " + file.getAbsolutePath(), e);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /** @return the plugin settings the sources were generated with. */
+  public String getSettings() {
+    return settings;
+  }
+
+  public void setSettings(String settings) {
+    this.settings = settings;
+  }
+
+  /** @return the entries by the path of the specification relative to the options source. */
+  public Map<String, Entry> getSpecifications() {
+    return specifications;
+  }
+
+  /** What the last generation produced for a specification. */
+  public static class Entry {
+
+    private String fingerprint;
+    private List<String> definedTypes = new ArrayList<>();
+    private List<String> resourceTypes = new ArrayList<>();
+    private List<String> outputs = new ArrayList<>();
+    private List<String> implementationOutputs = new ArrayList<>();
+
+    /** @return the fingerprint of the specification. */
+    public String getFingerprint() {
+      return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+      this.fingerprint = fingerprint;
+    }
+
+    /** @return the normalized names of the custom types the specification defines. */
+    public List<String> getDefinedTypes() {
+      return definedTypes;
+    }
+
+    public void setDefinedTypes(List<String> definedTypes) {
+      this.definedTypes = definedTypes;
+    }
+
+    /** @return the resource types the specification contributes to the registry. */
+    public List<String> getResourceTypes() {
+      return resourceTypes;
+    }
+
+    public void setResourceTypes(List<String> resourceTypes) {
+      this.resourceTypes = resourceTypes;
+    }
+
+    /** @return the generated files, relative to the generator output. */
+    public List<String> getOutputs() {
+      return outputs;
+    }
+
+    public void setOutputs(List<String> outputs) {
+      this.outputs = outputs;
+    }
+
+    /** @return the generated implementations, relative to the implementation directory. */
+    public List<String> getImplementationOutputs() {
+      return implementationOutputs;
+    }
+
+    public void setImplementationOutputs(List<String> implementationOutputs) {
+      this.implementationOutputs = implementationOutputs;
+    }
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.gradle.restapi;
+
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.util.Map;
+
+/**
+ * The settings of the {@link RestApiExtension} the generated sources depend on. Unlike the
+ * extension the settings are serializable and can be read while the task executes, e.g. from the
+ * configuration cache.
+ *
+ * @author Silvio Wangler
+ * @see ch.silviowangler.gradle.restapi.tasks.GenerateRestApiTask#settingsOf(RestApiExtension)
+ */
+public final class GenerationSettings implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String packageName;
+  private final TargetFramework targetFramework;
+  private final GenerationMode generationMode;
+  private final String responseEncoding;
+  private final String clientId;
+  private final boolean generateDateAttribute;
+  private final boolean enableSecurity;
+  private final boolean generateResourceContracts;
+  private final boolean generateExpandDispatchers;
+  private final boolean generateBatchExpandables;
+  private final boolean generateAsyncDelegates;
+  private final boolean generateStreamingRepresentations;
+  private final boolean reproducibleSources;
+
+  private GenerationSettings(Map<String, String> settings) {
+    this.packageName = settings.get("packageName");
+    this.targetFramework =
+        TargetFramework.valueOf(
+            settings.getOrDefault("targetFramework", TargetFramework.MICRONAUT_4.name()));
+    this.generationMode =
+        GenerationMode.valueOf(settings.getOrDefault("generationMode", GenerationMode.ALL.name()));
+    this.responseEncoding = settings.get("responseEncoding");
+    this.clientId = settings.get("clientId");
+    this.generateDateAttribute =
+        Boolean.parseBoolean(settings.getOrDefault("generateDateAttribute", "true"));
+    this.enableSecurity = Boolean.parseBoolean(settings.get("enableSecurity"));
+    this.generateResourceContracts =
+        Boolean.parseBoolean(settings.get("generateResourceContracts"));
+    this.generateExpandDispatchers =
+        Boolean.parseBoolean(settings.get("generateExpandDispatchers"));
+    this.generateBatchExpandables = Boolean.parseBoolean(settings.get("generateBatchExpandables"));
+    this.generateAsyncDelegates = Boolean.parseBoolean(settings.get("generateAsyncDelegates"));
+    this.generateStreamingRepresentations =
+        Boolean.parseBoolean(settings.get("generateStreamingRepresentations"));
+    this.reproducibleSources = Boolean.parseBoolean(settings.get("reproducibleSources"));
+  }
+
+  /**
+   * Reads the settings of the {@code generationSettings} input of the generate task.
+   *
+   * @param settings the settings by name. Missing settings have the default of the extension.
+   * @return the settings.
+   */
+  public static GenerationSettings of(Map<String, String> settings) {
+    return new GenerationSettings(settings);
+  }
+
+  public String getPackageName() {
+    return packageName;
+  }
+
+  public TargetFramework getTargetFramework() {
+    return targetFramework;
+  }
+
+  public GenerationMode getGenerationMode() {
+    return generationMode;
+  }
+
+  /**
+   * @return the response encoding or null if none is configured.
+   */
+  public Charset getResponseEncoding() {
+    return responseEncoding != null ? Charset.forName(responseEncoding) : null;
+  }
+
+  public String getClientId() {
+    return clientId;
+  }
+
+  public boolean isGenerateDateAttribute() {
+    return generateDateAttribute;
+  }
+
+  public boolean isEnableSecurity() {
+    return enableSecurity;
+  }
+
+  public boolean isGenerateResourceContracts() {
+    return generateResourceContracts;
+  }
+
+  public boolean isGenerateExpandDispatchers() {
+    return generateExpandDispatchers;
+  }
+
+  public boolean isGenerateBatchExpandables() {
+    return generateBatchExpandables;
+  }
+
+  public boolean isGenerateAsyncDelegates() {
+    return generateAsyncDelegates;
+  }
+
+  public boolean isGenerateStreamingRepresentations() {
+    return generateStreamingRepresentations;
+  }
+
+  public boolean isReproducibleSources() {
+    return reproducibleSources;
+  }
+}
@@ -134,7 +134,26 @@ public enum PluginTypes {
   MICRONAUT_EXECUTE_ON(ClassName.get("io.micronaut.scheduling.annotation", "ExecuteOn")),
   VALIDATION_PHONE_NUMBER(ClassName.get("ch.silviowangler.rest.model", "PhoneNumber")),
   COLLECTION_MODEL(ClassName.get("ch.silviowangler.rest.model", "CollectionModel")),
-  ENTITY_MODEL(ClassName.get("ch.silviowangler.rest.model", "EntityModel"));
+  ENTITY_MODEL(ClassName.get("ch.silviowangler.rest.model", "EntityModel")),
+  RESTAPI_RESOURCE_CONTRACT_PROVIDER(
+      ClassName.get("ch.silviowangler.rest.micronaut", "ResourceContractProvider")),
+  RESTAPI_EXPAND_DISPATCHER(ClassName.get("ch.silviowangler.rest.micronaut", "ExpandDispatcher")),
+  RESTAPI_EXPAND_CONTEXT(ClassName.get("ch.silviowangler.rest.micronaut", "ExpandContext")),
+  RESTAPI_BATCH_EXPANDABLE(ClassName.get("ch.silviowangler.rest.micronaut", "BatchExpandable")),
+  REACTIVE_STREAMS_PUBLISHER(ClassName.get("org.reactivestreams", "Publisher")),
+  RESTAPI_REPRESENTATION_WRITER(
+      ClassName.get("ch.silviowangler.rest.micronaut", "RepresentationWriter")),
+  CONTRACT_RESOURCE_CONTRACT(ClassName.get(Constants.PACKAGE_CONTRACT_MODEL, "ResourceContract")),
+  CONTRACT_GENERAL_DETAILS(ClassName.get(Constants.PACKAGE_CONTRACT_MODEL, "GeneralDetails")),
+  CONTRACT_VERB(ClassName.get(Constants.PACKAGE_CONTRACT_MODEL, "Verb")),
+  CONTRACT_RESPONSE_STATE(ClassName.get(Constants.PACKAGE_CONTRACT_MODEL, "ResponseState")),
+  CONTRACT_REPRESENTATION(ClassName.get(Constants.PACKAGE_CONTRACT_MODEL, "Representation")),
+  CONTRACT_VERB_PARAMETER(ClassName.get(Constants.PACKAGE_CONTRACT_MODEL, "VerbParameter")),
+  CONTRACT_HEADER(ClassName.get(Constants.PACKAGE_CONTRACT_MODEL, "Header")),
+  CONTRACT_RESOURCE_FIELD(ClassName.get(Constants.PACKAGE_CONTRACT_MODEL, "ResourceField")),
+  CONTRACT_SUB_RESOURCE(ClassName.get(Constants.PACKAGE_CONTRACT_MODEL, "SubResource")),
+  CONTRACT_RESOURCE_TYPES(ClassName.get(Constants.PACKAGE_CONTRACT_MODEL, "ResourceTypes")),
+  CONTRACT_CUSTOM_TYPE_FIELD(ClassName.get(Constants.PACKAGE_CONTRACT_MODEL, "CustomTypeField"));
 
   private final TypeName typeName;
 
@@ -161,5 +180,6 @@ public enum PluginTypes {
     public static final String PACKAGE_IO_MICRONAUT_HTTP_CLIENT_ANNOTATION =
         "io.micronaut.http.client.annotation";
     public static final String PACKAGE_IO_MICRONAUT_HTTP = "io.micronaut.http";
+    public static final String PACKAGE_CONTRACT_MODEL = "ch.silviowangler.rest.contract.model.v1";
   }
 }
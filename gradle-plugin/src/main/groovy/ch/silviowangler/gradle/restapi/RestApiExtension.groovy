@@ -49,6 +49,52 @@ class RestApiExtension {
 	boolean diagramShowFields = false
 	GenerationMode generationMode = GenerationMode.ALL
 	String clientId = "osl"
+	/**
+	 * Generates a {@code ResourceContractProvider} per resource that creates the resource contract in Java code.
+	 * The Micronaut runtime uses it instead of parsing the {@code OPTIONS_CONTENT} of the resource.
+	 */
+	boolean generateResourceContracts = false
+	/**
+	 * Generates an {@code ExpandDispatcher} per resource with expandable sub resources. The dispatcher calls the
+	 * delegates of the sub resources directly instead of routing and invoking them reflectively.
+	 */
+	boolean generateExpandDispatchers = false
+	/**
+	 * Lets the generated delegate of every expandable sub resource implement {@code BatchExpandable}. Requires
+	 * {@link #generateExpandDispatchers}.
+	 */
+	boolean generateBatchExpandables = false
+	/**
+	 * Lets the GET and HEAD methods of the generated controllers and delegates return a {@code CompletionStage}.
+	 * The HATEOAS and expand filters await the results without blocking.
+	 */
+	boolean generateAsyncDelegates = false
+	/**
+	 * Lets the generated controllers stream the {@code ndjson} and {@code csv} representations of {@code GET_COLLECTION}
+	 * verbs row by row. The delegates return an {@code Iterator} (or a {@code Publisher} if async delegates are
+	 * generated) of the models.
+	 */
+	boolean generateStreamingRepresentations = false
+	/**
+	 * Validates, generates and writes the specifications that do not depend on each other's custom types in parallel.
+	 * The generation uses the Gradle worker API. The generated sources are identical to the ones of the sequential
+	 * generation.
+	 */
+	boolean parallelGeneration = false
+	/**
+	 * Leaves the timestamp out of the {@code @Generated} annotations regardless of {@link #generateDateAttribute}. The
+	 * same specifications always result in the same sources.
+	 */
+	boolean reproducibleSources = false
+	/**
+	 * Only replaces a generated source if its content differs from the existing file. Unchanged sources keep their
+	 * modification time.
+	 * <p>
+	 * Only incremental runs benefit from this option. On a non-incremental run (e.g. the first build, changed
+	 * {@code restApi} settings or a changed plugin version) Gradle deletes the outputs of the task before it runs, so
+	 * every source is written again.
+	 */
+	boolean skipUnchangedSources = false
 
 	RestApiExtension(Project project) {
 		this.project = project
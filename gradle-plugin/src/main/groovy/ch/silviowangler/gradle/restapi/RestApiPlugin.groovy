@@ -27,7 +27,10 @@ import ch.silviowangler.gradle.restapi.tasks.CleanRestApiTask
 import ch.silviowangler.gradle.restapi.tasks.ExtractRestApiSpecsTask
 import ch.silviowangler.gradle.restapi.tasks.GenerateRestApiAsciiDocTask
 import ch.silviowangler.gradle.restapi.tasks.GenerateRestApiTask
+import ch.silviowangler.gradle.restapi.tasks.InstallRestImplementationsTask
 import ch.silviowangler.gradle.restapi.tasks.PlantUmlTask
+import ch.silviowangler.gradle.restapi.tasks.RestApiGenerationService
+import ch.silviowangler.gradle.restapi.tasks.SpecificationBaseTask
 import ch.silviowangler.gradle.restapi.tasks.ValidationTask
 import org.gradle.api.NamedDomainObjectProvider
 import org.gradle.api.Plugin
@@ -53,39 +56,69 @@ class RestApiPlugin implements Plugin<Project> {
 		project.apply(plugin: 'java-library')
 
 		RestApiExtension extension = project.extensions.create('restApi', RestApiExtension)
-		Provider<TargetFramework> tf = project.provider { extension.targetFramework }
 		Provider<GenerationMode> generationMode = project.provider { extension.generationMode }
 
-		project.afterEvaluate {
-			println "Generating rest api for project ${project.name} using target framework ${tf.get().name()}"
+		project.configurations.maybeCreate(CONFIGURATION_REST_API)
+
+		project.tasks.withType(SpecificationBaseTask).configureEach { SpecificationBaseTask t ->
+			t.specificationDirectory.fileProvider(project.provider { extension.optionsSource ?: new File(GeneratorUtil.generatorInput(project), 'spec') })
+			t.inputProcessingMode.convention(project.provider { extension.inputProcessingMode })
+		}
+
+		Provider<RestApiGenerationService> generationService = project.gradle.sharedServices.registerIfAbsent(RestApiGenerationService.NAME, RestApiGenerationService) {}
+
+		TaskProvider<GenerateRestApiTask> generate = project.tasks.register('generateRestArtifacts', GenerateRestApiTask) { GenerateRestApiTask t ->
+			t.group = TASK_GROUP_REST_API
+			t.outputDirectory.fileProvider(project.provider { extension.generatorOutput })
+			t.implementationDirectory.convention(project.layout.buildDirectory.dir('restApi/implementations'))
+			t.generationSettings.set(project.provider { GenerateRestApiTask.settingsOf(extension) })
+			t.skipUnchangedSources.set(project.provider { extension.skipUnchangedSources })
+			t.parallelGeneration.set(project.provider { extension.parallelGeneration })
+			t.manifestFile.convention(project.layout.buildDirectory.file('restApi/generation-manifest.json'))
+			t.generationService.set(generationService)
+			t.usesService(generationService)
+		}
+
+		TaskProvider<InstallRestImplementationsTask> install = project.tasks.register('installRestImplementations', InstallRestImplementationsTask) { InstallRestImplementationsTask t ->
+			t.group = TASK_GROUP_REST_API
+			t.implementationDirectory.set(generate.flatMap { it.implementationDirectory })
+			t.generatorImplOutput.fileProvider(project.provider { extension.generatorImplOutput })
 		}
 
 		TaskProvider<CleanRestApiTask> clean = project.tasks.register('cleanRestArtifacts', CleanRestApiTask) { CleanRestApiTask t ->
 			t.group = TASK_GROUP_REST_API
+			t.generatorOutput.fileProvider(project.provider { extension.generatorOutput })
+			t.manifestFile.set(generate.flatMap { it.manifestFile })
 		}
 
 		TaskProvider<ExtractRestApiSpecsTask> extract = project.tasks.register('extractSpecs', ExtractRestApiSpecsTask) { ExtractRestApiSpecsTask t ->
 			t.group = TASK_GROUP_REST_API
+			t.specArchives.from(project.configurations.named(CONFIGURATION_REST_API))
+			t.extractOutputDir.set(GeneratorUtil.generatorInput(project))
 		}
 
 		TaskProvider<ValidationTask> validate = project.tasks.register('validateRestSpecs', ValidationTask) { ValidationTask t ->
 			t.group = TASK_GROUP_REST_API
+			t.responseEncoding.set(project.provider { extension.responseEncoding?.name() })
+			t.parallelGeneration.set(project.provider { extension.parallelGeneration })
 			if (ExtractRestApiSpecsTask.isConfigurationRestApiDefined(project)) {
 				t.dependsOn(extract)
 			}
 		}
 
-		TaskProvider<GenerateRestApiTask> generate = project.tasks.register('generateRestArtifacts', GenerateRestApiTask) { GenerateRestApiTask t ->
-			t.group = TASK_GROUP_REST_API
+		generate.configure { GenerateRestApiTask t ->
 			t.dependsOn(validate)
 		}
 
 		project.tasks.register('generateDiagrams', PlantUmlTask) { PlantUmlTask t ->
 			t.group = TASK_GROUP_REST_API
+			t.outputDirectory.fileProvider(project.provider { extension.diagramOutput })
+			t.showFields.set(project.provider { extension.diagramShowFields })
 		}
 
 		project.tasks.register('generateAsciiDocs', GenerateRestApiAsciiDocTask) { GenerateRestApiAsciiDocTask t ->
 			t.group = TASK_GROUP_REST_API
+			t.outputDirectory.fileProvider(project.provider { extension.asciiDocOutput })
 		}
 
 		project.tasks.named('clean').configure {
@@ -93,7 +126,7 @@ class RestApiPlugin implements Plugin<Project> {
 		}
 
 		project.tasks.named('compileJava').configure { JavaCompile task ->
-			task.dependsOn(generate)
+			task.dependsOn(generate, install)
 			task.options.encoding = 'UTF-8'
 		}
 
@@ -101,9 +134,7 @@ class RestApiPlugin implements Plugin<Project> {
 			task.options.encoding = 'UTF-8'
 		}
 
-		project.sourceSets.main.java.srcDir { project.restApi.generatorOutput }
-
-		project.configurations.maybeCreate(CONFIGURATION_REST_API)
+		project.sourceSets.main.java.srcDir(generate.flatMap { it.outputDirectory })
 
 		final String pluginVersion = "3.0.25"
 		final String libPhoneNumberVersion = "8.11.5"
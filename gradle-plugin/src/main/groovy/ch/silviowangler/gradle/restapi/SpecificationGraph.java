@@ -0,0 +1,204 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.gradle.restapi;
+
+import static ch.silviowangler.gradle.restapi.builder.ResourceBuilder.JavaTypeRegistry.isSupportedDataType;
+
+import ch.silviowangler.rest.contract.model.v1.FieldType;
+import ch.silviowangler.rest.contract.model.v1.ResourceContract;
+import ch.silviowangler.rest.contract.model.v1.ResourceTypes;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The dependencies between specifications. A specification depends on another one if it has a
+ * field of a custom type ({@link ResourceTypes}) that the other specification defines.
+ *
+ * <p>The specifications are grouped into levels. The specifications of a level only depend on the
+ * specifications of the levels before it and can therefore be processed concurrently. Within a
+ * level the specifications are ordered by the {@link ResourceFileComparator}.
+ *
+ * @author Silvio Wangler
+ */
+public class SpecificationGraph {
+
+  private final List<List<File>> levels;
+  private final Map<File, Set<String>> definedTypes;
+  private final Map<File, Set<String>> referencedTypes;
+
+  private SpecificationGraph(
+      List<List<File>> levels,
+      Map<File, Set<String>> definedTypes,
+      Map<File, Set<String>> referencedTypes) {
+    this.levels = levels;
+    this.definedTypes = definedTypes;
+    this.referencedTypes = referencedTypes;
+  }
+
+  /**
+   * @param contracts the contracts of all specifications.
+   * @return the dependency graph of the specifications.
+   * @throws IllegalArgumentException if specifications depend on each other.
+   */
+  public static SpecificationGraph of(Map<File, ResourceContract> contracts) {
+
+    Map<String, List<File>> definingSpecs = new HashMap<>();
+    Map<File, Set<String>> definedTypesBySpec = new HashMap<>();
+    Map<File, Set<String>> referencedTypesBySpec = new HashMap<>();
+
+    for (Map.Entry<File, ResourceContract> entry : contracts.entrySet()) {
+      definedTypesBySpec.put(entry.getKey(), definedTypes(entry.getValue()));
+      referencedTypesBySpec.put(entry.getKey(), referencedTypes(entry.getValue()));
+
+      for (String type : definedTypesBySpec.get(entry.getKey())) {
+        definingSpecs.computeIfAbsent(type, t -> new ArrayList<>()).add(entry.getKey());
+      }
+    }
+
+    Map<File, Set<File>> dependencies = new LinkedHashMap<>();
+
+    for (File spec : contracts.keySet()) {
+      Set<String> ownTypes = definedTypesBySpec.get(spec);
+      Set<File> specDependencies = new LinkedHashSet<>();
+
+      for (String type : referencedTypesBySpec.get(spec)) {
+        // a specification refers to its own type even if another specification defines it too
+        if (!ownTypes.contains(type)) {
+          specDependencies.addAll(definingSpecs.getOrDefault(type, Collections.emptyList()));
+        }
+      }
+      dependencies.put(spec, specDependencies);
+    }
+    return new SpecificationGraph(levels(dependencies), definedTypesBySpec, referencedTypesBySpec);
+  }
+
+  private static List<List<File>> levels(Map<File, Set<File>> dependencies) {
+
+    List<List<File>> levels = new ArrayList<>();
+    Set<File> processed = new LinkedHashSet<>();
+    ResourceFileComparator comparator = new ResourceFileComparator();
+
+    while (processed.size() < dependencies.size()) {
+      List<File> level =
+          dependencies.entrySet().stream()
+              .filter(entry -> !processed.contains(entry.getKey()))
+              .filter(entry -> processed.containsAll(entry.getValue()))
+              .map(Map.Entry::getKey)
+              .sorted(comparator)
+              .collect(Collectors.toList());
+
+      if (level.isEmpty()) {
+        List<String> cycle =
+            dependencies.keySet().stream()
+                .filter(spec -> !processed.contains(spec))
+                .map(File::getName)
+                .sorted()
+                .collect(Collectors.toList());
+        throw new IllegalArgumentException(
+            String.format("The specifications %s use the custom types of each other", cycle));
+      }
+      processed.addAll(level);
+      levels.add(Collections.unmodifiableList(level));
+    }
+    return Collections.unmodifiableList(levels);
+  }
+
+  private static Set<String> definedTypes(ResourceContract contract) {
+    Set<String> types = new LinkedHashSet<>();
+
+    for (ResourceTypes type : nullSafe(contract.getTypes())) {
+      types.add(normalize(type.getName()));
+    }
+    return types;
+  }
+
+  private static Set<String> referencedTypes(ResourceContract contract) {
+    Set<String> types = new LinkedHashSet<>();
+
+    addCustomTypes(types, contract.getFields());
+
+    for (ResourceTypes type : nullSafe(contract.getTypes())) {
+      addCustomTypes(types, type.getFields());
+    }
+    return types;
+  }
+
+  private static void addCustomTypes(Set<String> types, Collection<? extends FieldType> fields) {
+    for (FieldType field : nullSafe(fields)) {
+      if (field.getType() != null && !isSupportedDataType(field.getType()) && !field.isEnumType()) {
+        types.add(normalize(field.getType()));
+      }
+    }
+  }
+
+  /**
+   * Custom types are resolved by their case insensitive name.
+   *
+   * @param type the name of a custom type.
+   * @return the normalized name.
+   */
+  public static String normalize(String type) {
+    return type.toLowerCase(Locale.ROOT);
+  }
+
+  private static <T> Collection<T> nullSafe(Collection<T> collection) {
+    return collection != null ? collection : Collections.emptyList();
+  }
+
+  /** @return the specifications grouped into levels, in the order they must be processed. */
+  public List<List<File>> getLevels() {
+    return levels;
+  }
+
+  /** @return all specifications in the order they must be processed. */
+  public List<File> getSpecifications() {
+    return levels.stream().flatMap(List::stream).collect(Collectors.toList());
+  }
+
+  /**
+   * @param spec a specification of the graph.
+   * @return the normalized names of the custom types the specification defines.
+   */
+  public Set<String> getDefinedTypes(File spec) {
+    return definedTypes.getOrDefault(spec, Collections.emptySet());
+  }
+
+  /**
+   * @param spec a specification of the graph.
+   * @return the normalized names of the custom types the specification uses.
+   */
+  public Set<String> getReferencedTypes(File spec) {
+    return referencedTypes.getOrDefault(spec, Collections.emptySet());
+  }
+}
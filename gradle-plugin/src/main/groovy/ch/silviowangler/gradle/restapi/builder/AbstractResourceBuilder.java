@@ -23,8 +23,8 @@
  */
 package ch.silviowangler.gradle.restapi.builder;
 
+import ch.silviowangler.gradle.restapi.GenerationSettings;
 import ch.silviowangler.gradle.restapi.LinkParser;
-import ch.silviowangler.gradle.restapi.RestApiExtension;
 import ch.silviowangler.gradle.restapi.TargetFramework;
 import ch.silviowangler.gradle.restapi.UnsupportedDataTypeException;
 import ch.silviowangler.rest.contract.model.v1.CustomTypeField;
@@ -51,16 +51,19 @@ import java.nio.charset.Charset;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletionStage;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -82,6 +85,7 @@ import static ch.silviowangler.gradle.restapi.PluginTypes.JAVAX_VALIDATION_NOT_N
 import static ch.silviowangler.gradle.restapi.PluginTypes.JAVAX_VALIDATION_SIZE;
 import static ch.silviowangler.gradle.restapi.PluginTypes.MICRONAUT_HTTP_RESPONSE;
 import static ch.silviowangler.gradle.restapi.PluginTypes.MICRONAUT_SERDEABLE;
+import static ch.silviowangler.gradle.restapi.PluginTypes.REACTIVE_STREAMS_PUBLISHER;
 import static ch.silviowangler.gradle.restapi.PluginTypes.RESTAPI_IDENTIFIABLE;
 import static ch.silviowangler.gradle.restapi.PluginTypes.RESTAPI_RESOURCE_MODEL;
 import static ch.silviowangler.gradle.restapi.PluginTypes.VALIDATION_PHONE_NUMBER;
@@ -105,6 +109,8 @@ import static javax.lang.model.element.Modifier.STATIC;
  */
 public abstract class AbstractResourceBuilder implements ResourceBuilder {
 
+  private static final List<String> STREAMING_REPRESENTATIONS = Arrays.asList("ndjson", "csv");
+
   private TypeSpec.Builder typeBuilder;
   private ResourceContractContainer resourceContractContainer;
   private Verb currentVerb;
@@ -112,10 +118,10 @@ public abstract class AbstractResourceBuilder implements ResourceBuilder {
   private boolean printTimestamp = true;
   private ArtifactType artifactType;
   private Charset responseEncoding;
-  private final RestApiExtension restApiExtension;
+  private final GenerationSettings settings;
 
-  protected AbstractResourceBuilder(RestApiExtension restApiExtension) {
-    this.restApiExtension = restApiExtension;
+  protected AbstractResourceBuilder(GenerationSettings settings) {
+    this.settings = settings;
   }
 
 
@@ -157,6 +163,10 @@ public abstract class AbstractResourceBuilder implements ResourceBuilder {
     return this;
   }
 
+  protected boolean isPrintTimestamp() {
+    return printTimestamp;
+  }
+
   @Override
   public ResourceBuilder withCurrentPackageName(String packageName) {
     this.currentPackageName = packageName;
@@ -174,7 +184,7 @@ public abstract class AbstractResourceBuilder implements ResourceBuilder {
     Representation representation = Representation.json(this.responseEncoding);
 
     MethodContext context =
-        new MethodContext(methodName, getMethodNowAllowedReturnType(), representation, this.restApiExtension.getTargetFramework());
+        new MethodContext(methodName, getMethodNowAllowedReturnType(), representation, this.settings.getTargetFramework());
     MethodSpec.Builder builder = createMethod(context);
     generateMethodNotAllowedStatement(builder);
 
@@ -185,7 +195,7 @@ public abstract class AbstractResourceBuilder implements ResourceBuilder {
   public MethodSpec.Builder createMethod(String methodName, TypeName returnType) {
     Representation representation = Representation.json(this.responseEncoding);
 
-    MethodContext context = new MethodContext(methodName, returnType, representation, this.restApiExtension.getTargetFramework());
+    MethodContext context = new MethodContext(methodName, returnType, representation, this.settings.getTargetFramework());
     return createMethod(context);
   }
 
@@ -317,7 +327,7 @@ public abstract class AbstractResourceBuilder implements ResourceBuilder {
                 representation,
                 pathParams,
                 parser,
-                this.restApiExtension.getTargetFramework());
+                this.settings.getTargetFramework());
 
         TypeName rawReturnType;
 
@@ -339,7 +349,7 @@ public abstract class AbstractResourceBuilder implements ResourceBuilder {
                 representation,
                 pathParams,
                 parser,
-                this.restApiExtension.getTargetFramework());
+                this.settings.getTargetFramework());
 
         TypeName hateoasReturnType;
         if (returnType == TypeName.VOID) {
@@ -366,7 +376,7 @@ public abstract class AbstractResourceBuilder implements ResourceBuilder {
                 representation,
                 pathParams,
                 parser,
-                this.restApiExtension.getTargetFramework());
+                this.settings.getTargetFramework());
 
         if (GET_COLLECTION.equals(verb.getVerb())) {
 
@@ -474,6 +484,63 @@ public abstract class AbstractResourceBuilder implements ResourceBuilder {
     }
   }
 
+  /**
+   * The return type of a resource method. If async delegates are generated, the read methods of all
+   * artifacts but the client return a {@link CompletionStage} of it. Delegates of streamed
+   * representations return the rows as an {@link Iterator} (or a {@code Publisher} if async
+   * delegates are generated), the controller returns the streamed response.
+   */
+  private TypeName serverMethodReturnType(Verb verb, Representation representation) {
+    boolean streaming = isStreamingRepresentation(verb, representation);
+
+    if (streaming && isResourceImpl()) {
+      ClassName rows =
+          this.settings.isGenerateAsyncDelegates()
+              ? REACTIVE_STREAMS_PUBLISHER.getClassName()
+              : ClassName.get(Iterator.class);
+      return ParameterizedTypeName.get(rows, resourceModelName(verb));
+    }
+
+    TypeName returnType = resourceMethodReturnType(verb, representation);
+
+    if (!this.settings.isGenerateAsyncDelegates()
+        || streaming
+        || CLIENT.equals(getArtifactType())
+        || !(GET_METHODS.contains(verb.getVerb()) || HEAD_METHODS.contains(verb.getVerb()))) {
+      return returnType;
+    }
+    return ParameterizedTypeName.get(ClassName.get(CompletionStage.class), returnType.box());
+  }
+
+  /**
+   * The {@code ndjson} and {@code csv} representations of a {@code GET_COLLECTION} verb are
+   * streamed if enabled. The verb needs a JSON representation as well since the rows are its GET
+   * models.
+   */
+  protected boolean isStreamingRepresentation(Verb verb, Representation representation) {
+    return this.settings.isGenerateStreamingRepresentations()
+        && GET_COLLECTION.equals(verb.getVerb())
+        && STREAMING_REPRESENTATIONS.contains(representation.getName())
+        && verb.containsRepresentationJson();
+  }
+
+  @Override
+  public boolean isStreamingRepresentation(MethodContext context) {
+    return getCurrentVerb() != null
+        && isStreamingRepresentation(getCurrentVerb(), context.getRepresentation());
+  }
+
+  /**
+   * @return true if a verb of the resource has a streamed representation.
+   */
+  protected boolean hasStreamingRepresentations() {
+    return getResourceContractContainer().getResourceContract().getVerbs().stream()
+        .anyMatch(
+            verb ->
+                verb.getRepresentations().stream()
+                    .anyMatch(representation -> isStreamingRepresentation(verb, representation)));
+  }
+
   @Override
   public void generateResourceMethods() {
 
@@ -525,14 +592,14 @@ public abstract class AbstractResourceBuilder implements ResourceBuilder {
 
         MethodContext context =
             new MethodContext(
-                resourceMethodReturnType(verb, representation),
+                serverMethodReturnType(verb, representation),
                 verb.getParameters(),
                 verb.getHeaders(),
                 paramClasses,
                 representation,
                 pathParams,
                 parser,
-                this.restApiExtension.getTargetFramework());
+                this.settings.getTargetFramework());
 
         if (GET_COLLECTION.equals(verb.getVerb())) {
 
@@ -803,7 +870,7 @@ public abstract class AbstractResourceBuilder implements ResourceBuilder {
         if (field.getxComment() != null) {
           fieldBuilder.addJavadoc(String.format("%s\n", field.getxComment()));
         }
-        TargetFramework targetFramework = this.restApiExtension.getTargetFramework();
+        TargetFramework targetFramework = this.settings.getTargetFramework();
 
         if (field.getMandatory().stream().anyMatch(v -> v.equalsIgnoreCase(verb.getVerb()))) {
           fieldBuilder.addAnnotation(createAnnotation(targetFramework.isJakarta() ? JAKARTA_VALIDATION_NOT_NULL : JAVAX_VALIDATION_NOT_NULL));
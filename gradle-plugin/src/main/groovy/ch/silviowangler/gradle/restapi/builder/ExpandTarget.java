@@ -0,0 +1,72 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.gradle.restapi.builder;
+
+import ch.silviowangler.rest.contract.model.v1.SubResource;
+import ch.silviowangler.rest.contract.model.v1.Verb;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.MethodSpec;
+
+/**
+ * An expandable sub resource together with the delegate method that reads it.
+ *
+ * @author Silvio Wangler
+ */
+public class ExpandTarget {
+
+  private final SubResource subResource;
+  private final ClassName delegate;
+  private final MethodSpec method;
+  private final Verb verb;
+
+  /**
+   * @param subResource the sub resource as declared by the expanded resource.
+   * @param delegate the delegate class of the sub resource.
+   * @param method the delegate method that reads the sub resource.
+   * @param verb the verb of the sub resource the delegate method implements.
+   */
+  public ExpandTarget(
+      SubResource subResource, ClassName delegate, MethodSpec method, Verb verb) {
+    this.subResource = subResource;
+    this.delegate = delegate;
+    this.method = method;
+    this.verb = verb;
+  }
+
+  public SubResource getSubResource() {
+    return subResource;
+  }
+
+  public ClassName getDelegate() {
+    return delegate;
+  }
+
+  public MethodSpec getMethod() {
+    return method;
+  }
+
+  public Verb getVerb() {
+    return verb;
+  }
+}
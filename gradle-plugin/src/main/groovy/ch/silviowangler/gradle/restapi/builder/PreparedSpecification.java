@@ -0,0 +1,99 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.gradle.restapi.builder;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.TypeSpec;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A parsed specification whose custom types are registered in the resource type registry of the
+ * {@link SpecGenerator}. Holds the types the specification can refer to, so its resources can be
+ * generated independently of the other specifications.
+ *
+ * @author Silvio Wangler
+ */
+public class PreparedSpecification {
+
+  private final File specFile;
+  private final ResourceContractContainer resourceContractContainer;
+  private final String packageName;
+  private final ResourceBuilder resourceBuilder;
+  private final Set<TypeSpec> types;
+  private final Set<ClassName> resourceTypes;
+
+  PreparedSpecification(
+      File specFile,
+      ResourceContractContainer resourceContractContainer,
+      String packageName,
+      ResourceBuilder resourceBuilder,
+      Set<TypeSpec> types,
+      Set<ClassName> resourceTypes) {
+    this.specFile = specFile;
+    this.resourceContractContainer = resourceContractContainer;
+    this.packageName = packageName;
+    this.resourceBuilder = resourceBuilder;
+    this.types = types;
+    this.resourceTypes = resourceTypes;
+  }
+
+  public File getSpecFile() {
+    return specFile;
+  }
+
+  public String getPackageName() {
+    return packageName;
+  }
+
+  ResourceContractContainer getResourceContractContainer() {
+    return resourceContractContainer;
+  }
+
+  ResourceBuilder getResourceBuilder() {
+    return resourceBuilder;
+  }
+
+  /** @return the custom types declared by the specification. */
+  Set<TypeSpec> getTypes() {
+    return types;
+  }
+
+  /** @return the resource types the specification adds to the registry, in registration order. */
+  public List<ClassName> getContributedResourceTypes() {
+    List<ClassName> contributed = new ArrayList<>(types.size());
+
+    for (TypeSpec type : types) {
+      contributed.add(ClassName.get(packageName, type.name));
+    }
+    return contributed;
+  }
+
+  /** @return the registered resource types at the time the specification was prepared. */
+  Set<ClassName> getResourceTypes() {
+    return resourceTypes;
+  }
+}
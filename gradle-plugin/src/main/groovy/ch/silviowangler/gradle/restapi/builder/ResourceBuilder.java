@@ -41,6 +41,7 @@ import ch.silviowangler.gradle.restapi.UnsupportedDataTypeException;
 import ch.silviowangler.gradle.restapi.util.SupportedDataTypes;
 import ch.silviowangler.rest.contract.model.v1.Header;
 import ch.silviowangler.rest.contract.model.v1.Representation;
+import ch.silviowangler.rest.contract.model.v1.ResourceContract;
 import ch.silviowangler.rest.contract.model.v1.Typed;
 import ch.silviowangler.rest.contract.model.v1.Verb;
 import ch.silviowangler.rest.contract.model.v1.VerbParameter;
@@ -102,6 +103,31 @@ public interface ResourceBuilder {
 
   TypeSpec buildResourceImpl();
 
+  /**
+   * Builds a provider of the given resource contract that creates the contract in Java code.
+   *
+   * @param contract the contract as defined in the specification.
+   * @return the provider type.
+   */
+  TypeSpec buildResourceContract(ResourceContract contract);
+
+  /**
+   * Builds a dispatcher that expands the given sub resources by calling their delegates directly.
+   *
+   * @param targets the expandable sub resources of this resource.
+   * @return the dispatcher type.
+   */
+  TypeSpec buildExpandDispatcher(List<ExpandTarget> targets);
+
+  /**
+   * Lets the delegate of an expandable sub resource implement {@code BatchExpandable}.
+   *
+   * @param delegate the delegate of this resource.
+   * @param target the sub resource pointing to this resource and the delegate method reading it.
+   * @return the delegate type.
+   */
+  TypeSpec buildBatchExpandable(TypeSpec delegate, ExpandTarget target);
+
   default String clientName() {
     return resourceName() + "Client";
   }
@@ -115,6 +141,14 @@ public interface ResourceBuilder {
         getResourceContractContainer().getSourceFileName());
   }
 
+  default String resourceContractName() {
+    return resourceName() + "Contract";
+  }
+
+  default String expandDispatcherName() {
+    return resourceName() + "ExpandDispatcher";
+  }
+
   default String resourceDelegateName() {
     return GeneratorUtil.createResourceDelegateName(
         getResourceContractContainer().getSourceFileName());
@@ -373,6 +407,8 @@ public interface ResourceBuilder {
         && !"getOptions".equals(methodName)) {
       methodBuilder.addStatement(
           "return handle$L($L)", LOWER_CAMEL.to(CaseFormat.UPPER_CAMEL, methodName), paramNames);
+    } else if (isDelegateResourceClass && isStreamingRepresentation(context)) {
+      addStreamingStatement(methodBuilder, context, methodName, paramNames);
     } else if (isDelegateResourceClass && !methodName.equals("getOptions")) {
       if (TypeName.VOID.equals(context.getReturnType())) {
         methodBuilder.addStatement("delegate.$L($L)", methodName, paramNames);
@@ -389,6 +425,20 @@ public interface ResourceBuilder {
         "Head method generation is not supported for the selected framework");
   }
 
+  /**
+   * @param context the method context.
+   * @return true if the method streams the rows of its representation.
+   */
+  default boolean isStreamingRepresentation(MethodContext context) {
+    return false;
+  }
+
+  default void addStreamingStatement(
+      MethodSpec.Builder methodBuilder, MethodContext context, String methodName, String params) {
+    throw new UnsupportedOperationException(
+        "Streaming representations are not supported for the selected framework");
+  }
+
   default boolean isHandlerMethod(String methodName) {
     return methodName.startsWith("handle");
   }
@@ -23,12 +23,12 @@
  */
 package ch.silviowangler.gradle.restapi.builder;
 
-import ch.silviowangler.gradle.restapi.RestApiExtension;
+import ch.silviowangler.gradle.restapi.GenerationSettings;
 import ch.silviowangler.gradle.restapi.builder.micronaut.MicronautResourceFactory;
 
 class ResourceBuilderFactory {
 
-  public static ResourceBuilder getRootResourceBuilder(RestApiExtension restApiExtension) {
-    return new MicronautResourceFactory(restApiExtension);
+  public static ResourceBuilder getRootResourceBuilder(GenerationSettings settings) {
+    return new MicronautResourceFactory(settings);
   }
 }
@@ -0,0 +1,350 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.gradle.restapi.builder;
+
+import ch.silviowangler.gradle.restapi.PluginTypes;
+import ch.silviowangler.rest.contract.model.v1.CustomTypeField;
+import ch.silviowangler.rest.contract.model.v1.GeneralDetails;
+import ch.silviowangler.rest.contract.model.v1.Header;
+import ch.silviowangler.rest.contract.model.v1.Representation;
+import ch.silviowangler.rest.contract.model.v1.ResourceContract;
+import ch.silviowangler.rest.contract.model.v1.ResourceField;
+import ch.silviowangler.rest.contract.model.v1.ResourceTypes;
+import ch.silviowangler.rest.contract.model.v1.ResponseState;
+import ch.silviowangler.rest.contract.model.v1.SubResource;
+import ch.silviowangler.rest.contract.model.v1.Verb;
+import ch.silviowangler.rest.contract.model.v1.VerbParameter;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.MethodSpec;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static ch.silviowangler.gradle.restapi.PluginTypes.CONTRACT_CUSTOM_TYPE_FIELD;
+import static ch.silviowangler.gradle.restapi.PluginTypes.CONTRACT_GENERAL_DETAILS;
+import static ch.silviowangler.gradle.restapi.PluginTypes.CONTRACT_HEADER;
+import static ch.silviowangler.gradle.restapi.PluginTypes.CONTRACT_REPRESENTATION;
+import static ch.silviowangler.gradle.restapi.PluginTypes.CONTRACT_RESOURCE_CONTRACT;
+import static ch.silviowangler.gradle.restapi.PluginTypes.CONTRACT_RESOURCE_FIELD;
+import static ch.silviowangler.gradle.restapi.PluginTypes.CONTRACT_RESOURCE_TYPES;
+import static ch.silviowangler.gradle.restapi.PluginTypes.CONTRACT_RESPONSE_STATE;
+import static ch.silviowangler.gradle.restapi.PluginTypes.CONTRACT_SUB_RESOURCE;
+import static ch.silviowangler.gradle.restapi.PluginTypes.CONTRACT_VERB;
+import static ch.silviowangler.gradle.restapi.PluginTypes.CONTRACT_VERB_PARAMETER;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.STATIC;
+
+/**
+ * Generates a static factory method that creates a {@link ResourceContract} in plain Java code.
+ * The generated code creates the same contract the Micronaut runtime would parse from the {@code
+ * OPTIONS_CONTENT} of a resource, without any JSON parsing or reflection. All lists of the created
+ * contract are immutable.
+ *
+ * @author Silvio Wangler
+ */
+public class ResourceContractCodeGenerator {
+
+  private static final ClassName LIST = ClassName.get(List.class);
+
+  private final CodeBlock.Builder code = CodeBlock.builder();
+  private int variableCounter = 0;
+
+  /**
+   * Creates the factory method.
+   *
+   * @param methodName name of the method.
+   * @param contract the contract to create.
+   * @return a private static method returning the contract.
+   */
+  public MethodSpec buildFactoryMethod(String methodName, ResourceContract contract) {
+
+    String contractVar = newVariable(CONTRACT_RESOURCE_CONTRACT, "contract");
+
+    if (contract.getGeneral() != null) {
+      set(contractVar, "setGeneral", CodeBlock.of("$N", general(contract.getGeneral())));
+    }
+
+    List<String> verbs = new ArrayList<>();
+    for (Verb verb : nullSafe(contract.getVerbs())) {
+      verbs.add(verb(verb));
+    }
+    set(contractVar, "setVerbs", listOf(verbs));
+
+    List<String> fields = new ArrayList<>();
+    for (ResourceField field : nullSafe(contract.getFields())) {
+      fields.add(field(field));
+    }
+    set(contractVar, "setFields", listOf(fields));
+
+    List<String> subResources = new ArrayList<>();
+    for (SubResource subResource : nullSafe(contract.getSubresources())) {
+      subResources.add(subResource(subResource));
+    }
+    set(contractVar, "setSubresources", listOf(subResources));
+
+    List<String> types = new ArrayList<>();
+    for (ResourceTypes type : nullSafe(contract.getTypes())) {
+      types.add(type(type));
+    }
+    set(contractVar, "setTypes", listOf(types));
+
+    code.addStatement("return $N", contractVar);
+
+    return MethodSpec.methodBuilder(methodName)
+        .addModifiers(PRIVATE, STATIC)
+        .returns(CONTRACT_RESOURCE_CONTRACT.getClassName())
+        .addCode(code.build())
+        .build();
+  }
+
+  private String general(GeneralDetails general) {
+    String var = newVariable(CONTRACT_GENERAL_DETAILS, "general");
+    setString(var, "setName", general.getName());
+    setString(var, "setDescription", general.getDescription());
+    setString(var, "setVersion", general.getVersion());
+    setString(var, "setxRoute", general.getxRoute());
+    return var;
+  }
+
+  private String verb(Verb verb) {
+    String var = newVariable(CONTRACT_VERB, "verb");
+    setString(var, "setVerb", verb.getVerb());
+    setString(var, "setRel", verb.getRel());
+
+    List<String> responseStates = new ArrayList<>();
+    for (ResponseState responseState : nullSafe(verb.getResponseStates())) {
+      responseStates.add(responseState(responseState));
+    }
+    set(var, "setResponseStates", listOf(responseStates));
+
+    List<String> representations = new ArrayList<>();
+    for (Representation representation : nullSafe(verb.getRepresentations())) {
+      representations.add(representation(representation));
+    }
+    set(var, "setRepresentations", listOf(representations));
+
+    List<String> parameters = new ArrayList<>();
+    for (VerbParameter parameter : nullSafe(verb.getParameters())) {
+      parameters.add(parameter(parameter));
+    }
+    set(var, "setParameters", listOf(parameters));
+
+    List<String> headers = new ArrayList<>();
+    for (Header header : nullSafe(verb.getHeaders())) {
+      headers.add(header(header));
+    }
+    set(var, "setHeaders", listOf(headers));
+    return var;
+  }
+
+  private String responseState(ResponseState responseState) {
+    String var = newVariable(CONTRACT_RESPONSE_STATE, "responseState");
+    set(var, "setCode", CodeBlock.of("(short) $L", responseState.getCode()));
+    setString(var, "setMessage", responseState.getMessage());
+    setString(var, "setComment", responseState.getComment());
+    return var;
+  }
+
+  private String representation(Representation representation) {
+    String var = newVariable(CONTRACT_REPRESENTATION, "representation");
+    setString(var, "setName", representation.getName());
+    setString(var, "setComment", representation.getComment());
+    setString(var, "setResponseExample", representation.getResponseExample());
+    setBoolean(var, "setStandard", representation.isStandard());
+    setString(var, "setMimetype", representation.getMimetype());
+    setBoolean(var, "setRaw", representation.isRaw());
+    return var;
+  }
+
+  private String parameter(VerbParameter parameter) {
+    String var = newVariable(CONTRACT_VERB_PARAMETER, "parameter");
+    setString(var, "setName", parameter.getName());
+    setString(var, "setType", parameter.getType());
+    setLiteral(var, "setOptions", parameter.getOptions());
+    setBoolean(var, "setMandatory", parameter.getMandatory());
+    setLiteral(var, "setMin", parameter.getMin());
+    setLiteral(var, "setMax", parameter.getMax());
+    setBoolean(var, "setMultiple", parameter.isMultiple());
+    setLiteral(var, "setDefaultValue", parameter.getDefaultValue());
+    setString(var, "setShield", parameter.getShield());
+    setBoolean(var, "setVisible", parameter.isVisible());
+    setBoolean(var, "setSortable", parameter.isSortable());
+    setBoolean(var, "setReadonly", parameter.isReadonly());
+    setBoolean(var, "setFilterable", parameter.isFilterable());
+    setLiteral(var, "setAlias", parameter.getAlias());
+    setString(var, "setxComment", parameter.getxComment());
+    return var;
+  }
+
+  private String header(Header header) {
+    String var = newVariable(CONTRACT_HEADER, "header");
+    setString(var, "setName", header.getName());
+    setString(var, "setType", header.getType());
+    setBoolean(var, "setMandatory", header.isMandatory());
+    setString(var, "setxComment", header.getxComment());
+    return var;
+  }
+
+  private String field(ResourceField field) {
+    String var = newVariable(CONTRACT_RESOURCE_FIELD, "field");
+    setString(var, "setName", field.getName());
+    setString(var, "setType", field.getType());
+    setLiteral(var, "setOptions", field.getOptions());
+    setLiteral(var, "setMandatory", field.getMandatory());
+    setLiteral(var, "setMin", field.getMin());
+    setLiteral(var, "setMax", field.getMax());
+    setBoolean(var, "setMultiple", field.isMultiple());
+    setString(var, "setShield", field.getShield());
+    setBoolean(var, "setVisible", field.isVisible());
+    setBoolean(var, "setSortable", field.isSortable());
+    setBoolean(var, "setReadonly", field.isReadonly());
+    setBoolean(var, "setFilterable", field.isFilterable());
+    setLiteral(var, "setAlias", field.getAlias());
+    setString(var, "setxComment", field.getxComment());
+    return var;
+  }
+
+  private String subResource(SubResource subResource) {
+    String var = newVariable(CONTRACT_SUB_RESOURCE, "subResource");
+    setString(var, "setName", subResource.getName());
+    setString(var, "setType", subResource.getType());
+    setString(var, "setRel", subResource.getRel());
+    setString(var, "setHref", subResource.getHref());
+    setString(var, "setMethod", subResource.getMethod());
+    setBoolean(var, "setExpandable", subResource.isExpandable());
+    return var;
+  }
+
+  private String type(ResourceTypes type) {
+    String var = newVariable(CONTRACT_RESOURCE_TYPES, "type");
+    setString(var, "setName", type.getName());
+
+    List<String> fields = new ArrayList<>();
+    for (CustomTypeField field : nullSafe(type.getFields())) {
+      fields.add(customTypeField(field));
+    }
+    set(var, "setFields", listOf(fields));
+    return var;
+  }
+
+  private String customTypeField(CustomTypeField field) {
+    String var = newVariable(CONTRACT_CUSTOM_TYPE_FIELD, "typeField");
+    setString(var, "setName", field.getName());
+    setString(var, "setType", field.getType());
+    setLiteral(var, "setOptions", field.getOptions());
+    setLiteral(var, "setMin", field.getMin());
+    setLiteral(var, "setMax", field.getMax());
+    setBoolean(var, "setMultiple", field.isMultiple());
+    setString(var, "setDefaultValue", field.getDefaultValue());
+    setString(var, "setComment", field.getComment());
+    return var;
+  }
+
+  private String newVariable(PluginTypes type, String prefix) {
+    String var = prefix + variableCounter++;
+    code.addStatement("$T $N = new $T()", type.getClassName(), var, type.getClassName());
+    return var;
+  }
+
+  private void set(String var, String setter, CodeBlock value) {
+    code.addStatement("$N.$N($L)", var, setter, value);
+  }
+
+  private void setString(String var, String setter, String value) {
+    if (value != null) {
+      set(var, setter, CodeBlock.of("$S", value));
+    }
+  }
+
+  private void setBoolean(String var, String setter, boolean value) {
+    if (value) {
+      set(var, setter, CodeBlock.of("$L", true));
+    }
+  }
+
+  private void setLiteral(String var, String setter, Object value) {
+    CodeBlock literal = literal(value);
+    if (literal != null) {
+      set(var, setter, literal);
+    }
+  }
+
+  private static CodeBlock listOf(List<String> variables) {
+    CodeBlock.Builder builder = CodeBlock.builder().add("$T.of(", LIST);
+    for (int i = 0; i < variables.size(); i++) {
+      builder.add(i == 0 ? "$N" : ", $N", variables.get(i));
+    }
+    return builder.add(")").build();
+  }
+
+  /**
+   * Creates a Java literal for the values Gson produces for untyped JSON values (strings, numbers,
+   * booleans and lists thereof). Returns {@code null} for other values.
+   */
+  private static CodeBlock literal(Object value) {
+    if (value instanceof String) {
+      return CodeBlock.of("$S", value);
+    } else if (value instanceof Boolean) {
+      return CodeBlock.of("$L", value);
+    } else if (value instanceof Number) {
+      return numberLiteral((Number) value);
+    } else if (value instanceof Collection) {
+      CodeBlock.Builder builder = CodeBlock.builder().add("$T.of(", LIST);
+      boolean first = true;
+      for (Object element : (Collection<?>) value) {
+        CodeBlock elementLiteral = literal(element);
+        if (elementLiteral == null) {
+          return null;
+        }
+        builder.add(first ? "$L" : ", $L", elementLiteral);
+        first = false;
+      }
+      return builder.add(")").build();
+    }
+    return null;
+  }
+
+  private static CodeBlock numberLiteral(Number number) {
+    BigDecimal decimal = new BigDecimal(number.toString());
+
+    if (decimal.stripTrailingZeros().scale() <= 0) {
+      try {
+        return CodeBlock.of("$L", decimal.intValueExact());
+      } catch (ArithmeticException notAnInt) {
+        try {
+          return CodeBlock.of("$LL", decimal.longValueExact());
+        } catch (ArithmeticException notALong) {
+          // fall through
+        }
+      }
+    }
+    return CodeBlock.of("$Ld", decimal.doubleValue());
+  }
+
+  private static <T> List<T> nullSafe(List<T> list) {
+    return list != null ? list : List.of();
+  }
+}
@@ -26,7 +26,7 @@ package ch.silviowangler.gradle.restapi.builder;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 import ch.silviowangler.gradle.restapi.GeneratedSpecContainer;
-import ch.silviowangler.gradle.restapi.RestApiExtension;
+import ch.silviowangler.gradle.restapi.GenerationSettings;
 import ch.silviowangler.gradle.restapi.gson.CustomTypeFieldDeserializer;
 import ch.silviowangler.gradle.restapi.gson.GeneralDetailsDeserializer;
 import ch.silviowangler.gradle.restapi.gson.HeaderDeserializer;
@@ -38,19 +38,26 @@ import ch.silviowangler.rest.contract.model.v1.Header;
 import ch.silviowangler.rest.contract.model.v1.Representation;
 import ch.silviowangler.rest.contract.model.v1.ResourceContract;
 import ch.silviowangler.rest.contract.model.v1.ResourceField;
+import ch.silviowangler.rest.contract.model.v1.SubResource;
+import ch.silviowangler.rest.contract.model.v1.Verb;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.TypeSpec;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -59,11 +66,17 @@ import java.util.stream.Collectors;
  */
 public class SpecGenerator {
 
+  private static final String GET_COLLECTION = "GET_COLLECTION";
+  private static final String GET_ENTITY = "GET_ENTITY";
+
   private final Set<ClassName> resourceTypeCache;
+  private final List<File> specifications;
+  private List<ResourceContractContainer> registeredContracts;
   private final Gson gson;
 
   public SpecGenerator() {
-    this.resourceTypeCache = new HashSet<>();
+    this.resourceTypeCache = new LinkedHashSet<>();
+    this.specifications = new ArrayList<>();
     this.gson =
         new GsonBuilder()
             .registerTypeAdapter(GeneralDetails.class, new GeneralDetailsDeserializer())
@@ -74,63 +87,312 @@ public class SpecGenerator {
             .create();
   }
 
+  /**
+   * Registers all specifications of the API. Sub resources can only be resolved to their
+   * specification (e.g. to generate an expand dispatcher) if the specification is registered.
+   *
+   * @param specFiles all specification files.
+   */
+  public synchronized void registerSpecifications(List<File> specFiles) {
+    this.specifications.clear();
+    this.specifications.addAll(specFiles);
+    this.registeredContracts = null;
+  }
+
   /**
    * Generates a Java classes for a specific resource specification and provides them in a {@link
    * GeneratedSpecContainer}.
    *
    * @param specFile the specification of the resource.
-   * @param extension additional context information.
+   * @param settings the generation settings.
    * @return all generated Java types for the resource specification.
    */
   public GeneratedSpecContainer generateJavaTypesForSpecification(
-      File specFile, RestApiExtension extension) {
+      File specFile, GenerationSettings settings) {
+    return generateJavaTypesForSpecification(prepareSpecification(specFile, settings), settings);
+  }
+
+  /**
+   * Parses a specification and registers its custom types in the resource type registry. A
+   * specification can only refer to the custom types registered before it.
+   *
+   * @param specFile the specification of the resource.
+   * @param settings the generation settings.
+   * @return the prepared specification.
+   */
+  public synchronized PreparedSpecification prepareSpecification(
+      File specFile, GenerationSettings settings) {
+
+    PreparedSpecification prepared = prepareSpecification(specFile, settings, resourceTypeCache);
+    registerResourceTypes(prepared);
+    return prepared;
+  }
+
+  /**
+   * Parses a specification and builds its custom types without registering them. The
+   * specifications of a level of the {@link ch.silviowangler.gradle.restapi.SpecificationGraph}
+   * can be prepared concurrently against the types registered by the levels before.
+   *
+   * @param specFile the specification of the resource.
+   * @param settings the generation settings.
+   * @param registeredTypes the resource types the specification can refer to.
+   * @return the prepared specification.
+   */
+  public PreparedSpecification prepareSpecification(
+      File specFile, GenerationSettings settings, Set<ClassName> registeredTypes) {
 
     ResourceContractContainer resourceContractContainer =
-        parseResourceContract(specFile, extension.getResponseEncoding());
+        parseResourceContract(specFile, settings.getResponseEncoding());
 
     String packageName =
-        String.format(
-                "%s.%s",
-                extension.getPackageName(),
-                generatePackageName(resourceContractContainer.getResourceContract()))
-            .toLowerCase();
-
-    GeneratedSpecContainer result = new GeneratedSpecContainer();
-    result.setPackageName(packageName);
+        packageName(settings, resourceContractContainer.getResourceContract());
 
     ResourceBuilder resourceBuilder =
-        ResourceBuilderFactory.getRootResourceBuilder(extension)
+        ResourceBuilderFactory.getRootResourceBuilder(settings)
             .withResourceContractContainer(resourceContractContainer)
             .withCurrentPackageName(packageName)
-            .withTimestampInGeneratedAnnotation(extension.isGenerateDateAttribute());
+            .withTimestampInGeneratedAnnotation(
+                settings.isGenerateDateAttribute() && !settings.isReproducibleSources());
 
-    if (extension.getResponseEncoding() != null) {
-      resourceBuilder.withResponseEncoding(extension.getResponseEncoding());
+    if (settings.getResponseEncoding() != null) {
+      resourceBuilder.withResponseEncoding(settings.getResponseEncoding());
     }
 
-    Set<TypeSpec> types = resourceBuilder.buildResourceTypes(resourceTypeCache, packageName);
+    Set<ClassName> resourceTypes = new LinkedHashSet<>(registeredTypes);
+    Set<TypeSpec> types = resourceBuilder.buildResourceTypes(resourceTypes, packageName);
 
     for (TypeSpec type : types) {
-      resourceTypeCache.add(ClassName.get(packageName, type.name));
+      resourceTypes.add(ClassName.get(packageName, type.name));
     }
 
-    if (extension.getGenerationMode().isApiCodeGenerationRequired()) {
-      result.setModels(resourceBuilder.buildResourceModels(resourceTypeCache));
+    return new PreparedSpecification(
+        specFile,
+        resourceContractContainer,
+        packageName,
+        resourceBuilder,
+        types,
+        Collections.unmodifiableSet(resourceTypes));
+  }
+
+  /**
+   * Registers the custom types of a prepared specification in the resource type registry.
+   *
+   * @param prepared the prepared specification.
+   */
+  public synchronized void registerResourceTypes(PreparedSpecification prepared) {
+    registerResourceTypes(prepared.getContributedResourceTypes());
+  }
+
+  /**
+   * Registers resource types in the resource type registry, e.g. the types a specification
+   * contributed in a previous generation.
+   *
+   * @param resourceTypes the resource types in the order of registration.
+   */
+  public synchronized void registerResourceTypes(Collection<ClassName> resourceTypes) {
+    resourceTypeCache.addAll(resourceTypes);
+  }
+
+  /** @return a copy of the resource type registry. */
+  public synchronized Set<ClassName> getRegisteredResourceTypes() {
+    return Collections.unmodifiableSet(new LinkedHashSet<>(resourceTypeCache));
+  }
+
+  /**
+   * Generates the Java classes of a prepared specification. This method can be called for several
+   * specifications concurrently.
+   *
+   * @param prepared the prepared specification of the resource.
+   * @param settings the generation settings.
+   * @return all generated Java types for the resource specification.
+   */
+  public GeneratedSpecContainer generateJavaTypesForSpecification(
+      PreparedSpecification prepared, GenerationSettings settings) {
+
+    File specFile = prepared.getSpecFile();
+    ResourceContractContainer resourceContractContainer = prepared.getResourceContractContainer();
+    String packageName = prepared.getPackageName();
+    ResourceBuilder resourceBuilder = prepared.getResourceBuilder();
+    Set<TypeSpec> types = prepared.getTypes();
+    Set<ClassName> resourceTypes = prepared.getResourceTypes();
+
+    GeneratedSpecContainer result = new GeneratedSpecContainer();
+    result.setPackageName(packageName);
+
+    if (settings.getGenerationMode().isApiCodeGenerationRequired()) {
+      result.setModels(resourceBuilder.buildResourceModels(resourceTypes));
       result.setTypes(types);
     }
 
-    if (extension.getGenerationMode().isServerCodeGenerationRequired()) {
+    if (settings.getGenerationMode().isServerCodeGenerationRequired()) {
       result.setRestInterface(resourceBuilder.buildResource());
-      result.setRestImplementation(resourceBuilder.buildResourceImpl());
+      TypeSpec delegate = resourceBuilder.buildResourceImpl();
+      TypeSpec restImplementation = delegate;
+
+      if (settings.isGenerateBatchExpandables()) {
+        Optional<ExpandTarget> target =
+            findExpandingSubResource(resourceContractContainer, settings)
+                .flatMap(
+                    subResource ->
+                        expandTarget(
+                            subResource,
+                            delegate,
+                            packageName,
+                            resourceContractContainer.getResourceContract().getVerbs()));
+
+        if (target.isPresent()) {
+          restImplementation = resourceBuilder.buildBatchExpandable(delegate, target.get());
+        }
+      }
+      result.setRestImplementation(restImplementation);
+
+      if (settings.isGenerateResourceContracts()) {
+        // the contract is read again since the response encoding alters the mime types
+        ResourceContract contract = parseResourceContract(specFile).getResourceContract();
+        result.setResourceContract(resourceBuilder.buildResourceContract(contract));
+      }
+
+      if (settings.isGenerateExpandDispatchers()) {
+        List<ExpandTarget> targets =
+            findExpandTargets(resourceContractContainer.getResourceContract(), settings);
+
+        if (!targets.isEmpty()) {
+          result.setExpandDispatcher(resourceBuilder.buildExpandDispatcher(targets));
+        }
+      }
     }
 
-    if (extension.getGenerationMode().isClientCodeGenerationRequired()) {
+    if (settings.getGenerationMode().isClientCodeGenerationRequired()) {
       result.setRestInterface(resourceBuilder.buildClient());
     }
 
     return result;
   }
 
+  /**
+   * Resolves the expandable sub resources of a contract to the delegate methods that read them.
+   * Sub resources without a registered specification or without a readable verb are skipped and
+   * are expanded by routing at runtime.
+   */
+  private List<ExpandTarget> findExpandTargets(
+      ResourceContract contract, GenerationSettings settings) {
+
+    List<SubResource> subResources =
+        contract.getSubresources().stream()
+            .filter(SubResource::isExpandable)
+            .collect(Collectors.toList());
+
+    if (subResources.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    List<ExpandTarget> targets = new ArrayList<>(subResources.size());
+
+    for (SubResource subResource : subResources) {
+      ResourceContractContainer child =
+          SubResourceResolver.findSubResourceContract(registeredContracts(settings), subResource);
+
+      if (child == null) {
+        continue;
+      }
+
+      String childPackageName = packageName(settings, child.getResourceContract());
+
+      ResourceBuilder childBuilder =
+          ResourceBuilderFactory.getRootResourceBuilder(settings)
+              .withResourceContractContainer(child)
+              .withCurrentPackageName(childPackageName);
+
+      if (settings.getResponseEncoding() != null) {
+        childBuilder.withResponseEncoding(settings.getResponseEncoding());
+      }
+
+      expandTarget(
+              subResource,
+              childBuilder.buildResourceImpl(),
+              childPackageName,
+              child.getResourceContract().getVerbs())
+          .ifPresent(targets::add);
+    }
+    return targets;
+  }
+
+  /**
+   * Finds the expandable sub resource of another registered specification that points to the
+   * given resource.
+   */
+  private Optional<SubResource> findExpandingSubResource(
+      ResourceContractContainer container, GenerationSettings settings) {
+
+    List<ResourceContractContainer> contracts = registeredContracts(settings);
+
+    for (ResourceContractContainer parent : contracts) {
+      for (SubResource subResource : parent.getResourceContract().getSubresources()) {
+        if (!subResource.isExpandable()) {
+          continue;
+        }
+        ResourceContractContainer child =
+            SubResourceResolver.findSubResourceContract(contracts, subResource);
+
+        if (child != null
+            && Objects.equals(child.getSourceFileName(), container.getSourceFileName())) {
+          return Optional.of(subResource);
+        }
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Looks up the delegate method that reads an expanded sub resource. Entities of a sub resource
+   * can only be expanded if the sub resource has no id (direct entity).
+   */
+  private Optional<ExpandTarget> expandTarget(
+      SubResource subResource, TypeSpec delegate, String packageName, List<Verb> verbs) {
+
+    for (Verb verb : verbs) {
+      String methodName;
+
+      if (GET_COLLECTION.equals(verb.getVerb())) {
+        methodName = "getCollection";
+      } else if (GET_ENTITY.equals(verb.getVerb())) {
+        methodName = "getEntity";
+      } else {
+        continue;
+      }
+
+      Optional<MethodSpec> method =
+          delegate.methodSpecs.stream()
+              .filter(m -> methodName.equals(m.name))
+              .filter(m -> m.parameters.stream().noneMatch(p -> "id".equals(p.name)))
+              .findFirst();
+
+      if (method.isPresent()) {
+        return Optional.of(
+            new ExpandTarget(
+                subResource, ClassName.get(packageName, delegate.name), method.get(), verb));
+      }
+    }
+    return Optional.empty();
+  }
+
+  private synchronized List<ResourceContractContainer> registeredContracts(
+      GenerationSettings settings) {
+    if (registeredContracts == null) {
+      registeredContracts = new ArrayList<>(specifications.size());
+      for (File specification : specifications) {
+        registeredContracts.add(
+            parseResourceContract(specification, settings.getResponseEncoding()));
+      }
+    }
+    return registeredContracts;
+  }
+
+  private String packageName(GenerationSettings settings, ResourceContract contract) {
+    return String.format("%s.%s", settings.getPackageName(), generatePackageName(contract))
+        .toLowerCase();
+  }
+
   public ResourceContractContainer parseResourceContract(File file) {
     return parseResourceContract(file, null);
   }
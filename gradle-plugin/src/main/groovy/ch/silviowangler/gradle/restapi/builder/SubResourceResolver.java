@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.gradle.restapi.builder;
+
+import ch.silviowangler.rest.contract.model.v1.SubResource;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Finds the resource contract a sub resource points to.
+ *
+ * @author Silvio Wangler
+ */
+public final class SubResourceResolver {
+
+  private SubResourceResolver() {
+    // do not create instances of me please
+  }
+
+  /**
+   * This method first searches for subresources by name and disambiguites conflicts using an
+   * xRoute longest common prefix match. If two resources have the same name, the resource with an
+   * xRoute with the most in common with the subresource.href will be choosen.
+   *
+   * @param containers a list of all ResourceContractContainers
+   * @param subResource a Subresource spec
+   * @return the ResourceContractContainer for the resource pointed to by `subResource` or {@code
+   *     null}
+   */
+  public static ResourceContractContainer findSubResourceContract(
+      List<ResourceContractContainer> containers, SubResource subResource) {
+
+    List<ResourceContractContainer> results =
+        containers.stream()
+            .filter(
+                c ->
+                    Objects.equals(
+                        c.getResourceContract().getGeneral().getName(), subResource.getName()))
+            .collect(Collectors.toList());
+
+    if (results.size() > 1) {
+      // remove `{` and `}` from the href
+      String subresourceRoute = subResource.getHref().replace("{", "").replace("}", "");
+
+      // pattern for `:pin` variable names, since they don't have to be the same between xRoute and
+      // href we remove them from the string
+      String pattern = ":[^/]+";
+      subresourceRoute = subresourceRoute.replaceAll(pattern, "");
+
+      // distinguish by xRoute matching the longest common prefix we can find
+      ResourceContractContainer match = null;
+      int matchLen = -1;
+      for (ResourceContractContainer c : results) {
+        String resourceRoute =
+            c.getResourceContract().getGeneral().getxRoute().replaceAll(pattern, "");
+        String commonPrefix = commonPrefix(resourceRoute, subresourceRoute);
+        if (commonPrefix.length() > matchLen) {
+          match = c;
+          matchLen = commonPrefix.length();
+        }
+      }
+      return match;
+    } else if (results.size() == 1) {
+      return results.get(0);
+    } else {
+      return null;
+    }
+  }
+
+  /**
+   * @param a a String
+   * @param b another String
+   * @return the longest common substring prefix of a and b. If a or b are null, return the empty
+   *     string
+   */
+  public static String commonPrefix(String a, String b) {
+    if (a == null || a.isEmpty()) {
+      return "";
+    }
+    if (b == null || b.isEmpty()) {
+      return "";
+    }
+    int len = Math.min(a.length(), b.length());
+    int counter = 0;
+    for (; counter < len; counter++) {
+      if (a.charAt(counter) != b.charAt(counter)) {
+        break;
+      }
+    }
+    return a.substring(0, counter);
+  }
+}
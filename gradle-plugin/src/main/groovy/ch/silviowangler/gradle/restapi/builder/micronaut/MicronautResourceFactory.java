@@ -24,33 +24,50 @@
 package ch.silviowangler.gradle.restapi.builder.micronaut;
 
 import ch.silviowangler.gradle.restapi.GenerationMode;
+import ch.silviowangler.gradle.restapi.GenerationSettings;
 import ch.silviowangler.gradle.restapi.GeneratorUtil;
 import ch.silviowangler.gradle.restapi.PluginTypes;
-import ch.silviowangler.gradle.restapi.RestApiExtension;
 import ch.silviowangler.gradle.restapi.TargetFramework;
 import ch.silviowangler.gradle.restapi.builder.AbstractResourceBuilder;
 import ch.silviowangler.gradle.restapi.builder.ArtifactType;
+import ch.silviowangler.gradle.restapi.builder.ExpandTarget;
 import ch.silviowangler.gradle.restapi.builder.MethodContext;
+import ch.silviowangler.gradle.restapi.builder.ResourceContractCodeGenerator;
 import ch.silviowangler.rest.contract.model.v1.Header;
 import ch.silviowangler.rest.contract.model.v1.Representation;
+import ch.silviowangler.rest.contract.model.v1.ResourceContract;
+import ch.silviowangler.rest.contract.model.v1.ResourceField;
 import ch.silviowangler.rest.contract.model.v1.Verb;
 import ch.silviowangler.rest.contract.model.v1.VerbParameter;
 import com.squareup.javapoet.AnnotationSpec;
 import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
 import org.apache.groovy.util.Maps;
 
 import javax.lang.model.element.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
 
+import static ch.silviowangler.gradle.restapi.PluginTypes.CONTRACT_RESOURCE_CONTRACT;
 import static ch.silviowangler.gradle.restapi.PluginTypes.JAKARTA_GENERATED;
 import static ch.silviowangler.gradle.restapi.PluginTypes.JAKARTA_INJECT;
 import static ch.silviowangler.gradle.restapi.PluginTypes.JAKARTA_NULLABLE;
@@ -86,9 +103,16 @@ import static ch.silviowangler.gradle.restapi.PluginTypes.MICRONAUT_REQUEST_BODY
 import static ch.silviowangler.gradle.restapi.PluginTypes.MICRONAUT_SERDEABLE;
 import static ch.silviowangler.gradle.restapi.PluginTypes.MICRONAUT_STATUS;
 import static ch.silviowangler.gradle.restapi.PluginTypes.MICRONAUT_VALIDATED;
+import static ch.silviowangler.gradle.restapi.PluginTypes.RESTAPI_BATCH_EXPANDABLE;
+import static ch.silviowangler.gradle.restapi.PluginTypes.RESTAPI_EXPAND_CONTEXT;
+import static ch.silviowangler.gradle.restapi.PluginTypes.RESTAPI_EXPAND_DISPATCHER;
+import static ch.silviowangler.gradle.restapi.PluginTypes.RESTAPI_REPRESENTATION_WRITER;
+import static ch.silviowangler.gradle.restapi.PluginTypes.RESTAPI_RESOURCE_CONTRACT_PROVIDER;
 import static ch.silviowangler.gradle.restapi.PluginTypes.RESTAPI_RESPONSE_CREATOR;
 import static ch.silviowangler.gradle.restapi.builder.ArtifactType.CLIENT;
 import static ch.silviowangler.gradle.restapi.builder.ArtifactType.DELEGATOR_RESOURCE;
+import static com.google.common.base.CaseFormat.LOWER_CAMEL;
+import static com.google.common.base.CaseFormat.UPPER_CAMEL;
 
 /**
  * @author Silvio Wangler
@@ -97,11 +121,12 @@ public class MicronautResourceFactory extends AbstractResourceBuilder {
 
   private static final ClassName STRING_CLASS = ClassName.get(String.class);
   private static final String DELEGATE_VAR_NAME = "delegate";
-  private final RestApiExtension restApiExtension;
+  private static final String REPRESENTATION_WRITER_VAR_NAME = "representationWriter";
+  private final GenerationSettings settings;
 
-  public MicronautResourceFactory(RestApiExtension restApiExtension) {
-    super(restApiExtension);
-    this.restApiExtension = restApiExtension;
+  public MicronautResourceFactory(GenerationSettings settings) {
+    super(settings);
+    this.settings = settings;
   }
 
   @Override
@@ -118,7 +143,7 @@ public class MicronautResourceFactory extends AbstractResourceBuilder {
 
   @Override
   public AnnotationSpec createGeneratedAnnotation(boolean printTimestamp) {
-    TargetFramework targetFramework = this.restApiExtension.getTargetFramework();
+    TargetFramework targetFramework = this.settings.getTargetFramework();
     if (targetFramework.isJakarta()) {
       return super.createGeneratedAnnotation(printTimestamp, JAKARTA_GENERATED);
     } else {
@@ -150,7 +175,7 @@ public class MicronautResourceFactory extends AbstractResourceBuilder {
             .addParameter(delegatorClass, DELEGATE_VAR_NAME)
             .addStatement("this.$N = $N", DELEGATE_VAR_NAME, DELEGATE_VAR_NAME);
 
-    TargetFramework targetFramework = this.restApiExtension.getTargetFramework();
+    TargetFramework targetFramework = this.settings.getTargetFramework();
     if (targetFramework == TargetFramework.MICRONAUT_3
         || targetFramework == TargetFramework.MICRONAUT_4) {
       methodBuilder.addAnnotation(createAnnotation(JAKARTA_INJECT));
@@ -158,10 +183,21 @@ public class MicronautResourceFactory extends AbstractResourceBuilder {
       methodBuilder.addAnnotation(createAnnotation(JAVAX_INJECT));
     }
 
-    MethodSpec constructor = methodBuilder.build();
-
     resourceBuilder.addField(fieldDelegate);
-    resourceBuilder.addMethod(constructor);
+
+    if (hasStreamingRepresentations()) {
+      ClassName writerClass = RESTAPI_REPRESENTATION_WRITER.getClassName();
+      resourceBuilder.addField(
+          FieldSpec.builder(writerClass, REPRESENTATION_WRITER_VAR_NAME)
+              .addModifiers(Modifier.PRIVATE, Modifier.FINAL)
+              .build());
+      methodBuilder
+          .addParameter(writerClass, REPRESENTATION_WRITER_VAR_NAME)
+          .addStatement(
+              "this.$N = $N", REPRESENTATION_WRITER_VAR_NAME, REPRESENTATION_WRITER_VAR_NAME);
+    }
+
+    resourceBuilder.addMethod(methodBuilder.build());
 
     generateResourceMethods();
     return resourceBuilder.build();
@@ -174,7 +210,7 @@ public class MicronautResourceFactory extends AbstractResourceBuilder {
     TypeSpec.Builder resourceBuilder = resourceBaseTypeBuilder(clientName());
 
     Map<String, Object> clientArgs = new HashMap<>();
-    clientArgs.put("id", this.restApiExtension.getClientId());
+    clientArgs.put("id", this.settings.getClientId());
 
     resourceBuilder.addAnnotation(createAnnotation(MICRONAUT_CLIENT, clientArgs));
     resourceBuilder.addAnnotation(createAnnotation(MICRONAUT_VALIDATED));
@@ -194,8 +230,8 @@ public class MicronautResourceFactory extends AbstractResourceBuilder {
             GeneratorUtil.createResourceDelegateName(
                 getResourceContractContainer().getSourceFileName()));
 
-    if (this.restApiExtension.getTargetFramework() == TargetFramework.MICRONAUT_3
-        || this.restApiExtension.getTargetFramework() == TargetFramework.MICRONAUT_4) {
+    if (this.settings.getTargetFramework() == TargetFramework.MICRONAUT_3
+        || this.settings.getTargetFramework() == TargetFramework.MICRONAUT_4) {
       builder.addAnnotation(createAnnotation(JAKARTA_SINGLETON));
     } else {
       builder.addAnnotation(createAnnotation(JAVAX_SINGLETON));
@@ -205,6 +241,323 @@ public class MicronautResourceFactory extends AbstractResourceBuilder {
     return builder.build();
   }
 
+  @Override
+  public TypeSpec buildResourceContract(ResourceContract contract) {
+    reset();
+
+    ClassName contractClass = CONTRACT_RESOURCE_CONTRACT.getClassName();
+    ClassName resourceClass = ClassName.get(getCurrentPackageName(), resourceName());
+
+    TypeSpec.Builder builder =
+        TypeSpec.classBuilder(resourceContractName())
+            .addModifiers(Modifier.PUBLIC)
+            .addAnnotation(createGeneratedAnnotation(isPrintTimestamp()))
+            .addAnnotation(createAnnotation(JAKARTA_SINGLETON))
+            .addSuperinterface(RESTAPI_RESOURCE_CONTRACT_PROVIDER.getClassName());
+
+    builder.addField(
+        FieldSpec.builder(contractClass, "CONTRACT")
+            .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+            .initializer("createContract()")
+            .build());
+
+    builder.addMethod(
+        MethodSpec.methodBuilder("getResourceClass")
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC)
+            .returns(
+                ParameterizedTypeName.get(
+                    ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class)))
+            .addStatement("return $T.class", resourceClass)
+            .build());
+
+    builder.addMethod(
+        MethodSpec.methodBuilder("getContract")
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC)
+            .returns(contractClass)
+            .addStatement("return CONTRACT")
+            .build());
+
+    builder.addMethod(
+        new ResourceContractCodeGenerator().buildFactoryMethod("createContract", contract));
+
+    return builder.build();
+  }
+
+  @Override
+  public TypeSpec buildExpandDispatcher(List<ExpandTarget> targets) {
+    reset();
+
+    ClassName resourceClass = ClassName.get(getCurrentPackageName(), resourceName());
+    ClassName contextClass = RESTAPI_EXPAND_CONTEXT.getClassName();
+    TargetFramework targetFramework = this.settings.getTargetFramework();
+    boolean jakarta =
+        targetFramework == TargetFramework.MICRONAUT_3
+            || targetFramework == TargetFramework.MICRONAUT_4;
+
+    TypeSpec.Builder builder =
+        TypeSpec.classBuilder(expandDispatcherName())
+            .addModifiers(Modifier.PUBLIC)
+            .addAnnotation(createGeneratedAnnotation(isPrintTimestamp()))
+            .addAnnotation(createAnnotation(jakarta ? JAKARTA_SINGLETON : JAVAX_SINGLETON))
+            .addSuperinterface(RESTAPI_EXPAND_DISPATCHER.getClassName());
+
+    ParameterizedTypeName setOfStrings =
+        ParameterizedTypeName.get(ClassName.get(Set.class), ClassName.get(String.class));
+
+    CodeBlock.Builder names = CodeBlock.builder();
+    for (ExpandTarget target : targets) {
+      if (!names.isEmpty()) {
+        names.add(", ");
+      }
+      names.add("$S", target.getSubResource().getName());
+    }
+
+    builder.addField(
+        FieldSpec.builder(setOfStrings, "EXPAND_NAMES")
+            .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+            .initializer("$T.of($L)", Set.class, names.build())
+            .build());
+
+    MethodSpec.Builder constructor =
+        MethodSpec.constructorBuilder()
+            .addModifiers(Modifier.PUBLIC)
+            .addAnnotation(createAnnotation(jakarta ? JAKARTA_INJECT : JAVAX_INJECT));
+
+    Map<ClassName, String> delegates = new LinkedHashMap<>();
+    for (ExpandTarget target : targets) {
+      if (!delegates.containsKey(target.getDelegate())) {
+        String fieldName = UPPER_CAMEL.to(LOWER_CAMEL, target.getDelegate().simpleName());
+        delegates.put(target.getDelegate(), fieldName);
+
+        builder.addField(
+            FieldSpec.builder(target.getDelegate(), fieldName)
+                .addModifiers(Modifier.PRIVATE, Modifier.FINAL)
+                .build());
+        constructor
+            .addParameter(target.getDelegate(), fieldName)
+            .addStatement("this.$N = $N", fieldName, fieldName);
+      }
+    }
+    builder.addMethod(constructor.build());
+
+    builder.addMethod(
+        MethodSpec.methodBuilder("getResourceClass")
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC)
+            .returns(
+                ParameterizedTypeName.get(
+                    ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class)))
+            .addStatement("return $T.class", resourceClass)
+            .build());
+
+    builder.addMethod(
+        MethodSpec.methodBuilder("getExpandNames")
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC)
+            .returns(setOfStrings)
+            .addStatement("return EXPAND_NAMES")
+            .build());
+
+    MethodSpec.Builder expand =
+        MethodSpec.methodBuilder("expand")
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC)
+            .returns(Object.class)
+            .addParameter(String.class, "expandName")
+            .addParameter(contextClass, "context")
+            .beginControlFlow("switch (expandName)");
+
+    for (ExpandTarget target : targets) {
+      expand
+          .addCode("case $S:\n", target.getSubResource().getName())
+          .addStatement(
+              "$>return $N.$N($L)$<",
+              delegates.get(target.getDelegate()),
+              target.getMethod(),
+              expandArguments(target, "context"));
+    }
+
+    expand
+        .addCode("default:\n")
+        .addStatement(
+            "$>throw new $T(\"Unknown expand \" + expandName)$<",
+            IllegalArgumentException.class)
+        .endControlFlow();
+
+    builder.addMethod(expand.build());
+
+    MethodSpec.Builder findBatchExpandable =
+        MethodSpec.methodBuilder("findBatchExpandable")
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC)
+            .returns(
+                ParameterizedTypeName.get(
+                    ClassName.get(Optional.class),
+                    ParameterizedTypeName.get(
+                        RESTAPI_BATCH_EXPANDABLE.getClassName(),
+                        WildcardTypeName.subtypeOf(Object.class),
+                        WildcardTypeName.subtypeOf(Object.class))))
+            .addParameter(String.class, "expandName")
+            .beginControlFlow("switch (expandName)");
+
+    for (ExpandTarget target : targets) {
+      String delegate = delegates.get(target.getDelegate());
+      findBatchExpandable
+          .addCode("case $S:\n", target.getSubResource().getName())
+          .addStatement(
+              "$>return $N instanceof $T ? $T.of(($T<?, ?>) $N) : $T.empty()$<",
+              delegate,
+              RESTAPI_BATCH_EXPANDABLE.getClassName(),
+              Optional.class,
+              RESTAPI_BATCH_EXPANDABLE.getClassName(),
+              delegate,
+              Optional.class);
+    }
+
+    findBatchExpandable
+        .addCode("default:\n")
+        .addStatement("$>return $T.empty()$<", Optional.class)
+        .endControlFlow();
+
+    builder.addMethod(findBatchExpandable.build());
+    return builder.build();
+  }
+
+  @Override
+  public TypeSpec buildBatchExpandable(TypeSpec delegate, ExpandTarget target) {
+    MethodSpec method = target.getMethod();
+
+    // async delegates return a CompletionStage of the result
+    TypeName returnType = method.returnType;
+    boolean async =
+        returnType instanceof ParameterizedTypeName
+            && ((ParameterizedTypeName) returnType)
+                .rawType
+                .equals(ClassName.get(CompletionStage.class));
+    if (async) {
+      returnType = ((ParameterizedTypeName) returnType).typeArguments.get(0);
+    }
+
+    // delegates return either an Iterable of models (collection) or a single model (direct entity)
+    boolean collection =
+        returnType instanceof ParameterizedTypeName
+            && ((ParameterizedTypeName) returnType).rawType.equals(ClassName.get(Iterable.class));
+    TypeName model =
+        collection ? ((ParameterizedTypeName) returnType).typeArguments.get(0) : returnType;
+
+    TypeName listOfModels = ParameterizedTypeName.get(ClassName.get(List.class), model);
+    TypeName result =
+        ParameterizedTypeName.get(ClassName.get(Map.class), STRING_CLASS, listOfModels);
+
+    MethodSpec.Builder expandAllAsync =
+        MethodSpec.methodBuilder("expandAllAsync")
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC)
+            .returns(ParameterizedTypeName.get(ClassName.get(CompletionStage.class), result))
+            .addParameter(
+                ParameterizedTypeName.get(ClassName.get(Collection.class), STRING_CLASS),
+                "parentIds")
+            .addParameter(RESTAPI_EXPAND_CONTEXT.getClassName(), "context")
+            .addComment("reads the sub resource per parent, replace it with a single query")
+            .addStatement("$T result = new $T<>()", result, HashMap.class)
+            .beginControlFlow("for ($T parentId : parentIds)", STRING_CLASS)
+            .addStatement(
+                "$T entityContext = context.forEntity(parentId)",
+                RESTAPI_EXPAND_CONTEXT.getClassName())
+            .addStatement("$T models = new $T<>()", listOfModels, ArrayList.class);
+
+    CodeBlock call =
+        async
+            ? CodeBlock.of(
+                "$N($L).toCompletableFuture().join()",
+                method,
+                expandArguments(target, "entityContext"))
+            : CodeBlock.of("$N($L)", method, expandArguments(target, "entityContext"));
+
+    if (collection) {
+      expandAllAsync.addStatement("$L.forEach(models::add)", call);
+    } else {
+      expandAllAsync.addStatement("models.add($L)", call);
+    }
+
+    expandAllAsync
+        .addStatement("result.put(parentId, models)")
+        .endControlFlow()
+        .addStatement("return $T.completedFuture(result)", CompletableFuture.class);
+
+    return delegate.toBuilder()
+        .addSuperinterface(
+            ParameterizedTypeName.get(RESTAPI_BATCH_EXPANDABLE.getClassName(), STRING_CLASS, model))
+        .addMethod(expandAllAsync.build())
+        .build();
+  }
+
+  /**
+   * Maps the parameters of the delegate method of an expand target to the values provided by the
+   * {@code ExpandContext} with the given variable name. Headers are read from the current request,
+   * query parameters are not available to expands and all other parameters are path variables.
+   */
+  private CodeBlock expandArguments(ExpandTarget target, String context) {
+    Map<String, Header> headers = new HashMap<>();
+    for (Header header : target.getVerb().getHeaders()) {
+      headers.put(header.toJavaParamName(), header);
+    }
+
+    Set<String> queryParams = new HashSet<>();
+    for (VerbParameter parameter : target.getVerb().getParameters()) {
+      queryParams.add(parameter.getName());
+    }
+
+    CodeBlock.Builder arguments = CodeBlock.builder();
+
+    for (ParameterSpec parameter : target.getMethod().parameters) {
+      if (!arguments.isEmpty()) {
+        arguments.add(", ");
+      }
+
+      Header header = headers.get(parameter.name);
+
+      if (header != null) {
+        boolean optional =
+            parameter.type instanceof ParameterizedTypeName
+                && ((ParameterizedTypeName) parameter.type)
+                    .rawType
+                    .equals(ClassName.get(Optional.class));
+        TypeName valueType =
+            optional
+                ? ((ParameterizedTypeName) parameter.type).typeArguments.get(0)
+                : parameter.type;
+        TypeName rawType =
+            valueType instanceof ParameterizedTypeName
+                ? ((ParameterizedTypeName) valueType).rawType
+                : valueType.box();
+
+        arguments.add(
+            "$N.$L($S, $T.class)",
+            context,
+            optional ? "header" : "mandatoryHeader",
+            header.getName(),
+            rawType);
+      } else if (queryParams.contains(parameter.name)) {
+        arguments.add(defaultValue(parameter.type));
+      } else {
+        arguments.add("$N.pathVariable($S)", context, parameter.name);
+      }
+    }
+    return arguments.build();
+  }
+
+  private CodeBlock defaultValue(TypeName type) {
+    if (TypeName.BOOLEAN.equals(type)) {
+      return CodeBlock.of("false");
+    } else if (type.isPrimitive()) {
+      return CodeBlock.of("($T) 0", type);
+    }
+    return CodeBlock.of("null");
+  }
+
   @Override
   public TypeName resourceMethodReturnType(Verb verb, Representation representation) {
     String v = toHttpMethod(verb);
@@ -229,7 +582,7 @@ public class MicronautResourceFactory extends AbstractResourceBuilder {
   @Override
   public List<AnnotationSpec> getQueryParamAnnotations(VerbParameter param) {
     List<AnnotationSpec> annotationSpecs = new ArrayList<>();
-    TargetFramework targetFramework = this.restApiExtension.getTargetFramework();
+    TargetFramework targetFramework = this.settings.getTargetFramework();
 
     if (param.getMandatory()) {
       if (param.isMultiple()) {
@@ -303,7 +656,7 @@ public class MicronautResourceFactory extends AbstractResourceBuilder {
 
     Map<String, Object> annotationsFields = new HashMap<>();
 
-    if (this.restApiExtension.getGenerationMode() == GenerationMode.CLIENT) {
+    if (this.settings.getGenerationMode() == GenerationMode.CLIENT) {
 
       if (applyId) {
         annotationsFields.put("value", methodContext.getLinkParser().toBasePath() + "/{id}");
@@ -328,7 +681,7 @@ public class MicronautResourceFactory extends AbstractResourceBuilder {
         }
       }
 
-      TargetFramework targetFramework = this.restApiExtension.getTargetFramework();
+      TargetFramework targetFramework = this.settings.getTargetFramework();
       if (targetFramework == TargetFramework.MICRONAUT_3
           || targetFramework == TargetFramework.MICRONAUT_24) {
 
@@ -365,7 +718,7 @@ public class MicronautResourceFactory extends AbstractResourceBuilder {
 
     annotationsFields.put("value", representation.getMimetype());
 
-    if (this.restApiExtension.getGenerationMode() == GenerationMode.CLIENT) {
+    if (this.settings.getGenerationMode() == GenerationMode.CLIENT) {
       methodAnnotations.add(createAnnotation(MICRONAUT_CONSUMES, annotationsFields));
     } else {
       methodAnnotations.add(createAnnotation(MICRONAUT_PRODUCES, annotationsFields));
@@ -386,7 +739,7 @@ public class MicronautResourceFactory extends AbstractResourceBuilder {
         throw new IllegalArgumentException("Unknown method name " + methodName);
       }
 
-      if (!this.restApiExtension.getGenerationMode().isClientCodeGenerationRequired()) {
+      if (!this.settings.getGenerationMode().isClientCodeGenerationRequired()) {
         AnnotationSpec.Builder b = AnnotationSpec.builder(MICRONAUT_STATUS.getClassName());
         b.addMember("value", v, MICRONAUT_HTTP_STATUS.getClassName());
         methodAnnotations.add(b.build());
@@ -408,7 +761,7 @@ public class MicronautResourceFactory extends AbstractResourceBuilder {
 
   @Override
   public boolean supportsInterfaces() {
-    return this.restApiExtension.getGenerationMode() == GenerationMode.CLIENT;
+    return this.settings.getGenerationMode() == GenerationMode.CLIENT;
   }
 
   @Override
@@ -460,10 +813,58 @@ public class MicronautResourceFactory extends AbstractResourceBuilder {
         context.getRepresentation().getMimetype().toString());
   }
 
+  @Override
+  public void addStreamingStatement(
+      MethodSpec.Builder methodBuilder, MethodContext context, String methodName, String params) {
+    Representation representation = context.getRepresentation();
+    ClassName mediaType = MICRONAUT_HTTP_MEDIA_TYPE.getClassName();
+    String mimetype = representation.getMimetype().toString();
+
+    if ("ndjson".equals(representation.getName())) {
+      methodBuilder.addStatement(
+          "return $N.ndjson($N.$L($L), $T.of($S))",
+          REPRESENTATION_WRITER_VAR_NAME,
+          DELEGATE_VAR_NAME,
+          methodName,
+          params,
+          mediaType,
+          mimetype);
+      return;
+    }
+
+    // the CSV columns are the fields of the GET model
+    List<ResourceField> columns =
+        getResourceContractContainer().getResourceContract().getFields().stream()
+            .filter(ResourceField::isVisible)
+            .collect(Collectors.toList());
+
+    CodeBlock names =
+        columns.stream()
+            .map(field -> CodeBlock.of("$S", field.getName()))
+            .collect(CodeBlock.joining(", "));
+    CodeBlock values =
+        columns.stream()
+            .map(field -> CodeBlock.of("row.get$L()", LOWER_CAMEL.to(UPPER_CAMEL, field.getName())))
+            .collect(CodeBlock.joining(", "));
+
+    methodBuilder.addStatement(
+        "return $N.csv($N.$L($L), $T.of($L), ($T row) -> new Object[] {$L}, $T.of($S))",
+        REPRESENTATION_WRITER_VAR_NAME,
+        DELEGATE_VAR_NAME,
+        methodName,
+        params,
+        ClassName.get(List.class),
+        names,
+        resourceModelName(new Verb(GET_COLLECTION)),
+        values,
+        mediaType,
+        mimetype);
+  }
+
   @Override
   protected void enhanceResourceModelBaseInstance(Verb verb, TypeSpec.Builder builder) {
 
-    TargetFramework targetFramework = this.restApiExtension.getTargetFramework();
+    TargetFramework targetFramework = this.settings.getTargetFramework();
 
     if (targetFramework.isJakarta()) {
       builder.addAnnotation(createAnnotation(MICRONAUT_SERDEABLE));
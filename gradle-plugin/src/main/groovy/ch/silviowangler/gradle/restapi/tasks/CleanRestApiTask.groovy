@@ -24,7 +24,11 @@
 package ch.silviowangler.gradle.restapi.tasks
 
 import org.gradle.api.DefaultTask
+import org.gradle.api.file.DirectoryProperty
+import org.gradle.api.file.RegularFileProperty
+import org.gradle.api.tasks.Internal
 import org.gradle.api.tasks.TaskAction
+import org.gradle.work.DisableCachingByDefault
 
 import static groovy.io.FileType.DIRECTORIES
 
@@ -32,11 +36,24 @@ import static groovy.io.FileType.DIRECTORIES
  *
  * @author Silvio Wangler
  */
-class CleanRestApiTask extends DefaultTask {
+@DisableCachingByDefault(because = 'Deleting files produces no outputs')
+abstract class CleanRestApiTask extends DefaultTask {
+
+	/**
+	 * The directory of the generated sources. Defaults to the {@code generatorOutput} of the extension.
+	 */
+	@Internal
+	abstract DirectoryProperty getGeneratorOutput()
+
+	/**
+	 * The generation manifest of {@link GenerateRestApiTask}. It describes the deleted sources and is deleted too.
+	 */
+	@Internal
+	abstract RegularFileProperty getManifestFile()
 
 	@TaskAction
 	void cleanUp() {
-		def rootDir = project.restApi.generatorOutput
+		File rootDir = getGeneratorOutput().get().asFile
 
 		if (rootDir.exists()) {
 			rootDir.eachFile DIRECTORIES, { dir ->
@@ -44,5 +61,9 @@ class CleanRestApiTask extends DefaultTask {
 			}
 			rootDir.eachFile { file -> file.delete() }
 		}
+
+		if (getManifestFile().present) {
+			getManifestFile().get().asFile.delete()
+		}
 	}
 }
@@ -24,38 +24,47 @@
 package ch.silviowangler.gradle.restapi.tasks
 
 import ch.silviowangler.gradle.restapi.Consts
-import ch.silviowangler.gradle.restapi.GeneratorUtil
 import org.gradle.api.DefaultTask
 import org.gradle.api.Project
 import org.gradle.api.artifacts.Configuration
+import org.gradle.api.file.ArchiveOperations
+import org.gradle.api.file.ConfigurableFileCollection
+import org.gradle.api.file.DirectoryProperty
+import org.gradle.api.file.FileSystemOperations
+import org.gradle.api.tasks.InputFiles
 import org.gradle.api.tasks.OutputDirectory
+import org.gradle.api.tasks.PathSensitive
+import org.gradle.api.tasks.PathSensitivity
 import org.gradle.api.tasks.TaskAction
+import org.gradle.work.DisableCachingByDefault
 
-class ExtractRestApiSpecsTask extends DefaultTask {
+import javax.inject.Inject
 
-	File extractOutputDir
+@DisableCachingByDefault(because = 'Extracting the specification archives is faster than loading them from the cache')
+abstract class ExtractRestApiSpecsTask extends DefaultTask {
 
-	ExtractRestApiSpecsTask() {
-		this.extractOutputDir = GeneratorUtil.generatorInput(project)
-	}
+	/**
+	 * The specification archives of the {@code restApi} configuration.
+	 */
+	@InputFiles
+	@PathSensitive(PathSensitivity.NAME_ONLY)
+	abstract ConfigurableFileCollection getSpecArchives()
 
 	@OutputDirectory
-	File getExtractOutputDir() {
-		return extractOutputDir
-	}
+	abstract DirectoryProperty getExtractOutputDir()
 
-	@TaskAction
-	void extract() {
-		if (isConfigurationRestApiDefined(project)) {
+	@Inject
+	abstract ArchiveOperations getArchiveOperations()
 
-			Configuration configuration = project.configurations.findByName(Consts.CONFIGURATION_REST_API)
-			Set<File> files = configuration.files
+	@Inject
+	abstract FileSystemOperations getFileSystemOperations()
 
-			for (File file in files) {
-				project.copy {
-					from project.zipTree(file)
-					into this.extractOutputDir
-				}
+	@TaskAction
+	void extract() {
+		for (File file in getSpecArchives().files) {
+			getFileSystemOperations().copy {
+				from getArchiveOperations().zipTree(file)
+				into getExtractOutputDir()
 			}
 		}
 	}
@@ -27,18 +27,27 @@ import ch.silviowangler.gradle.restapi.asciidoc.AsciiDocFieldsAssistant
 import ch.silviowangler.gradle.restapi.builder.ResourceContractContainer
 import groovy.text.SimpleTemplateEngine
 import org.apache.commons.lang3.StringUtils
-import org.gradle.api.tasks.InputDirectory
+import org.gradle.api.file.DirectoryProperty
+import org.gradle.api.tasks.CacheableTask
+import org.gradle.api.tasks.Internal
 import org.gradle.api.tasks.OutputDirectory
 import org.gradle.api.tasks.TaskAction
 
 /**
  * @author Osian Hughes
  */
-class GenerateRestApiAsciiDocTask extends SpecificationBaseTask {
+@CacheableTask
+abstract class GenerateRestApiAsciiDocTask extends SpecificationBaseTask {
 
+	/**
+	 * The directory of the AsciiDoc files. Defaults to the {@code asciiDocOutput} of the extension.
+	 */
 	@OutputDirectory
+	abstract DirectoryProperty getOutputDirectory()
+
+	@Internal
 	File getRootOutputDir() {
-		project.restApi.asciiDocOutput
+		return getOutputDirectory().get().asFile
 	}
 
 	@TaskAction
@@ -58,7 +67,7 @@ class GenerateRestApiAsciiDocTask extends SpecificationBaseTask {
 		targetFile.createNewFile()
 		targetFile.write(template.toString(), 'UTF-8')
 
-		println "Writing ASCIIDoc file: ${targetFile.absolutePath}"
+		logger.info("Writing ASCIIDoc file: {}", targetFile.absolutePath)
 
 		resource = '/asciidoc_templates/container_details.asciidoc.template'
 		url = getClass().getResource(resource)
@@ -80,7 +89,7 @@ class GenerateRestApiAsciiDocTask extends SpecificationBaseTask {
 			targetFile = new File(getRootOutputDir(), "${container.resourceContract.general.name}.adoc")
 			targetFile.createNewFile()
 			targetFile.write(template.toString(), 'UTF-8')
-			println "Writing ASCIIDoc file: ${targetFile.absolutePath}"
+			logger.info("Writing ASCIIDoc file: {}", targetFile.absolutePath)
 		}
 	}
 }
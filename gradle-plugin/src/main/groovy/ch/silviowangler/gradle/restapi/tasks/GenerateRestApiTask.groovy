@@ -23,16 +23,37 @@
  */
 package ch.silviowangler.gradle.restapi.tasks
 
-import ch.silviowangler.gradle.restapi.GeneratedSpecContainer
+import ch.silviowangler.gradle.restapi.GenerationManifest
+import ch.silviowangler.gradle.restapi.GenerationSettings
 import ch.silviowangler.gradle.restapi.RestApiExtension
-import com.squareup.javapoet.JavaFile
-import com.squareup.javapoet.TypeSpec
+import ch.silviowangler.gradle.restapi.SpecificationGraph
+import com.squareup.javapoet.ClassName
 import org.gradle.api.GradleException
+import org.gradle.api.file.DirectoryProperty
+import org.gradle.api.file.FileType
+import org.gradle.api.file.RegularFileProperty
+import org.gradle.api.provider.MapProperty
+import org.gradle.api.provider.Property
+import org.gradle.api.tasks.CacheableTask
+import org.gradle.api.tasks.Input
 import org.gradle.api.tasks.InputDirectory
+import org.gradle.api.tasks.Internal
 import org.gradle.api.tasks.OutputDirectory
+import org.gradle.api.tasks.OutputFile
+import org.gradle.api.tasks.PathSensitive
+import org.gradle.api.tasks.PathSensitivity
 import org.gradle.api.tasks.TaskAction
+import org.gradle.work.ChangeType
+import org.gradle.work.Incremental
+import org.gradle.work.InputChanges
+import org.gradle.workers.WorkAction
+import org.gradle.workers.WorkQueue
+import org.gradle.workers.WorkerExecutor
 
-class GenerateRestApiTask extends SpecificationBaseTask {
+import javax.inject.Inject
+
+@CacheableTask
+abstract class GenerateRestApiTask extends SpecificationBaseTask {
 
 	public static final String GET_COLLECTION = 'GET_COLLECTION'
 	public static final String GET_ENTITY = 'GET_ENTITY'
@@ -45,75 +66,311 @@ class GenerateRestApiTask extends SpecificationBaseTask {
 	public static final String DELETE_ENTITY = 'DELETE_ENTITY'
 	public static final String DELETE_COLLECTION = 'DELETE_COLLECTION'
 
+	/**
+	 * The directory of the generated sources. Defaults to the {@code generatorOutput} of the extension.
+	 */
 	@OutputDirectory
+	abstract DirectoryProperty getOutputDirectory()
+
+	@Internal
 	File getRootOutputDir() {
-		project.restApi.generatorOutput
+		return getOutputDirectory().getAsFile().getOrNull()
 	}
 
+	/**
+	 * Receives the resource implementations. {@link InstallRestImplementationsTask} copies them to the
+	 * {@code generatorImplOutput} of the extension.
+	 */
+	@OutputDirectory
+	abstract DirectoryProperty getImplementationDirectory()
+
+	@Incremental
+	@InputDirectory
+	@PathSensitive(PathSensitivity.RELATIVE)
+	@Override
+	abstract DirectoryProperty getSpecificationDirectory()
+
+	/**
+	 * The settings of the extension the generated sources depend on.
+	 *
+	 * @see #settingsOf(RestApiExtension)
+	 */
+	@Input
+	abstract MapProperty<String, String> getGenerationSettings()
+
+	/**
+	 * Only replaces a generated source if its content differs from the existing file. The content of the outputs
+	 * does not depend on it.
+	 * <p>
+	 * Only incremental runs benefit from this option. Gradle deletes the outputs of the task before a non-incremental
+	 * run (e.g. after a build cache miss without previous outputs), so every source is written again.
+	 */
+	@Internal
+	abstract Property<Boolean> getSkipUnchangedSources()
+
+	/**
+	 * Generates the specifications of a level in parallel. The content of the outputs does not depend on it.
+	 */
+	@Internal
+	abstract Property<Boolean> getParallelGeneration()
+
+	/**
+	 * Records the fingerprint, the contributed resource types and the generated files of every specification.
+	 */
+	@OutputFile
+	abstract RegularFileProperty getManifestFile()
+
+	/**
+	 * Shares the generation session with the workers if {@link #getParallelGeneration()} is enabled.
+	 */
+	@Internal
+	abstract Property<RestApiGenerationService> getGenerationService()
+
+	@Inject
+	abstract WorkerExecutor getWorkerExecutor()
+
 	@TaskAction
+	void exec(InputChanges inputChanges) {
+		generate(inputChanges)
+	}
+
+	/**
+	 * Generates the sources of all specifications.
+	 */
 	void exec() {
+		generate(null)
+	}
+
+	private void generate(InputChanges inputChanges) {
 
 		if (!getRootOutputDir()) {
 			throw new GradleException("generatorOutput dir must be set")
 		}
 
-		logger.lifecycle "Generating REST artifacts ..."
-		long start = System.currentTimeMillis()
-		int amountOfGeneratedJavaSourceFiles = 0
-		final String fileSeparator = '/'
+		GenerationSettings generationSettings = GenerationSettings.of(getGenerationSettings().get())
+		File implementationDir = getImplementationDirectory().getAsFile().getOrNull()
+		implementationDir?.mkdirs()
 
-		RestApiExtension restApiExtension = project.restApi
+		logger.lifecycle "Generating REST artifacts for target framework {} ...", generationSettings.targetFramework
+		long start = System.currentTimeMillis()
 
 		List<File> specs = findSpecifications(getOptionsSource())
 
 		logger.lifecycle("Found ${specs.size()} specification files (${specs.collect { it.name}})")
 
+		if (generationSettings.generateExpandDispatchers || generationSettings.generateBatchExpandables) {
+			specGenerator.registerSpecifications(specs)
+		}
+
+		SpecificationGraph graph = specificationGraph(specs)
+		GenerationSession session = new GenerationSession(specGenerator, generationSettings, getRootOutputDir(), implementationDir,
+				getSkipUnchangedSources().getOrElse(false), logger)
+
+		File manifestFile = getManifestFile().getAsFile().getOrNull()
+		GenerationManifest previous = GenerationManifest.read(manifestFile)
+		String settings = getGenerationSettings().get().collect { String key, String value -> "${key}=${value}" }.join('|')
+
+		Set<File> affected = affectedSpecifications(inputChanges, graph, previous, generationSettings, settings)
+		List<File> outdated = graph.specifications.findAll { File specFile -> affected.contains(specFile) }
+
+		logger.lifecycle("Generating {} of {} specifications", outdated.size(), specs.size())
+
+		if (getParallelGeneration().getOrElse(false)) {
+			generateInParallel(session, graph, affected, previous)
+		} else {
+			for (List<File> level in graph.levels) {
+				session.beginLevel()
+				level.each { File specFile -> prepareOrRestore(session, specFile, affected, previous) }
+				session.endLevel(level)
+			}
+			outdated.each { File specFile -> session.generate(specFile) }
+		}
+
+		GenerationManifest manifest = new GenerationManifest()
+		manifest.settings = settings
+
 		for (File specFile in specs) {
+			String key = manifestKey(specFile)
+
+			if (affected.contains(specFile)) {
+				GenerationManifest.Entry entry = new GenerationManifest.Entry()
+				entry.fingerprint = GenerationManifest.fingerprint(specFile)
+				entry.definedTypes = graph.getDefinedTypes(specFile).toList()
+				entry.resourceTypes = session.contributedTypes(specFile).collect { ClassName type -> type.reflectionName() }
+				entry.outputs = session.outputs(specFile)
+				entry.implementationOutputs = session.implementationOutputs(specFile)
+				manifest.specifications[key] = entry
+			} else {
+				manifest.specifications[key] = previous.specifications[key]
+			}
+		}
+
+		int deleted = deleteStaleOutputs(previous, manifest, getRootOutputDir()) { GenerationManifest.Entry entry -> entry.outputs }
+		if (implementationDir) {
+			deleted += deleteStaleOutputs(previous, manifest, implementationDir) { GenerationManifest.Entry entry -> entry.implementationOutputs }
+		}
 
-			println "Processing spec ${specFile.name}"
-			GeneratedSpecContainer specContainer = specGenerator.generateJavaTypesForSpecification(specFile, project.restApi as RestApiExtension)
+		if (manifestFile) {
+			manifest.write(manifestFile)
+		}
+		logger.lifecycle "Wrote {} source files, skipped {} unchanged source files and deleted {} stale source files", session.amountOfWrittenSourceFiles, session.amountOfSkippedSourceFiles, deleted
+		logger.lifecycle "Done generating REST artifacts in {} milliseconds. (Processed JSON {} files and generated {} Java source code files)", System.currentTimeMillis() - start, specs.size(), session.amountOfGeneratedJavaSourceFiles
+	}
+
+	/**
+	 * Determines the specifications to generate. These are the added and modified specifications and, transitively,
+	 * the specifications using the custom types of an added, modified or removed specification.
+	 */
+	private Set<File> affectedSpecifications(InputChanges inputChanges, SpecificationGraph graph, GenerationManifest previous,
+			GenerationSettings generationSettings, String settings) {
+
+		Set<File> all = new LinkedHashSet<>(graph.specifications)
+
+		if (inputChanges == null || !inputChanges.incremental || previous.settings != settings) {
+			return all
+		}
+
+		if (generationSettings.generateExpandDispatchers || generationSettings.generateBatchExpandables) {
+			// expand dispatchers and batch expandables are generated from the contracts of other specifications
+			return all
+		}
 
-			for (TypeSpec model in specContainer.collectGeneratedTypes()) {
-				amountOfGeneratedJavaSourceFiles++
-				writeToFileSystem(specContainer.packageName, model, getRootOutputDir())
+		Set<String> changed = inputChanges.getFileChanges(specificationDirectory).findAll { change ->
+			change.fileType == FileType.FILE && change.changeType != ChangeType.REMOVED
+		}.collect { change -> change.file.absolutePath } as Set<String>
+
+		Set<File> affected = new LinkedHashSet<>()
+		Set<String> changedTypes = new HashSet<>()
+
+		for (File specFile in all) {
+			GenerationManifest.Entry entry = previous.specifications[manifestKey(specFile)]
+
+			// a touched specification with the same content does not need to be regenerated
+			if (entry == null || (changed.contains(specFile.absolutePath) && entry.fingerprint != GenerationManifest.fingerprint(specFile))) {
+				affected << specFile
+				changedTypes.addAll(graph.getDefinedTypes(specFile))
+				if (entry) {
+					changedTypes.addAll(entry.definedTypes)
+				}
 			}
+		}
 
-			if (specContainer.restImplementation) {
-				File file = new File(restApiExtension.generatorImplOutput, "${specContainer.packageName.replaceAll('\\.', fileSeparator)}${fileSeparator}${specContainer.restImplementation.name}.java")
+		Set<String> keys = all.collect { File specFile -> manifestKey(specFile) } as Set<String>
+		previous.specifications.findAll { String key, GenerationManifest.Entry entry -> !keys.contains(key) }.each { String key, GenerationManifest.Entry entry ->
+			logger.info('Specification {} has been removed', key)
+			changedTypes.addAll(entry.definedTypes)
+		}
 
-				if (!file.exists()) {
-					logger.lifecycle('Writing implementation {} to {}', file.name, restApiExtension.generatorImplOutput)
-					amountOfGeneratedJavaSourceFiles++
-					writeToFileSystem(specContainer.packageName, specContainer.restImplementation, restApiExtension.generatorImplOutput)
-				} else {
-					logger.lifecycle('Resource implementation {} exists. Skipping this one', file.name)
+		boolean grown = true
+		while (grown) {
+			grown = false
+			for (File specFile in all) {
+				if (!affected.contains(specFile) && graph.getReferencedTypes(specFile).any { String type -> changedTypes.contains(type) }) {
+					affected << specFile
+					changedTypes.addAll(graph.getDefinedTypes(specFile))
+					grown = true
 				}
 			}
 		}
-		logger.lifecycle "Done generating REST artifacts in {} milliseconds. (Processed JSON {} files and generated {} Java source code files)", System.currentTimeMillis() - start, specs.size(), amountOfGeneratedJavaSourceFiles
+		return affected
+	}
+
+	protected void prepareOrRestore(GenerationSession session, File specFile, Set<File> affected, GenerationManifest previous) {
+		if (affected.contains(specFile)) {
+			session.prepare(specFile)
+		} else {
+			session.restore(specFile, previous.specifications[manifestKey(specFile)].resourceTypes.collect { String type ->
+				int separator = type.lastIndexOf('.')
+				ClassName.get(type.substring(0, separator), type.substring(separator + 1))
+			})
+		}
 	}
 
-	private void writeToFileSystem(String packageName, TypeSpec typeSpec, File outputDir) {
+	/**
+	 * Deletes the files that were generated by the previous generation but not by the current one, e.g. the outputs of
+	 * removed specifications.
+	 *
+	 * @param outputDir the directory the outputs are relative to.
+	 * @param outputsOf selects the outputs of a manifest entry that are relative to {@code outputDir}.
+	 * @return the number of deleted files.
+	 */
+	private int deleteStaleOutputs(GenerationManifest previous, GenerationManifest current, File outputDir,
+			Closure<List<String>> outputsOf) {
 
-		Objects.requireNonNull(packageName, "Package name must be present")
-		Objects.requireNonNull(typeSpec, "Type spec must be present")
-		Objects.requireNonNull(outputDir, "output dir must be present")
+		Set<String> currentOutputs = current.specifications.values().collectMany { outputsOf(it) ?: [] } as Set<String>
 
-		if (!outputDir.canWrite()) {
-			throw new IllegalStateException("I must have permission to write to ${outputDir.absolutePath}")
-		}
+		return previous.specifications.values().collectMany { outputsOf(it) ?: [] }.findAll { String output -> !currentOutputs.contains(output) }.count { String output ->
+			File file = new File(outputDir, output)
+			boolean deleted = file.delete()
+			if (deleted) {
+				logger.info('Deleted stale output {}', file.absolutePath)
+			}
+			return deleted
+		} as int
+	}
+
+	protected String manifestKey(File specFile) {
+		return getOptionsSource().toPath().relativize(specFile.toPath()).toString().replace(File.separatorChar, '/' as char)
+	}
+
+	/**
+	 * @return the settings of the extension the generated sources depend on. Settings without a value are left out.
+	 * @see GenerationSettings#of(Map)
+	 */
+	static Map<String, String> settingsOf(RestApiExtension extension) {
+		Map<String, Object> settings = [
+			packageName                     : extension.packageName,
+			targetFramework                 : extension.targetFramework,
+			generationMode                  : extension.generationMode,
+			responseEncoding                : extension.responseEncoding?.name(),
+			generateDateAttribute           : extension.generateDateAttribute,
+			enableSecurity                  : extension.enableSecurity,
+			clientId                        : extension.clientId,
+			generateResourceContracts       : extension.generateResourceContracts,
+			generateExpandDispatchers       : extension.generateExpandDispatchers,
+			generateBatchExpandables        : extension.generateBatchExpandables,
+			generateAsyncDelegates          : extension.generateAsyncDelegates,
+			generateStreamingRepresentations: extension.generateStreamingRepresentations,
+			reproducibleSources             : extension.reproducibleSources
+		]
+		return settings.findAll { String key, Object value -> value != null }.collectEntries { String key, Object value -> [(key): String.valueOf(value)] } as Map<String, String>
+	}
 
-		JavaFile javaFile = JavaFile.builder(packageName, typeSpec).skipJavaLangImports(true).build()
+	private void generateInParallel(GenerationSession session, SpecificationGraph graph, Set<File> affected, GenerationManifest previous) {
 
-		logger.info("Writing {} ...", typeSpec)
-		if (isWriteToConsoleEnabled()) {
-			javaFile.writeTo(System.out)
+		RestApiGenerationService service = generationService.get()
+		String sessionId = path
+
+		service.open(sessionId, session)
+		try {
+			WorkQueue queue = workerExecutor.noIsolation()
+
+			// the specs of a level only use the custom types of the levels before
+			for (List<File> level in graph.levels) {
+				session.beginLevel()
+				List<File> outdated = level.findAll { File specFile -> affected.contains(specFile) }
+				level.findAll { File specFile -> !affected.contains(specFile) }.each { File specFile -> prepareOrRestore(session, specFile, affected, previous) }
+				submit(queue, PrepareSpecificationAction, service, sessionId, outdated)
+				queue.await()
+				session.endLevel(level)
+			}
+
+			submit(queue, GenerateSpecificationAction, service, sessionId, graph.specifications.findAll { File specFile -> affected.contains(specFile) })
+			queue.await()
+		} finally {
+			service.close(sessionId)
 		}
-		logger.debug('Writing to {}', outputDir.absolutePath)
-		javaFile.writeTo(outputDir)
 	}
 
-	private boolean isWriteToConsoleEnabled() {
-		getLogger().isDebugEnabled() || System.getProperty('silviowangler.rest-plugin.debug', 'false') != 'false'
+	private static void submit(WorkQueue queue, Class<? extends WorkAction<GenerateSpecificationAction.Parameters>> action,
+			RestApiGenerationService service, String sessionId, List<File> specs) {
+
+		for (File specFile in specs) {
+			queue.submit(action) { GenerateSpecificationAction.Parameters parameters ->
+				parameters.generationService.set(service)
+				parameters.sessionId.set(sessionId)
+				parameters.specPath.set(specFile.absolutePath)
+			}
+		}
 	}
 }
@@ -0,0 +1,219 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.gradle.restapi.tasks
+
+import ch.silviowangler.gradle.restapi.GeneratedSpecContainer
+import ch.silviowangler.gradle.restapi.GenerationSettings
+import ch.silviowangler.gradle.restapi.builder.PreparedSpecification
+import ch.silviowangler.gradle.restapi.builder.SpecGenerator
+import com.squareup.javapoet.ClassName
+import com.squareup.javapoet.JavaFile
+import com.squareup.javapoet.TypeSpec
+import org.gradle.api.logging.Logger
+
+import java.nio.charset.StandardCharsets
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Generates and writes the Java sources of the prepared specifications of one {@link GenerateRestApiTask} execution.
+ * The sources of different specifications can be generated concurrently.
+ *
+ * @author Silvio Wangler
+ */
+class GenerationSession {
+
+	private static final String FILE_SEPARATOR = '/'
+
+	private final SpecGenerator specGenerator
+	private final GenerationSettings settings
+	private final File rootOutputDir
+	private final File implementationDir
+	private final boolean skipUnchangedSources
+	private final Logger logger
+	private final Map<String, PreparedSpecification> preparedSpecifications = new ConcurrentHashMap<>()
+	private final Map<String, List<ClassName>> contributedTypes = new ConcurrentHashMap<>()
+	private final Map<String, List<String>> outputs = new ConcurrentHashMap<>()
+	private final Map<String, List<String>> implementationOutputs = new ConcurrentHashMap<>()
+	private final AtomicInteger amountOfGeneratedJavaSourceFiles = new AtomicInteger()
+	private final AtomicInteger amountOfWrittenSourceFiles = new AtomicInteger()
+	private final AtomicInteger amountOfSkippedSourceFiles = new AtomicInteger()
+	private volatile Set<ClassName> registeredTypes = Collections.emptySet()
+
+	/**
+	 * @param implementationDir receives the implementation of every generated resource. The implementations are
+	 * copied to the {@code generatorImplOutput} of the extension by {@link InstallRestImplementationsTask}.
+	 * @param skipUnchangedSources does not replace a source with the same content.
+	 */
+	GenerationSession(SpecGenerator specGenerator, GenerationSettings settings, File rootOutputDir, File implementationDir,
+			boolean skipUnchangedSources, Logger logger) {
+		this.specGenerator = specGenerator
+		this.settings = settings
+		this.rootOutputDir = rootOutputDir
+		this.implementationDir = implementationDir
+		this.skipUnchangedSources = skipUnchangedSources
+		this.logger = logger
+	}
+
+	/**
+	 * Starts the preparation of a level of the {@link ch.silviowangler.gradle.restapi.SpecificationGraph}. The
+	 * specifications of the level refer to the custom types registered by the levels before.
+	 */
+	void beginLevel() {
+		registeredTypes = specGenerator.registeredResourceTypes
+	}
+
+	/**
+	 * Parses the specification and builds its custom types. The specifications of a level can be prepared
+	 * concurrently.
+	 */
+	void prepare(File specFile) {
+		PreparedSpecification prepared = specGenerator.prepareSpecification(specFile, settings, registeredTypes)
+		preparedSpecifications.put(specFile.absolutePath, prepared)
+		contributedTypes.put(specFile.absolutePath, prepared.contributedResourceTypes)
+	}
+
+	/**
+	 * Uses the custom types a specification contributed in a previous generation instead of preparing it. The
+	 * specification is not generated.
+	 *
+	 * @param resourceTypes the contributed types in the order of registration.
+	 */
+	void restore(File specFile, List<ClassName> resourceTypes) {
+		contributedTypes.put(specFile.absolutePath, resourceTypes)
+	}
+
+	/**
+	 * Registers the custom types of the specifications of a prepared level.
+	 *
+	 * @param level the specifications of the level in the order of the graph.
+	 */
+	void endLevel(List<File> level) {
+		for (File specFile in level) {
+			specGenerator.registerResourceTypes(contributedTypes.get(specFile.absolutePath))
+		}
+	}
+
+	/**
+	 * Generates the Java sources of a prepared specification and writes them to the file system.
+	 */
+	void generate(File specFile) {
+
+		PreparedSpecification prepared = preparedSpecifications.remove(specFile.absolutePath)
+
+		if (!prepared) {
+			throw new IllegalStateException("Specification ${specFile.name} has not been prepared")
+		}
+
+		logger.info("Processing spec {}", specFile.name)
+		GeneratedSpecContainer specContainer = specGenerator.generateJavaTypesForSpecification(prepared, settings)
+
+		List<String> specOutputs = []
+
+		for (TypeSpec model in specContainer.collectGeneratedTypes()) {
+			amountOfGeneratedJavaSourceFiles.incrementAndGet()
+			writeToFileSystem(specContainer.packageName, model, rootOutputDir)
+			specOutputs << "${specContainer.packageName.replaceAll('\\.', FILE_SEPARATOR)}${FILE_SEPARATOR}${model.name}.java".toString()
+		}
+		outputs.put(specFile.absolutePath, specOutputs)
+
+		if (specContainer.restImplementation && implementationDir) {
+			amountOfGeneratedJavaSourceFiles.incrementAndGet()
+			writeToFileSystem(specContainer.packageName, specContainer.restImplementation, implementationDir)
+			implementationOutputs.put(specFile.absolutePath, ["${specContainer.packageName.replaceAll('\\.', FILE_SEPARATOR)}${FILE_SEPARATOR}${specContainer.restImplementation.name}.java".toString()])
+		}
+	}
+
+	/**
+	 * @return the custom types the specification contributes to the resource type registry.
+	 */
+	List<ClassName> contributedTypes(File specFile) {
+		return contributedTypes.getOrDefault(specFile.absolutePath, [])
+	}
+
+	/**
+	 * @return the files generated for the specification, relative to the generator output.
+	 */
+	List<String> outputs(File specFile) {
+		return outputs.getOrDefault(specFile.absolutePath, [])
+	}
+
+	/**
+	 * @return the implementations generated for the specification, relative to the implementation directory.
+	 */
+	List<String> implementationOutputs(File specFile) {
+		return implementationOutputs.getOrDefault(specFile.absolutePath, [])
+	}
+
+	int getAmountOfGeneratedJavaSourceFiles() {
+		return amountOfGeneratedJavaSourceFiles.get()
+	}
+
+	int getAmountOfWrittenSourceFiles() {
+		return amountOfWrittenSourceFiles.get()
+	}
+
+	/**
+	 * @return the number of sources not written because the existing file has the same content.
+	 */
+	int getAmountOfSkippedSourceFiles() {
+		return amountOfSkippedSourceFiles.get()
+	}
+
+	private void writeToFileSystem(String packageName, TypeSpec typeSpec, File outputDir) {
+
+		Objects.requireNonNull(packageName, "Package name must be present")
+		Objects.requireNonNull(typeSpec, "Type spec must be present")
+		Objects.requireNonNull(outputDir, "output dir must be present")
+
+		if (!outputDir.canWrite()) {
+			throw new IllegalStateException("I must have permission to write to ${outputDir.absolutePath}")
+		}
+
+		JavaFile javaFile = JavaFile.builder(packageName, typeSpec).skipJavaLangImports(true).build()
+
+		logger.info("Writing {} ...", typeSpec)
+		if (isWriteToConsoleEnabled()) {
+			javaFile.writeTo(System.out)
+		}
+
+		if (skipUnchangedSources) {
+			File file = new File(outputDir, "${packageName.replaceAll('\\.', FILE_SEPARATOR)}${FILE_SEPARATOR}${typeSpec.name}.java")
+			byte[] content = javaFile.toString().getBytes(StandardCharsets.UTF_8)
+
+			if (file.isFile() && file.length() == content.length && Arrays.equals(file.bytes, content)) {
+				logger.debug('{} is unchanged', file.absolutePath)
+				amountOfSkippedSourceFiles.incrementAndGet()
+				return
+			}
+		}
+		logger.debug('Writing to {}', outputDir.absolutePath)
+		javaFile.writeTo(outputDir)
+		amountOfWrittenSourceFiles.incrementAndGet()
+	}
+
+	private boolean isWriteToConsoleEnabled() {
+		logger.isDebugEnabled() || System.getProperty('silviowangler.rest-plugin.debug', 'false') != 'false'
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.gradle.restapi.tasks
+
+import org.gradle.api.DefaultTask
+import org.gradle.api.file.DirectoryProperty
+import org.gradle.api.tasks.InputDirectory
+import org.gradle.api.tasks.Internal
+import org.gradle.api.tasks.PathSensitive
+import org.gradle.api.tasks.PathSensitivity
+import org.gradle.api.tasks.TaskAction
+import org.gradle.api.tasks.UntrackedTask
+
+import java.nio.file.Files
+
+import static groovy.io.FileType.FILES
+
+/**
+ * Copies the resource implementations generated by {@link GenerateRestApiTask} to the {@code generatorImplOutput} of
+ * the extension. An implementation is only copied if it does not exist yet, since it contains the code of the
+ * developer.
+ * <p>
+ * The task is untracked. The implementation output contains hand written sources and therefore must neither be an
+ * output of the cacheable {@link GenerateRestApiTask} nor be restored from the build cache.
+ *
+ * @author Silvio Wangler
+ */
+@UntrackedTask(because = 'The implementation output contains hand written sources')
+abstract class InstallRestImplementationsTask extends DefaultTask {
+
+	/**
+	 * The implementations generated by {@link GenerateRestApiTask}.
+	 */
+	@InputDirectory
+	@PathSensitive(PathSensitivity.RELATIVE)
+	abstract DirectoryProperty getImplementationDirectory()
+
+	/**
+	 * The directory of the implementations. Defaults to the {@code generatorImplOutput} of the extension.
+	 */
+	@Internal
+	abstract DirectoryProperty getGeneratorImplOutput()
+
+	@TaskAction
+	void install() {
+		File source = getImplementationDirectory().get().asFile
+		File target = getGeneratorImplOutput().get().asFile
+
+		if (!source.isDirectory()) {
+			return
+		}
+
+		source.eachFileRecurse(FILES) { File implementation ->
+			File file = new File(target, source.toPath().relativize(implementation.toPath()).toString())
+
+			if (file.exists()) {
+				logger.info('Resource implementation {} exists. Skipping this one', file.name)
+			} else {
+				logger.lifecycle('Writing implementation {} to {}', file.name, target)
+				file.parentFile.mkdirs()
+				Files.copy(implementation.toPath(), file.toPath())
+			}
+		}
+	}
+}
@@ -24,6 +24,7 @@
 package ch.silviowangler.gradle.restapi.tasks
 
 import ch.silviowangler.gradle.restapi.builder.ResourceContractContainer
+import ch.silviowangler.gradle.restapi.builder.SubResourceResolver
 import ch.silviowangler.gradle.restapi.diagrams.Dependency
 import ch.silviowangler.gradle.restapi.diagrams.Knot
 import ch.silviowangler.rest.contract.model.v1.SubResource
@@ -32,6 +33,11 @@ import net.sourceforge.plantuml.FileFormatOption
 import net.sourceforge.plantuml.GeneratedImage
 import net.sourceforge.plantuml.ISourceFileReader
 import net.sourceforge.plantuml.SourceFileReader
+import org.gradle.api.file.DirectoryProperty
+import org.gradle.api.provider.Property
+import org.gradle.api.tasks.CacheableTask
+import org.gradle.api.tasks.Input
+import org.gradle.api.tasks.Internal
 import org.gradle.api.tasks.OutputDirectory
 import org.gradle.api.tasks.TaskAction
 
@@ -40,13 +46,21 @@ import static net.sourceforge.plantuml.FileFormat.SVG
 /**
  * @author Silvio Wangler
  */
-class PlantUmlTask extends SpecificationBaseTask {
-
-	private SimpleTemplateEngine templateEngine = new SimpleTemplateEngine()
+@CacheableTask
+abstract class PlantUmlTask extends SpecificationBaseTask {
 
+	/**
+	 * The directory of the diagrams. Defaults to the {@code diagramOutput} of the extension.
+	 */
 	@OutputDirectory
+	abstract DirectoryProperty getOutputDirectory()
+
+	@Input
+	abstract Property<Boolean> getShowFields()
+
+	@Internal
 	File getRootOutputDir() {
-		project.restApi.diagramOutput
+		return getOutputDirectory().get().asFile
 	}
 
 	@TaskAction
@@ -62,7 +76,7 @@ class PlantUmlTask extends SpecificationBaseTask {
 
 		String resource = '/puml/resources-overview.puml.template'
 		URL url = getClass().getResource(resource)
-		def template = templateEngine.createTemplate(url).make([title: 'Resources Overview', containers: contracts, dependencies: buildDependencyList(hierarchy), showFields: project.restApi.diagramShowFields])
+		def template = new SimpleTemplateEngine().createTemplate(url).make([title: 'Resources Overview', containers: contracts, dependencies: buildDependencyList(hierarchy), showFields: getShowFields().get()])
 
 		File targetFile = new File(getRootOutputDir(), 'resources-overview.puml')
 
@@ -102,7 +116,7 @@ class PlantUmlTask extends SpecificationBaseTask {
 			if (subNode) {
 				node.children << buildHierarchy(subNode, containers)
 			} else {
-				println "Cannot find contract for sub resource ${subResource.name}"
+				logger.warn("Cannot find contract for sub resource {}", subResource.name)
 			}
 		}
 
@@ -110,41 +124,10 @@ class PlantUmlTask extends SpecificationBaseTask {
 	}
 
 	/**
-	 * This method first searches for subresources by name and disambiguites conflicts using an xRoute longest common prefix match.
-	 * If two resources have the same name, the resource with an xRoute with the most in common with the subresource.href will be choosen.
-	 * @param containers a list of all ResourceContractContainers
-	 * @param subResource a Subresource spec
-	 * @return the ResourceContractContainer for the resource pointed to by `subResource`
+	 * @see SubResourceResolver#findSubResourceContract(List, SubResource)
 	 */
 	static ResourceContractContainer findSubResourceContract(List<ResourceContractContainer> containers, SubResource subResource) {
-
-		List<ResourceContractContainer> results = containers.findAll { ResourceContractContainer c -> c.resourceContract.general.name == subResource.name }
-		if (results.size() > 1) {
-			// remove `{` and `}` from the href
-			String subresourceRoute = subResource.href.replace("{", "").replace("}", "")
-
-			// pattern for `:pin` variable names, since they don't have to be the same between xRoute and href
-			// we remove them from the string
-			String pattern = ':[^/]+'
-			subresourceRoute = subresourceRoute.replaceAll(pattern, "")
-
-			// distinguish by xRoute matching the longest common prefix we can find
-			ResourceContractContainer match
-			int matchLen = -1
-			for (ResourceContractContainer c : results) {
-				String resourceRoute = c.resourceContract.general.xRoute.replaceAll(pattern, "")
-				String commonPrefix = commonPrefix(resourceRoute, subresourceRoute)
-				if (commonPrefix.length() > matchLen) {
-					match = c
-					matchLen = commonPrefix.length()
-				}
-			}
-			return match
-		} else if (results.size() == 1) {
-			return results[0]
-		} else {
-			return null
-		}
+		return SubResourceResolver.findSubResourceContract(containers, subResource)
 	}
 
 	Set<Dependency> buildDependencyList(Knot<ResourceContractContainer> tree) {
@@ -164,24 +147,9 @@ class PlantUmlTask extends SpecificationBaseTask {
 	}
 
 	/**
-	 * @param a a String
-	 * @param b another String
-	 * @return the longest common substring prefix of a and b. If a or b are null, return the empty string
+	 * @see SubResourceResolver#commonPrefix(String, String)
 	 */
 	static String commonPrefix(String a, String b) {
-		if (a == null || a.isEmpty()) {
-			return ""
-		}
-		if (b == null || b.isEmpty()) {
-			return ""
-		}
-		int len = Math.min(a.size(), b.size())
-		int counter = 0
-		for (; counter < len; counter++) {
-			if (a.charAt(counter) != b.charAt(counter)) {
-				break
-			}
-		}
-		return a.substring(0, counter)
+		return SubResourceResolver.commonPrefix(a, b)
 	}
 }
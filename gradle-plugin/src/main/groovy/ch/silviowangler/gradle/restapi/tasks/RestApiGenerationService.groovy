@@ -0,0 +1,61 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.gradle.restapi.tasks
+
+import org.gradle.api.services.BuildService
+import org.gradle.api.services.BuildServiceParameters
+
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Shares the {@link GenerationSession}s of the {@link GenerateRestApiTask}s with the workers that generate the
+ * specifications in parallel.
+ *
+ * @author Silvio Wangler
+ */
+abstract class RestApiGenerationService implements BuildService<BuildServiceParameters.None> {
+
+	public static final String NAME = 'restApiGeneration'
+
+	private final Map<String, GenerationSession> sessions = new ConcurrentHashMap<>()
+
+	void open(String id, GenerationSession session) {
+		if (sessions.putIfAbsent(id, session) != null) {
+			throw new IllegalStateException("Generation session ${id} is already open")
+		}
+	}
+
+	GenerationSession session(String id) {
+		GenerationSession session = sessions.get(id)
+
+		if (!session) {
+			throw new IllegalStateException("No generation session ${id} is open")
+		}
+		return session
+	}
+
+	void close(String id) {
+		sessions.remove(id)
+	}
+}
@@ -23,33 +23,43 @@
  */
 package ch.silviowangler.gradle.restapi.tasks
 
-import ch.silviowangler.gradle.restapi.GeneratorUtil
 import ch.silviowangler.gradle.restapi.InputProcessingMode
 import ch.silviowangler.gradle.restapi.ResourceFileComparator
+import ch.silviowangler.gradle.restapi.SpecificationGraph
 import ch.silviowangler.gradle.restapi.builder.SpecGenerator
+import ch.silviowangler.rest.contract.model.v1.ResourceContract
 import groovy.io.FileType
 import org.gradle.api.DefaultTask
+import org.gradle.api.file.DirectoryProperty
+import org.gradle.api.provider.Property
+import org.gradle.api.tasks.Input
 import org.gradle.api.tasks.InputDirectory
 import org.gradle.api.tasks.Internal
+import org.gradle.api.tasks.PathSensitive
+import org.gradle.api.tasks.PathSensitivity
 
 /**
  * @author Silvio Wangler
  */
-class SpecificationBaseTask extends DefaultTask {
+abstract class SpecificationBaseTask extends DefaultTask {
 
 
-	private final SpecGenerator specGenerator;
-
-	SpecificationBaseTask() {
-		this.specGenerator = new SpecGenerator()
-	}
+	// created on first use, the generator is not stored in the configuration cache
+	private transient SpecGenerator specGenerator
 
+	/**
+	 * The directory of the specifications. Defaults to the {@code optionsSource} of the extension.
+	 */
 	@InputDirectory
+	@PathSensitive(PathSensitivity.RELATIVE)
+	abstract DirectoryProperty getSpecificationDirectory()
+
+	@Input
+	abstract Property<InputProcessingMode> getInputProcessingMode()
+
+	@Internal
 	File getOptionsSource() {
-		if (project.restApi.optionsSource) {
-			return project.restApi.optionsSource
-		}
-		return new File(GeneratorUtil.generatorInput(project), "spec")
+		return getSpecificationDirectory().get().asFile
 	}
 
 	/**
@@ -68,7 +78,7 @@ class SpecificationBaseTask extends DefaultTask {
 		}
 
 		List<File> specs = []
-		if (project.restApi.inputProcessingMode == InputProcessingMode.RECURSIVE) {
+		if (getInputProcessingMode().get() == InputProcessingMode.RECURSIVE) {
 			specs = findFilesRecursive(folder)
 		} else {
 			folder.eachFile(FileType.FILES, { f -> if (f.name.endsWith('.json')) specs << f })
@@ -77,9 +87,23 @@ class SpecificationBaseTask extends DefaultTask {
 		return specs
 	}
 
+	/**
+	 * Builds the graph of the dependencies between the specifications.
+	 * @param specs all specification files.
+	 * @return the dependency graph.
+	 */
+	SpecificationGraph specificationGraph(List<File> specs) {
+		Map<File, ResourceContract> contracts = [:]
+		specs.each { File specFile -> contracts[specFile] = getSpecGenerator().parseResourceContract(specFile).resourceContract }
+		return SpecificationGraph.of(contracts)
+	}
+
 	@Internal
 	SpecGenerator getSpecGenerator() {
-		return this.specGenerator;
+		if (this.specGenerator == null) {
+			this.specGenerator = new SpecGenerator()
+		}
+		return this.specGenerator
 	}
 
 	private List<File> findFilesRecursive(File folder) {
@@ -23,7 +23,7 @@
  */
 package ch.silviowangler.gradle.restapi.tasks
 
-import ch.silviowangler.gradle.restapi.RestApiExtension
+import ch.silviowangler.gradle.restapi.SpecificationGraph
 import ch.silviowangler.gradle.restapi.validation.AtLeastOneVerbValidator
 import ch.silviowangler.gradle.restapi.validation.ConstraintViolation
 import ch.silviowangler.gradle.restapi.validation.FieldTypeIsSupportedValidator
@@ -33,20 +33,25 @@ import ch.silviowangler.gradle.restapi.validation.OnlyOnePostVerbValidator
 import ch.silviowangler.gradle.restapi.validation.Validator
 import ch.silviowangler.rest.contract.model.v1.ResourceContract
 import ch.silviowangler.rest.contract.model.v1.ResourceTypes
-import org.gradle.api.tasks.InputDirectory
+import org.gradle.api.provider.Property
+import org.gradle.api.tasks.Input
+import org.gradle.api.tasks.Internal
+import org.gradle.api.tasks.Optional
 import org.gradle.api.tasks.TaskAction
+import org.gradle.work.DisableCachingByDefault
 
 import java.nio.charset.Charset
+import java.util.stream.Collectors
+import java.util.stream.Stream
 
 /**
  * @author Silvio Wangler
  */
-class ValidationTask extends SpecificationBaseTask {
+@DisableCachingByDefault(because = 'Validating the specifications produces no outputs')
+abstract class ValidationTask extends SpecificationBaseTask {
 
 	private final List<Validator> validators
 
-	private final RestApiExtension restApiExtension
-
 	ValidationTask() {
 		this.validators = [
 			new AtLeastOneVerbValidator(),
@@ -55,36 +60,65 @@ class ValidationTask extends SpecificationBaseTask {
 			new MandatoryFieldValidator(),
 			new OnlyOnePostVerbValidator()
 		]
-		this.restApiExtension = project.restApi as RestApiExtension
 	}
 
+	/**
+	 * The name of the charset of the specifications. Defaults to UTF-8.
+	 */
+	@Input
+	@Optional
+	abstract Property<String> getResponseEncoding()
+
+	@Internal
+	abstract Property<Boolean> getParallelGeneration()
+
 	@TaskAction
 	void validate() {
 		List<File> specs = findSpecifications(getOptionsSource())
 
+		Map<File, ResourceContract> contracts = [:]
+		Charset encoding = Charset.forName(getResponseEncoding().getOrElse('UTF-8'))
+
+		for (File specFile in specs) {
+			contracts[specFile] = specGenerator.parseResourceContract(specFile, encoding).resourceContract
+		}
+
 		Map<ResourceContract, Set<ConstraintViolation>> violationMap = [:]
 		List<ResourceTypes> definedResourceTypes = []
 
-		for (File specFile in specs) {
-			ResourceContract contract = specGenerator.parseResourceContract(specFile, this.restApiExtension.getResponseEncoding() ?: Charset.forName("UTF-8")).resourceContract
+		// the specs of a level only use the custom types of the levels before
+		for (List<File> level in SpecificationGraph.of(contracts).levels) {
+			List<ResourceTypes> typesOfPreviousLevels = Collections.unmodifiableList(new ArrayList<>(definedResourceTypes))
+			Stream<File> specsOfLevel = getParallelGeneration().getOrElse(false) ? level.parallelStream() : level.stream()
 
-			violationMap[contract] = new HashSet<>()
+			List<Set<ConstraintViolation>> levelViolations = specsOfLevel.map { File specFile ->
+				violationsOf(contracts[specFile], typesOfPreviousLevels)
+			}.collect(Collectors.toList())
 
-			for (Validator validator in validators) {
-				violationMap[contract].addAll(validator.validate(contract, definedResourceTypes))
+			level.eachWithIndex { File specFile, int index ->
+				ResourceContract contract = contracts[specFile]
+				violationMap[contract] = levelViolations[index]
+				definedResourceTypes.addAll(contract.getTypes())
 			}
-
-			definedResourceTypes.addAll(contract.getTypes())
 		}
 
 		Collection<Set<ConstraintViolation>> violations = violationMap.values().findAll { c -> c.size() > 0 }
 		boolean hasViolations = violations.size() > 0
 
 		if (hasViolations) {
-			println "Contract violations"
-			println "===================\n"
-			violations.each { set -> println '- ' + set.collect { v -> v.toString() }.join("\n") }
+			logger.error "Contract violations"
+			logger.error "===================\n"
+			violations.each { set -> logger.error('- ' + set.collect { v -> v.toString() }.join("\n")) }
 			throw new RuntimeException("Your specifications violate with the contract.")
 		}
 	}
+
+	protected Set<ConstraintViolation> violationsOf(ResourceContract contract, List<ResourceTypes> definedResourceTypes) {
+		Set<ConstraintViolation> violations = new HashSet<>()
+
+		for (Validator validator in validators) {
+			violations.addAll(validator.validate(contract, definedResourceTypes))
+		}
+		return violations
+	}
 }
@@ -0,0 +1,189 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2019 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.gradle.restapi
+
+import groovy.io.FileType
+import org.gradle.testkit.runner.BuildResult
+import org.gradle.testkit.runner.GradleRunner
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import static org.gradle.testkit.runner.TaskOutcome.FROM_CACHE
+import static org.gradle.testkit.runner.TaskOutcome.SUCCESS
+import static org.gradle.testkit.runner.TaskOutcome.UP_TO_DATE
+
+/**
+ * Runs the plugin in real builds, e.g. with the build cache and the configuration cache enabled.
+ */
+class RestApiPluginFunctionalSpec extends Specification {
+
+  private static final List<String> CACHES = ['--build-cache', '--configuration-cache']
+
+  @TempDir
+  File projectDir
+
+  void setup() {
+    File specDir = new File(projectDir, 'spec')
+    specDir.mkdirs()
+    new File("${new File('').absolutePath}/src/test/resources/specs/v1").eachFile { File spec ->
+      new File(specDir, spec.name).bytes = spec.bytes
+    }
+
+    new File(projectDir, 'settings.gradle').text = """
+      rootProject.name = 'acme'
+
+      buildCache {
+        local {
+          directory = new File(rootDir, 'build-cache')
+        }
+      }
+    """.stripIndent()
+
+    new File(projectDir, 'build.gradle').text = """
+      plugins {
+        id '${RestApiPlugin.PLUGIN_ID}'
+      }
+
+      restApi {
+        optionsSource = file('spec')
+        packageName = 'org.acme.rest'
+        generateDateAttribute = false
+        responseEncoding = java.nio.charset.Charset.forName('UTF-8')
+        generateResourceContracts = true
+      }
+    """.stripIndent()
+  }
+
+  void "The generation reuses the configuration cache and is loaded from the build cache"() {
+
+    when:
+    BuildResult first = run('generateRestArtifacts')
+
+    then:
+    first.task(':generateRestArtifacts').outcome == SUCCESS
+    first.output.contains('Configuration cache entry stored')
+    new File(projectDir, 'build/src/generated/java/org/acme/rest/v1/laender/LandResource.java').isFile()
+
+    when:
+    BuildResult second = run('generateRestArtifacts')
+
+    then:
+    second.task(':generateRestArtifacts').outcome == UP_TO_DATE
+    second.output.contains('Configuration cache entry reused')
+
+    when:
+    new File(projectDir, 'build').deleteDir()
+    BuildResult third = run('generateRestArtifacts')
+
+    then:
+    third.task(':generateRestArtifacts').outcome == FROM_CACHE
+    third.output.contains('Configuration cache entry reused')
+    new File(projectDir, 'build/src/generated/java/org/acme/rest/v1/laender/LandResource.java').isFile()
+    new File(projectDir, 'build/restApi/implementations/org/acme/rest/v1/laender/LandResourceDelegate.java').isFile()
+  }
+
+  void "Only missing implementations are installed"() {
+
+    given:
+    File implementations = new File(projectDir, 'src/main/java/org/acme/rest/v1/laender')
+    implementations.mkdirs()
+    File land = new File(implementations, 'LandResourceDelegate.java')
+    land.text = '// hand written'
+
+    when:
+    BuildResult result = run('installRestImplementations')
+
+    then:
+    result.task(':generateRestArtifacts').outcome == SUCCESS
+    result.task(':installRestImplementations').outcome == SUCCESS
+
+    and:
+    land.text == '// hand written'
+    new File(projectDir, 'src/main/java/org/acme/rest/v1/laender/orte/OrtResourceDelegate.java').isFile()
+
+    when: 'the generation is loaded from the cache'
+    new File(projectDir, 'build').deleteDir()
+    run('installRestImplementations')
+
+    then:
+    land.text == '// hand written'
+  }
+
+  void "Specs generated by parallel workers are identical to the sequentially generated ones"() {
+
+    given: 'expand dispatchers and batch expandables depend on the contracts of the other specs'
+    new File(projectDir, 'build.gradle') << """
+      restApi {
+        generatorOutput = file("out/\${providers.gradleProperty('parallelGeneration').get()}")
+        parallelGeneration = providers.gradleProperty('parallelGeneration').map { it.toBoolean() }.get()
+        generateExpandDispatchers = true
+        generateBatchExpandables = true
+      }
+    """.stripIndent()
+
+    when:
+    BuildResult sequential = run(['generateRestArtifacts', '-PparallelGeneration=false', '--rerun-tasks'])
+    Map<String, String> sequentialSources = contents(new File(projectDir, 'out/false'))
+    Map<String, String> sequentialImplementations = contents(new File(projectDir, 'build/restApi/implementations'))
+
+    and:
+    BuildResult parallel = run(['generateRestArtifacts', '-PparallelGeneration=true', '--rerun-tasks', '--max-workers=4'])
+
+    then:
+    sequential.task(':generateRestArtifacts').outcome == SUCCESS
+    parallel.task(':generateRestArtifacts').outcome == SUCCESS
+
+    and: 'the outputs are identical byte for byte'
+    !sequentialSources.isEmpty()
+    contents(new File(projectDir, 'out/true')) == sequentialSources
+    contents(new File(projectDir, 'build/restApi/implementations')) == sequentialImplementations
+
+    and:
+    sequentialSources.keySet().any { String path -> path.endsWith('RootResourceExpandDispatcher.java') }
+  }
+
+  private BuildResult run(String task) {
+    return run([task] + CACHES)
+  }
+
+  private BuildResult run(List<String> arguments) {
+    return GradleRunner.create()
+        .withProjectDir(projectDir)
+        .withPluginClasspath()
+        .withArguments(arguments + ['--stacktrace'])
+        .forwardOutput()
+        .build()
+  }
+
+  /**
+   * @return the hex encoded content of every file by its path relative to the directory.
+   */
+  private static Map<String, String> contents(File dir) {
+    Map<String, String> contents = new TreeMap<>()
+    dir.eachFileRecurse(FileType.FILES) { File file ->
+      contents[dir.toPath().relativize(file.toPath()).toString()] = file.bytes.encodeHex().toString()
+    }
+    return contents
+  }
+}
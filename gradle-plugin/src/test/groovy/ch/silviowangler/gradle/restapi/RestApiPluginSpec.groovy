@@ -23,21 +23,34 @@
  */
 package ch.silviowangler.gradle.restapi
 
+import ch.silviowangler.gradle.restapi.builder.PreparedSpecification
+import ch.silviowangler.gradle.restapi.builder.SpecGenerator
 import ch.silviowangler.gradle.restapi.tasks.CleanRestApiTask
 import ch.silviowangler.gradle.restapi.tasks.ExtractRestApiSpecsTask
+import ch.silviowangler.gradle.restapi.tasks.GenerateRestApiAsciiDocTask
 import ch.silviowangler.gradle.restapi.tasks.GenerateRestApiTask
+import ch.silviowangler.gradle.restapi.tasks.InstallRestImplementationsTask
 import ch.silviowangler.gradle.restapi.tasks.PlantUmlTask
 import ch.silviowangler.gradle.restapi.tasks.ValidationTask
 import com.squareup.javapoet.ClassName
+import com.squareup.javapoet.JavaFile
+import com.squareup.javapoet.TypeSpec
 import groovy.io.FileType
 import org.gradle.api.Project
+import org.gradle.api.tasks.CacheableTask
 import org.gradle.testfixtures.ProjectBuilder
+import org.gradle.work.ChangeType
+import org.gradle.work.FileChange
+import org.gradle.work.InputChanges
 import spock.lang.Shared
 import spock.lang.Specification
 import spock.lang.TempDir
 import spock.lang.Unroll
 
 import java.nio.charset.Charset
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
 
 import static ch.silviowangler.gradle.restapi.Consts.TASK_GROUP_REST_API
 import static ch.silviowangler.gradle.restapi.TargetFramework.MICRONAUT
@@ -73,7 +86,7 @@ class RestApiPluginSpec extends Specification {
   void "The plugin provides the following tasks"() {
 
     expect:
-    project.tasks.findAll { task -> task.group == TASK_GROUP_REST_API }.size() == 6
+    project.tasks.findAll { task -> task.group == TASK_GROUP_REST_API }.size() == 7
 
     and:
     project.tasks.validateRestSpecs instanceof ValidationTask
@@ -84,6 +97,10 @@ class RestApiPluginSpec extends Specification {
     project.tasks.generateRestArtifacts.dependsOn*.type == [ValidationTask]
     project.tasks.generateRestArtifacts.group == TASK_GROUP_REST_API
 
+    and:
+    project.tasks.installRestImplementations instanceof InstallRestImplementationsTask
+    project.tasks.installRestImplementations.group == TASK_GROUP_REST_API
+
     and:
     project.tasks.extractSpecs instanceof ExtractRestApiSpecsTask
     project.tasks.extractSpecs.group == TASK_GROUP_REST_API
@@ -100,6 +117,33 @@ class RestApiPluginSpec extends Specification {
     project.extensions.restApi != null
   }
 
+  void "The tasks read the restApi extension lazily"() {
+
+    given:
+    GenerateRestApiTask generate = project.tasks.generateRestArtifacts as GenerateRestApiTask
+    PlantUmlTask diagrams = project.tasks.generateDiagrams as PlantUmlTask
+
+    when:
+    project.restApi.optionsSource = new File("${new File('').absolutePath}/src/test/resources/specs/v1")
+    project.restApi.generatorOutput = tempDir
+    project.restApi.packageName = 'org.acme.rest'
+    project.restApi.diagramOutput = tempDir
+    project.restApi.diagramShowFields = true
+
+    then:
+    generate.specificationDirectory.get().asFile == project.restApi.optionsSource
+    generate.outputDirectory.get().asFile == tempDir
+    generate.generationSettings.get().packageName == 'org.acme.rest'
+    GenerationSettings.of(generate.generationSettings.get()).packageName == 'org.acme.rest'
+
+    and:
+    diagrams.outputDirectory.get().asFile == tempDir
+    diagrams.showFields.get()
+
+    and:
+    [GenerateRestApiTask, PlantUmlTask, GenerateRestApiAsciiDocTask].every { Class<?> type -> type.isAnnotationPresent(CacheableTask) }
+  }
+
   void "The plugin generates valid Java code for Micronaut 4 and the Land-Ort specs"() {
 
     given:
@@ -119,6 +163,7 @@ class RestApiPluginSpec extends Specification {
 
     when:
     task.exec()
+    installImplementations()
 
     and:
     List<File> javaFiles = []
@@ -186,6 +231,7 @@ class RestApiPluginSpec extends Specification {
 
     when:
     task.exec()
+    installImplementations()
 
     then:
     IllegalStateException ex = thrown(IllegalStateException)
@@ -210,6 +256,7 @@ class RestApiPluginSpec extends Specification {
 
     when:
     task.exec()
+    installImplementations()
 
     and:
     def javaFiles = []
@@ -266,6 +313,7 @@ class RestApiPluginSpec extends Specification {
 
     when:
     task.exec()
+    installImplementations()
 
     and:
     def javaFiles = []
@@ -320,6 +368,7 @@ class RestApiPluginSpec extends Specification {
 
     when:
     task.exec()
+    installImplementations()
 
     and:
     def javaFiles = []
@@ -375,6 +424,7 @@ class RestApiPluginSpec extends Specification {
 
     when:
     task.exec()
+    installImplementations()
 
     and:
     def javaFiles = []
@@ -428,6 +478,7 @@ class RestApiPluginSpec extends Specification {
 
     when:
     task.exec()
+    installImplementations()
 
     and:
     def javaFiles = []
@@ -550,6 +601,7 @@ class RestApiPluginSpec extends Specification {
 
     when:
     task.exec()
+    installImplementations()
 
     and:
     List<File> javaFiles = []
@@ -606,6 +658,7 @@ class RestApiPluginSpec extends Specification {
 
     when:
     task.exec()
+    installImplementations()
 
     and:
     List<File> javaFiles = []
@@ -645,6 +698,500 @@ class RestApiPluginSpec extends Specification {
     javaFiles.isEmpty()
   }
 
+  void "The plugin generates resource contract providers for the Land-Ort specs (Micronaut 4)"() {
+
+    given:
+    project.restApi.generatorOutput = tempDir
+    project.restApi.generatorImplOutput = tempDir
+    project.restApi.optionsSource = new File("${new File('').absolutePath}/src/test/resources/specs/v1")
+    project.restApi.packageName = 'org.acme.rest'
+    project.restApi.generateDateAttribute = false
+    project.restApi.objectResourceModelMapping = customFieldModelMapping
+    project.restApi.targetFramework = MICRONAUT_4
+    project.restApi.responseEncoding = Charset.forName('UTF-8')
+    project.restApi.generateResourceContracts = true
+
+    and:
+    GenerateRestApiTask task = project.tasks.generateRestArtifacts as GenerateRestApiTask
+
+    when:
+    task.exec()
+    installImplementations()
+
+    and:
+    List<File> javaFiles = []
+    tempDir.eachFileRecurse(FileType.FILES, {
+      if (it.name.endsWith('.java')) javaFiles << it
+    })
+
+    then:
+    assertGeneratedFiles javaFiles, 18
+
+    when:
+    String landContract = new File(tempDir, 'org/acme/rest/v1/laender/LandResourceContract.java').getText('UTF-8')
+
+    then:
+    landContract.contains('public class LandResourceContract implements ResourceContractProvider {')
+    landContract.contains('@Singleton')
+    landContract.contains('return LandResource.class;')
+    landContract.contains('subResource')
+    landContract.contains('.setHref("/v1/laender/{:entity}/orte/");')
+    landContract.contains('.setExpandable(true);')
+    landContract.contains('.setMimetype("application/ch.silviowangler.land");')
+
+    and:
+    new File(tempDir, 'org/acme/rest/v1/laender/orte/OrtResourceContract.java').exists()
+    new File(tempDir, 'org/acme/rest/v1/RootResourceContract.java').exists()
+  }
+
+  void "The plugin generates expand dispatchers for the Land-Ort specs (Micronaut 4)"() {
+
+    given:
+    project.restApi.generatorOutput = tempDir
+    project.restApi.generatorImplOutput = tempDir
+    project.restApi.optionsSource = new File("${new File('').absolutePath}/src/test/resources/specs/v1")
+    project.restApi.packageName = 'org.acme.rest'
+    project.restApi.generateDateAttribute = false
+    project.restApi.objectResourceModelMapping = customFieldModelMapping
+    project.restApi.targetFramework = MICRONAUT_4
+    project.restApi.responseEncoding = Charset.forName('UTF-8')
+    project.restApi.generateExpandDispatchers = true
+
+    and:
+    GenerateRestApiTask task = project.tasks.generateRestArtifacts as GenerateRestApiTask
+
+    when:
+    task.exec()
+    installImplementations()
+
+    and:
+    List<File> javaFiles = []
+    tempDir.eachFileRecurse(FileType.FILES, {
+      if (it.name.endsWith('.java')) javaFiles << it
+    })
+
+    then: 'only root and land have expandable sub resources'
+    assertGeneratedFiles javaFiles, 17
+    !new File(tempDir, 'org/acme/rest/v1/laender/orte/OrtResourceExpandDispatcher.java').exists()
+
+    when:
+    String landDispatcher = new File(tempDir, 'org/acme/rest/v1/laender/LandResourceExpandDispatcher.java').getText('UTF-8')
+
+    then:
+    landDispatcher.contains('public class LandResourceExpandDispatcher implements ExpandDispatcher {')
+    landDispatcher.contains('import org.acme.rest.v1.laender.orte.OrtResourceDelegate;')
+    landDispatcher.contains('private static final Set<String> EXPAND_NAMES = Set.of("land.ort");')
+    landDispatcher.contains('public LandResourceExpandDispatcher(OrtResourceDelegate ortResourceDelegate) {')
+    landDispatcher.contains('return LandResource.class;')
+    landDispatcher.contains('case "land.ort":')
+    landDispatcher.contains('return ortResourceDelegate.getCollection(context.pathVariable("land"));')
+
+    when:
+    String rootDispatcher = new File(tempDir, 'org/acme/rest/v1/RootResourceExpandDispatcher.java').getText('UTF-8')
+
+    then: 'query parameters are not available to expands'
+    rootDispatcher.contains('return landResourceDelegate.getCollection(null);')
+  }
+
+  void "The plugin lets the delegates of expandable sub resources implement BatchExpandable (Micronaut 4)"() {
+
+    given:
+    project.restApi.generatorOutput = tempDir
+    project.restApi.generatorImplOutput = tempDir
+    project.restApi.optionsSource = new File("${new File('').absolutePath}/src/test/resources/specs/v1")
+    project.restApi.packageName = 'org.acme.rest'
+    project.restApi.generateDateAttribute = false
+    project.restApi.objectResourceModelMapping = customFieldModelMapping
+    project.restApi.targetFramework = MICRONAUT_4
+    project.restApi.responseEncoding = Charset.forName('UTF-8')
+    project.restApi.generateExpandDispatchers = true
+    project.restApi.generateBatchExpandables = true
+
+    and:
+    GenerateRestApiTask task = project.tasks.generateRestArtifacts as GenerateRestApiTask
+
+    when:
+    task.exec()
+    installImplementations()
+
+    and:
+    List<File> javaFiles = []
+    tempDir.eachFileRecurse(FileType.FILES, {
+      if (it.name.endsWith('.java')) javaFiles << it
+    })
+
+    then:
+    assertGeneratedFiles javaFiles, 17
+
+    when:
+    String ortDelegate = new File(tempDir, 'org/acme/rest/v1/laender/orte/OrtResourceDelegate.java').getText('UTF-8')
+
+    then:
+    ortDelegate.contains('public class OrtResourceDelegate implements BatchExpandable<String, OrtGetResourceModel> {')
+    ortDelegate.contains('Map<String, List<OrtGetResourceModel>> result = new HashMap<>();')
+    ortDelegate.contains('ExpandContext entityContext = context.forEntity(parentId);')
+    ortDelegate.contains('getCollection(entityContext.pathVariable("land")).forEach(models::add);')
+    ortDelegate.contains('result.put(parentId, models);')
+    ortDelegate.contains('public CompletionStage<Map<String, List<OrtGetResourceModel>>> expandAllAsync(')
+    ortDelegate.contains('return CompletableFuture.completedFuture(result);')
+
+    and: 'land is an expandable sub resource of root'
+    new File(tempDir, 'org/acme/rest/v1/laender/LandResourceDelegate.java').getText('UTF-8')
+      .contains('public class LandResourceDelegate implements BatchExpandable<String, LandGetResourceModel> {')
+
+    and: 'root is not a sub resource'
+    !new File(tempDir, 'org/acme/rest/v1/RootResourceDelegate.java').getText('UTF-8').contains('BatchExpandable')
+
+    when:
+    String landDispatcher = new File(tempDir, 'org/acme/rest/v1/laender/LandResourceExpandDispatcher.java').getText('UTF-8')
+
+    then:
+    landDispatcher.contains('public Optional<BatchExpandable<?, ?>> findBatchExpandable(String expandName) {')
+    landDispatcher.contains('return ortResourceDelegate instanceof BatchExpandable ? Optional.of((BatchExpandable<?, ?>) ortResourceDelegate) : Optional.empty();')
+  }
+
+  void "The plugin generates async delegates (Micronaut 4)"() {
+
+    given:
+    project.restApi.generatorOutput = tempDir
+    project.restApi.generatorImplOutput = tempDir
+    project.restApi.optionsSource = new File("${new File('').absolutePath}/src/test/resources/specs/v1")
+    project.restApi.packageName = 'org.acme.rest'
+    project.restApi.generateDateAttribute = false
+    project.restApi.objectResourceModelMapping = customFieldModelMapping
+    project.restApi.targetFramework = MICRONAUT_4
+    project.restApi.responseEncoding = Charset.forName('UTF-8')
+    project.restApi.generateAsyncDelegates = true
+    project.restApi.generateExpandDispatchers = true
+    project.restApi.generateBatchExpandables = true
+
+    and:
+    GenerateRestApiTask task = project.tasks.generateRestArtifacts as GenerateRestApiTask
+
+    when:
+    task.exec()
+    installImplementations()
+
+    and:
+    List<File> javaFiles = []
+    tempDir.eachFileRecurse(FileType.FILES, {
+      if (it.name.endsWith('.java')) javaFiles << it
+    })
+
+    then:
+    assertGeneratedFiles javaFiles, 17
+
+    when:
+    String landResource = new File(tempDir, 'org/acme/rest/v1/laender/LandResource.java').getText('UTF-8')
+    String landDelegate = new File(tempDir, 'org/acme/rest/v1/laender/LandResourceDelegate.java').getText('UTF-8')
+
+    then: 'GET and HEAD methods return a CompletionStage'
+    landResource.contains('public CompletionStage<LandGetResourceModel> getEntity(String id) {')
+    landResource.contains('public CompletionStage<HttpResponse> headEntity(String id) {')
+    landDelegate.contains('public CompletionStage<LandGetResourceModel> getEntity(String id) {')
+
+    and: 'all other methods are left untouched'
+    !landResource.contains('CompletionStage<String>')
+
+    and: 'the batch skeleton awaits the async delegate'
+    new File(tempDir, 'org/acme/rest/v1/laender/orte/OrtResourceDelegate.java').getText('UTF-8')
+      .contains('getCollection(entityContext.pathVariable("land")).toCompletableFuture().join().forEach(models::add);')
+  }
+
+  void "The plugin generates streaming NDJSON and CSV representations (Micronaut 4)"() {
+
+    given:
+    project.restApi.generatorOutput = tempDir
+    project.restApi.generatorImplOutput = tempDir
+    project.restApi.optionsSource = new File("${new File('').absolutePath}/src/test/resources/specs/streaming")
+    project.restApi.packageName = 'org.acme.rest'
+    project.restApi.generateDateAttribute = false
+    project.restApi.objectResourceModelMapping = customFieldModelMapping
+    project.restApi.targetFramework = MICRONAUT_4
+    project.restApi.generateStreamingRepresentations = true
+    project.restApi.generateAsyncDelegates = async
+
+    and:
+    GenerateRestApiTask task = project.tasks.generateRestArtifacts as GenerateRestApiTask
+
+    when:
+    task.exec()
+    installImplementations()
+
+    and:
+    List<File> javaFiles = []
+    tempDir.eachFileRecurse(FileType.FILES, {
+      if (it.name.endsWith('.java')) javaFiles << it
+    })
+
+    then:
+    assertGeneratedFiles javaFiles, 3
+
+    when:
+    String resource = new File(tempDir, 'org/acme/rest/v1/partnerexport/PartnerexportResource.java').getText('UTF-8')
+    String delegate = new File(tempDir, 'org/acme/rest/v1/partnerexport/PartnerexportResourceDelegate.java').getText('UTF-8')
+
+    then: 'the controller streams the rows of the delegate'
+    resource.contains('public PartnerexportResource(PartnerexportResourceDelegate delegate, RepresentationWriter representationWriter) {')
+    resource.contains('public HttpResponse getCollectionNdjson(@Nullable @QueryValue String q) {')
+    resource.contains('return representationWriter.ndjson(delegate.getCollectionNdjson(q), MediaType.of("application/x-ndjson"));')
+    resource.contains('public HttpResponse getCollectionCsv(@Nullable @QueryValue String q) {')
+    resource.contains('return representationWriter.csv(delegate.getCollectionCsv(q), List.of("id", "name", "vorname", "partnerNummer", "partnerTyp"), (PartnerexportGetResourceModel row) -> new Object[] {row.getId(), row.getName(), row.getVorname(), row.getPartnerNummer(), row.getPartnerTyp()}, MediaType.of("text/csv"));')
+
+    and: 'the delegate returns the rows'
+    delegate.contains("public ${rows}<PartnerexportGetResourceModel> getCollectionNdjson(String q) {")
+    delegate.contains("public ${rows}<PartnerexportGetResourceModel> getCollectionCsv(String q) {")
+
+    where:
+    async | rows
+    false | 'Iterator'
+    true  | 'Publisher'
+  }
+
+  void "Specs generated concurrently are identical to the sequentially generated ones"() {
+
+    given:
+    project.restApi.optionsSource = new File("${new File('').absolutePath}/src/test/resources/specs/v1")
+    project.restApi.packageName = 'org.acme.rest'
+    project.restApi.generateDateAttribute = false
+    project.restApi.targetFramework = MICRONAUT_4
+    project.restApi.responseEncoding = Charset.forName('UTF-8')
+    project.restApi.generateResourceContracts = true
+    project.restApi.generateExpandDispatchers = true
+
+    and:
+    GenerateRestApiTask task = project.tasks.generateRestArtifacts as GenerateRestApiTask
+    List<File> specs = task.findSpecifications(task.optionsSource)
+
+    and:
+    SpecGenerator sequentialGenerator = new SpecGenerator()
+    sequentialGenerator.registerSpecifications(specs)
+
+    and:
+    SpecGenerator concurrentGenerator = new SpecGenerator()
+    concurrentGenerator.registerSpecifications(specs)
+
+    and:
+    GenerationSettings settings = GenerationSettings.of(GenerateRestApiTask.settingsOf(project.restApi as RestApiExtension))
+    ExecutorService executor = Executors.newFixedThreadPool(4)
+
+    when:
+    List<String> sequential = specs.collectMany { File spec ->
+      sources(sequentialGenerator.generateJavaTypesForSpecification(spec, settings))
+    }
+
+    and:
+    List<PreparedSpecification> prepared = specs.collect { File spec ->
+      concurrentGenerator.prepareSpecification(spec, settings)
+    }
+    List<String> concurrent = prepared.collect { PreparedSpecification spec ->
+      executor.submit({ concurrentGenerator.generateJavaTypesForSpecification(spec, settings) } as Callable)
+    }.collectMany { sources(it.get() as GeneratedSpecContainer) }
+
+    then:
+    concurrent == sequential
+
+    and:
+    sequential.any { it.contains('public class RootResourceExpandDispatcher') }
+
+    cleanup:
+    executor?.shutdownNow()
+  }
+
+  void "Only changed specs and the specs using their custom types are regenerated"() {
+
+    given:
+    File specDir = new File(tempDir, 'spec')
+    specDir.mkdirs()
+    new File("${new File('').absolutePath}/src/test/resources/specs/v1").eachFile { File spec ->
+      new File(specDir, spec.name).bytes = spec.bytes
+    }
+
+    and: 'the implementation output has to exist before it is configured'
+    File implOutput = new File(tempDir, 'impl')
+    implOutput.mkdirs()
+
+    and:
+    project.restApi.optionsSource = specDir
+    project.restApi.generatorOutput = new File(tempDir, 'out')
+    project.restApi.generatorImplOutput = implOutput
+    project.restApi.packageName = 'org.acme.rest'
+    project.restApi.generateDateAttribute = false
+    project.restApi.targetFramework = MICRONAUT_4
+    project.restApi.responseEncoding = Charset.forName('UTF-8')
+
+    and:
+    GenerateRestApiTask task = project.tasks.generateRestArtifacts as GenerateRestApiTask
+    task.manifestFile.set(new File(tempDir, 'generation-manifest.json'))
+    File manifestFile = task.manifestFile.get().asFile
+
+    and:
+    task.exec()
+    installImplementations()
+    GenerationManifest initial = GenerationManifest.read(manifestFile)
+    File landOutput = new File(project.restApi.generatorOutput as File, initial.specifications['land.v1.json'].outputs.first())
+    File ortOutput = new File(project.restApi.generatorOutput as File, initial.specifications['land.ort.v1.json'].outputs.first())
+
+    expect:
+    initial.specifications.keySet() == ['land.ort.v1.json', 'land.v1.json', 'root.v1.json'] as Set
+    initial.specifications['root.v1.json'].definedTypes == ['coordinates', 'dummy']
+    landOutput.exists() && ortOutput.exists()
+
+    when: 'a spec not defining custom types changes'
+    File ortSpec = new File(specDir, 'land.ort.v1.json')
+    ortSpec.text = ortSpec.text.replace('"description": "Ort"', '"description": "Ortschaft"')
+    landOutput.delete()
+    ortOutput.delete()
+    task.exec(changes(ortSpec, ChangeType.MODIFIED))
+
+    then: 'only this spec is regenerated'
+    ortOutput.exists()
+    !landOutput.exists()
+
+    and:
+    GenerationManifest.read(manifestFile).specifications['land.ort.v1.json'].fingerprint != initial.specifications['land.ort.v1.json'].fingerprint
+
+    when: 'the spec defining the custom types changes'
+    File rootSpec = new File(specDir, 'root.v1.json')
+    rootSpec.text = rootSpec.text.replace('"description": "Das ist', '"description": "Dies ist')
+    task.exec(changes(rootSpec, ChangeType.MODIFIED))
+
+    then: 'the specs using the custom types are regenerated too'
+    landOutput.exists()
+
+    when: 'a spec is removed'
+    ortSpec.delete()
+    task.exec(changes(ortSpec, ChangeType.REMOVED))
+
+    then: 'its sources are deleted'
+    !ortOutput.exists()
+    landOutput.exists()
+
+    and:
+    GenerationManifest.read(manifestFile).specifications.keySet() == ['land.v1.json', 'root.v1.json'] as Set
+  }
+
+  void "The implementation of a removed spec is deleted"() {
+
+    given:
+    File specDir = new File(tempDir, 'spec')
+    specDir.mkdirs()
+    new File("${new File('').absolutePath}/src/test/resources/specs/v1").eachFile { File spec ->
+      new File(specDir, spec.name).bytes = spec.bytes
+    }
+
+    and: 'the implementation output has to exist before it is configured'
+    File implOutput = new File(tempDir, 'impl')
+    implOutput.mkdirs()
+
+    and:
+    project.restApi.optionsSource = specDir
+    project.restApi.generatorOutput = new File(tempDir, 'out')
+    project.restApi.generatorImplOutput = implOutput
+    project.restApi.packageName = 'org.acme.rest'
+    project.restApi.generateDateAttribute = false
+    project.restApi.targetFramework = MICRONAUT_4
+    project.restApi.responseEncoding = Charset.forName('UTF-8')
+
+    and:
+    GenerateRestApiTask task = project.tasks.generateRestArtifacts as GenerateRestApiTask
+    task.manifestFile.set(new File(tempDir, 'generation-manifest.json'))
+    File manifestFile = task.manifestFile.get().asFile
+    File implementationDir = task.implementationDirectory.get().asFile
+
+    and:
+    task.exec()
+    GenerationManifest initial = GenerationManifest.read(manifestFile)
+    File landImplementation = new File(implementationDir, initial.specifications['land.v1.json'].implementationOutputs.first())
+    File ortImplementation = new File(implementationDir, initial.specifications['land.ort.v1.json'].implementationOutputs.first())
+
+    expect:
+    landImplementation.exists() && ortImplementation.exists()
+
+    when:
+    File ortSpec = new File(specDir, 'land.ort.v1.json')
+    ortSpec.delete()
+    task.exec(changes(ortSpec, ChangeType.REMOVED))
+
+    then: 'its implementation is deleted and cannot be installed again'
+    !ortImplementation.exists()
+    landImplementation.exists()
+
+    and:
+    GenerationManifest.read(manifestFile).specifications['land.v1.json'].implementationOutputs == initial.specifications['land.v1.json'].implementationOutputs
+  }
+
+  void "Reproducible sources are not rewritten if unchanged"() {
+
+    given: 'the implementation output has to exist before it is configured'
+    File implOutput = new File(tempDir, 'impl')
+    implOutput.mkdirs()
+
+    and:
+    project.restApi.optionsSource = new File("${new File('').absolutePath}/src/test/resources/specs/v1")
+    project.restApi.generatorOutput = new File(tempDir, 'out')
+    project.restApi.generatorImplOutput = implOutput
+    project.restApi.packageName = 'org.acme.rest'
+    project.restApi.generateDateAttribute = true
+    project.restApi.reproducibleSources = true
+    project.restApi.skipUnchangedSources = true
+    project.restApi.targetFramework = MICRONAUT_4
+    project.restApi.responseEncoding = Charset.forName('UTF-8')
+
+    and:
+    GenerateRestApiTask task = project.tasks.generateRestArtifacts as GenerateRestApiTask
+    task.manifestFile.set(new File(tempDir, 'generation-manifest.json'))
+
+    and:
+    task.exec()
+    installImplementations()
+    List<File> sources = []
+    (project.restApi.generatorOutput as File).eachFileRecurse(FileType.FILES) { File file -> sources << file }
+    sources.each { File file -> file.lastModified = 1_000_000L }
+
+    when:
+    task.exec()
+    installImplementations()
+
+    then:
+    !sources.empty
+    sources.every { File file -> file.lastModified() == 1_000_000L }
+
+    and:
+    sources.every { File file -> !file.text.contains('date = ') }
+  }
+
+  /**
+   * Installs the generated implementations like the {@code installRestImplementations} task of a build.
+   */
+  private void installImplementations() {
+    (project.tasks.installRestImplementations as InstallRestImplementationsTask).install()
+  }
+
+  private InputChanges changes(File file, ChangeType changeType) {
+    FileChange change = Stub(FileChange) {
+      getFile() >> file
+      getFileType() >> org.gradle.api.file.FileType.FILE
+      getChangeType() >> changeType
+      getNormalizedPath() >> file.name
+    }
+    return Stub(InputChanges) {
+      isIncremental() >> true
+      getFileChanges(_) >> [change]
+    }
+  }
+
+  private static List<String> sources(GeneratedSpecContainer container) {
+    List<TypeSpec> types = container.collectGeneratedTypes().toList()
+
+    if (container.restImplementation) {
+      types << container.restImplementation
+    }
+    return types.collect { TypeSpec type ->
+      JavaFile.builder(container.packageName, type).skipJavaLangImports(true).build().toString()
+    }
+  }
+
   private void assertPlantUmlFile(String expectedFileName, String actualFileName, String testSetName) {
     final String ENCODING = 'UTF-8'
     File expectedFile = new File(tempDir, expectedFileName)
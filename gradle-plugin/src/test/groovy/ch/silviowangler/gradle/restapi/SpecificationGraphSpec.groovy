@@ -0,0 +1,108 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.gradle.restapi
+
+import ch.silviowangler.rest.contract.model.v1.CustomTypeField
+import ch.silviowangler.rest.contract.model.v1.ResourceContract
+import ch.silviowangler.rest.contract.model.v1.ResourceField
+import ch.silviowangler.rest.contract.model.v1.ResourceTypes
+import spock.lang.Specification
+
+class SpecificationGraphSpec extends Specification {
+
+	void "Specifications using the custom types of another specification are placed in a later level"() {
+
+		given:
+		Map<File, ResourceContract> contracts = [
+			(new File('a.b.v1.json')) : contract([], ['country']),
+			(new File('z.v1.json'))   : contract([], ['coordinates']),
+			(new File('root.v1.json')): contract(['string', 'country'], []),
+			(new File('c.v1.json'))   : contract(['Coordinates'], [])
+		]
+
+		when:
+		SpecificationGraph graph = SpecificationGraph.of(contracts)
+
+		then:
+		graph.levels.collect { level -> level*.name } == [
+			['z.v1.json', 'a.b.v1.json'],
+			['root.v1.json', 'c.v1.json']
+		]
+
+		and:
+		graph.specifications*.name == ['z.v1.json', 'a.b.v1.json', 'root.v1.json', 'c.v1.json']
+	}
+
+	void "Custom types used by the fields of custom types are dependencies too"() {
+
+		given:
+		ResourceContract parent = contract([], [])
+		parent.types << new ResourceTypes(name: 'person', fields: [new CustomTypeField(name: 'address', type: 'address')])
+
+		and:
+		Map<File, ResourceContract> contracts = [
+			(new File('root.v1.json')): parent,
+			(new File('a.v1.json'))   : contract([], ['address'])
+		]
+
+		expect:
+		SpecificationGraph.of(contracts).levels.collect { level -> level*.name } == [['a.v1.json'], ['root.v1.json']]
+	}
+
+	void "A specification uses its own custom type even if another specification defines it too"() {
+
+		given:
+		Map<File, ResourceContract> contracts = [
+			(new File('a.v1.json')): contract(['coordinates'], ['coordinates']),
+			(new File('b.v1.json')): contract(['coordinates'], ['coordinates'])
+		]
+
+		expect:
+		SpecificationGraph.of(contracts).levels.collect { level -> level*.name } == [['a.v1.json', 'b.v1.json']]
+	}
+
+	void "Specifications must not use the custom types of each other"() {
+
+		given:
+		Map<File, ResourceContract> contracts = [
+			(new File('root.v1.json')): contract([], []),
+			(new File('a.v1.json'))   : contract(['b'], ['a']),
+			(new File('b.v1.json'))   : contract(['a'], ['b'])
+		]
+
+		when:
+		SpecificationGraph.of(contracts)
+
+		then:
+		IllegalArgumentException ex = thrown()
+		ex.message == 'The specifications [a.v1.json, b.v1.json] use the custom types of each other'
+	}
+
+	private static ResourceContract contract(List<String> fieldTypes, List<String> definedTypes) {
+		new ResourceContract(
+				fields: fieldTypes.collect { type -> new ResourceField(name: "${type}Field", type: type) },
+				types: definedTypes.collect { type -> new ResourceTypes(name: type, fields: []) }
+				)
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.micronaut;
+
+import io.micronaut.core.async.publisher.Publishers;
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import org.reactivestreams.Publisher;
+
+/**
+ * Resolves the results of asynchronous or reactive delegates without blocking.
+ *
+ * <p>Supported are {@link CompletionStage} (e.g. {@code CompletableFuture}) and every {@link
+ * Publisher} (e.g. {@code Flowable}, {@code Mono} or {@code Flux}). Publishers of a single result
+ * (as determined by {@link Publishers#isSingle(Class)}) resolve to that result, all other
+ * publishers to the list of their elements.
+ *
+ * @author Silvio Wangler
+ */
+final class AsyncResults {
+
+  private AsyncResults() {
+    // do not create instances of me please
+  }
+
+  /**
+   * @param value the result of a delegate.
+   * @return true if the value has to be resolved before it can be used.
+   */
+  static boolean isAsync(Object value) {
+    return value instanceof Publisher || value instanceof CompletionStage;
+  }
+
+  /**
+   * Resolves the result of a delegate.
+   *
+   * @param value the result of a delegate.
+   * @return the resolved value or empty if the result is (or resolves to) {@code null}.
+   */
+  static Maybe<Object> resolve(Object value) {
+
+    if (value instanceof CompletionStage) {
+      CompletionStage<?> stage = (CompletionStage<?>) value;
+
+      return Maybe.create(
+          emitter ->
+              stage.whenComplete(
+                  (result, error) -> {
+                    if (error != null) {
+                      emitter.onError(
+                          error instanceof CompletionException && error.getCause() != null
+                              ? error.getCause()
+                              : error);
+                    } else if (result == null) {
+                      emitter.onComplete();
+                    } else {
+                      emitter.onSuccess(result);
+                    }
+                  }));
+    }
+
+    if (value instanceof Publisher) {
+      Flowable<Object> flowable = Flowable.fromPublisher((Publisher<?>) value).cast(Object.class);
+
+      if (Publishers.isSingle(value.getClass())) {
+        return flowable.firstElement();
+      }
+      return flowable.toList().<Object>map(list -> list).toMaybe();
+    }
+
+    return value == null ? Maybe.empty() : Maybe.just(value);
+  }
+}
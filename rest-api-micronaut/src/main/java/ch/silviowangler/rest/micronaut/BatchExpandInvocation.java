@@ -0,0 +1,140 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.micronaut;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import ch.silviowangler.rest.model.EntityModel;
+import ch.silviowangler.rest.model.Expand;
+import ch.silviowangler.rest.model.ResourceModel;
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+
+/**
+ * A single expand of all entities of a collection that is read by one call of a {@link
+ * BatchExpandable}.
+ *
+ * @author Silvio Wangler
+ */
+final class BatchExpandInvocation implements ExpandInvocation {
+
+  private static final Logger log = getLogger(BatchExpandInvocation.class);
+
+  private final String expandName;
+  private final List<EntityModel<?>> targets;
+  private final List<Object> ids;
+  private final BatchExpandable<Object, ? extends ResourceModel> batchExpandable;
+  private final ExpandContext context;
+  private Map<Object, ? extends List<? extends ResourceModel>> result;
+  private volatile boolean failed;
+
+  /**
+   * @param expandName the name of the sub resource.
+   * @param targets the entities the result is attached to.
+   * @param ids the ids of the entities (same order as {@code targets}).
+   * @param batchExpandable the delegate of the sub resource.
+   * @param context the request and the route variables of the expanded resource.
+   */
+  BatchExpandInvocation(
+      String expandName,
+      List<EntityModel<?>> targets,
+      List<Object> ids,
+      BatchExpandable<Object, ? extends ResourceModel> batchExpandable,
+      ExpandContext context) {
+    this.expandName = expandName;
+    this.targets = targets;
+    this.ids = ids;
+    this.batchExpandable = batchExpandable;
+    this.context = context;
+  }
+
+  /**
+   * Calls the delegate once the returned {@link Completable} is subscribed, so the call runs on the
+   * expand executor (if any). Results of {@link BatchExpandable#expandAllAsync(Collection,
+   * ExpandContext)} are awaited without blocking.
+   */
+  @Override
+  public Completable invoke() {
+    return Maybe.defer(
+            () ->
+                AsyncResults.resolve(
+                    batchExpandable.expandAllAsync(
+                        new ArrayList<>(new LinkedHashSet<>(ids)), context)))
+        .doOnSuccess(this::accept)
+        .doOnComplete(() -> accept(null))
+        .ignoreElement()
+        .doOnError(
+            e -> {
+              log.error("Exception caught while expanding sub resource " + expandName, e);
+              failed = true;
+            })
+        .onErrorComplete();
+  }
+
+  @SuppressWarnings("unchecked")
+  private void accept(Object data) {
+    if (data instanceof Map) {
+      result = (Map<Object, ? extends List<? extends ResourceModel>>) data;
+    } else {
+      log.error("Batch expand {} is null", expandName);
+      failed = true;
+    }
+  }
+
+  @Override
+  public void attach() {
+    if (result == null) {
+      return;
+    }
+
+    for (int i = 0; i < targets.size(); i++) {
+      List<? extends ResourceModel> models = result.get(ids.get(i));
+      Expand expand = new Expand(expandName);
+      expand.setData(models != null ? models : Collections.emptyList());
+      targets.get(i).getExpands().add(expand);
+    }
+  }
+
+  @Override
+  public String getExpandName() {
+    return expandName;
+  }
+
+  @Override
+  public int getEntityCount() {
+    return targets.size();
+  }
+
+  @Override
+  public boolean isFailed() {
+    return failed;
+  }
+}
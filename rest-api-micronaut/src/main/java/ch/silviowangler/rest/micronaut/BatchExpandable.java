@@ -0,0 +1,74 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.micronaut;
+
+import ch.silviowangler.rest.model.ResourceModel;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Optional interface of a delegate that reads a sub resource for many parent entities at once.
+ *
+ * <p>Expanding a sub resource of a collection calls the delegate of the sub resource once per
+ * entity of the collection. If the delegate implements this interface, {@link
+ * ExpandedGetResponseFilter} calls {@link #expandAllAsync(Collection, ExpandContext)} once per
+ * collection instead. The delegate is found through the generated {@link ExpandDispatcher} of the
+ * expanded resource.
+ *
+ * <p>Delegates that read the sub resource synchronously return an already completed stage, for
+ * example with {@link CompletableFuture#completedFuture(Object)}.
+ *
+ * @param <ID> the type of the ids of the parent entities.
+ * @param <R> the type of the models of the sub resource.
+ * @author Silvio Wangler
+ */
+public interface BatchExpandable<ID, R extends ResourceModel> {
+
+  /**
+   * Reads the sub resource of all given parent entities without blocking the calling thread.
+   *
+   * @param parentIds the distinct ids of the parent entities in the order of the collection.
+   * @param context the request and the route variables of the expanded resource. {@link
+   *     ExpandContext#getEntityId()} is {@code null}, use {@link ExpandContext#forEntity(Object)}
+   *     to resolve the path variables of a single parent.
+   * @return completes with the models per parent id. Parents without an entry are expanded with an
+   *     empty list.
+   */
+  CompletionStage<Map<ID, List<R>>> expandAllAsync(Collection<ID> parentIds, ExpandContext context);
+
+  /**
+   * Reads the sub resource of all given parent entities and waits for the result of {@link
+   * #expandAllAsync(Collection, ExpandContext)}.
+   *
+   * @param parentIds the distinct ids of the parent entities in the order of the collection.
+   * @param context the request and the route variables of the expanded resource.
+   * @return the models per parent id.
+   */
+  default Map<ID, List<R>> expandAll(Collection<ID> parentIds, ExpandContext context) {
+    return expandAllAsync(parentIds, context).toCompletableFuture().join();
+  }
+}
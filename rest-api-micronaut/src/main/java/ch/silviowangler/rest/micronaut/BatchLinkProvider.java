@@ -0,0 +1,57 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.micronaut;
+
+import ch.silviowangler.rest.model.ResourceLink;
+import ch.silviowangler.rest.model.ResourceModel;
+import io.micronaut.web.router.UriRouteMatch;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A {@link LinkProvider} that creates the links of all entities of a collection with a single call,
+ * e.g. to look up the permissions of all entities with one query.
+ *
+ * <p>{@link HateoasResponseFilter} calls {@link #getLinks(UriRouteMatch, List)} once per
+ * collection response and {@link #getLinks(UriRouteMatch, ResourceModel)} for single entities.
+ */
+public interface BatchLinkProvider extends LinkProvider {
+
+  /**
+   * Creates the links of the entities of a collection. If a baseUrl is configured under
+   * `restapi.hateaos.filter.base` then it is prepended to all resourceLinks.
+   *
+   * @param routeMatch the current routeMatch in the filter
+   * @param models the resource models of the collection
+   * @return the links per model, in the order of {@code models} (an empty list if no links are to
+   *     be added to a model).
+   */
+  List<List<ResourceLink>> getLinks(UriRouteMatch routeMatch, List<ResourceModel> models);
+
+  @Override
+  default List<ResourceLink> getLinks(UriRouteMatch routeMatch, ResourceModel model) {
+    List<List<ResourceLink>> links = getLinks(routeMatch, Collections.singletonList(model));
+    return links.isEmpty() ? Collections.emptyList() : links.get(0);
+  }
+}
@@ -0,0 +1,255 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.micronaut;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import ch.silviowangler.rest.contract.model.v1.GeneralDetails;
+import ch.silviowangler.rest.contract.model.v1.ResourceContract;
+import ch.silviowangler.rest.contract.model.v1.ResourceField;
+import ch.silviowangler.rest.contract.model.v1.ResourceTypes;
+import ch.silviowangler.rest.contract.model.v1.SubResource;
+import ch.silviowangler.rest.contract.model.v1.Verb;
+import io.micronaut.context.BeanContext;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.inject.BeanDefinition;
+import io.micronaut.inject.qualifiers.Qualifiers;
+import io.micronaut.serde.ObjectMapper;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+
+/**
+ * Maps controller classes to their resource contracts.
+ *
+ * <p>Contracts of all {@link ResourceContractProvider} beans are registered at startup. Controllers
+ * generated without a contract provider fall back to parsing their {@code OPTIONS_CONTENT} field.
+ * The field of every controller bean is parsed once at startup, so no JSON is parsed on the request
+ * path. The registry logs once that the fallback is used.
+ *
+ * <p>The contracts are shared across requests and therefore returned as unmodifiable views.
+ *
+ * @author Silvio Wangler
+ */
+@Singleton
+public class ContractRegistry {
+
+  private static final Logger log = getLogger(ContractRegistry.class);
+  private static final String OPTIONS_CONTENT = "OPTIONS_CONTENT";
+
+  private final Map<Class<?>, ResourceContract> generatedContracts;
+  private final Map<Class<?>, Optional<ResourceContract>> parsedContracts;
+  private final ObjectMapper objectMapper;
+  private final AtomicBoolean fallbackLogged = new AtomicBoolean();
+
+  public ContractRegistry(List<ResourceContractProvider> providers, ObjectMapper objectMapper) {
+    Map<Class<?>, ResourceContract> contracts = new HashMap<>();
+    for (ResourceContractProvider provider : providers) {
+      contracts.put(provider.getResourceClass(), unmodifiable(provider.getContract()));
+    }
+    this.generatedContracts = Map.copyOf(contracts);
+    this.parsedContracts = new ConcurrentHashMap<>();
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Registers the contracts of the providers and parses the {@code OPTIONS_CONTENT} of all other
+   * controller beans.
+   *
+   * @param providers the generated contract providers.
+   * @param objectMapper parses the {@code OPTIONS_CONTENT} of the controllers without provider.
+   * @param beanContext provides the controller beans.
+   */
+  @Inject
+  public ContractRegistry(
+      List<ResourceContractProvider> providers,
+      ObjectMapper objectMapper,
+      BeanContext beanContext) {
+    this(providers, objectMapper);
+
+    for (BeanDefinition<?> controller :
+        beanContext.getBeanDefinitions(Qualifiers.byStereotype(Controller.class))) {
+      Class<?> resourceClass = controller.getBeanType();
+
+      if (!generatedContracts.containsKey(resourceClass) && hasOptionsContent(resourceClass)) {
+        parsedContracts.put(resourceClass, parseContract(resourceClass));
+      }
+    }
+  }
+
+  /**
+   * Looks up the contract of a controller.
+   *
+   * @param resourceClass the controller class.
+   * @return an unmodifiable view of the contract or empty if the class is not a generated
+   *     controller.
+   */
+  public Optional<ResourceContract> findContract(Class<?> resourceClass) {
+    ResourceContract contract = generatedContracts.get(resourceClass);
+
+    if (contract != null) {
+      return Optional.of(contract);
+    }
+    return parsedContracts.computeIfAbsent(resourceClass, this::parseContract);
+  }
+
+  private Optional<ResourceContract> parseContract(Class<?> resourceClass) {
+    if (fallbackLogged.compareAndSet(false, true)) {
+      log.info(
+          "Parsing the OPTIONS_CONTENT of controllers without a ResourceContractProvider (e.g. {})."
+              + " Generate the providers with 'generateResourceContracts' to avoid it.",
+          resourceClass.getName());
+    }
+
+    try {
+      Field contractField = resourceClass.getField(OPTIONS_CONTENT);
+      String json = (String) contractField.get(null);
+
+      return Optional.of(unmodifiable(this.objectMapper.readValue(json, ResourceContract.class)));
+
+    } catch (IllegalAccessException | NoSuchFieldException | IOException ex) {
+      log.error("Unable to read contract from class '{}'", resourceClass.getSimpleName(), ex);
+      return Optional.empty();
+    }
+  }
+
+  private static boolean hasOptionsContent(Class<?> resourceClass) {
+    try {
+      resourceClass.getField(OPTIONS_CONTENT);
+      return true;
+    } catch (NoSuchFieldException e) {
+      return false;
+    }
+  }
+
+  private static ResourceContract unmodifiable(ResourceContract contract) {
+    return contract instanceof UnmodifiableResourceContract
+        ? contract
+        : new UnmodifiableResourceContract(contract);
+  }
+
+  /** A resource contract whose lists cannot be modified and whose setters throw. */
+  private static final class UnmodifiableResourceContract extends ResourceContract {
+
+    private final GeneralDetails general;
+    private final List<Verb> verbs;
+    private final List<ResourceField> fields;
+    private final List<SubResource> subresources;
+    private final List<ResourceTypes> types;
+
+    private UnmodifiableResourceContract(ResourceContract contract) {
+      this.general = contract.getGeneral();
+      this.verbs = unmodifiable(contract.getVerbs());
+      this.fields = unmodifiable(contract.getFields());
+      this.subresources = unmodifiable(contract.getSubresources());
+      this.types = unmodifiable(contract.getTypes());
+    }
+
+    private static <T> List<T> unmodifiable(List<T> list) {
+      return list != null ? Collections.unmodifiableList(list) : Collections.emptyList();
+    }
+
+    @Override
+    public GeneralDetails getGeneral() {
+      return general;
+    }
+
+    @Override
+    public List<Verb> getVerbs() {
+      return verbs;
+    }
+
+    @Override
+    public List<ResourceField> getFields() {
+      return fields;
+    }
+
+    @Override
+    public List<SubResource> getSubresources() {
+      return subresources;
+    }
+
+    @Override
+    public List<ResourceTypes> getTypes() {
+      return types;
+    }
+
+    @Override
+    public void setGeneral(GeneralDetails general) {
+      throw new UnsupportedOperationException("The contract is shared and must not be modified");
+    }
+
+    @Override
+    public void setVerbs(List<Verb> verbs) {
+      throw new UnsupportedOperationException("The contract is shared and must not be modified");
+    }
+
+    @Override
+    public void setFields(List<ResourceField> fields) {
+      throw new UnsupportedOperationException("The contract is shared and must not be modified");
+    }
+
+    @Override
+    public void setSubresources(List<SubResource> subresources) {
+      throw new UnsupportedOperationException("The contract is shared and must not be modified");
+    }
+
+    @Override
+    public void setTypes(List<ResourceTypes> types) {
+      throw new UnsupportedOperationException("The contract is shared and must not be modified");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof ResourceContract)) return false;
+      ResourceContract that = (ResourceContract) o;
+      return Objects.equals(general, that.getGeneral())
+          && Objects.equals(verbs, that.getVerbs())
+          && Objects.equals(fields, that.getFields())
+          && Objects.equals(subresources, that.getSubresources())
+          && Objects.equals(types, that.getTypes());
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(general, verbs, fields, subresources, types);
+    }
+
+    @Override
+    public String toString() {
+      return general != null ? general.getName() : super.toString();
+    }
+  }
+}
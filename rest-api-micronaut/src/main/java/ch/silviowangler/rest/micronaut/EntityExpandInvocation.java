@@ -0,0 +1,145 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.micronaut;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import ch.silviowangler.rest.model.EntityModel;
+import ch.silviowangler.rest.model.Expand;
+import ch.silviowangler.rest.model.ResourceModel;
+import io.reactivex.Completable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import org.slf4j.Logger;
+
+/**
+ * A single expand of a single entity that is ready to be invoked.
+ *
+ * @author Silvio Wangler
+ */
+final class EntityExpandInvocation implements ExpandInvocation {
+
+  private static final Logger log = getLogger(EntityExpandInvocation.class);
+
+  private final String expandName;
+  private final EntityModel<?> target;
+  private final Callable<Object> call;
+  private Expand result;
+  private volatile boolean failed;
+
+  /**
+   * @param expandName the name of the sub resource.
+   * @param target the entity the result is attached to.
+   * @param call reads the sub resource (either an {@link ExpandDispatcher} or the executable
+   *     method of the sub resource controller).
+   */
+  EntityExpandInvocation(String expandName, EntityModel<?> target, Callable<Object> call) {
+    this.expandName = expandName;
+    this.target = target;
+    this.call = call;
+  }
+
+  /** Invokes the sub resource. Failures are logged and leave the entity without this expand. */
+  @Override
+  public Completable invoke() {
+    Object data;
+    try {
+      data = call.call();
+    } catch (Exception e) {
+      log.error("Exception caught while expanding sub resource " + expandName, e);
+      failed = true;
+      return Completable.complete();
+    }
+
+    if (!AsyncResults.isAsync(data)) {
+      accept(data);
+      return Completable.complete();
+    }
+
+    return AsyncResults.resolve(data)
+        .doOnSuccess(this::accept)
+        .doOnComplete(() -> accept(null))
+        .ignoreElement()
+        .doOnError(
+            e -> {
+              log.error("Exception caught while expanding sub resource " + expandName, e);
+              failed = true;
+            })
+        .onErrorComplete();
+  }
+
+  @SuppressWarnings("unchecked")
+  private void accept(Object data) {
+    if (data instanceof Collection) {
+      result = new Expand(expandName);
+      result.setData((List<ResourceModel>) data);
+    } else if (data instanceof Iterable) {
+      // delegates of generated controllers return an Iterable
+      List<ResourceModel> models = new ArrayList<>();
+      for (Object model : (Iterable<?>) data) {
+        models.add((ResourceModel) model);
+      }
+      result = new Expand(expandName);
+      result.setData(models);
+    } else if (data instanceof ResourceModel) {
+      result = new Expand(expandName);
+      result.setData(Collections.singletonList((ResourceModel) data));
+    } else if (data != null) {
+      log.error(
+          "Expand {} is neither a collection nor a resource model (class: {})",
+          expandName,
+          data.getClass().getCanonicalName());
+      failed = true;
+    } else {
+      log.error("Expand {} is null", expandName);
+      failed = true;
+    }
+  }
+
+  /** Adds the result of {@link #invoke()} to the expands of the entity. */
+  @Override
+  public void attach() {
+    if (result != null) {
+      target.getExpands().add(result);
+    }
+  }
+
+  @Override
+  public String getExpandName() {
+    return expandName;
+  }
+
+  @Override
+  public int getEntityCount() {
+    return 1;
+  }
+
+  @Override
+  public boolean isFailed() {
+    return failed;
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.micronaut;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.HttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import io.reactivex.Flowable;
+import org.reactivestreams.Publisher;
+
+/**
+ * Answers conditional GET requests with 304 (Not Modified) if the response already carries an ETag
+ * when it reaches this filter, e.g. a response replayed by {@link ResponseCacheFilter}.
+ *
+ * <p>This filter runs after the security filter, inside {@link ExpandedGetResponseFilter}. A 304
+ * response is sent without creating links or resolving expands. The strong ETag of all other
+ * responses is computed from the final body by {@link SerializedResponseFilter}.
+ *
+ * @author Silvio Wangler
+ */
+@Filter("${restapi.hateoas.filter.uri}")
+@Requires(property = "restapi.etag.enabled", value = "true")
+public class EtagFilter implements HttpServerFilter {
+
+  @Override
+  public int getOrder() {
+    return FilterOrder.ETAGS;
+  }
+
+  @Override
+  public Publisher<MutableHttpResponse<?>> doFilter(
+      HttpRequest<?> request, ServerFilterChain chain) {
+
+    if (!Etags.isCacheable(request) || !request.getHeaders().contains(HttpHeaders.IF_NONE_MATCH)) {
+      return chain.proceed(request);
+    }
+
+    return Flowable.fromPublisher(chain.proceed(request))
+        .map(
+            response -> {
+              String etag = response.getHeaders().get(HttpHeaders.ETAG);
+
+              if (response.status() == HttpStatus.OK
+                  && etag != null
+                  && Etags.matches(request, etag)) {
+                return Etags.notModified(response, etag);
+              }
+              return response;
+            });
+  }
+}
@@ -0,0 +1,197 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.micronaut;
+
+import ch.silviowangler.rest.model.Identifiable;
+import ch.silviowangler.rest.model.Versioned;
+import ch.silviowangler.rest.model.pagination.Page;
+import ch.silviowangler.rest.model.pagination.Slice;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MutableHttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Creates and compares the ETags of {@link SerializedResponseFilter} and {@link VersionEtagFilter}.
+ *
+ * <p>ETags are SHA-256 digests of the serialized body (strong ETags) or of the request URI, the
+ * {@code Accept-Language} header and the versions of {@link Versioned} models (weak ETags). They
+ * only depend on the content and are therefore the same on every node.
+ *
+ * @author Silvio Wangler
+ */
+final class Etags {
+
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  // 128 bits of the digest are plenty to tell two versions of a resource apart
+  private static final int TAG_LENGTH = 16;
+
+  private Etags() {
+    // do not create instances of me please
+  }
+
+  /**
+   * @param request the current request.
+   * @return true if the response to the request can be answered with 304 (Not Modified).
+   */
+  static boolean isCacheable(HttpRequest<?> request) {
+    return request.getMethod() == HttpMethod.GET || request.getMethod() == HttpMethod.HEAD;
+  }
+
+  /**
+   * @param body the serialized body.
+   * @return the strong ETag of the body.
+   */
+  static String ofContent(byte[] body) {
+    MessageDigest digest = sha256();
+    digest.update(body);
+    return '"' + tag(digest) + '"';
+  }
+
+  /**
+   * Creates the ETag of a body from the versions of its models. A collection is versioned if all
+   * its entities are versioned.
+   *
+   * @param request the current request.
+   * @param body the body returned by the delegate.
+   * @return the weak ETag or empty if the body is not versioned.
+   */
+  static Optional<String> ofVersion(HttpRequest<?> request, Object body) {
+    MessageDigest digest = sha256();
+    // the same model is rendered differently per URI (e.g. links, pagination) and language
+    update(digest, request.getPath());
+    update(digest, request.getUri().getRawQuery());
+    update(digest, request.getHeaders().get(HttpHeaders.ACCEPT_LANGUAGE));
+
+    if (body instanceof Versioned) {
+      if (!update(digest, body)) {
+        return Optional.empty();
+      }
+    } else if (body instanceof Collection || body instanceof Slice) {
+      Collection<?> content =
+          body instanceof Slice ? ((Slice<?>) body).getContent() : (Collection<?>) body;
+
+      for (Object model : content) {
+        if (!update(digest, model)) {
+          return Optional.empty();
+        }
+      }
+      if (body instanceof Page) {
+        update(digest, String.valueOf(((Page<?>) body).getTotalSize()));
+      }
+    } else {
+      return Optional.empty();
+    }
+    return Optional.of("W/\"" + tag(digest) + '"');
+  }
+
+  /**
+   * Compares an ETag with the {@code If-None-Match} header of a request (weak comparison).
+   *
+   * @param request the current request.
+   * @param etag the ETag of the response.
+   * @return true if the client already has the current representation.
+   */
+  static boolean matches(HttpRequest<?> request, String etag) {
+    String ifNoneMatch = request.getHeaders().get(HttpHeaders.IF_NONE_MATCH);
+
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    if (ifNoneMatch.trim().equals("*")) {
+      return true;
+    }
+
+    String opaqueTag = opaqueTag(etag);
+    return Arrays.stream(ifNoneMatch.split(","))
+        .map(String::trim)
+        .anyMatch(candidate -> opaqueTag.equals(opaqueTag(candidate)));
+  }
+
+  /**
+   * Turns a response into a 304 (Not Modified) response without body.
+   *
+   * @param response the response.
+   * @param etag the ETag of the response.
+   * @return the response.
+   */
+  static MutableHttpResponse<?> notModified(MutableHttpResponse<?> response, String etag) {
+    response.status(HttpStatus.NOT_MODIFIED);
+    response.body(null);
+    response.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+    response.header(HttpHeaders.ETAG, etag);
+    return response;
+  }
+
+  private static boolean update(MessageDigest digest, Object model) {
+    if (!(model instanceof Versioned)) {
+      return false;
+    }
+
+    String version = ((Versioned) model).version();
+    if (version == null) {
+      return false;
+    }
+
+    if (model instanceof Identifiable) {
+      update(digest, String.valueOf(((Identifiable<?>) model).getId()));
+    }
+    update(digest, model.getClass().getName());
+    update(digest, version);
+    return true;
+  }
+
+  private static void update(MessageDigest digest, String value) {
+    if (value != null) {
+      digest.update(value.getBytes(StandardCharsets.UTF_8));
+    }
+    // separates the values so that ("ab", "c") and ("a", "bc") result in different digests
+    digest.update((byte) 0);
+  }
+
+  private static String opaqueTag(String etag) {
+    return etag.startsWith("W/") ? etag.substring(2) : etag;
+  }
+
+  private static String tag(MessageDigest digest) {
+    return ENCODER.encodeToString(Arrays.copyOf(digest.digest(), TAG_LENGTH));
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      // every Java platform has to support SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.micronaut;
+
+import static io.micronaut.http.HttpHeaders.ACCEPT_LANGUAGE;
+
+import io.micronaut.http.HttpRequest;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The arguments available to an {@link ExpandDispatcher} when it expands a sub resource of an
+ * entity.
+ *
+ * @author Silvio Wangler
+ */
+public final class ExpandContext {
+
+  private final HttpRequest<?> request;
+  private final Map<String, Object> variables;
+  private final Object entityId;
+
+  ExpandContext(HttpRequest<?> request, Map<String, Object> variables, Object entityId) {
+    this.request = request;
+    this.variables = variables;
+    this.entityId = entityId;
+  }
+
+  /**
+   * Creates a context for a single entity of a collection.
+   *
+   * @param entityId the id of the entity.
+   * @return a context with the same request and route variables as this context.
+   */
+  public ExpandContext forEntity(Object entityId) {
+    return new ExpandContext(request, variables, entityId);
+  }
+
+  public HttpRequest<?> getRequest() {
+    return request;
+  }
+
+  /**
+   * @return the id of the expanded entity or {@code null} if all entities of a collection are
+   *     expanded at once.
+   */
+  public Object getEntityId() {
+    return entityId;
+  }
+
+  /**
+   * Returns a path variable of the sub resource. Variables that are not part of the route of the
+   * expanded resource identify the expanded entity itself (e.g. {@code country} of {@code
+   * /v1/countries/{country}/cities} when expanding {@code /v1/countries/{id}}).
+   *
+   * @param name the name of the path variable.
+   * @return the value of the variable.
+   */
+  public String pathVariable(String name) {
+    Object value = variables.containsKey(name) ? variables.get(name) : entityId;
+    return value != null ? value.toString() : null;
+  }
+
+  /**
+   * Reads an optional header of the current request.
+   *
+   * @param name the name of the header.
+   * @param type the type to convert the header value to.
+   * @return the converted value or empty if the request does not contain the header.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> Optional<T> header(String name, Class<T> type) {
+    if (ACCEPT_LANGUAGE.equals(name) && Locale.class.equals(type)) {
+      return (Optional<T>) request.getLocale();
+    }
+    return request.getHeaders().get(name, type);
+  }
+
+  /**
+   * Reads a mandatory header of the current request.
+   *
+   * @param name the name of the header.
+   * @param type the type to convert the header value to.
+   * @return the converted value.
+   * @throws IllegalStateException if the request does not contain the header.
+   */
+  public <T> T mandatoryHeader(String name, Class<T> type) {
+    return header(name, type)
+        .orElseThrow(
+            () ->
+                new IllegalStateException(
+                    String.format(
+                        "The header '%s' is mandatory but was not found in the request", name)));
+  }
+}
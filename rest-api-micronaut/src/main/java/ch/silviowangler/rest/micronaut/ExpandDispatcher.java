@@ -0,0 +1,67 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.micronaut;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Resolves the expandable sub resources of a generated controller by calling the delegates of the
+ * sub resources directly. Implementations are generated by the REST API Gradle plugin (option
+ * {@code generateExpandDispatchers}) and replace the routing and the reflective invocation of the
+ * sub resource controllers in {@link ExpandedGetResponseFilter}.
+ *
+ * @author Silvio Wangler
+ */
+public interface ExpandDispatcher {
+
+  /**
+   * @return the controller class whose sub resources are dispatched.
+   */
+  Class<?> getResourceClass();
+
+  /**
+   * @return the names of the sub resources this dispatcher can expand.
+   */
+  Set<String> getExpandNames();
+
+  /**
+   * Reads the sub resource of an entity.
+   *
+   * @param expandName the name of the sub resource (one of {@link #getExpandNames()}).
+   * @param context the request, the route variables and the id of the expanded entity.
+   * @return the result of the delegate (a model or a collection of models).
+   */
+  Object expand(String expandName, ExpandContext context);
+
+  /**
+   * Looks up the delegate of a sub resource if it reads the sub resource of many entities at once.
+   *
+   * @param expandName the name of the sub resource (one of {@link #getExpandNames()}).
+   * @return the delegate or empty if the delegate does not implement {@link BatchExpandable}.
+   */
+  default Optional<BatchExpandable<?, ?>> findBatchExpandable(String expandName) {
+    return Optional.empty();
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.micronaut;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JDK Flight Recorder event of an {@link ExpandInvocation} of {@link ExpandedGetResponseFilter}.
+ * The event lasts until the result of the sub resource is available.
+ *
+ * @author Silvio Wangler
+ */
+@Name("ch.silviowangler.rest.Expand")
+@Label("Expand")
+@Category({"REST API", "HATEOAS"})
+@Description("Invocation of an expanded sub resource")
+final class ExpandEvent extends Event {
+
+  // checks whether the event is enabled without allocating an event per expand
+  private static final ExpandEvent PROBE = new ExpandEvent();
+
+  @Label("Route")
+  String route;
+
+  @Label("Sub Resource")
+  String subResource;
+
+  @Label("Entity Count")
+  int entityCount;
+
+  @Label("Failed")
+  boolean failed;
+
+  /** @return true if a running recording has enabled this event. */
+  static boolean isRecorded() {
+    return PROBE.isEnabled();
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.micronaut;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import io.micronaut.context.annotation.Bean;
+import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+
+/**
+ * Creates the executor used by {@link ExpandedGetResponseFilter} to resolve the expands of a
+ * request concurrently.
+ *
+ * <p>The executor is only created if {@code restapi.hateoas.expands.concurrent} is set to {@code
+ * true}. On a JDK that supports virtual threads (21+) a virtual thread per task executor is used
+ * unless {@code restapi.hateoas.expands.virtual-threads} is set to {@code false}. Otherwise a fixed
+ * thread pool sized by {@code restapi.hateoas.expands.max-concurrency} is created.
+ *
+ * <p>Applications can provide their own executor by replacing the bean named {@value
+ * #EXECUTOR_NAME}.
+ *
+ * @author Silvio Wangler
+ */
+@Factory
+@Requires(property = "restapi.hateoas.expands.concurrent", value = "true")
+public class ExpandExecutorFactory {
+
+  public static final String EXECUTOR_NAME = "restapi-expands";
+
+  private static final Logger log = getLogger(ExpandExecutorFactory.class);
+
+  @Singleton
+  @Named(EXECUTOR_NAME)
+  @Bean(preDestroy = "shutdown")
+  public ExecutorService expandExecutor(
+      @Value("${restapi.hateoas.expands.max-concurrency:4}") int maxConcurrency,
+      @Value("${restapi.hateoas.expands.virtual-threads:true}") boolean virtualThreads) {
+
+    if (virtualThreads) {
+      Optional<ExecutorService> executor = virtualThreadPerTaskExecutor();
+      if (executor.isPresent()) {
+        log.debug("Resolving expands on virtual threads");
+        return executor.get();
+      }
+    }
+
+    log.debug("Resolving expands on a thread pool of size {}", maxConcurrency);
+    return Executors.newFixedThreadPool(
+        Math.max(1, maxConcurrency), new DaemonThreadFactory(EXECUTOR_NAME));
+  }
+
+  /**
+   * Looks up {@code Executors.newVirtualThreadPerTaskExecutor()} reflectively since this library
+   * is compiled against Java 17.
+   */
+  static Optional<ExecutorService> virtualThreadPerTaskExecutor() {
+    try {
+      return Optional.of(
+          (ExecutorService)
+              Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null));
+    } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+      // virtual threads are not available (JDK < 21 or preview features disabled)
+      return Optional.empty();
+    }
+  }
+
+  /** Creates daemon threads named after the executor. */
+  static class DaemonThreadFactory implements ThreadFactory {
+
+    private final String prefix;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    DaemonThreadFactory(String prefix) {
+      this.prefix = prefix;
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
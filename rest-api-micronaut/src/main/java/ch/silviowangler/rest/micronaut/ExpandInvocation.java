@@ -0,0 +1,56 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.micronaut;
+
+import io.reactivex.Completable;
+
+/**
+ * An expand that is ready to be invoked. Invoking an expand may happen on any thread, attaching
+ * its result to the entities happens in the order of the plan.
+ *
+ * @author Silvio Wangler
+ */
+interface ExpandInvocation {
+
+  /**
+   * Reads the sub resource. The sub resource is called right away or once the returned {@link
+   * Completable} is subscribed; results of asynchronous or reactive delegates complete it once they
+   * are available. Failures are logged and leave the entities without this expand.
+   *
+   * @return completes when the result is available (never fails).
+   */
+  Completable invoke();
+
+  /** Adds the result of {@link #invoke()} to the expands of the entities. */
+  void attach();
+
+  /** @return the name of the sub resource. */
+  String getExpandName();
+
+  /** @return the number of entities expanded by this invocation. */
+  int getEntityCount();
+
+  /** @return true if the sub resource failed (valid once {@link #invoke()} has completed). */
+  boolean isFailed();
+}
@@ -0,0 +1,336 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.micronaut;
+
+import static io.micronaut.core.naming.NameUtils.hyphenate;
+import static io.micronaut.http.HttpHeaders.ACCEPT_LANGUAGE;
+
+import ch.silviowangler.rest.contract.model.v1.Header;
+import ch.silviowangler.rest.model.EntityModel;
+import ch.silviowangler.rest.model.Identifiable;
+import ch.silviowangler.rest.model.ResourceModel;
+import io.micronaut.core.convert.ConversionService;
+import io.micronaut.core.naming.conventions.StringConvention;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.inject.ExecutableMethod;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The compiled form of an "Expanded GET" for a route and a value of the {@code expands} parameter.
+ *
+ * <p>Compiling a plan resolves the requested sub resources against the resource contract. Sub
+ * resources of a generated {@link ExpandDispatcher} are called through the dispatcher. For all
+ * other sub resources the route, the executable method and the bean are looked up and the binding
+ * of the arguments of these methods is determined. A plan holds no request specific state and is
+ * therefore cached by {@link ExpandedGetResponseFilter} and shared across requests. Applying a plan
+ * to an entity only substitutes the variables and creates the {@link ExpandInvocation}s.
+ *
+ * @author Silvio Wangler
+ */
+final class ExpandPlan {
+
+  static final ExpandPlan EMPTY =
+      new ExpandPlan(Collections.emptyList(), Collections.emptyList(), 0);
+
+  private final List<Step> steps;
+  private final List<Header> headers;
+  private final int skippedExpands;
+
+  /**
+   * @param steps the sub resources to expand in the order they were requested.
+   * @param headers the headers of the {@code GET_COLLECTION} verb of the expanded resource.
+   * @param skippedExpands the number of requested sub resources that are unknown or not
+   *     expandable.
+   */
+  ExpandPlan(List<Step> steps, List<Header> headers, int skippedExpands) {
+    this.steps = List.copyOf(steps);
+    this.headers = List.copyOf(headers);
+    this.skippedExpands = skippedExpands;
+  }
+
+  boolean isEmpty() {
+    return steps.isEmpty();
+  }
+
+  int getSkippedExpands() {
+    return skippedExpands;
+  }
+
+  List<Step> getSteps() {
+    return steps;
+  }
+
+  /**
+   * Binds the request specific values (headers and route variables) of this plan.
+   *
+   * @param request the current request.
+   * @param routeVariables the variables of the route of the expanded resource.
+   * @return a binding that creates the invocations per entity.
+   */
+  Binding bind(HttpRequest<?> request, Map<String, Object> routeVariables) {
+
+    Map<String, Object> variables = new HashMap<>(routeVariables);
+
+    for (Header header : headers) {
+      if (variables.get(header.getName()) == null) {
+        String variableName =
+            StringConvention.format(StringConvention.CAMEL_CASE, header.getName().toLowerCase());
+        Object extractedHeader = extractHeader(request, header);
+
+        if (extractedHeader != null) {
+          variables.put(variableName, extractedHeader);
+        }
+      }
+    }
+
+    List<Object[]> arguments = new ArrayList<>(steps.size());
+    for (Step step : steps) {
+      arguments.add(step.dispatcher == null ? step.bindHeaders(request) : null);
+    }
+    return new Binding(request, variables, arguments);
+  }
+
+  private static Object extractHeader(HttpRequest<?> request, Header header) {
+
+    if (ACCEPT_LANGUAGE.equals(header.getName())) {
+      Optional<Locale> value = request.getLocale();
+      return extractValueOfOptional(value, header);
+    }
+
+    Optional<String> value = request.getHeaders().get(header.getName(), String.class);
+    return extractValueOfOptional(value, header);
+  }
+
+  private static Object extractValueOfOptional(Optional<?> value, Header header) {
+    if (header.isMandatory()) {
+      return value.orElseThrow(
+          () ->
+              new IllegalStateException(
+                  String.format(
+                      "The header '%s' is mandatory but was not found in the request",
+                      header.getName())));
+    }
+
+    return value.orElse(null);
+  }
+
+  /** The request specific state of a plan. */
+  final class Binding {
+
+    private final HttpRequest<?> request;
+    private final Map<String, Object> variables;
+    private final List<Object[]> headerArguments;
+
+    private Binding(
+        HttpRequest<?> request, Map<String, Object> variables, List<Object[]> headerArguments) {
+      this.request = request;
+      this.variables = variables;
+      this.headerArguments = headerArguments;
+    }
+
+    /**
+     * Creates the invocations of all expands of the given entities. The invocations are ordered by
+     * step and then by entity, so every entity receives its expands in the order of the plan. A
+     * step whose delegate is a {@link BatchExpandable} results in a single invocation for all
+     * entities of a collection.
+     *
+     * @param entities the entities to expand.
+     * @param mustAddEntityId whether the id of an entity has to be bound to the {@code id}
+     *     variable (true for entities of a collection).
+     * @return the invocations in the order of the plan.
+     */
+    List<ExpandInvocation> invocations(List<EntityModel<?>> entities, boolean mustAddEntityId) {
+
+      List<Object> ids = new ArrayList<>(entities.size());
+      List<ExpandContext> contexts = new ArrayList<>(entities.size());
+
+      for (EntityModel<?> entity : entities) {
+        Object id =
+            mustAddEntityId ? ((Identifiable<?>) entity.getData()).getId() : variables.get("id");
+        ids.add(id);
+        contexts.add(new ExpandContext(request, variables, id));
+      }
+
+      List<ExpandInvocation> invocations = new ArrayList<>(steps.size() * entities.size());
+
+      for (int i = 0; i < steps.size(); i++) {
+        Step step = steps.get(i);
+
+        if (step.batchExpandable != null && mustAddEntityId) {
+          invocations.add(
+              new BatchExpandInvocation(
+                  step.expandName,
+                  entities,
+                  ids,
+                  step.batchExpandable,
+                  new ExpandContext(request, variables, null)));
+          continue;
+        }
+
+        for (int j = 0; j < entities.size(); j++) {
+          invocations.add(
+              invocation(
+                  step, headerArguments.get(i), entities.get(j), contexts.get(j), mustAddEntityId));
+        }
+      }
+      return invocations;
+    }
+
+    private ExpandInvocation invocation(
+        Step step,
+        Object[] headerValues,
+        EntityModel<?> entity,
+        ExpandContext context,
+        boolean mustAddEntityId) {
+
+      if (step.dispatcher != null) {
+        return new EntityExpandInvocation(
+            step.expandName, entity, () -> step.dispatcher.expand(step.expandName, context));
+      }
+
+      Object[] arguments =
+          step.bindVariables(headerValues, variables, context.getEntityId(), mustAddEntityId);
+      return new EntityExpandInvocation(
+          step.expandName, entity, () -> step.executableMethod.invoke(step.bean, arguments));
+    }
+  }
+
+  /** A single sub resource of a plan. */
+  static final class Step {
+
+    private static final Argument<?>[] NO_ARGUMENTS = new Argument<?>[0];
+
+    private final String expandName;
+    private final ExpandDispatcher dispatcher;
+    private final BatchExpandable<Object, ? extends ResourceModel> batchExpandable;
+    private final ExecutableMethod<Object, Object> executableMethod;
+    private final Object bean;
+    private final Argument<?>[] arguments;
+    private final String[] headerNames;
+
+    /**
+     * A sub resource that is called through a generated dispatcher.
+     *
+     * @param expandName the name of the sub resource.
+     * @param dispatcher the dispatcher of the expanded resource.
+     * @param batchExpandable the delegate of the sub resource if it expands all entities of a
+     *     collection at once, otherwise {@code null}.
+     */
+    Step(
+        String expandName,
+        ExpandDispatcher dispatcher,
+        BatchExpandable<Object, ? extends ResourceModel> batchExpandable) {
+      this.expandName = expandName;
+      this.dispatcher = dispatcher;
+      this.batchExpandable = batchExpandable;
+      this.executableMethod = null;
+      this.bean = null;
+      this.arguments = NO_ARGUMENTS;
+      this.headerNames = new String[0];
+    }
+
+    /** A sub resource whose controller method is invoked reflectively. */
+    Step(String expandName, ExecutableMethod<Object, Object> executableMethod, Object bean) {
+      this.expandName = expandName;
+      this.dispatcher = null;
+      this.batchExpandable = null;
+      this.executableMethod = executableMethod;
+      this.bean = bean;
+      this.arguments = executableMethod.getArguments();
+      this.headerNames = new String[arguments.length];
+
+      for (int i = 0; i < arguments.length; i++) {
+        // terrible hack around limitations in REST contracts xRoute naming
+        if (arguments[i]
+            .getAnnotationMetadata()
+            .hasAnnotation(io.micronaut.http.annotation.Header.class)) {
+          headerNames[i] = hyphenate(arguments[i].getName());
+        }
+      }
+    }
+
+    String getExpandName() {
+      return expandName;
+    }
+
+    ExpandDispatcher getDispatcher() {
+      return dispatcher;
+    }
+
+    ExecutableMethod<Object, Object> getExecutableMethod() {
+      return executableMethod;
+    }
+
+    Object getBean() {
+      return bean;
+    }
+
+    private Object[] bindHeaders(HttpRequest<?> request) {
+      Object[] values = new Object[arguments.length];
+
+      for (int i = 0; i < arguments.length; i++) {
+        if (headerNames[i] == null) {
+          continue;
+        }
+        final String headerValue = request.getHeaders().findFirst(headerNames[i]).orElse(null);
+
+        if (headerValue != null
+            && ConversionService.SHARED.canConvert(
+                headerValue.getClass(), arguments[i].getType())) {
+          values[i] = ConversionService.SHARED.convert(headerValue, arguments[i].getType()).get();
+        } else {
+          values[i] = headerValue;
+        }
+      }
+      return values;
+    }
+
+    private Object[] bindVariables(
+        Object[] headerValues, Map<String, Object> variables, Object id, boolean entityId) {
+      Object[] values = headerValues.clone();
+
+      for (int i = 0; i < arguments.length; i++) {
+        if (headerNames[i] != null) {
+          continue;
+        }
+        String name = arguments[i].getName();
+
+        if (entityId && "id".equals(name)) {
+          values[i] = id;
+        } else {
+          Object value = variables.get(name);
+          values[i] = value != null || variables.containsKey(name) ? value : id;
+        }
+      }
+      return values;
+    }
+  }
+}
@@ -23,8 +23,6 @@
  */
 package ch.silviowangler.rest.micronaut;
 
-import static io.micronaut.core.naming.NameUtils.hyphenate;
-import static io.micronaut.http.HttpHeaders.ACCEPT_LANGUAGE;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import ch.silviowangler.rest.contract.model.v1.Header;
@@ -33,38 +31,42 @@ import ch.silviowangler.rest.contract.model.v1.SubResource;
 import ch.silviowangler.rest.contract.model.v1.Verb;
 import ch.silviowangler.rest.model.CollectionModel;
 import ch.silviowangler.rest.model.EntityModel;
-import ch.silviowangler.rest.model.Expand;
 import ch.silviowangler.rest.model.Identifiable;
 import ch.silviowangler.rest.model.ResourceModel;
+import ch.silviowangler.rest.model.UriTemplate;
 import io.micronaut.context.ApplicationContext;
 import io.micronaut.context.annotation.Requires;
-import io.micronaut.core.annotation.AnnotationValue;
-import io.micronaut.core.convert.ConversionService;
-import io.micronaut.core.naming.conventions.StringConvention;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.util.clhm.ConcurrentLinkedHashMap;
 import io.micronaut.http.HttpAttributes;
 import io.micronaut.http.HttpMethod;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.MutableHttpResponse;
 import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.context.ServerRequestContext;
 import io.micronaut.http.filter.HttpServerFilter;
 import io.micronaut.http.filter.ServerFilterChain;
 import io.micronaut.inject.ExecutableMethod;
 import io.micronaut.serde.ObjectMapper;
 import io.micronaut.web.router.Router;
 import io.micronaut.web.router.UriRouteMatch;
+import io.reactivex.Completable;
 import io.reactivex.Flowable;
-import java.io.IOException;
-import java.lang.reflect.Field;
-import java.util.Collection;
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 
@@ -87,6 +89,24 @@ import org.slf4j.Logger;
  *
  * <p>This filter modifies the response after {@link HateoasResponseFilter} has finished its work.
  *
+ * <p>By default all expands are resolved one after another on the thread handling the response. If
+ * {@code restapi.hateoas.expands.concurrent} is enabled, the expands of a response (including the
+ * expands of every entity of a collection) are resolved concurrently on the executor provided by
+ * {@link ExpandExecutorFactory}. At most {@code restapi.hateoas.expands.max-concurrency} expands
+ * are in flight per response. The results are attached in the same order as in sequential mode.
+ * Sub resources may return a {@code CompletionStage} or a {@code Publisher} (e.g. {@code Flowable},
+ * {@code Mono} or {@code Flux}), their results are awaited without blocking.
+ *
+ * <p>The resolution of the sub resources of a route and an {@code expands} value is compiled into
+ * an {@link ExpandPlan} once and cached in a bounded map ({@code
+ * restapi.hateoas.expands.plan-cache-size}, {@code 0} disables the cache). Sub resources of a
+ * resource with a generated {@link ExpandDispatcher} are neither routed nor invoked reflectively,
+ * the dispatcher calls their delegates directly. If such a delegate implements {@link
+ * BatchExpandable}, the sub resource of all entities of a collection is read with a single call.
+ *
+ * <p>The number of requested, skipped and failed expands and the latency of every sub resource are
+ * recorded with {@link HateoasMetrics}.
+ *
  * @author Silvio Wangler
  */
 @Filter("${restapi.hateoas.filter.uri}")
@@ -95,18 +115,75 @@ public class ExpandedGetResponseFilter implements HttpServerFilter {
 
   private final ApplicationContext applicationContext;
   private final Router router;
-  private static final String EXPAND_PARAM_NAME = "expands";
+  static final String EXPAND_PARAM_NAME = "expands";
   private static final String GET_COLLECTION = "GET_COLLECTION";
-  private Map<Class, ResourceContract> contractStore;
+  private static final int DEFAULT_PLAN_CACHE_SIZE = 256;
   private static final Logger log = getLogger(ExpandedGetResponseFilter.class);
-  private final ObjectMapper objectMapper;
+  private final ContractRegistry contractRegistry;
+  private final Map<Class<?>, ExpandDispatcher> expandDispatchers;
+  private final Scheduler expandScheduler;
+  private final int maxConcurrency;
+  private final Map<String, ExpandPlan> expandPlans;
+  private final HateoasMetrics metrics;
 
   public ExpandedGetResponseFilter(
       ApplicationContext applicationContext, Router router, ObjectMapper objectMapper) {
+    this(
+        applicationContext,
+        router,
+        new ContractRegistry(Collections.emptyList(), objectMapper),
+        Collections.emptyList(),
+        null,
+        1,
+        DEFAULT_PLAN_CACHE_SIZE);
+  }
+
+  public ExpandedGetResponseFilter(
+      ApplicationContext applicationContext,
+      Router router,
+      ContractRegistry contractRegistry,
+      List<ExpandDispatcher> expandDispatchers,
+      @Nullable ExecutorService expandExecutor,
+      int maxConcurrency,
+      int planCacheSize) {
+    this(
+        applicationContext,
+        router,
+        contractRegistry,
+        expandDispatchers,
+        expandExecutor,
+        maxConcurrency,
+        planCacheSize,
+        null);
+  }
+
+  @Inject
+  public ExpandedGetResponseFilter(
+      ApplicationContext applicationContext,
+      Router router,
+      ContractRegistry contractRegistry,
+      List<ExpandDispatcher> expandDispatchers,
+      @Nullable @Named(ExpandExecutorFactory.EXECUTOR_NAME) ExecutorService expandExecutor,
+      @Value("${restapi.hateoas.expands.max-concurrency:4}") int maxConcurrency,
+      @Value("${restapi.hateoas.expands.plan-cache-size:256}") int planCacheSize,
+      @Nullable HateoasMetrics metrics) {
     this.applicationContext = applicationContext;
     this.router = router;
-    this.objectMapper = objectMapper;
-    this.contractStore = new HashMap<>();
+    this.contractRegistry = contractRegistry;
+    Map<Class<?>, ExpandDispatcher> dispatchers = new HashMap<>();
+    for (ExpandDispatcher dispatcher : expandDispatchers) {
+      dispatchers.put(dispatcher.getResourceClass(), dispatcher);
+    }
+    this.expandDispatchers = Map.copyOf(dispatchers);
+    this.expandScheduler = expandExecutor != null ? Schedulers.from(expandExecutor) : null;
+    this.maxConcurrency = Math.max(1, maxConcurrency);
+    this.expandPlans =
+        planCacheSize > 0
+            ? new ConcurrentLinkedHashMap.Builder<String, ExpandPlan>()
+                .maximumWeightedCapacity(planCacheSize)
+                .build()
+            : null;
+    this.metrics = metrics != null ? metrics : HateoasMetrics.NOOP;
   }
 
   @Override
@@ -115,81 +192,211 @@ public class ExpandedGetResponseFilter implements HttpServerFilter {
   }
 
   @Override
-  @SuppressWarnings("unchecked")
   public Publisher<MutableHttpResponse<?>> doFilter(
       HttpRequest<?> request, ServerFilterChain chain) {
 
-    return Flowable.fromPublisher(chain.proceed(request))
-        .doOnNext(
-            res -> {
-              // we don't want to add expands to failed requests
-              if (res.status().getCode() > 299) {
-                return;
-              }
-              if (request.getMethod().equals(HttpMethod.GET)
-                  && request.getParameters().contains(EXPAND_PARAM_NAME)) {
-                String expands = request.getParameters().get(EXPAND_PARAM_NAME);
-
-                Optional<UriRouteMatch> uriRouteMatch =
-                    request
-                        .getAttributes()
-                        .get(HttpAttributes.ROUTE_MATCH.toString(), UriRouteMatch.class);
-
-                if (uriRouteMatch.isPresent()) {
-
-                  UriRouteMatch routeMatchCurrentResource = uriRouteMatch.get();
-                  Object currentResource =
-                      applicationContext.getBean(
-                          routeMatchCurrentResource.getExecutableMethod().getDeclaringType());
-
-                  ResourceContract contract = fetchContract(currentResource).get();
-
-                  // fetch all expandable resources
-                  if (Objects.equals("*", expands)) {
-                    expands =
-                        contract.getSubresources().stream()
-                            .filter(SubResource::isExpandable)
-                            .map(SubResource::getName)
-                            .collect(Collectors.joining(","));
-                  }
-
-                  Object initialBody = res.body();
-
-                  if (initialBody instanceof EntityModel) {
-                    attachExpandedGetsBody(
-                        expands,
-                        routeMatchCurrentResource,
-                        contract,
-                        request,
-                        (EntityModel) initialBody,
-                        false);
-                    ((MutableHttpResponse) res).body(initialBody);
-                  } else if (initialBody instanceof CollectionModel) {
-                    for (EntityModel<? extends ResourceModel> model :
-                        ((CollectionModel<? extends ResourceModel>) initialBody).getData()) {
-                      attachExpandedGetsBody(
-                          expands, routeMatchCurrentResource, contract, request, model, true);
-                    }
-                    ((MutableHttpResponse) res).body(initialBody);
-                  } else {
-                    log.warn(
-                        "Return type '{}' and not as expected '{}'",
-                        initialBody.getClass().getCanonicalName(),
-                        EntityModel.class.getCanonicalName());
-                  }
+    return Flowable.fromPublisher(chain.proceed(request)).concatMap(res -> expand(request, res));
+  }
+
+  @SuppressWarnings("unchecked")
+  private Flowable<MutableHttpResponse<?>> expand(
+      HttpRequest<?> request, MutableHttpResponse<?> res) {
+
+    // we don't want to add expands to failed requests
+    if (res.status().getCode() > 299) {
+      return Flowable.just(res);
+    }
+
+    if (!request.getMethod().equals(HttpMethod.GET)
+        || !request.getParameters().contains(EXPAND_PARAM_NAME)) {
+      return Flowable.just(res);
+    }
+
+    String expands = request.getParameters().get(EXPAND_PARAM_NAME);
+
+    Optional<UriRouteMatch> uriRouteMatch =
+        request.getAttributes().get(HttpAttributes.ROUTE_MATCH.toString(), UriRouteMatch.class);
+
+    if (uriRouteMatch.isEmpty()) {
+      return Flowable.just(res);
+    }
+
+    UriRouteMatch<?, ?> routeMatchCurrentResource = uriRouteMatch.get();
+
+    Object initialBody = res.body();
+    List<EntityModel<?>> entities;
+    boolean mustAddEntityId;
+
+    if (initialBody instanceof EntityModel) {
+      entities = Collections.singletonList((EntityModel<?>) initialBody);
+      mustAddEntityId = false;
+    } else if (initialBody instanceof CollectionModel) {
+      entities =
+          new ArrayList<>(((CollectionModel<? extends ResourceModel>) initialBody).getData());
+      mustAddEntityId = true;
+    } else if (initialBody instanceof byte[]) {
+      // a cached response, its expands have already been resolved
+      return Flowable.just(res);
+    } else {
+      log.warn(
+          "Return type '{}' and not as expected '{}'",
+          initialBody != null ? initialBody.getClass().getCanonicalName() : null,
+          EntityModel.class.getCanonicalName());
+      return Flowable.just(res);
+    }
+
+    if (entities.isEmpty()) {
+      return Flowable.just(res);
+    }
+
+    ExpandPlan plan =
+        expandPlan(routeMatchCurrentResource, expands, entities.get(0), mustAddEntityId);
+    String route = Routes.template(routeMatchCurrentResource);
+
+    metrics.recordExpandsRequested(
+        route, plan.getSteps().size() + plan.getSkippedExpands(), plan.getSkippedExpands());
+
+    if (plan.isEmpty()) {
+      return Flowable.just(res);
+    }
+
+    ExpandPlan.Binding binding =
+        plan.bind(request, routeMatchCurrentResource.getVariableValues());
+
+    List<ExpandInvocation> invocations = binding.invocations(entities, mustAddEntityId);
+
+    return invoke(request, route, invocations)
+        .andThen(
+            Flowable.fromCallable(
+                () -> {
+                  ((MutableHttpResponse) res).body(initialBody);
+                  return res;
+                }));
+  }
+
+  /**
+   * Invokes the given expands. The expands are attached to their entities in the order of the
+   * given list no matter whether they are resolved sequentially or concurrently. Results of
+   * asynchronous or reactive delegates are awaited without blocking the calling thread.
+   */
+  private Completable invoke(
+      HttpRequest<?> request, String route, List<ExpandInvocation> invocations) {
+
+    // a single expand of a single entity gains nothing from another thread, a batch expand does
+    if (expandScheduler == null
+        || (invocations.size() < 2 && invocations.get(0).getEntityCount() < 2)) {
+      return Completable.concat(
+          Flowable.fromIterable(invocations)
+              .map(
+                  invocation ->
+                      Completable.defer(() -> timedInvoke(route, invocation))
+                          .doOnComplete(invocation::attach)));
+    }
+
+    return Flowable.fromIterable(invocations)
+        .concatMapEager(
+            invocation ->
+                Completable.defer(
+                        () ->
+                            ServerRequestContext.with(
+                                request,
+                                (Callable<Completable>) () -> timedInvoke(route, invocation)))
+                    .subscribeOn(expandScheduler)
+                    .andThen(Flowable.just(invocation)),
+            maxConcurrency,
+            1)
+        .doOnNext(ExpandInvocation::attach)
+        .ignoreElements();
+  }
+
+  /** Invokes an expand and records its latency once its result is available. */
+  private Completable timedInvoke(String route, ExpandInvocation invocation) {
+    ExpandEvent event = ExpandEvent.isRecorded() ? new ExpandEvent() : null;
+    if (event != null) {
+      event.begin();
+    }
+    long start = System.nanoTime();
+
+    return invocation
+        .invoke()
+        .doOnComplete(
+            () -> {
+              metrics.recordExpand(
+                  route,
+                  invocation.getExpandName(),
+                  System.nanoTime() - start,
+                  invocation.isFailed());
+
+              if (event != null) {
+                event.end();
+                if (event.shouldCommit()) {
+                  event.route = route;
+                  event.subResource = invocation.getExpandName();
+                  event.entityCount = invocation.getEntityCount();
+                  event.failed = invocation.isFailed();
+                  event.commit();
                 }
               }
             });
   }
 
-  @SuppressWarnings("unchecked")
-  private void attachExpandedGetsBody(
+  private ExpandPlan expandPlan(
+      UriRouteMatch<?, ?> routeMatch,
+      String expands,
+      EntityModel<?> sample,
+      boolean mustAddEntityId) {
+
+    if (expandPlans == null) {
+      return compilePlan(routeMatch, expands, sample, mustAddEntityId);
+    }
+
+    String key = Routes.template(routeMatch) + "?" + expands;
+    return expandPlans.computeIfAbsent(
+        key, k -> compilePlan(routeMatch, expands, sample, mustAddEntityId));
+  }
+
+  /**
+   * Resolves the sub resources, routes, executable methods and beans of the given expands. Sub
+   * resources known to the {@link ExpandDispatcher} of the current resource are not routed. The
+   * route of any other sub resource is looked up using the variables of the current request and
+   * the given sample entity. All entities of a route resolve to the same route of the sub resource.
+   */
+  private ExpandPlan compilePlan(
+      UriRouteMatch<?, ?> routeMatch,
       String expands,
-      UriRouteMatch routeMatchCurrentResource,
-      ResourceContract contract,
-      HttpRequest<?> request,
-      EntityModel initialBody,
+      EntityModel<?> sample,
       boolean mustAddEntityId) {
+
+    Class<?> currentResource = routeMatch.getExecutableMethod().getDeclaringType();
+    Optional<ResourceContract> potContract = contractRegistry.findContract(currentResource);
+
+    if (potContract.isEmpty()) {
+      log.warn("No contract found for resource '{}'", currentResource.getName());
+      return new ExpandPlan(
+          Collections.emptyList(), Collections.emptyList(), expands.trim().split(",").length);
+    }
+
+    ResourceContract contract = potContract.get();
+    ExpandDispatcher dispatcher = expandDispatchers.get(currentResource);
+
+    // fetch all expandable resources
+    if (Objects.equals("*", expands)) {
+      expands =
+          contract.getSubresources().stream()
+              .filter(SubResource::isExpandable)
+              .map(SubResource::getName)
+              .collect(Collectors.joining(","));
+    }
+
+    Map<String, Object> variables = new HashMap<>(routeMatch.getVariableValues());
+
+    if (mustAddEntityId) {
+      variables.put("id", ((Identifiable<?>) sample.getData()).getId());
+    }
+
+    List<ExpandPlan.Step> steps = new ArrayList<>();
+    int skippedExpands = 0;
+
     for (String expandName : expands.trim().split(",")) {
 
       Optional<SubResource> potSubResource =
@@ -202,6 +409,7 @@ public class ExpandedGetResponseFilter implements HttpServerFilter {
             "Expand '{}' is not a sub resource of '{}'",
             expandName,
             contract.getGeneral().getName());
+        skippedExpands++;
         continue;
       }
 
@@ -209,160 +417,50 @@ public class ExpandedGetResponseFilter implements HttpServerFilter {
 
       if (!subResourceContract.isExpandable()) {
         log.warn("Sub resource '{}' is not expandable", subResourceContract.getName());
+        skippedExpands++;
         continue;
       }
 
-      Map<String, Object> variables = new HashMap<>(routeMatchCurrentResource.getVariableValues());
-
-      if (mustAddEntityId) {
-        variables.put("id", ((Identifiable<?>) initialBody.getData()).getId());
+      if (dispatcher != null && dispatcher.getExpandNames().contains(expandName)) {
+        steps.add(
+            new ExpandPlan.Step(
+                expandName, dispatcher, batchExpandable(dispatcher, expandName)));
+        continue;
       }
 
       String targetUri =
           UriPlaceholderReplacer.replacePlaceholders(subResourceContract.getHref(), variables);
 
-      Optional<UriRouteMatch<Object, Object>> routeMatch = router.GET(targetUri);
+      Optional<UriRouteMatch<Object, Object>> routeMatchSubResource = router.GET(targetUri);
 
-      if (routeMatch.isPresent()) {
-        UriRouteMatch<Object, Object> routeMatchSubResource = routeMatch.get();
+      if (routeMatchSubResource.isPresent()) {
         ExecutableMethod<Object, Object> executableMethod =
-            routeMatchSubResource.getExecutableMethod();
-
-        Optional<Verb> getCollectionVerb =
-            contract.getVerbs().stream()
-                .filter(v -> GET_COLLECTION.equals(v.getVerb()))
-                .findFirst();
-
-        if (getCollectionVerb.isPresent()) {
-          for (Header header : getCollectionVerb.get().getHeaders()) {
-            if (variables.get(header.getName()) == null) {
-              String variableName =
-                  StringConvention.format(
-                      StringConvention.CAMEL_CASE, header.getName().toLowerCase());
-              Object extractedHeader = extractHeader(request, header);
-
-              if (extractedHeader != null) {
-                variables.put(variableName, extractedHeader);
-              } else {
-                log.debug(
-                    "Extracted header value in {} was null for variableName '{}'",
-                    getClass().getCanonicalName(),
-                    variableName);
-              }
-            }
-          }
-        }
+            routeMatchSubResource.get().getExecutableMethod();
 
-        Class<Object> declaringType = executableMethod.getDeclaringType();
-
-        Object bean = applicationContext.getBean(declaringType);
-
-        // argument names in the right order
-        // arguments in the right order
-        Object[] argumentList =
-            Stream.of(executableMethod.getArguments())
-                // terrible hack around limitations in REST contracts xRoute naming
-                .map(
-                    argument -> {
-                      final Optional<AnnotationValue<io.micronaut.http.annotation.Header>> header =
-                          argument
-                              .getAnnotationMetadata()
-                              .findAnnotation(io.micronaut.http.annotation.Header.class);
-                      if (header.isPresent()) {
-                        final String headerValue =
-                            request
-                                .getHeaders()
-                                .findFirst(hyphenate(argument.getName()))
-                                .orElse(null);
-
-                        if (headerValue != null
-                            && ConversionService.SHARED.canConvert(
-                                headerValue.getClass(), argument.getType())) {
-                          return ConversionService.SHARED
-                              .convert(headerValue, argument.getType())
-                              .get();
-                        }
-                        return headerValue;
-                      } else {
-                        return variables.getOrDefault(argument.getName(), variables.get("id"));
-                      }
-                    })
-                .toArray();
-
-        try {
-
-          Object result = executableMethod.invoke(bean, argumentList);
-
-          Expand expandedData = new Expand(expandName);
-
-          if (result instanceof Collection) {
-            expandedData.setData((List<ResourceModel>) result);
-            initialBody.getExpands().add(expandedData);
-          } else if (result instanceof ResourceModel) {
-            expandedData.setData(Collections.singletonList((ResourceModel) result));
-            initialBody.getExpands().add(expandedData);
-          } else if (result != null) {
-            log.error(
-                "Expand {} is neither a collection nor a resource model (class: {})",
-                expandName,
-                result.getClass().getCanonicalName());
-          } else {
-            log.error("Expand {} is null", expandName);
-          }
-        } catch (Exception e) {
-          log.error("Exception caught while expanding sub resource " + expandName, e);
-        }
+        Object bean = applicationContext.getBean(executableMethod.getDeclaringType());
+
+        steps.add(new ExpandPlan.Step(expandName, executableMethod, bean));
+      } else {
+        log.warn("No route found for sub resource '{}' ({})", expandName, targetUri);
+        skippedExpands++;
       }
     }
-  }
 
-  private Object extractHeader(HttpRequest<?> request, Header header) {
+    List<Header> headers =
+        contract.getVerbs().stream()
+            .filter(v -> GET_COLLECTION.equals(v.getVerb()))
+            .findFirst()
+            .map(Verb::getHeaders)
+            .orElse(Collections.emptyList());
 
-    if (ACCEPT_LANGUAGE.equals(header.getName())) {
-      Optional<Locale> value = request.getLocale();
-      return extractValueOfOptional(value, header);
-    }
-
-    Optional<String> value = request.getHeaders().get(header.getName(), String.class);
-    return extractValueOfOptional(value, header);
+    return new ExpandPlan(steps, headers, skippedExpands);
   }
 
-  private Object extractValueOfOptional(Optional<?> value, Header header) {
-    if (header.isMandatory()) {
-      return value.orElseThrow(
-          () ->
-              new IllegalStateException(
-                  String.format(
-                      "The header '%s' is mandatory but was not found in the request",
-                      header.getName())));
-    }
-
-    return value.orElse(null);
-  }
-
-  private Optional<ResourceContract> fetchContract(Object resourceBean) {
-
-    Class<?> key = resourceBean.getClass();
-
-    if (this.contractStore.containsKey(key)) {
-      return Optional.of(this.contractStore.get(key));
-    }
-
-    try {
-      Field contractField = resourceBean.getClass().getField("OPTIONS_CONTENT");
-      String json = (String) contractField.get(resourceBean);
-
-      ResourceContract contract = this.objectMapper.readValue(json, ResourceContract.class);
-
-      this.contractStore.put(key, contract);
-
-      return Optional.of(contract);
-
-    } catch (IllegalAccessException | NoSuchFieldException | IOException ex) {
-      log.error(
-          "Unable to read contract from class '{}'", resourceBean.getClass().getSimpleName(), ex);
-      return Optional.empty();
-    }
+  @SuppressWarnings("unchecked")
+  private static BatchExpandable<Object, ? extends ResourceModel> batchExpandable(
+      ExpandDispatcher dispatcher, String expandName) {
+    return (BatchExpandable<Object, ? extends ResourceModel>)
+        dispatcher.findBatchExpandable(expandName).orElse(null);
   }
 
   private static class UriPlaceholderReplacer {
@@ -383,29 +481,34 @@ public class ExpandedGetResponseFilter implements HttpServerFilter {
      * @param uriWithPlaceholders URI template containing placeholders in path such as {@code
      *     {:country}}.
      * @param variables a map from variable name to the contents to substitute
-     * @return a string with all placeholders resolved.
+     * @return a string with all placeholders resolved (values are percent-encoded).
      */
     public static String replacePlaceholders(
         String uriWithPlaceholders, Map<String, Object> variables) {
 
-      StringBuilder sb = new StringBuilder(uriWithPlaceholders);
+      UriTemplate template = UriTemplate.of(uriWithPlaceholders);
+      List<String> placeHolders = template.getVariableNames();
 
       for (String argumentName : variables.keySet()) {
-        // the `id` argument maps to the `{:entity}` placeholder
-        String placeHolder =
-            String.format("{:%s}", "id".equals(argumentName) ? "entity" : argumentName);
+        String placeHolder = placeholderName(argumentName);
 
-        int index = sb.indexOf(placeHolder);
-        if (index == -1) {
+        if (!placeHolders.contains(placeHolder)) {
           throw new RuntimeException(
               String.format(
-                  "Could not find placeholder %s in %s", placeHolder, uriWithPlaceholders));
+                  "Could not find placeholder {:%s} in %s", placeHolder, uriWithPlaceholders));
         }
-        sb.replace(
-            index, index + placeHolder.length(), String.valueOf(variables.get(argumentName)));
       }
 
-      return sb.toString();
+      return template
+          .expand(
+              new StringBuilder(uriWithPlaceholders.length() + 16),
+              name -> variables.get("entity".equals(name) ? "id" : name))
+          .toString();
+    }
+
+    // the `id` argument maps to the `{:entity}` placeholder
+    private static String placeholderName(String argumentName) {
+      return "id".equals(argumentName) ? "entity" : argumentName;
     }
   }
 }
@@ -23,11 +23,25 @@
  */
 package ch.silviowangler.rest.micronaut;
 
+import io.micronaut.http.filter.ServerFilterPhase;
+
 /**
+ * The orders of the filters of this library. Filters with a lower order run first on the request
+ * and last on the response.
+ *
+ * <p>{@link #ETAGS} and {@link #RESPONSE_CACHE} run after the security filter ({@link
+ * ServerFilterPhase#SECURITY}), so cached responses and their 304 (Not Modified) responses are only
+ * sent to authorized requests. {@link #SERIALIZED_RESPONSES} runs outside all other filters of this
+ * library and sees the final response, it computes the ETag of the body and caches the response.
+ *
  * @author Silvio Wangler
  */
 public class FilterOrder {
 
   public static final int HATEOAS_MODEL_CREATION = 100;
   public static final int EXPANDED_GETS = HATEOAS_MODEL_CREATION - 1;
+  public static final int SERIALIZED_RESPONSES = EXPANDED_GETS - 1;
+  public static final int VERSION_ETAGS = HATEOAS_MODEL_CREATION + 1;
+  public static final int ETAGS = ServerFilterPhase.SECURITY.after();
+  public static final int RESPONSE_CACHE = ETAGS + 1;
 }
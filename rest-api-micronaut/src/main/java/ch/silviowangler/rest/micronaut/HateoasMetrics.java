@@ -0,0 +1,80 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.micronaut;
+
+/**
+ * Records how much work {@link HateoasResponseFilter} and {@link ExpandedGetResponseFilter} add to
+ * a request and how often {@link ResponseCacheFilter} saves it.
+ *
+ * <p>All measurements are tagged by the route template (e.g. {@code /v1/countries/{id}}) instead of
+ * the requested URI. {@link MicrometerHateoasMetrics} is used if the application has a Micrometer
+ * {@code MeterRegistry}, otherwise nothing is recorded.
+ *
+ * @author Silvio Wangler
+ */
+public interface HateoasMetrics {
+
+  /** Records nothing. */
+  HateoasMetrics NOOP = new HateoasMetrics() {};
+
+  /**
+   * @param route the route template of the response.
+   * @param nanos the time spent wrapping the body into an entity or collection model.
+   */
+  default void recordWrapping(String route, long nanos) {}
+
+  /**
+   * @param route the route template of the response.
+   * @param provider the link provider.
+   * @param nanos the time spent creating the links of the provider (including cache lookups).
+   */
+  default void recordLinkProvider(String route, LinkProvider provider, long nanos) {}
+
+  /**
+   * @param route the route template of the response.
+   * @param size the number of entities of a collection.
+   */
+  default void recordCollectionSize(String route, int size) {}
+
+  /**
+   * @param route the route template of the expanded resource.
+   * @param requested the number of requested sub resources.
+   * @param skipped the number of requested sub resources that are unknown or not expandable.
+   */
+  default void recordExpandsRequested(String route, int requested, int skipped) {}
+
+  /**
+   * @param route the route template of the expanded resource.
+   * @param expandName the name of the sub resource.
+   * @param nanos the time until the sub resource was available.
+   * @param failed whether the sub resource failed.
+   */
+  default void recordExpand(String route, String expandName, long nanos, boolean failed) {}
+
+  /**
+   * @param route the route template of the request.
+   * @param hit whether the response was served from the {@link ResponseCache}.
+   */
+  default void recordResponseCache(String route, boolean hit) {}
+}
@@ -27,33 +27,44 @@ import ch.silviowangler.rest.model.CollectionModel;
 import ch.silviowangler.rest.model.EntityModel;
 import ch.silviowangler.rest.model.Identifiable;
 import ch.silviowangler.rest.model.PaginationCollectionModel;
+import ch.silviowangler.rest.model.PaginationLinkBuilder;
+import ch.silviowangler.rest.model.PaginationModel;
 import ch.silviowangler.rest.model.ResourceLink;
 import ch.silviowangler.rest.model.ResourceModel;
 import ch.silviowangler.rest.model.SelfLinkProvider;
+import ch.silviowangler.rest.model.UriTemplate;
 import ch.silviowangler.rest.model.pagination.Page;
 import ch.silviowangler.rest.model.pagination.Slice;
 import io.micronaut.context.annotation.Requires;
 import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.http.HttpAttributes;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.MediaType;
 import io.micronaut.http.MutableHttpResponse;
 import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.context.ServerRequestContext;
 import io.micronaut.http.filter.HttpServerFilter;
 import io.micronaut.http.filter.ServerFilterChain;
 import io.micronaut.web.router.UriRouteMatch;
 import io.reactivex.Flowable;
-import java.io.UnsupportedEncodingException;
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
 import org.reactivestreams.Publisher;
 
 /**
@@ -79,19 +90,70 @@ import org.reactivestreams.Publisher;
  * }
  * </pre>
  *
+ * <p>Bodies of asynchronous or reactive delegates ({@code CompletionStage} or {@code Publisher})
+ * are resolved before they are transformed.
+ *
+ * <p>Large collections and reactive collections are written as a JSON stream by the {@link
+ * StreamingCollectionWriter} if {@code restapi.hateoas.streaming.enabled} is set to {@code true}.
+ * Collections of requests that expand sub resources are never streamed since {@link
+ * ExpandedGetResponseFilter} has to add the expands to the entities.
+ *
+ * <p>The time spent wrapping a body, the time of every link provider and the number of entities per
+ * collection are recorded with {@link HateoasMetrics}.
+ *
  * @author Silvio Wangler
  */
 @Filter("${restapi.hateoas.filter.uri}")
 @Requires(property = "restapi.hateoas.filter.enabled", value = "true")
 public class HateoasResponseFilter implements HttpServerFilter {
-  private final List<LinkProvider> linkProviderList;
+  private static final int DEFAULT_LINK_CACHE_SIZE = 10000;
+  private static final String COLLECTION_LINKS =
+      HateoasResponseFilter.class.getName() + ".collectionLinks";
+  private final LinkProviders linkProviders;
   private final String baseUrl;
+  private final Scheduler linkScheduler;
+  private final int maxConcurrency;
+  private final StreamingCollectionWriter streamingWriter;
+  private final HateoasMetrics metrics;
+
+  public HateoasResponseFilter(List<LinkProvider> linkProviderList, String baseUrl) {
+    this(linkProviderList, baseUrl, DEFAULT_LINK_CACHE_SIZE, null, 1);
+  }
 
   public HateoasResponseFilter(
       List<LinkProvider> linkProviderList,
-      @Value("${restapi.hateoas.filter.base:}") String baseUrl) {
-    this.linkProviderList = linkProviderList;
+      String baseUrl,
+      int linkCacheSize,
+      @Nullable ExecutorService executor,
+      int maxConcurrency) {
+    this(linkProviderList, baseUrl, linkCacheSize, executor, maxConcurrency, null);
+  }
+
+  public HateoasResponseFilter(
+      List<LinkProvider> linkProviderList,
+      String baseUrl,
+      int linkCacheSize,
+      @Nullable ExecutorService executor,
+      int maxConcurrency,
+      @Nullable StreamingCollectionWriter streamingWriter) {
+    this(linkProviderList, baseUrl, linkCacheSize, executor, maxConcurrency, streamingWriter, null);
+  }
+
+  @Inject
+  public HateoasResponseFilter(
+      List<LinkProvider> linkProviderList,
+      @Value("${restapi.hateoas.filter.base:}") String baseUrl,
+      @Value("${restapi.hateoas.links.cache-size:10000}") int linkCacheSize,
+      @Nullable @Named(LinkExecutorFactory.EXECUTOR_NAME) ExecutorService executor,
+      @Value("${restapi.hateoas.links.max-concurrency:4}") int maxConcurrency,
+      @Nullable StreamingCollectionWriter streamingWriter,
+      @Nullable HateoasMetrics metrics) {
+    this.linkProviders = new LinkProviders(linkProviderList, linkCacheSize);
     this.baseUrl = baseUrl;
+    this.linkScheduler = executor != null ? Schedulers.from(executor) : null;
+    this.maxConcurrency = Math.max(1, maxConcurrency);
+    this.streamingWriter = streamingWriter;
+    this.metrics = metrics != null ? metrics : HateoasMetrics.NOOP;
     validateBaseUrl(baseUrl);
   }
 
@@ -117,6 +179,8 @@ public class HateoasResponseFilter implements HttpServerFilter {
       HttpRequest<?> request, ServerFilterChain chain) {
 
     return Flowable.fromPublisher(chain.proceed(request))
+        .concatMap(response -> resolveBody(request, response))
+        .concatMap(response -> resolveCollectionLinks(request, response))
         .doOnNext(
             response -> {
               Optional<UriRouteMatch> potUriRouteMatch =
@@ -131,186 +195,341 @@ public class HateoasResponseFilter implements HttpServerFilter {
                     .getRouteInfo()
                     .getProduces()
                     .contains(MediaType.APPLICATION_JSON_TYPE)) {
-
-                  if (response.body() instanceof ResourceModel) {
-
-                    ResourceModel resourceModel = (ResourceModel) response.body();
-                    EntityModel entityModel = new EntityModel(resourceModel);
-
-                    addProviderLinks(uriRouteMatch, resourceModel, entityModel);
-
-                    if (!hasLink(entityModel, "self")) {
-                      if (resourceModel instanceof SelfLinkProvider) {
-                        ((SelfLinkProvider) resourceModel)
-                            .selfLink()
-                            .ifPresent(
-                                selfLink -> entityModel.getLinks().add(addBaseUrl(selfLink)));
-                      } else {
-                        entityModel
-                            .getLinks()
-                            .add(addBaseUrl(ResourceLink.selfLink(uriRouteMatch.getUri())));
-                      }
-                    }
-
-                    ((MutableHttpResponse) response).body(entityModel);
-
-                  } else if (response.body() instanceof Collection
-                      || response.body() instanceof Slice) {
-
-                    Iterable models;
-                    CollectionModel collectionModel;
-
-                    if (response.body() instanceof Page) {
-                      collectionModel = new PaginationCollectionModel((Page) response.body());
-                      models = ((Page) response.body()).getContent();
-                    } else if (response.body() instanceof Slice) {
-                      collectionModel = new PaginationCollectionModel((Slice) response.body());
-                      models = ((Slice) response.body()).getContent();
-                    } else {
-                      collectionModel = new CollectionModel();
-                      models = (Collection) response.body();
-                    }
-
-                    ResourceLink collectionSelfLink = ResourceLink.selfLink(uriRouteMatch.getUri());
-
-                    if (collectionModel instanceof PaginationCollectionModel
-                        && response.body() instanceof Slice) {
-
-                      String params =
-                          StreamSupport.stream(request.getParameters().spliterator(), false)
-                              .filter(
-                                  p -> !p.getKey().equals("page") && !p.getKey().equals("limit"))
-                              .filter(p -> !p.getValue().isEmpty())
-                              .map(
-                                  p ->
-                                      p.getValue().stream()
-                                          .map(
-                                              v -> {
-                                                String value;
-                                                try {
-                                                  value =
-                                                      URLEncoder.encode(
-                                                          v, StandardCharsets.UTF_8.toString());
-                                                } catch (UnsupportedEncodingException e) {
-                                                  value = v;
-                                                }
-                                                return String.format("%s=%s", p.getKey(), value);
-                                              })
-                                          .collect(Collectors.joining("&")))
-                              .collect(Collectors.joining("&"));
-
-                      Slice slice = (Slice) response.body();
-
-                      collectionSelfLink =
-                          ResourceLink.selfLink(
-                              uriRouteMatch.getUri()
-                                  + "?page="
-                                  + slice.getPageNumber()
-                                  + "&limit="
-                                  + slice.getSize()
-                                  + addExistingParams(params));
-
-                      collectionModel
-                          .getLinks()
-                          .add(
-                              addBaseUrl(
-                                  ResourceLink.relLink(
-                                      "first",
-                                      uriRouteMatch.getUri()
-                                          + "?page=0&limit="
-                                          + slice.getSize()
-                                          + addExistingParams(params))));
-
-                      if (slice instanceof Page) {
-
-                        Page page = (Page) slice;
-
-                        if (page.getPageNumber() > 0
-                            && page.getTotalPages() >= page.getPageNumber()) {
-                          collectionModel
-                              .getLinks()
-                              .add(
-                                  addBaseUrl(
-                                      ResourceLink.relLink(
-                                          "previous",
-                                          uriRouteMatch.getUri()
-                                              + "?page="
-                                              + (slice.getPageNumber() - 1)
-                                              + "&limit="
-                                              + slice.getSize()
-                                              + addExistingParams(params))));
-                        }
-
-                        if (!page.isLastPage()) {
-                          collectionModel
-                              .getLinks()
-                              .add(
-                                  addBaseUrl(
-                                      ResourceLink.relLink(
-                                          "next",
-                                          uriRouteMatch.getUri()
-                                              + "?page="
-                                              + (slice.getPageNumber() + 1)
-                                              + "&limit="
-                                              + slice.getSize()
-                                              + addExistingParams(params))));
-                        }
-
-                        collectionModel
-                            .getLinks()
-                            .add(
-                                addBaseUrl(
-                                    ResourceLink.relLink(
-                                        "last",
-                                        uriRouteMatch.getUri()
-                                            + "?page="
-                                            + (page.getTotalPages() - 1)
-                                            + "&limit="
-                                            + slice.getSize()
-                                            + addExistingParams(params))));
-                      }
-                    }
-
-                    collectionModel.getLinks().add(addBaseUrl(collectionSelfLink));
-
-                    for (Object model : models) {
-                      if (model instanceof ResourceModel) {
-                        ResourceModel resourceModel = (ResourceModel) model;
-                        EntityModel entityModel = new EntityModel(resourceModel);
-
-                        addProviderLinks(uriRouteMatch, resourceModel, entityModel);
-
-                        // this self link is only added if the linkProviders are not already
-                        // defining one
-                        if (model instanceof Identifiable && !hasLink(entityModel, "self")) {
-                          ResourceLink selfLink =
-                              ResourceLink.selfLink(
-                                  uriRouteMatch.getUri()
-                                      + "/"
-                                      + ((Identifiable) resourceModel).getId());
-                          entityModel.getLinks().add(addBaseUrl(selfLink));
-                        }
-
-                        collectionModel.getData().add(entityModel);
-                      }
-                    }
-                    ((MutableHttpResponse) response).body(collectionModel);
+                  Object body = response.body();
+                  WrappingEvent event = new WrappingEvent();
+                  event.begin();
+                  long start = System.nanoTime();
+
+                  wrapBody(request, response, uriRouteMatch);
+
+                  String route = Routes.template(uriRouteMatch);
+                  metrics.recordWrapping(route, System.nanoTime() - start);
+                  event.end();
+                  if (event.shouldCommit()) {
+                    event.route = route;
+                    event.body = body != null ? body.getClass().getName() : null;
+                    event.commit();
                   }
                 }
               }
             });
   }
 
+  /** Wraps the body of a JSON response into an entity or a collection model. */
+  @SuppressWarnings("unchecked")
+  private void wrapBody(
+      HttpRequest<?> request, MutableHttpResponse<?> response, UriRouteMatch uriRouteMatch) {
+    if (response.body() instanceof ResourceModel) {
+
+      ResourceModel resourceModel = (ResourceModel) response.body();
+      EntityModel entityModel = new EntityModel(resourceModel);
+
+      addProviderLinks(
+          uriRouteMatch, linkProviders.forRoute(uriRouteMatch), resourceModel, entityModel);
+
+      if (!hasLink(entityModel, "self")) {
+        if (resourceModel instanceof SelfLinkProvider) {
+          ((SelfLinkProvider) resourceModel)
+              .selfLink()
+              .ifPresent(selfLink -> entityModel.getLinks().add(addBaseUrl(selfLink)));
+        } else {
+          entityModel.getLinks().add(ResourceLink.selfLink(baseUrl + uriRouteMatch.getUri()));
+        }
+      }
+
+      ((MutableHttpResponse) response).body(entityModel);
+
+    } else if (response.body() instanceof Collection
+        || response.body() instanceof Slice
+        || isStreamed(request, response.body())) {
+
+      Iterable models;
+      CollectionModel collectionModel;
+
+      if (response.body() instanceof Publisher) {
+        collectionModel = new CollectionModel();
+        models = Collections.emptyList();
+      } else if (response.body() instanceof Page) {
+        collectionModel = new PaginationCollectionModel((Page) response.body());
+        models = ((Page) response.body()).getContent();
+      } else if (response.body() instanceof Slice) {
+        collectionModel = new PaginationCollectionModel((Slice) response.body());
+        models = ((Slice) response.body()).getContent();
+      } else {
+        collectionModel = new CollectionModel();
+        models = (Collection) response.body();
+      }
+
+      if (response.body() instanceof Slice) {
+        collectionModel
+            .getLinks()
+            .addAll(
+                new PaginationLinkBuilder(baseUrl, uriRouteMatch.getUri(), request.getParameters())
+                    .build((Slice) response.body()));
+      } else {
+        collectionModel.getLinks().add(ResourceLink.selfLink(baseUrl + uriRouteMatch.getUri()));
+      }
+
+      if (isStreamed(request, response.body())) {
+        Publisher<?> elements =
+            response.body() instanceof Publisher
+                ? (Publisher<?>) response.body()
+                : Flowable.fromIterable(models);
+        PaginationModel pagination =
+            collectionModel instanceof PaginationCollectionModel
+                ? ((PaginationCollectionModel) collectionModel).getPagination()
+                : null;
+
+        ((MutableHttpResponse) response)
+            .body(
+                streamingWriter.write(
+                    elements,
+                    chunk ->
+                        ServerRequestContext.with(
+                            request, () -> wrapEntities(uriRouteMatch, chunk)),
+                    collectionModel.getLinks(),
+                    pagination));
+        return;
+      }
+
+      metrics.recordCollectionSize(Routes.template(uriRouteMatch), ((Collection) models).size());
+
+      // the self links of the entities share the URI of the collection
+      StringBuilder selfLinkHref = selfLinkPrefix(uriRouteMatch);
+      int selfLinkPrefixLength = selfLinkHref.length();
+
+      Map<Object, List<ResourceLink>> collectionLinks =
+          response.getAttribute(COLLECTION_LINKS, Map.class).orElse(Collections.emptyMap());
+
+      for (Object model : models) {
+        if (model instanceof ResourceModel) {
+          collectionModel
+              .getData()
+              .add(
+                  wrapEntity(
+                      (ResourceModel) model,
+                      collectionLinks.get(model),
+                      selfLinkHref,
+                      selfLinkPrefixLength));
+        }
+      }
+      ((MutableHttpResponse) response).body(collectionModel);
+    }
+  }
+
+  /**
+   * Wraps an entity of a collection.
+   *
+   * @param model the entity.
+   * @param providerLinks the links of the link providers for the entity or {@code null}.
+   * @param selfLinkHref the shared prefix of the self links of the entities.
+   * @param selfLinkPrefixLength the length of the prefix.
+   * @return the wrapped entity.
+   */
+  private EntityModel<ResourceModel> wrapEntity(
+      ResourceModel model,
+      @Nullable List<ResourceLink> providerLinks,
+      StringBuilder selfLinkHref,
+      int selfLinkPrefixLength) {
+    EntityModel<ResourceModel> entityModel = new EntityModel<>(model);
+
+    if (providerLinks != null) {
+      entityModel.getLinks().addAll(providerLinks);
+    }
+
+    // this self link is only added if the linkProviders are not already defining one
+    if (model instanceof Identifiable && !hasLink(entityModel, "self")) {
+      selfLinkHref.setLength(selfLinkPrefixLength);
+      UriTemplate.appendPathSegment(
+          selfLinkHref, String.valueOf(((Identifiable<?>) model).getId()));
+      entityModel.getLinks().add(ResourceLink.selfLink(selfLinkHref.toString()));
+    }
+    return entityModel;
+  }
+
+  /** Wraps a chunk of a streamed collection. The link providers are called once per chunk. */
+  private List<EntityModel<ResourceModel>> wrapEntities(
+      UriRouteMatch<?, ?> routeMatch, List<ResourceModel> models) {
+    List<LinkProvider> providers = linkProviders.forRoute(routeMatch);
+    List<List<List<ResourceLink>>> linksPerProvider = new ArrayList<>(providers.size());
+    for (LinkProvider provider : providers) {
+      linksPerProvider.add(
+          timedLinks(
+              routeMatch,
+              provider,
+              models.size(),
+              () -> linkProviders.getLinks(provider, routeMatch, models, this::addBaseUrl)));
+    }
+
+    StringBuilder selfLinkHref = selfLinkPrefix(routeMatch);
+    int selfLinkPrefixLength = selfLinkHref.length();
+
+    List<EntityModel<ResourceModel>> entities = new ArrayList<>(models.size());
+    for (int i = 0; i < models.size(); i++) {
+      List<ResourceLink> links = new ArrayList<>();
+      for (List<List<ResourceLink>> providerLinks : linksPerProvider) {
+        links.addAll(providerLinks.get(i));
+      }
+      entities.add(wrapEntity(models.get(i), links, selfLinkHref, selfLinkPrefixLength));
+    }
+    return entities;
+  }
+
+  private StringBuilder selfLinkPrefix(UriRouteMatch<?, ?> routeMatch) {
+    return new StringBuilder(baseUrl).append(routeMatch.getUri()).append('/');
+  }
+
+  /**
+   * @param request the current request.
+   * @param body the body of the response.
+   * @return true if the body is written as a JSON stream.
+   */
+  private boolean isStreamed(HttpRequest<?> request, Object body) {
+    return streamingWriter != null
+        && !request.getParameters().contains(ExpandedGetResponseFilter.EXPAND_PARAM_NAME)
+        && streamingWriter.isStreamed(body);
+  }
+
+  /**
+   * Replaces the body of a JSON response by its result if the delegate returned a {@code
+   * CompletionStage} or a {@code Publisher} (e.g. {@code Flowable}, {@code Mono} or {@code Flux}).
+   * The result is awaited without blocking, an empty result leaves the response without a body.
+   * Publishers that are streamed are kept.
+   */
+  @SuppressWarnings("unchecked")
+  private Flowable<MutableHttpResponse<?>> resolveBody(
+      HttpRequest<?> request, MutableHttpResponse<?> response) {
+    Object body = response.body();
+
+    if (!AsyncResults.isAsync(body)
+        || !Routes.producesJson(response)
+        || isStreamed(request, body)) {
+      return Flowable.just(response);
+    }
+
+    MutableHttpResponse<Object> mutableResponse = (MutableHttpResponse<Object>) response;
+
+    return AsyncResults.resolve(body)
+        .map(Optional::of)
+        .defaultIfEmpty(Optional.empty())
+        .<MutableHttpResponse<?>>map(result -> mutableResponse.body(result.orElse(null)))
+        .toFlowable();
+  }
+
+  /**
+   * Creates the links of all link providers for the entities of a collection before the collection
+   * is wrapped. A {@link BatchLinkProvider} is called once for all entities. The providers run
+   * concurrently on the executor of {@link LinkExecutorFactory} if it is configured (at most
+   * {@code restapi.hateoas.links.max-concurrency} at a time).
+   */
+  private Flowable<MutableHttpResponse<?>> resolveCollectionLinks(
+      HttpRequest<?> request, MutableHttpResponse<?> response) {
+    Object body = response.body();
+
+    if (!(body instanceof Collection || body instanceof Slice)
+        || !Routes.producesJson(response)
+        || isStreamed(request, body)) {
+      return Flowable.just(response);
+    }
+
+    UriRouteMatch<?, ?> routeMatch =
+        response
+            .getAttributes()
+            .get(HttpAttributes.ROUTE_MATCH.toString(), UriRouteMatch.class)
+            .get();
+    List<LinkProvider> providers = linkProviders.forRoute(routeMatch);
+
+    Collection<?> content =
+        body instanceof Slice ? ((Slice<?>) body).getContent() : (Collection<?>) body;
+    List<ResourceModel> models = new ArrayList<>(content.size());
+    for (Object model : content) {
+      if (model instanceof ResourceModel) {
+        models.add((ResourceModel) model);
+      }
+    }
+
+    if (providers.isEmpty() || models.isEmpty()) {
+      return Flowable.just(response);
+    }
+
+    return Flowable.fromIterable(providers)
+        .concatMapEager(
+            provider -> providerLinks(request, routeMatch, provider, models), maxConcurrency, 1)
+        .toList()
+        .<MutableHttpResponse<?>>map(
+            linksPerProvider -> {
+              Map<Object, List<ResourceLink>> linksByModel = new IdentityHashMap<>(models.size());
+
+              for (int i = 0; i < models.size(); i++) {
+                List<ResourceLink> links = new ArrayList<>();
+                for (List<List<ResourceLink>> providerLinks : linksPerProvider) {
+                  links.addAll(providerLinks.get(i));
+                }
+                linksByModel.put(models.get(i), links);
+              }
+              response.setAttribute(COLLECTION_LINKS, linksByModel);
+              return response;
+            })
+        .toFlowable();
+  }
+
+  private Flowable<List<List<ResourceLink>>> providerLinks(
+      HttpRequest<?> request,
+      UriRouteMatch<?, ?> routeMatch,
+      LinkProvider provider,
+      List<ResourceModel> models) {
+
+    Callable<List<List<ResourceLink>>> call =
+        () ->
+            timedLinks(
+                routeMatch,
+                provider,
+                models.size(),
+                () -> linkProviders.getLinks(provider, routeMatch, models, this::addBaseUrl));
+
+    if (linkScheduler == null) {
+      return Flowable.fromCallable(call);
+    }
+    return Flowable.fromCallable(() -> ServerRequestContext.with(request, call))
+        .subscribeOn(linkScheduler);
+  }
+
   private void addProviderLinks(
-      UriRouteMatch uriRouteMatch,
+      UriRouteMatch<?, ?> uriRouteMatch,
+      List<LinkProvider> providers,
       ResourceModel resourceModel,
       EntityModel<? extends ResourceModel> entityModel) {
-    linkProviderList.forEach(
-        provider -> {
-          List<ResourceLink> links = provider.getLinks(uriRouteMatch, resourceModel);
-          links = addBaseUrl(links);
-          entityModel.getLinks().addAll(links);
-        });
+    for (LinkProvider provider : providers) {
+      List<ResourceLink> links =
+          timedLinks(
+              uriRouteMatch,
+              provider,
+              1,
+              () ->
+                  linkProviders.getLinks(provider, uriRouteMatch, resourceModel, this::addBaseUrl));
+      entityModel.getLinks().addAll(links);
+    }
+  }
+
+  /** Creates the links of a provider and records the time it took. */
+  private <T> T timedLinks(
+      UriRouteMatch<?, ?> routeMatch, LinkProvider provider, int entityCount, Supplier<T> links) {
+    LinkProviderEvent event = new LinkProviderEvent();
+    event.begin();
+    long start = System.nanoTime();
+
+    T result = links.get();
+
+    String route = Routes.template(routeMatch);
+    metrics.recordLinkProvider(route, provider, System.nanoTime() - start);
+    event.end();
+    if (event.shouldCommit()) {
+      event.route = route;
+      event.provider = provider.getClass();
+      event.entityCount = entityCount;
+      event.commit();
+    }
+    return result;
   }
 
   private ResourceLink addBaseUrl(ResourceLink link) {
@@ -322,7 +541,15 @@ public class HateoasResponseFilter implements HttpServerFilter {
   }
 
   private List<ResourceLink> addBaseUrl(List<ResourceLink> links) {
-    return links.stream().map(this::addBaseUrl).collect(Collectors.toList());
+    if (baseUrl.isEmpty() || links.isEmpty()) {
+      return links;
+    }
+
+    List<ResourceLink> result = new ArrayList<>(links.size());
+    for (ResourceLink link : links) {
+      result.add(addBaseUrl(link));
+    }
+    return result;
   }
 
   private boolean hasLink(EntityModel<? extends ResourceModel> entityModel, String relName) {
@@ -333,11 +560,4 @@ public class HateoasResponseFilter implements HttpServerFilter {
         .map(ResourceLink::getRel)
         .anyMatch(it -> Objects.equals(relName, it));
   }
-
-  private String addExistingParams(String params) {
-    if (params == null || params.length() == 0) {
-      return "";
-    }
-    return "&" + params;
-  }
 }
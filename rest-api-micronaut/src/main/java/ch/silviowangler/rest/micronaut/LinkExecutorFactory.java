@@ -0,0 +1,81 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.micronaut;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import io.micronaut.context.annotation.Bean;
+import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+
+/**
+ * Creates the executor used by {@link HateoasResponseFilter} to call the link providers of a
+ * collection concurrently.
+ *
+ * <p>The executor is only created if {@code restapi.hateoas.links.concurrent} is set to {@code
+ * true}, independently of the executor of {@link ExpandExecutorFactory}. On a JDK that supports
+ * virtual threads (21+) a virtual thread per task executor is used unless {@code
+ * restapi.hateoas.links.virtual-threads} is set to {@code false}. Otherwise a fixed thread pool
+ * sized by {@code restapi.hateoas.links.max-concurrency} is created.
+ *
+ * <p>Applications can provide their own executor by replacing the bean named {@value
+ * #EXECUTOR_NAME}.
+ *
+ * @author Silvio Wangler
+ */
+@Factory
+@Requires(property = "restapi.hateoas.links.concurrent", value = "true")
+public class LinkExecutorFactory {
+
+  public static final String EXECUTOR_NAME = "restapi-links";
+
+  private static final Logger log = getLogger(LinkExecutorFactory.class);
+
+  @Singleton
+  @Named(EXECUTOR_NAME)
+  @Bean(preDestroy = "shutdown")
+  public ExecutorService linkExecutor(
+      @Value("${restapi.hateoas.links.max-concurrency:4}") int maxConcurrency,
+      @Value("${restapi.hateoas.links.virtual-threads:true}") boolean virtualThreads) {
+
+    if (virtualThreads) {
+      Optional<ExecutorService> executor = ExpandExecutorFactory.virtualThreadPerTaskExecutor();
+      if (executor.isPresent()) {
+        log.debug("Calling link providers on virtual threads");
+        return executor.get();
+      }
+    }
+
+    log.debug("Calling link providers on a thread pool of size {}", maxConcurrency);
+    return Executors.newFixedThreadPool(
+        Math.max(1, maxConcurrency), new ExpandExecutorFactory.DaemonThreadFactory(EXECUTOR_NAME));
+  }
+}
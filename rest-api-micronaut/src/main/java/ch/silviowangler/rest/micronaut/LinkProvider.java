@@ -26,7 +26,10 @@ package ch.silviowangler.rest.micronaut;
 import ch.silviowangler.rest.model.ResourceLink;
 import ch.silviowangler.rest.model.ResourceModel;
 import io.micronaut.web.router.UriRouteMatch;
+import java.time.Duration;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 /** Used to add additional ResourceLink to an HATEOAS response. */
 public interface LinkProvider {
@@ -42,4 +45,37 @@ public interface LinkProvider {
    * @return links to be added to the response. Return empty if no links are to be added.
    */
   List<ResourceLink> getLinks(UriRouteMatch routeMatch, ResourceModel model);
+
+  /**
+   * The URI templates of the routes (e.g. {@code /v1/countries/{id}}) this provider adds links to.
+   * The applicability of a provider is evaluated once per route. A provider that declares neither
+   * route templates nor {@link #getResourceClasses() resource classes} is called for every route.
+   *
+   * @return the route templates or empty.
+   */
+  default Set<String> getRouteTemplates() {
+    return Collections.emptySet();
+  }
+
+  /**
+   * The controllers this provider adds links to.
+   *
+   * @return the resource classes or empty.
+   * @see #getRouteTemplates()
+   */
+  default Set<Class<?>> getResourceClasses() {
+    return Collections.emptySet();
+  }
+
+  /**
+   * Providers whose links only depend on the route, its variable values and the id of an {@link
+   * ch.silviowangler.rest.model.Identifiable} model can have their links cached per route, variable
+   * values and id ({@code restapi.hateoas.links.cache-size} entries at most).
+   *
+   * @return how long the links of a model are cached, {@link Duration#ZERO} (default) disables the
+   *     cache.
+   */
+  default Duration getLinkCacheTtl() {
+    return Duration.ZERO;
+  }
 }
@@ -0,0 +1,273 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.micronaut;
+
+import ch.silviowangler.rest.model.Identifiable;
+import ch.silviowangler.rest.model.ResourceLink;
+import ch.silviowangler.rest.model.ResourceModel;
+import io.micronaut.core.util.clhm.ConcurrentLinkedHashMap;
+import io.micronaut.inject.ExecutableMethod;
+import io.micronaut.web.router.UriRouteMatch;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * The {@link LinkProvider}s of {@link HateoasResponseFilter}.
+ *
+ * <p>The providers applicable to a route are determined once per route. The links of providers
+ * with a {@link LinkProvider#getLinkCacheTtl() TTL} are cached per route, route variable values and
+ * entity id in a bounded map, so nested routes do not share the links of different parents. {@link
+ * BatchLinkProvider}s are called once per collection for all entities whose links are not cached.
+ *
+ * @author Silvio Wangler
+ */
+final class LinkProviders {
+
+  private final List<LinkProvider> linkProviders;
+  private final Map<String, List<LinkProvider>> providersByRoute = new ConcurrentHashMap<>();
+  private final Map<CacheKey, CachedLinks> linkCache;
+
+  /**
+   * @param linkProviders all link providers.
+   * @param cacheSize the maximum number of cached links, {@code 0} disables the cache.
+   */
+  LinkProviders(List<LinkProvider> linkProviders, int cacheSize) {
+    this.linkProviders = List.copyOf(linkProviders);
+
+    boolean cacheable =
+        linkProviders.stream().anyMatch(provider -> !provider.getLinkCacheTtl().isZero());
+    this.linkCache =
+        cacheable && cacheSize > 0
+            ? new ConcurrentLinkedHashMap.Builder<CacheKey, CachedLinks>()
+                .maximumWeightedCapacity(cacheSize)
+                .build()
+            : null;
+  }
+
+  /**
+   * @param routeMatch the route of the response.
+   * @return the providers applicable to the route.
+   */
+  List<LinkProvider> forRoute(UriRouteMatch<?, ?> routeMatch) {
+    if (linkProviders.isEmpty()) {
+      return linkProviders;
+    }
+
+    if (routeMatch.getRouteInfo() == null
+        || routeMatch.getRouteInfo().getUriMatchTemplate() == null) {
+      // without a template there is no stable key for the route
+      return applicableProviders(routeMatch);
+    }
+    return providersByRoute.computeIfAbsent(
+        Routes.template(routeMatch), template -> applicableProviders(routeMatch));
+  }
+
+  private List<LinkProvider> applicableProviders(UriRouteMatch<?, ?> routeMatch) {
+    String template = Routes.template(routeMatch);
+    ExecutableMethod<?, ?> method = routeMatch.getExecutableMethod();
+    Class<?> resourceClass = method != null ? method.getDeclaringType() : null;
+
+    List<LinkProvider> providers = new ArrayList<>();
+
+    for (LinkProvider provider : linkProviders) {
+      boolean unrestricted =
+          provider.getRouteTemplates().isEmpty() && provider.getResourceClasses().isEmpty();
+
+      if (unrestricted
+          || provider.getRouteTemplates().contains(template)
+          || (resourceClass != null && provider.getResourceClasses().contains(resourceClass))) {
+        providers.add(provider);
+      }
+    }
+    return providers.isEmpty() ? Collections.emptyList() : List.copyOf(providers);
+  }
+
+  /**
+   * Returns the links of a provider, from the cache if the provider declares a TTL.
+   *
+   * @param provider the provider.
+   * @param routeMatch the route of the response.
+   * @param model the model to create the links for.
+   * @param postProcessor applied to the links of the provider before they are cached.
+   * @return the links.
+   */
+  List<ResourceLink> getLinks(
+      LinkProvider provider,
+      UriRouteMatch<?, ?> routeMatch,
+      ResourceModel model,
+      UnaryOperator<List<ResourceLink>> postProcessor) {
+
+    CacheKey key = cacheKey(provider, routeMatch, model);
+    List<ResourceLink> cached = cachedLinks(key);
+
+    if (cached != null) {
+      return cached;
+    }
+    return cache(key, provider, postProcessor.apply(provider.getLinks(routeMatch, model)));
+  }
+
+  /**
+   * Returns the links of a provider for all models of a collection. A {@link BatchLinkProvider} is
+   * called once with all models whose links are not cached, other providers once per model.
+   *
+   * @param provider the provider.
+   * @param routeMatch the route of the response.
+   * @param models the models of the collection.
+   * @param postProcessor applied to the links of the provider before they are cached.
+   * @return the links per model, in the order of {@code models}.
+   */
+  List<List<ResourceLink>> getLinks(
+      LinkProvider provider,
+      UriRouteMatch<?, ?> routeMatch,
+      List<ResourceModel> models,
+      UnaryOperator<List<ResourceLink>> postProcessor) {
+
+    List<List<ResourceLink>> result = new ArrayList<>(models.size());
+
+    if (!(provider instanceof BatchLinkProvider)) {
+      for (ResourceModel model : models) {
+        result.add(getLinks(provider, routeMatch, model, postProcessor));
+      }
+      return result;
+    }
+
+    List<ResourceModel> misses = new ArrayList<>(models.size());
+    List<CacheKey> missKeys = new ArrayList<>(models.size());
+    List<Integer> missIndexes = new ArrayList<>(models.size());
+
+    for (ResourceModel model : models) {
+      CacheKey key = cacheKey(provider, routeMatch, model);
+      List<ResourceLink> cached = cachedLinks(key);
+
+      if (cached == null) {
+        misses.add(model);
+        missKeys.add(key);
+        missIndexes.add(result.size());
+      }
+      result.add(cached);
+    }
+
+    if (misses.isEmpty()) {
+      return result;
+    }
+
+    List<List<ResourceLink>> links = ((BatchLinkProvider) provider).getLinks(routeMatch, misses);
+
+    if (links == null || links.size() != misses.size()) {
+      throw new IllegalStateException(
+          String.format(
+              "%s returned links for %d instead of %d models",
+              provider.getClass().getName(), links == null ? 0 : links.size(), misses.size()));
+    }
+
+    for (int i = 0; i < misses.size(); i++) {
+      result.set(
+          missIndexes.get(i),
+          cache(missKeys.get(i), provider, postProcessor.apply(links.get(i))));
+    }
+    return result;
+  }
+
+  /** @return the cache key or {@code null} if the links of the model are not cached. */
+  private CacheKey cacheKey(
+      LinkProvider provider, UriRouteMatch<?, ?> routeMatch, ResourceModel model) {
+    if (linkCache == null || provider.getLinkCacheTtl().isZero()) {
+      return null;
+    }
+
+    Object id = model instanceof Identifiable ? ((Identifiable<?>) model).getId() : null;
+    return id != null
+        ? new CacheKey(provider, Routes.template(routeMatch), routeMatch.getVariableValues(), id)
+        : null;
+  }
+
+  private List<ResourceLink> cachedLinks(CacheKey key) {
+    if (key == null) {
+      return null;
+    }
+
+    CachedLinks cached = linkCache.get(key);
+    return cached != null && System.nanoTime() - cached.expiresAt < 0 ? cached.links : null;
+  }
+
+  private List<ResourceLink> cache(
+      CacheKey key, LinkProvider provider, List<ResourceLink> links) {
+    if (key == null) {
+      return links;
+    }
+
+    List<ResourceLink> copy = List.copyOf(links);
+    long expiresAt = System.nanoTime() + provider.getLinkCacheTtl().toNanos();
+    linkCache.put(key, new CachedLinks(copy, expiresAt));
+    return copy;
+  }
+
+  private static final class CacheKey {
+
+    private final LinkProvider provider;
+    private final String route;
+    private final Map<String, Object> variables;
+    private final Object id;
+
+    private CacheKey(
+        LinkProvider provider, String route, Map<String, Object> variables, Object id) {
+      this.provider = provider;
+      this.route = route;
+      this.variables = variables;
+      this.id = id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      CacheKey cacheKey = (CacheKey) o;
+      return provider == cacheKey.provider
+          && route.equals(cacheKey.route)
+          && Objects.equals(variables, cacheKey.variables)
+          && id.equals(cacheKey.id);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(System.identityHashCode(provider), route, variables, id);
+    }
+  }
+
+  private static final class CachedLinks {
+
+    private final List<ResourceLink> links;
+    private final long expiresAt;
+
+    private CachedLinks(List<ResourceLink> links, long expiresAt) {
+      this.links = links;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.micronaut;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Requires;
+import jakarta.inject.Singleton;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the {@link HateoasMetrics} with Micrometer.
+ *
+ * <table>
+ *   <caption>Meters</caption>
+ *   <tr><th>Name</th><th>Type</th><th>Tags</th></tr>
+ *   <tr><td>{@code restapi.hateoas.wrapping}</td><td>timer</td><td>route</td></tr>
+ *   <tr><td>{@code restapi.hateoas.link.provider}</td><td>timer</td><td>route, provider</td></tr>
+ *   <tr><td>{@code restapi.hateoas.collection.size}</td><td>summary</td><td>route</td></tr>
+ *   <tr><td>{@code restapi.hateoas.expand}</td><td>timer</td><td>route, expand</td></tr>
+ *   <tr><td>{@code restapi.hateoas.expands.requested}</td><td>counter</td><td>route</td></tr>
+ *   <tr><td>{@code restapi.hateoas.expands.skipped}</td><td>counter</td><td>route</td></tr>
+ *   <tr><td>{@code restapi.hateoas.expands.failed}</td><td>counter</td><td>route, expand</td></tr>
+ *   <tr><td>{@code restapi.cache.requests}</td><td>counter</td><td>route, result</td></tr>
+ * </table>
+ *
+ * @author Silvio Wangler
+ */
+@Singleton
+@Requires(classes = MeterRegistry.class)
+@Requires(beans = MeterRegistry.class)
+public class MicrometerHateoasMetrics implements HateoasMetrics {
+
+  private static final String ROUTE = "route";
+  private static final String EXPAND = "expand";
+
+  private final MeterRegistry registry;
+
+  public MicrometerHateoasMetrics(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  @Override
+  public void recordWrapping(String route, long nanos) {
+    registry.timer("restapi.hateoas.wrapping", ROUTE, route).record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public void recordLinkProvider(String route, LinkProvider provider, long nanos) {
+    String providerName = provider.getClass().getName();
+    registry
+        .timer("restapi.hateoas.link.provider", ROUTE, route, "provider", providerName)
+        .record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public void recordCollectionSize(String route, int size) {
+    DistributionSummary.builder("restapi.hateoas.collection.size")
+        .baseUnit("entities")
+        .tag(ROUTE, route)
+        .register(registry)
+        .record(size);
+  }
+
+  @Override
+  public void recordExpandsRequested(String route, int requested, int skipped) {
+    registry.counter("restapi.hateoas.expands.requested", ROUTE, route).increment(requested);
+
+    if (skipped > 0) {
+      registry.counter("restapi.hateoas.expands.skipped", ROUTE, route).increment(skipped);
+    }
+  }
+
+  @Override
+  public void recordExpand(String route, String expandName, long nanos, boolean failed) {
+    registry
+        .timer("restapi.hateoas.expand", ROUTE, route, EXPAND, expandName)
+        .record(nanos, TimeUnit.NANOSECONDS);
+
+    if (failed) {
+      registry
+          .counter("restapi.hateoas.expands.failed", ROUTE, route, EXPAND, expandName)
+          .increment();
+    }
+  }
+
+  @Override
+  public void recordResponseCache(String route, boolean hit) {
+    registry
+        .counter("restapi.cache.requests", ROUTE, route, "result", hit ? "hit" : "miss")
+        .increment();
+  }
+}
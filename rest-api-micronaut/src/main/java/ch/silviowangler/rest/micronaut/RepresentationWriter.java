@@ -0,0 +1,206 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.micronaut;
+
+import io.micronaut.context.annotation.Value;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.serde.ObjectMapper;
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.reactivestreams.Publisher;
+
+/**
+ * Writes the rows of a collection incrementally as NDJSON or CSV.
+ *
+ * <p>The rows are read from an {@link Iterator}, an {@link Iterable}, a {@link Stream} or a {@link
+ * Publisher} with backpressure and are encoded {@code restapi.representations.chunk-size} rows at a
+ * time. The collection is never materialized. Blocking sources (iterators, iterables and streams)
+ * are read on the IO executor. Iterators and streams implementing {@link AutoCloseable} (e.g.
+ * backed by a database cursor) are closed once the response is written or the client disconnects.
+ *
+ * <p>Used by the generated controllers of {@code GET_COLLECTION} verbs with an {@code ndjson} or
+ * {@code csv} representation.
+ *
+ * @author Silvio Wangler
+ */
+@Singleton
+public class RepresentationWriter {
+
+  private final ObjectMapper objectMapper;
+  private final Scheduler ioScheduler;
+  private final int chunkSize;
+
+  public RepresentationWriter(
+      ObjectMapper objectMapper,
+      @Named(TaskExecutors.IO) ExecutorService ioExecutor,
+      @Value("${restapi.representations.chunk-size:256}") int chunkSize) {
+    this.objectMapper = objectMapper;
+    this.ioScheduler = Schedulers.from(ioExecutor);
+    this.chunkSize = Math.max(1, chunkSize);
+  }
+
+  /**
+   * Writes every row as a JSON document on its own line.
+   *
+   * @param rows the rows returned by the delegate.
+   * @param contentType the content type of the representation.
+   * @return the streamed response.
+   */
+  public MutableHttpResponse<Publisher<byte[]>> ndjson(Object rows, MediaType contentType) {
+    Flowable<byte[]> body =
+        rows(rows)
+            .buffer(chunkSize)
+            .map(
+                chunk -> {
+                  ByteArrayOutputStream out = new ByteArrayOutputStream(chunk.size() * 256);
+                  for (Object row : chunk) {
+                    out.writeBytes(objectMapper.writeValueAsBytes(row));
+                    out.write('\n');
+                  }
+                  return out.toByteArray();
+                });
+
+    return HttpResponse.<Publisher<byte[]>>ok(body).contentType(contentType);
+  }
+
+  /**
+   * Writes the rows as CSV (RFC 4180) preceded by a header line.
+   *
+   * @param rows the rows returned by the delegate.
+   * @param columns the names of the columns.
+   * @param values the values of a row in the order of the columns.
+   * @param contentType the content type of the representation.
+   * @param <T> the type of the rows.
+   * @return the streamed response.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> MutableHttpResponse<Publisher<byte[]>> csv(
+      Object rows, List<String> columns, Function<T, Object[]> values, MediaType contentType) {
+    byte[] header = csvLine(columns.toArray());
+
+    Flowable<byte[]> body =
+        Flowable.just(header)
+            .concatWith(
+                rows(rows)
+                    .buffer(chunkSize)
+                    .map(
+                        chunk -> {
+                          ByteArrayOutputStream out = new ByteArrayOutputStream(chunk.size() * 128);
+                          for (Object row : chunk) {
+                            out.writeBytes(csvLine(values.apply((T) row)));
+                          }
+                          return out.toByteArray();
+                        }));
+
+    return HttpResponse.<Publisher<byte[]>>ok(body).contentType(contentType);
+  }
+
+  /**
+   * @param rows the result of a delegate.
+   * @return the rows, read lazily.
+   */
+  private Flowable<Object> rows(Object rows) {
+    if (rows instanceof Publisher || rows == null) {
+      return source(rows);
+    }
+    // the source is pulled on the IO executor whenever the client requests more rows
+    return source(rows).subscribeOn(ioScheduler);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Flowable<Object> source(Object rows) {
+    if (rows == null) {
+      return Flowable.empty();
+    } else if (rows instanceof Publisher) {
+      return Flowable.fromPublisher((Publisher<Object>) rows);
+    } else if (rows instanceof Iterator) {
+      Iterator<Object> iterator = (Iterator<Object>) rows;
+      Flowable<Object> flowable = Flowable.fromIterable(() -> iterator);
+      return iterator instanceof AutoCloseable
+          ? flowable.doFinally(((AutoCloseable) iterator)::close)
+          : flowable;
+    } else if (rows instanceof Stream) {
+      Stream<Object> stream = (Stream<Object>) rows;
+      return Flowable.fromIterable(stream::iterator).doFinally(stream::close);
+    } else if (rows instanceof Iterable) {
+      return Flowable.fromIterable((Iterable<Object>) rows);
+    }
+    throw new IllegalArgumentException(
+        String.format("Unsupported rows of type %s", rows.getClass().getName()));
+  }
+
+  private static byte[] csvLine(Object[] values) {
+    StringBuilder line = new StringBuilder(values.length * 16);
+
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        line.append(',');
+      }
+      appendCsvValue(line, values[i]);
+    }
+    return line.append("\r\n").toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  /** Quotes a value if it contains a separator, a quote or a line break. */
+  static void appendCsvValue(StringBuilder line, Object value) {
+    if (value == null) {
+      return;
+    }
+    String text = String.valueOf(value);
+
+    boolean quote = false;
+    for (int i = 0; i < text.length() && !quote; i++) {
+      char c = text.charAt(i);
+      quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+    }
+
+    if (!quote) {
+      line.append(text);
+      return;
+    }
+
+    line.append('"');
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c == '"') {
+        line.append('"');
+      }
+      line.append(c);
+    }
+    line.append('"');
+  }
+}
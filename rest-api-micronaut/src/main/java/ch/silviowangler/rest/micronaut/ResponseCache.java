@@ -0,0 +1,311 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.micronaut;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.util.clhm.ConcurrentLinkedHashMap;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpRequest;
+import jakarta.inject.Singleton;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded in-process cache of serialized GET responses used by {@link ResponseCacheFilter}.
+ *
+ * <p>Responses are cached per path (i.e. route template and path variables), normalized query (e.g.
+ * {@code expands}, {@code page} and {@code limit}), {@code Accept} and {@code Accept-Language}
+ * header. At most {@code restapi.cache.max-size} responses are kept, the least recently used
+ * responses are evicted first. Responses expire after {@code restapi.cache.ttl} unless a {@link
+ * ResponseCacheConfiguration} of the resource declares another TTL.
+ *
+ * <p>A response is cached together with its headers, except for the headers that only apply to a
+ * single exchange (e.g. {@code Set-Cookie} or {@code Date}). Every invalidation starts a new
+ * generation of the cache. Responses read in an earlier generation are not cached, since they might
+ * have been read before the modification that caused the invalidation.
+ *
+ * @author Silvio Wangler
+ */
+@Singleton
+@Requires(property = "restapi.cache.enabled", value = "true")
+public class ResponseCache {
+
+  private static final Set<String> EXCHANGE_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+  static {
+    EXCHANGE_HEADERS.addAll(
+        List.of(
+            HttpHeaders.CONNECTION,
+            HttpHeaders.CONTENT_LENGTH,
+            HttpHeaders.DATE,
+            HttpHeaders.SET_COOKIE,
+            HttpHeaders.TRANSFER_ENCODING));
+  }
+
+  private final Map<String, CachedResponse> responses;
+  private final List<ResponseCacheConfiguration> resources;
+  private final Duration defaultTtl;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final AtomicLong generation = new AtomicLong();
+
+  /**
+   * @param resources the TTLs per resource.
+   * @param maxSize the maximum number of cached responses.
+   * @param defaultTtl the TTL of resources without configuration.
+   */
+  public ResponseCache(
+      List<ResponseCacheConfiguration> resources,
+      @Value("${restapi.cache.max-size:10000}") int maxSize,
+      @Value("${restapi.cache.ttl:60s}") Duration defaultTtl) {
+
+    // the most specific route wins
+    List<ResponseCacheConfiguration> sorted = new ArrayList<>(resources);
+    sorted.removeIf(resource -> resource.getRoute() == null || resource.getTtl() == null);
+    sorted.sort(
+        Comparator.comparingInt(
+                (ResponseCacheConfiguration resource) -> resource.getRoute().length())
+            .reversed());
+
+    this.resources = List.copyOf(sorted);
+    this.defaultTtl = defaultTtl;
+    this.responses =
+        new ConcurrentLinkedHashMap.Builder<String, CachedResponse>()
+            .maximumWeightedCapacity(maxSize)
+            .listener((key, response) -> evictions.increment())
+            .build();
+  }
+
+  /**
+   * @param request the request.
+   * @return the cache key of the request.
+   */
+  public String key(HttpRequest<?> request) {
+    StringBuilder key = new StringBuilder(request.getPath());
+
+    // the order of the parameters does not matter, the order of the values of a parameter might
+    for (String name : new TreeSet<>(request.getParameters().names())) {
+      key.append('\n').append(name).append('=').append(request.getParameters().getAll(name));
+    }
+
+    key.append('\n').append(request.getHeaders().get(HttpHeaders.ACCEPT));
+    key.append('\n').append(request.getHeaders().get(HttpHeaders.ACCEPT_LANGUAGE));
+    return key.toString();
+  }
+
+  /**
+   * @param key the cache key.
+   * @return the cached response or empty if the response is not cached or has expired.
+   */
+  public Optional<CachedResponse> get(String key) {
+    CachedResponse response = responses.get(key);
+
+    if (response != null && System.nanoTime() - response.expiresAt < 0) {
+      hits.increment();
+      return Optional.of(response);
+    }
+
+    if (response != null) {
+      responses.remove(key, response);
+    }
+    misses.increment();
+    return Optional.empty();
+  }
+
+  /**
+   * Caches a response unless the TTL of its resource is zero or the cache has been invalidated
+   * since the response was requested.
+   *
+   * @param key the cache key.
+   * @param path the path of the request.
+   * @param body the serialized body.
+   * @param headers the headers of the response.
+   * @param generation the {@link #getGeneration() generation} of the cache when the response was
+   *     requested.
+   * @return true if the response has been cached.
+   */
+  public boolean put(
+      String key,
+      String path,
+      byte[] body,
+      Map<String, List<String>> headers,
+      long generation) {
+    Duration ttl = ttl(path);
+
+    if (ttl.isZero() || ttl.isNegative() || this.generation.get() != generation) {
+      return false;
+    }
+
+    CachedResponse response =
+        new CachedResponse(path, body, replayedHeaders(headers), System.nanoTime() + ttl.toNanos());
+    responses.put(key, response);
+
+    // an invalidation between the check above and the put might have missed the response
+    if (this.generation.get() != generation) {
+      responses.remove(key, response);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * @return the current generation of the cache. It changes whenever responses are invalidated.
+   */
+  public long getGeneration() {
+    return generation.get();
+  }
+
+  /**
+   * @param path the path of a request.
+   * @return the TTL of the responses of the path.
+   */
+  public Duration ttl(String path) {
+    for (ResponseCacheConfiguration resource : resources) {
+      if (isPrefix(resource.getRoute(), path)) {
+        return resource.getTtl();
+      }
+    }
+    return defaultTtl;
+  }
+
+  /**
+   * Removes all responses affected by a modification of a resource. These are the responses of the
+   * modified collection (and all its entities and sub resources) and of all parents of the path,
+   * since they might embed the modified resource as expanded sub resource.
+   *
+   * @param method the method of the modifying request.
+   * @param path the path of the modifying request.
+   */
+  public void invalidate(HttpMethod method, String path) {
+    String normalizedPath = stripTrailingSlash(path);
+    // PUT, PATCH and DELETE address an entity, POST the collection
+    String collection =
+        method == HttpMethod.POST || normalizedPath.lastIndexOf('/') <= 0
+            ? normalizedPath
+            : normalizedPath.substring(0, normalizedPath.lastIndexOf('/'));
+
+    generation.incrementAndGet();
+    responses
+        .values()
+        .removeIf(
+            response -> {
+              String cachedPath = stripTrailingSlash(response.path);
+              return isPrefix(collection, cachedPath) || isPrefix(cachedPath, normalizedPath);
+            });
+  }
+
+  /** Removes all responses. */
+  public void invalidateAll() {
+    generation.incrementAndGet();
+    responses.clear();
+  }
+
+  /** @return the number of requests served from the cache. */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /** @return the number of requests not served from the cache. */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /** @return the number of responses evicted because the cache was full. */
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  /** @return the number of cached responses. */
+  public int size() {
+    return responses.size();
+  }
+
+  /** @return true if {@code path} is {@code prefix} or one of its sub paths. */
+  private static boolean isPrefix(String prefix, String path) {
+    String normalizedPrefix = stripTrailingSlash(prefix);
+    return path.equals(normalizedPrefix)
+        || normalizedPrefix.equals("/")
+        || path.startsWith(normalizedPrefix + "/");
+  }
+
+  private static Map<String, List<String>> replayedHeaders(Map<String, List<String>> headers) {
+    Map<String, List<String>> replayed = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    headers.forEach(
+        (name, values) -> {
+          if (!EXCHANGE_HEADERS.contains(name)) {
+            replayed.put(name, List.copyOf(values));
+          }
+        });
+    return Collections.unmodifiableMap(replayed);
+  }
+
+  private static String stripTrailingSlash(String path) {
+    return path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+  }
+
+  /** A cached response. */
+  public static final class CachedResponse {
+
+    private final String path;
+    private final byte[] body;
+    private final Map<String, List<String>> headers;
+    private final long expiresAt;
+
+    private CachedResponse(
+        String path, byte[] body, Map<String, List<String>> headers, long expiresAt) {
+      this.path = path;
+      this.body = body;
+      this.headers = headers;
+      this.expiresAt = expiresAt;
+    }
+
+    public byte[] getBody() {
+      return body;
+    }
+
+    /** @return the headers of the response (the names are case-insensitive). */
+    public Map<String, List<String>> getHeaders() {
+      return headers;
+    }
+
+    public String getContentType() {
+      List<String> contentType = headers.get(HttpHeaders.CONTENT_TYPE);
+      return contentType != null && !contentType.isEmpty() ? contentType.get(0) : null;
+    }
+  }
+}
@@ -0,0 +1,199 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.micronaut;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpAttributes;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.HttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import io.micronaut.web.router.UriRouteMatch;
+import io.reactivex.Flowable;
+import jakarta.inject.Inject;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.reactivestreams.Publisher;
+
+/**
+ * Serves GET requests from the {@link ResponseCache}.
+ *
+ * <p>This filter runs after the security filter. A cached response is sent with its headers
+ * without calling the delegates, creating links, resolving expands or serializing the body. A GET
+ * request that is not cached is marked as {@link Miss}, {@link SerializedResponseFilter} caches the
+ * final response of the request as bytes. Streamed responses are never cached.
+ *
+ * <p>Requests of an authenticated user (or with an {@code Authorization} header) bypass the cache,
+ * since their responses might depend on the user (e.g. the links a user is permitted to follow).
+ * Responses with {@code Cache-Control: private} or {@code no-store} are not cached either.
+ *
+ * <p>Hits and misses are recorded with {@link HateoasMetrics}.
+ *
+ * <p>Successful {@code POST}, {@code PUT}, {@code PATCH} and {@code DELETE} requests invalidate the
+ * cached responses of the modified resource (see {@link ResponseCache#invalidate(HttpMethod,
+ * String)}).
+ *
+ * @author Silvio Wangler
+ */
+@Filter("${restapi.hateoas.filter.uri}")
+@Requires(property = "restapi.cache.enabled", value = "true")
+public class ResponseCacheFilter implements HttpServerFilter {
+
+  private static final String MISS_ATTRIBUTE = ResponseCacheFilter.class.getName() + ".miss";
+
+  private final ResponseCache responseCache;
+  private final HateoasMetrics metrics;
+
+  public ResponseCacheFilter(ResponseCache responseCache) {
+    this(responseCache, null);
+  }
+
+  @Inject
+  public ResponseCacheFilter(ResponseCache responseCache, @Nullable HateoasMetrics metrics) {
+    this.responseCache = responseCache;
+    this.metrics = metrics != null ? metrics : HateoasMetrics.NOOP;
+  }
+
+  @Override
+  public int getOrder() {
+    return FilterOrder.RESPONSE_CACHE;
+  }
+
+  @Override
+  public Publisher<MutableHttpResponse<?>> doFilter(
+      HttpRequest<?> request, ServerFilterChain chain) {
+
+    HttpMethod method = request.getMethod();
+
+    if (method == HttpMethod.GET) {
+      return isAuthenticated(request) ? chain.proceed(request) : cachedResponse(request, chain);
+    }
+
+    if (method == HttpMethod.POST
+        || method == HttpMethod.PUT
+        || method == HttpMethod.PATCH
+        || method == HttpMethod.DELETE) {
+      return Flowable.fromPublisher(chain.proceed(request))
+          .doOnNext(
+              response -> {
+                int status = response.status().getCode();
+
+                if (status >= 200 && status < 300) {
+                  responseCache.invalidate(method, request.getPath());
+                }
+              });
+    }
+    return chain.proceed(request);
+  }
+
+  private Publisher<MutableHttpResponse<?>> cachedResponse(
+      HttpRequest<?> request, ServerFilterChain chain) {
+
+    String key = responseCache.key(request);
+    Optional<ResponseCache.CachedResponse> cached = responseCache.get(key);
+    route(request).ifPresent(route -> metrics.recordResponseCache(route, cached.isPresent()));
+
+    if (cached.isPresent()) {
+      MutableHttpResponse<byte[]> response = HttpResponse.ok(cached.get().getBody());
+      cached
+          .get()
+          .getHeaders()
+          .forEach((name, values) -> values.forEach(value -> response.header(name, value)));
+      return Flowable.just(response);
+    }
+
+    // responses read before a concurrent invalidation must not be cached
+    request.setAttribute(
+        MISS_ATTRIBUTE, new Miss(key, request.getPath(), responseCache.getGeneration()));
+    return chain.proceed(request);
+  }
+
+  /**
+   * @param request the current request.
+   * @return the miss of the request or empty if the request has not been looked up in the cache.
+   */
+  static Optional<Miss> miss(HttpRequest<?> request) {
+    return request.getAttribute(MISS_ATTRIBUTE, Miss.class);
+  }
+
+  /**
+   * @param response a response to a {@link #miss(HttpRequest) missed} request.
+   * @return true if the response may be cached.
+   */
+  static boolean isCacheable(MutableHttpResponse<?> response) {
+    return response.status() == HttpStatus.OK && isShared(response);
+  }
+
+  private static boolean isAuthenticated(HttpRequest<?> request) {
+    return request.getUserPrincipal().isPresent()
+        || request.getHeaders().contains(HttpHeaders.AUTHORIZATION);
+  }
+
+  /** @return false if the response must not be stored by shared caches. */
+  private static boolean isShared(MutableHttpResponse<?> response) {
+    return response.getHeaders().getAll(HttpHeaders.CACHE_CONTROL).stream()
+        .map(String::toLowerCase)
+        .noneMatch(value -> value.contains("private") || value.contains("no-store"));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Optional<String> route(HttpRequest<?> request) {
+    return request
+        .getAttributes()
+        .get(HttpAttributes.ROUTE_MATCH.toString(), UriRouteMatch.class)
+        .map(routeMatch -> Routes.template((UriRouteMatch<?, ?>) routeMatch));
+  }
+
+  /** A GET request that has not been found in the cache. */
+  static final class Miss {
+
+    private final String key;
+    private final String path;
+    private final long generation;
+
+    private Miss(String key, String path, long generation) {
+      this.key = key;
+      this.path = path;
+      this.generation = generation;
+    }
+
+    /**
+     * Caches the response of the request.
+     *
+     * @param responseCache the cache.
+     * @param body the serialized body.
+     * @param headers the headers of the response.
+     */
+    void cache(ResponseCache responseCache, byte[] body, Map<String, List<String>> headers) {
+      responseCache.put(key, path, body, headers, generation);
+    }
+  }
+}
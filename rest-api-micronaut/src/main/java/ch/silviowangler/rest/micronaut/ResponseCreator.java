@@ -26,6 +26,7 @@ package ch.silviowangler.rest.micronaut;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.MediaType;
 import io.micronaut.http.MutableHttpResponse;
+import java.util.concurrent.CompletionStage;
 
 public class ResponseCreator {
 
@@ -41,4 +42,16 @@ public class ResponseCreator {
     }
     return HttpResponse.ok().header("Content-Type", contentType);
   }
+
+  /**
+   * Builds the HEAD response once the result of an async delegate is available.
+   *
+   * @param entity the result of the GET method.
+   * @param contentType the content type of the resource.
+   * @return the HEAD response.
+   */
+  public static CompletionStage<HttpResponse> buildHeadResponse(
+      CompletionStage<?> entity, MediaType contentType) {
+    return entity.thenApply(result -> buildHeadResponse(result, contentType));
+  }
 }
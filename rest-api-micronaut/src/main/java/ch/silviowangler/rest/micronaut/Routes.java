@@ -0,0 +1,73 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.micronaut;
+
+import io.micronaut.http.HttpAttributes;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MediaType;
+import io.micronaut.web.router.UriRouteInfo;
+import io.micronaut.web.router.UriRouteMatch;
+
+/**
+ * Helper methods around Micronaut routes.
+ *
+ * @author Silvio Wangler
+ */
+final class Routes {
+
+  private Routes() {
+    // do not create instances of me please
+  }
+
+  /**
+   * Returns the URI template (e.g. {@code /v1/countries/{id}}) of the given route match. The
+   * template is the same for all requests matching a route and can therefore be used as key for
+   * per route caches.
+   *
+   * @param routeMatch the route match.
+   * @return the template of the route or the matched URI if the template is not available.
+   */
+  static String template(UriRouteMatch<?, ?> routeMatch) {
+    UriRouteInfo<?, ?> routeInfo = routeMatch.getRouteInfo();
+
+    if (routeInfo != null && routeInfo.getUriMatchTemplate() != null) {
+      return routeInfo.getUriMatchTemplate().toString();
+    }
+    return routeMatch.getUri();
+  }
+
+  /**
+   * @param response a response.
+   * @return true if the route of the response produces JSON.
+   */
+  static boolean producesJson(HttpResponse<?> response) {
+    return response
+        .getAttributes()
+        .get(HttpAttributes.ROUTE_MATCH.toString(), UriRouteMatch.class)
+        .map(
+            routeMatch ->
+                routeMatch.getRouteInfo().getProduces().contains(MediaType.APPLICATION_JSON_TYPE))
+        .orElse(false);
+  }
+}
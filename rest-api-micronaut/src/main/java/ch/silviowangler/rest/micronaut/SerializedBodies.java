@@ -0,0 +1,84 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.micronaut;
+
+import io.micronaut.http.MediaType;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.serde.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Serializes response bodies ahead of Micronaut, for filters that need the bytes of a response.
+ *
+ * @author Silvio Wangler
+ */
+final class SerializedBodies {
+
+  private SerializedBodies() {
+    // do not create instances of me please
+  }
+
+  /**
+   * Returns the serialized body of a response. JSON bodies are serialized and replaced by the
+   * serialized bytes, so Micronaut does not serialize them a second time.
+   *
+   * @param objectMapper serializes JSON bodies.
+   * @param response the response.
+   * @return the bytes of the body or empty if the body is missing, asynchronous or not JSON.
+   */
+  @SuppressWarnings("unchecked")
+  static Optional<byte[]> serialize(ObjectMapper objectMapper, MutableHttpResponse<?> response) {
+    Object body = response.body();
+
+    if (body == null || AsyncResults.isAsync(body)) {
+      return Optional.empty();
+    }
+    if (body instanceof byte[]) {
+      return Optional.of((byte[]) body);
+    }
+    if (body instanceof CharSequence) {
+      return Optional.of(body.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    if (!Routes.producesJson(response)) {
+      return Optional.empty();
+    }
+
+    byte[] content;
+    try {
+      content = objectMapper.writeValueAsBytes(body);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to serialize " + body.getClass().getName(), e);
+    }
+
+    ((MutableHttpResponse<Object>) response).body(content);
+
+    if (response.getContentType().isEmpty()) {
+      response.contentType(MediaType.APPLICATION_JSON_TYPE);
+    }
+    return Optional.of(content);
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.micronaut;
+
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.HttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import io.micronaut.serde.ObjectMapper;
+import io.reactivex.Flowable;
+import java.util.Optional;
+import org.reactivestreams.Publisher;
+
+/**
+ * Serializes the final body of successful GET responses for the ETags and the response cache.
+ *
+ * <p>This filter runs outside {@link ExpandedGetResponseFilter} and sees the final response. The
+ * body is serialized once and the serialized bytes are sent to the client, so the body is not
+ * serialized twice. Streamed bodies are left untouched.
+ *
+ * <ul>
+ *   <li>With {@code restapi.etag.enabled} the response gets a strong SHA-256 based ETag and
+ *       conditional requests are answered with 304 (Not Modified). Responses that already carry an
+ *       ETag (e.g. from {@link VersionEtagFilter}) keep it.
+ *   <li>With {@code restapi.cache.enabled} the response of a request {@link ResponseCacheFilter}
+ *       did not find in the cache is cached together with its ETag.
+ * </ul>
+ *
+ * @author Silvio Wangler
+ */
+@Filter("${restapi.hateoas.filter.uri}")
+public class SerializedResponseFilter implements HttpServerFilter {
+
+  private final ObjectMapper objectMapper;
+  private final ResponseCache responseCache;
+  private final boolean etags;
+
+  /**
+   * @param objectMapper serializes the bodies.
+   * @param responseCache the response cache or {@code null} if the cache is disabled.
+   * @param etags true if ETags are enabled.
+   */
+  public SerializedResponseFilter(
+      ObjectMapper objectMapper,
+      @Nullable ResponseCache responseCache,
+      @Value("${restapi.etag.enabled:false}") boolean etags) {
+    this.objectMapper = objectMapper;
+    this.responseCache = responseCache;
+    this.etags = etags;
+  }
+
+  @Override
+  public int getOrder() {
+    return FilterOrder.SERIALIZED_RESPONSES;
+  }
+
+  @Override
+  public Publisher<MutableHttpResponse<?>> doFilter(
+      HttpRequest<?> request, ServerFilterChain chain) {
+
+    if (!Etags.isCacheable(request) || (!etags && responseCache == null)) {
+      return chain.proceed(request);
+    }
+
+    return Flowable.fromPublisher(chain.proceed(request)).map(response -> apply(request, response));
+  }
+
+  private MutableHttpResponse<?> apply(HttpRequest<?> request, MutableHttpResponse<?> response) {
+
+    if (response.status() != HttpStatus.OK) {
+      return response;
+    }
+
+    boolean addEtag = etags && !response.getHeaders().contains(HttpHeaders.ETAG);
+    Optional<ResponseCacheFilter.Miss> miss =
+        responseCache != null && ResponseCacheFilter.isCacheable(response)
+            ? ResponseCacheFilter.miss(request)
+            : Optional.empty();
+
+    if (!addEtag && miss.isEmpty()) {
+      return response;
+    }
+
+    Optional<byte[]> content = SerializedBodies.serialize(objectMapper, response);
+
+    if (content.isEmpty()) {
+      return response;
+    }
+
+    String etag = addEtag ? Etags.ofContent(content.get()) : null;
+
+    if (etag != null) {
+      response.header(HttpHeaders.ETAG, etag);
+    }
+
+    // conditional requests of cached responses are answered by EtagFilter with the cached ETag
+    miss.ifPresent(m -> m.cache(responseCache, content.get(), response.getHeaders().asMap()));
+
+    if (etag != null && Etags.matches(request, etag)) {
+      return Etags.notModified(response, etag);
+    }
+    return response;
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.micronaut;
+
+import ch.silviowangler.rest.model.EntityModel;
+import ch.silviowangler.rest.model.PaginationModel;
+import ch.silviowangler.rest.model.ResourceLink;
+import ch.silviowangler.rest.model.ResourceModel;
+import ch.silviowangler.rest.model.pagination.Slice;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.core.type.Argument;
+import io.micronaut.serde.ObjectMapper;
+import io.reactivex.Flowable;
+import io.reactivex.functions.Function;
+import jakarta.inject.Singleton;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import org.reactivestreams.Publisher;
+
+/**
+ * Writes large collections as a chunked JSON stream instead of materializing a {@code
+ * CollectionModel} first.
+ *
+ * <p>The streamed JSON has the same envelope as a serialized {@code CollectionModel} (or {@code
+ * PaginationCollectionModel}). The entities are wrapped lazily, {@code
+ * restapi.hateoas.streaming.chunk-size} at a time, and every chunk is emitted as soon as it has
+ * been serialized. Reactive bodies are consumed with backpressure, a chunk is only requested once
+ * the previous one has been written.
+ *
+ * <p>The writer is only created if {@code restapi.hateoas.streaming.enabled} is set to {@code
+ * true}. Collections and slices are streamed if they contain at least {@code
+ * restapi.hateoas.streaming.min-size} elements, publishers of multiple elements are always
+ * streamed.
+ *
+ * @author Silvio Wangler
+ */
+@Singleton
+@Requires(property = "restapi.hateoas.streaming.enabled", value = "true")
+public class StreamingCollectionWriter {
+
+  private static final byte[] DATA_START = "{\"data\":[".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] LINKS = "],\"links\":".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] PAGINATION = ",\"pagination\":".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] END = "}".getBytes(StandardCharsets.UTF_8);
+
+  private static final Argument<List<ResourceLink>> LINK_LIST =
+      Argument.listOf(ResourceLink.class);
+
+  private final ObjectMapper objectMapper;
+  private final int minSize;
+  private final int chunkSize;
+
+  public StreamingCollectionWriter(
+      ObjectMapper objectMapper,
+      @Value("${restapi.hateoas.streaming.min-size:1000}") int minSize,
+      @Value("${restapi.hateoas.streaming.chunk-size:256}") int chunkSize) {
+    this.objectMapper = objectMapper;
+    this.minSize = minSize;
+    this.chunkSize = Math.max(1, chunkSize);
+  }
+
+  /**
+   * @param body the body of a response.
+   * @return true if the body is streamed by this writer.
+   */
+  public boolean isStreamed(Object body) {
+    if (body instanceof Publisher) {
+      return !Publishers.isSingle(body.getClass());
+    }
+    if (body instanceof Slice) {
+      return ((Slice<?>) body).getContent().size() >= minSize;
+    }
+    return body instanceof Collection && ((Collection<?>) body).size() >= minSize;
+  }
+
+  /**
+   * Writes a collection as a JSON stream.
+   *
+   * @param elements the elements of the collection. Elements that are no {@link ResourceModel} are
+   *     skipped.
+   * @param wrapper wraps a chunk of models into entity models (the order has to be kept).
+   * @param links the links of the collection.
+   * @param pagination the pagination of the collection or {@code null}.
+   * @return the chunks of the JSON document.
+   */
+  public Flowable<byte[]> write(
+      Publisher<?> elements,
+      Function<List<ResourceModel>, List<? extends EntityModel<?>>> wrapper,
+      List<ResourceLink> links,
+      @Nullable PaginationModel pagination) {
+
+    return Flowable.defer(
+        () -> {
+          // the separator state belongs to a single subscription
+          boolean[] first = {true};
+
+          Flowable<byte[]> data =
+              Flowable.fromPublisher(elements)
+                  .filter(ResourceModel.class::isInstance)
+                  .cast(ResourceModel.class)
+                  .buffer(chunkSize)
+                  .map(chunk -> writeEntities(wrapper.apply(chunk), first));
+
+          return Flowable.just(DATA_START)
+              .concatWith(data)
+              .concatWith(Flowable.fromCallable(() -> writeEnd(links, pagination)));
+        });
+  }
+
+  private byte[] writeEntities(List<? extends EntityModel<?>> entities, boolean[] first)
+      throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(entities.size() * 256);
+
+    for (EntityModel<?> entity : entities) {
+      if (!first[0]) {
+        out.write(',');
+      }
+      first[0] = false;
+      out.write(objectMapper.writeValueAsBytes(entity));
+    }
+    return out.toByteArray();
+  }
+
+  private byte[] writeEnd(List<ResourceLink> links, @Nullable PaginationModel pagination)
+      throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+
+    out.write(LINKS);
+    out.write(objectMapper.writeValueAsBytes(LINK_LIST, links));
+    if (pagination != null) {
+      out.write(PAGINATION);
+      out.write(objectMapper.writeValueAsBytes(pagination));
+    }
+    out.write(END);
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.micronaut;
+
+import ch.silviowangler.rest.model.Versioned;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.HttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import io.reactivex.Flowable;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import org.reactivestreams.Publisher;
+
+/**
+ * Answers conditional GET requests of {@link Versioned} resources with 304 (Not Modified) before
+ * the response is rendered.
+ *
+ * <p>This filter runs inside {@link HateoasResponseFilter} and sees the models returned by the
+ * delegate. If the model (or every entity of a collection) is {@link Versioned}, a weak ETag is
+ * derived from the request URI, the {@code Accept-Language} header and the versions. If it matches
+ * the {@code If-None-Match} header of the request, the body is dropped and neither links, expands
+ * nor the JSON body are created. Other responses are left to {@link SerializedResponseFilter}.
+ *
+ * <p>Requests with expands are left to {@link SerializedResponseFilter} as well: the versions of
+ * the expanded sub resources are unknown to this filter, so their changes would not change the
+ * ETag.
+ *
+ * @author Silvio Wangler
+ */
+@Filter("${restapi.hateoas.filter.uri}")
+@Requires(property = "restapi.etag.enabled", value = "true")
+public class VersionEtagFilter implements HttpServerFilter {
+
+  @Override
+  public int getOrder() {
+    return FilterOrder.VERSION_ETAGS;
+  }
+
+  @Override
+  public Publisher<MutableHttpResponse<?>> doFilter(
+      HttpRequest<?> request, ServerFilterChain chain) {
+
+    if (!Etags.isCacheable(request)
+        || request.getParameters().contains(ExpandedGetResponseFilter.EXPAND_PARAM_NAME)) {
+      return chain.proceed(request);
+    }
+
+    return Flowable.fromPublisher(chain.proceed(request))
+        .concatMap(this::resolveBody)
+        .map(response -> applyEtag(request, response));
+  }
+
+  /** Resolves the single result of an async delegate, streamed collections are kept. */
+  @SuppressWarnings("unchecked")
+  private Flowable<MutableHttpResponse<?>> resolveBody(MutableHttpResponse<?> response) {
+    Object body = response.body();
+
+    boolean single =
+        body instanceof CompletionStage
+            || (body instanceof Publisher && Publishers.isSingle(body.getClass()));
+
+    if (response.status() != HttpStatus.OK || !single || !Routes.producesJson(response)) {
+      return Flowable.just(response);
+    }
+
+    MutableHttpResponse<Object> mutableResponse = (MutableHttpResponse<Object>) response;
+
+    return AsyncResults.resolve(body)
+        .map(Optional::of)
+        .defaultIfEmpty(Optional.empty())
+        .<MutableHttpResponse<?>>map(result -> mutableResponse.body(result.orElse(null)))
+        .toFlowable();
+  }
+
+  private MutableHttpResponse<?> applyEtag(
+      HttpRequest<?> request, MutableHttpResponse<?> response) {
+
+    if (response.status() != HttpStatus.OK || response.body() == null) {
+      return response;
+    }
+
+    Optional<String> etag = Etags.ofVersion(request, response.body());
+
+    if (etag.isEmpty()) {
+      return response;
+    }
+    if (Etags.matches(request, etag.get())) {
+      return Etags.notModified(response, etag.get());
+    }
+    return response.header(HttpHeaders.ETAG, etag.get());
+  }
+}
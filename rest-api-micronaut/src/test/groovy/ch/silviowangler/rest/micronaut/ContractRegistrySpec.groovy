@@ -0,0 +1,87 @@
+package ch.silviowangler.rest.micronaut
+
+import ch.silviowangler.rest.contract.model.v1.GeneralDetails
+import ch.silviowangler.rest.contract.model.v1.ResourceContract
+import ch.silviowangler.rest.contract.model.v1.SubResource
+import io.micronaut.context.BeanContext
+import io.micronaut.inject.BeanDefinition
+import io.micronaut.serde.ObjectMapper
+import spock.lang.Specification
+
+class ContractRegistrySpec extends Specification {
+
+  void "The OPTIONS_CONTENT of a controller without provider is parsed once at startup"() {
+
+    given:
+    ObjectMapper objectMapper = Mock()
+    BeanContext beanContext = Stub() {
+      getBeanDefinitions(_) >> [controller(CountriesResource), controller(NoContractResource)]
+    }
+
+    when:
+    ContractRegistry registry = new ContractRegistry([], objectMapper, beanContext)
+
+    then:
+    1 * objectMapper.readValue(CountriesResource.OPTIONS_CONTENT, ResourceContract) >> contract('countries')
+    0 * objectMapper._
+
+    when:
+    Optional<ResourceContract> first = registry.findContract(CountriesResource)
+    Optional<ResourceContract> second = registry.findContract(CountriesResource)
+
+    then: 'the request path does not parse the contract again'
+    0 * objectMapper._
+
+    and:
+    first.get().general.name == 'countries'
+    first.get().is(second.get())
+  }
+
+  void "The contracts are unmodifiable views"() {
+
+    given:
+    ResourceContractProvider provider = Stub() {
+      getResourceClass() >> CountriesResource
+      getContract() >> contract('countries')
+    }
+    ContractRegistry registry = new ContractRegistry([provider], null)
+
+    when:
+    ResourceContract registered = registry.findContract(CountriesResource).get()
+
+    then:
+    registered == contract('countries')
+    registered.subresources*.name == ['cities']
+
+    when:
+    registered.subresources.add(new SubResource(name: 'lakes'))
+
+    then:
+    thrown(UnsupportedOperationException)
+
+    when:
+    registered.setSubresources([])
+
+    then:
+    thrown(UnsupportedOperationException)
+  }
+
+  private BeanDefinition controller(Class<?> type) {
+    return Stub(BeanDefinition) {
+      getBeanType() >> type
+    }
+  }
+
+  private static ResourceContract contract(String name) {
+    return new ResourceContract(
+        general: new GeneralDetails(name: name),
+        subresources: [new SubResource(name: 'cities', expandable: true)])
+  }
+
+  static class CountriesResource {
+    public static final String OPTIONS_CONTENT = '{"general":{"name":"countries"}}'
+  }
+
+  static class NoContractResource {
+  }
+}
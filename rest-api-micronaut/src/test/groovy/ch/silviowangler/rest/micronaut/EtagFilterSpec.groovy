@@ -0,0 +1,236 @@
+package ch.silviowangler.rest.micronaut
+
+import ch.silviowangler.rest.model.Identifiable
+import ch.silviowangler.rest.model.ResourceModel
+import ch.silviowangler.rest.model.Versioned
+import io.micronaut.http.HttpAttributes
+import io.micronaut.http.HttpHeaders
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpRequestFactory
+import io.micronaut.http.HttpResponseFactory
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.MediaType
+import io.micronaut.http.MutableHttpResponse
+import io.micronaut.http.filter.HttpServerFilter
+import io.micronaut.http.filter.ServerFilterChain
+import io.micronaut.serde.ObjectMapper
+import io.micronaut.web.router.UriRouteInfo
+import io.micronaut.web.router.UriRouteMatch
+import io.reactivex.Flowable
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+
+class EtagFilterSpec extends Specification {
+
+  void "A versioned resource gets a weak ETag"() {
+
+    given:
+    HttpRequest<?> request = HttpRequestFactory.INSTANCE.get("/api/countries/CHE")
+
+    when:
+    MutableHttpResponse<?> response = filter(new VersionEtagFilter(), request, new Country(id: 'CHE', version: '1'))
+
+    then:
+    response.status() == HttpStatus.OK
+    response.header(HttpHeaders.ETAG).startsWith('W/"')
+    response.body() instanceof Country
+  }
+
+  void "A versioned resource is not rendered if the client has the current version"() {
+
+    given:
+    HttpRequest<?> request = HttpRequestFactory.INSTANCE.get("/api/countries/CHE")
+    String etag = filter(new VersionEtagFilter(), request, new Country(id: 'CHE', version: '1')).header(HttpHeaders.ETAG)
+
+    and:
+    HttpRequest<?> conditionalRequest = HttpRequestFactory.INSTANCE.get("/api/countries/CHE")
+    conditionalRequest.header(HttpHeaders.IF_NONE_MATCH, "\"other\", ${etag}")
+
+    when:
+    MutableHttpResponse<?> response = filter(new VersionEtagFilter(), conditionalRequest, body)
+
+    then:
+    response.status() == status
+    response.header(HttpHeaders.ETAG) != null
+    (response.body() == null) == (status == HttpStatus.NOT_MODIFIED)
+
+    where:
+    body                                                                 | status
+    new Country(id: 'CHE', version: '1')                                 | HttpStatus.NOT_MODIFIED
+    CompletableFuture.completedFuture(new Country(id: 'CHE', version: '1')) | HttpStatus.NOT_MODIFIED
+    new Country(id: 'CHE', version: '2')                                 | HttpStatus.OK
+  }
+
+  void "A collection is only versioned if all its entities are versioned"() {
+
+    given:
+    HttpRequest<?> request = HttpRequestFactory.INSTANCE.get("/api/countries")
+
+    when:
+    MutableHttpResponse<?> response = filter(new VersionEtagFilter(), request, body)
+
+    then:
+    (response.header(HttpHeaders.ETAG) != null) == versioned
+
+    where:
+    body                                                                     | versioned
+    [new Country(id: 'CHE', version: '1'), new Country(id: 'DEU', version: '3')] | true
+    [new Country(id: 'CHE', version: '1'), new Country(id: 'DEU')]               | false
+  }
+
+  void "The weak ETag depends on the Accept-Language header"() {
+
+    when:
+    List<String> etags = ['de', 'fr', 'de', null].collect { String language ->
+      HttpRequest<?> request = HttpRequestFactory.INSTANCE.get("/api/countries/CHE")
+      if (language) {
+        request.header(HttpHeaders.ACCEPT_LANGUAGE, language)
+      }
+      filter(new VersionEtagFilter(), request, new Country(id: 'CHE', version: '1')).header(HttpHeaders.ETAG)
+    }
+
+    then:
+    etags[0] == etags[2]
+    etags.toSet().size() == 3
+  }
+
+  void "Versioned resources with expands are left to the ETag of the serialized body"() {
+
+    given:
+    HttpRequest<?> request = HttpRequestFactory.INSTANCE.get("/api/countries/CHE")
+    request.parameters.add(ExpandedGetResponseFilter.EXPAND_PARAM_NAME, 'cities')
+
+    when: 'the versioned model is returned'
+    MutableHttpResponse<?> versioned = filter(new VersionEtagFilter(), request, new Country(id: 'CHE', version: '1'))
+
+    then: 'no weak ETag is created since the versions of the expands are unknown'
+    versioned.header(HttpHeaders.ETAG) == null
+    versioned.body() instanceof Country
+
+    when: 'an expanded sub resource changes while the version stays the same'
+    MutableHttpResponse<?> before = filter(contentEtags(), request, [id: 'CHE', version: '1', cities: 'Bern'])
+    MutableHttpResponse<?> after = filter(contentEtags(), request, [id: 'CHE', version: '1', cities: 'Bern,Zurich'])
+
+    then: 'the strong ETag of the body changes'
+    before.header(HttpHeaders.ETAG) != after.header(HttpHeaders.ETAG)
+  }
+
+  void "The serialized body gets a strong ETag that is the same on every instance"() {
+
+    given:
+    HttpRequest<?> request = HttpRequestFactory.INSTANCE.get("/api/countries/CHE")
+
+    when:
+    MutableHttpResponse<?> first = filter(contentEtags(), request, [id: 'CHE'])
+    MutableHttpResponse<?> second = filter(contentEtags(), request, [id: 'CHE'])
+
+    then:
+    first.header(HttpHeaders.ETAG) ==~ /"[A-Za-z0-9_-]{22}"/
+    first.header(HttpHeaders.ETAG) == second.header(HttpHeaders.ETAG)
+
+    and: "the serialized body is sent"
+    new String(first.body() as byte[]) == '{"id":"CHE"}'
+  }
+
+  void "A conditional request with the current ETag is answered with 304"() {
+
+    given:
+    HttpRequest<?> request = HttpRequestFactory.INSTANCE.get("/api/countries/CHE")
+    String etag = filter(contentEtags(), request, [id: 'CHE']).header(HttpHeaders.ETAG)
+
+    and:
+    HttpRequest<?> conditionalRequest = HttpRequestFactory.INSTANCE.get("/api/countries/CHE")
+    conditionalRequest.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch.replace('ETAG', etag))
+
+    when:
+    MutableHttpResponse<?> response = filter(contentEtags(), conditionalRequest, [id: 'CHE'])
+
+    then:
+    response.status() == status
+
+    where:
+    ifNoneMatch  | status
+    'ETAG'       | HttpStatus.NOT_MODIFIED
+    'W/ETAG'     | HttpStatus.NOT_MODIFIED
+    '*'          | HttpStatus.NOT_MODIFIED
+    '"outdated"' | HttpStatus.OK
+  }
+
+  void "Responses that are not GET responses get no ETag"() {
+
+    given:
+    HttpRequest<?> request = HttpRequestFactory.INSTANCE.post("/api/countries", [id: 'CHE'])
+
+    when:
+    MutableHttpResponse<?> response = filter(contentEtags(), request, [id: 'CHE'])
+
+    then:
+    response.header(HttpHeaders.ETAG) == null
+    response.body() == [id: 'CHE']
+  }
+
+  void "A conditional request is answered with 304 if the response already has the ETag"() {
+
+    given:
+    HttpRequest<?> request = HttpRequestFactory.INSTANCE.get("/api/countries/CHE")
+    request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch)
+
+    and: 'e.g. a response replayed by the response cache'
+    ServerFilterChain chain = Stub()
+    chain.proceed(_) >> { Flowable.just(HttpResponseFactory.INSTANCE.ok('{"id":"CHE"}'.bytes).header(HttpHeaders.ETAG, '"cached"')) }
+
+    when:
+    MutableHttpResponse<?> response = Flowable.fromPublisher(new EtagFilter().doFilter(request, chain)).blockingSingle()
+
+    then:
+    response.status() == status
+    response.header(HttpHeaders.ETAG) == '"cached"'
+
+    where:
+    ifNoneMatch  | status
+    '"cached"'   | HttpStatus.NOT_MODIFIED
+    '"outdated"' | HttpStatus.OK
+  }
+
+  private MutableHttpResponse<?> filter(HttpServerFilter filter, HttpRequest<?> request, Object body) {
+    ServerFilterChain chain = Stub()
+    chain.proceed(_) >> { Flowable.just(jsonResponse(body)) }
+    return Flowable.fromPublisher(filter.doFilter(request, chain)).blockingSingle()
+  }
+
+  private MutableHttpResponse<?> jsonResponse(Object body) {
+    MutableHttpResponse<?> response = HttpResponseFactory.INSTANCE.ok()
+    UriRouteMatch uriRouteMatch = Stub()
+    UriRouteInfo routeInfo = Stub()
+    uriRouteMatch.getRouteInfo() >> routeInfo
+    routeInfo.getProduces() >> [MediaType.APPLICATION_JSON_TYPE]
+    response.attributes.put(HttpAttributes.ROUTE_MATCH.toString(), uriRouteMatch)
+    response.body(body)
+    return response
+  }
+
+  /** Computes the ETags of the serialized bodies, without response cache. */
+  private SerializedResponseFilter contentEtags() {
+    return new SerializedResponseFilter(jsonStub(), null, true)
+  }
+
+  /** Writes maps as JSON objects of strings. */
+  private ObjectMapper jsonStub() {
+    ObjectMapper objectMapper = Stub()
+    objectMapper.writeValueAsBytes(_) >> { Object value ->
+      ('{' + (value as Map).collect { k, v -> "\"${k}\":\"${v}\"" }.join(',') + '}').bytes
+    }
+    return objectMapper
+  }
+
+  static class Country implements ResourceModel, Identifiable<String>, Versioned {
+    String id
+    String version
+
+    @Override
+    String version() {
+      return version
+    }
+  }
+}
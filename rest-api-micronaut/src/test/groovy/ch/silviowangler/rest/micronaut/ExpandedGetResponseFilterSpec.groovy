@@ -0,0 +1,391 @@
+package ch.silviowangler.rest.micronaut
+
+import ch.silviowangler.rest.contract.model.v1.GeneralDetails
+import ch.silviowangler.rest.contract.model.v1.ResourceContract
+import ch.silviowangler.rest.contract.model.v1.SubResource
+import ch.silviowangler.rest.model.CollectionModel
+import ch.silviowangler.rest.model.EntityModel
+import ch.silviowangler.rest.model.Identifiable
+import ch.silviowangler.rest.model.ResourceModel
+import io.micronaut.context.ApplicationContext
+import io.micronaut.core.type.Argument
+import io.micronaut.http.HttpAttributes
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpRequestFactory
+import io.micronaut.http.HttpResponseFactory
+import io.micronaut.http.MutableHttpRequest
+import io.micronaut.http.MutableHttpResponse
+import io.micronaut.http.context.ServerRequestContext
+import io.micronaut.http.filter.ServerFilterChain
+import io.micronaut.http.uri.UriMatchTemplate
+import io.micronaut.inject.ExecutableMethod
+import io.micronaut.web.router.Router
+import io.micronaut.web.router.UriRouteInfo
+import io.micronaut.web.router.UriRouteMatch
+import io.reactivex.Flowable
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.Supplier
+
+class ExpandedGetResponseFilterSpec extends Specification {
+
+  ApplicationContext applicationContext = Stub()
+  Router router = Mock()
+  ContractRegistry contractRegistry = new ContractRegistry([contractProvider()], null)
+
+  void "Concurrent expands are attached in the requested order and bounded by the max concurrency"() {
+
+    given: 'a dispatcher whose first entities answer last'
+    AtomicInteger inFlight = new AtomicInteger()
+    AtomicInteger maxInFlight = new AtomicInteger()
+    List<HttpRequest<?>> currentRequests = new CopyOnWriteArrayList<>()
+    List<Country> countries = ['CHE', 'DEU', 'AUT', 'ITA', 'FRA', 'LIE'].collect { new Country(id: it) }
+
+    ExpandDispatcher dispatcher = dispatcher(['cities', 'lakes']) { String expandName, ExpandContext context ->
+      maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math.&max)
+      currentRequests << ServerRequestContext.currentRequest().orElse(null)
+      Thread.sleep(10 * (countries.size() - countries.findIndexOf { it.id == context.entityId }))
+      inFlight.decrementAndGet()
+      return [new City(name: "${context.entityId}-${expandName}")]
+    }
+
+    and:
+    ExecutorService executor = Executors.newFixedThreadPool(8)
+    ExpandedGetResponseFilter filter = filter([dispatcher], executor, 2, 256)
+    HttpRequest<?> request = request('cities,lakes')
+
+    when:
+    CollectionModel<Country> body = expand(filter, request, collection(countries)).body() as CollectionModel<Country>
+
+    then: 'every entity receives its expands in the requested order'
+    expandsOf(body) == countries.collect { country ->
+      ["cities:${country.id}-cities".toString(), "lakes:${country.id}-lakes".toString()]
+    }
+
+    and: 'at most two expands are in flight'
+    maxInFlight.get() == 2
+
+    and: 'the request is available to the delegates'
+    currentRequests.size() == 12
+    currentRequests.every { it.is(request) }
+
+    cleanup:
+    executor.shutdown()
+  }
+
+  void "Expands are resolved one after another without an executor"() {
+
+    given:
+    List<String> calls = new CopyOnWriteArrayList<>()
+    ExpandDispatcher dispatcher = dispatcher(['cities', 'lakes']) { String expandName, ExpandContext context ->
+      calls << "${context.entityId}-${expandName}".toString()
+      return [new City(name: "${context.entityId}-${expandName}")]
+    }
+
+    and:
+    ExpandedGetResponseFilter filter = filter([dispatcher], null, 4, 256)
+
+    when:
+    expand(filter, request('cities,lakes'), collection([new Country(id: 'CHE'), new Country(id: 'DEU')]))
+
+    then: 'the expands are resolved step by step'
+    calls == ['CHE-cities', 'DEU-cities', 'CHE-lakes', 'DEU-lakes']
+  }
+
+  void "Compiled expand plans are reused if the plan cache holds #planCacheSize plans"() {
+
+    given: 'a sub resource that is invoked reflectively'
+    CitiesResource citiesResource = new CitiesResource()
+    applicationContext.getBean(CitiesResource) >> citiesResource
+    UriRouteMatch citiesRoute = subResourceRoute(CitiesResource) { List<?> arguments ->
+      [new City(name: "${arguments[0]}-cities")]
+    }
+
+    and:
+    ExpandedGetResponseFilter filter = filter([], null, 4, planCacheSize)
+
+    when: 'the same expand is requested twice'
+    List<CollectionModel<Country>> bodies = (1..2).collect {
+      expand(filter, request('cities'), collection([new Country(id: 'CHE'), new Country(id: 'DEU')])).body() as CollectionModel<Country>
+    }
+
+    then: 'the route of the sub resource is looked up whenever a plan is compiled'
+    compilations * router.GET('/v1/countries/CHE/cities') >> Optional.of(citiesRoute)
+    0 * router._
+
+    and: 'every entity is expanded with its own id'
+    bodies.every { expandsOf(it) == [['cities:CHE-cities'], ['cities:DEU-cities']] }
+
+    where:
+    planCacheSize || compilations
+    256           || 1
+    0             || 2
+  }
+
+  void "Expands known to the dispatcher are not routed"() {
+
+    given: 'a dispatcher that knows the cities only'
+    List<String> calls = []
+    ExpandDispatcher dispatcher = dispatcher(['cities']) { String expandName, ExpandContext context ->
+      calls << "${context.entityId}-${expandName}".toString()
+      return [new City(name: "${context.entityId}-${expandName}")]
+    }
+
+    and: 'the lakes are invoked reflectively'
+    LakesResource lakesResource = new LakesResource()
+    applicationContext.getBean(LakesResource) >> lakesResource
+    UriRouteMatch lakesRoute = subResourceRoute(LakesResource) { List<?> arguments ->
+      [new City(name: "${arguments[0]}-lakes")]
+    }
+
+    and:
+    ExpandedGetResponseFilter filter = filter([dispatcher], null, 4, 256)
+
+    when:
+    CollectionModel<Country> body = expand(filter, request('cities,lakes'), collection([new Country(id: 'CHE'), new Country(id: 'DEU')])).body() as CollectionModel<Country>
+
+    then: 'only the lakes are routed'
+    1 * router.GET('/v1/countries/CHE/lakes') >> Optional.of(lakesRoute)
+    0 * router._
+
+    and: 'the dispatcher is called once per entity'
+    calls == ['CHE-cities', 'DEU-cities']
+
+    and:
+    expandsOf(body) == [['cities:CHE-cities', 'lakes:CHE-lakes'], ['cities:DEU-cities', 'lakes:DEU-lakes']]
+  }
+
+  void "A batch expandable reads the sub resource of a collection with a single call"() {
+
+    given:
+    List<String> calls = []
+    BatchExpandable<String, City> batch = Mock()
+    ExpandDispatcher dispatcher = dispatcher(['cities'], batch) { String expandName, ExpandContext context ->
+      calls << "${context.entityId}-${expandName}".toString()
+      return []
+    }
+
+    and:
+    ExpandedGetResponseFilter filter = filter([dispatcher], null, 4, 256)
+
+    when:
+    CollectionModel<Country> body = expand(filter, request('cities'), collection([new Country(id: 'CHE'), new Country(id: 'DEU'), new Country(id: 'CHE')])).body() as CollectionModel<Country>
+
+    then: 'the batch expandable is called once with the distinct ids'
+    1 * batch.expandAllAsync(['CHE', 'DEU'], _) >> CompletableFuture.completedFuture([CHE: [new City(name: 'Bern')]])
+
+    and: 'the dispatcher is not called per entity'
+    calls.empty
+
+    and: 'parents without an entry are expanded with an empty list'
+    expandsOf(body) == [['cities:Bern'], ['cities:'], ['cities:Bern']]
+  }
+
+  void "A single entity is expanded through the dispatcher even if the sub resource is batch expandable"() {
+
+    given:
+    List<String> calls = []
+    BatchExpandable<String, City> batch = Mock()
+    ExpandDispatcher dispatcher = dispatcher(['cities'], batch) { String expandName, ExpandContext context ->
+      calls << "${context.entityId}-${expandName}".toString()
+      return [new City(name: 'Bern')]
+    }
+
+    and:
+    ExpandedGetResponseFilter filter = filter([dispatcher], null, 4, 256)
+
+    when:
+    EntityModel<Country> body = expand(filter, request('cities', [id: 'CHE']), new EntityModel<>(new Country(id: 'CHE'))).body() as EntityModel<Country>
+
+    then:
+    0 * batch._
+    calls == ['CHE-cities']
+    body.expands*.name == ['cities']
+  }
+
+  void "A batch expand that results in #outcome leaves the entities without the expand"() {
+
+    given:
+    BatchExpandable<String, City> batch = Stub()
+    batch.expandAllAsync(*_) >> {
+      switch (outcome) {
+        case 'an exception': throw new IllegalStateException('Database is down')
+        case 'a failed future': return CompletableFuture.failedFuture(new IllegalStateException('Database is down'))
+        default: return CompletableFuture.completedFuture(null)
+      }
+    }
+    ExpandDispatcher dispatcher = dispatcher(['cities'], batch) { String expandName, ExpandContext context -> [] }
+
+    and:
+    HateoasMetrics metrics = Mock()
+    ExpandedGetResponseFilter filter = filter([dispatcher], null, 4, 256, metrics)
+
+    when:
+    CollectionModel<Country> body = expand(filter, request('cities'), collection([new Country(id: 'CHE'), new Country(id: 'DEU')])).body() as CollectionModel<Country>
+
+    then: 'the expand is recorded as failed'
+    1 * metrics.recordExpand('/v1/countries', 'cities', _, true)
+
+    and: 'the response is still delivered'
+    expandsOf(body) == [[], []]
+
+    where:
+    outcome << ['null', 'an exception', 'a failed future']
+  }
+
+  void "An asynchronous batch expand is awaited"() {
+
+    given:
+    ExecutorService database = Executors.newSingleThreadExecutor()
+    BatchExpandable<String, City> batch = Stub()
+    batch.expandAllAsync(['CHE', 'DEU'], _) >> CompletableFuture.supplyAsync({
+      Thread.sleep(50)
+      [CHE: [new City(name: 'Bern')], DEU: [new City(name: 'Berlin')]]
+    } as Supplier, database)
+    ExpandDispatcher dispatcher = dispatcher(['cities'], batch) { String expandName, ExpandContext context -> [] }
+
+    and:
+    ExpandedGetResponseFilter filter = filter([dispatcher], null, 4, 256)
+
+    when:
+    CollectionModel<Country> body = expand(filter, request('cities'), collection([new Country(id: 'CHE'), new Country(id: 'DEU')])).body() as CollectionModel<Country>
+
+    then:
+    expandsOf(body) == [['cities:Bern'], ['cities:Berlin']]
+
+    cleanup:
+    database.shutdown()
+  }
+
+  void "A batch expand runs on the expand executor with the current request"() {
+
+    given:
+    Thread caller = Thread.currentThread()
+    List<Thread> threads = []
+    List<HttpRequest<?>> currentRequests = []
+    BatchExpandable<String, City> batch = Stub()
+    batch.expandAllAsync(*_) >> {
+      threads << Thread.currentThread()
+      currentRequests << ServerRequestContext.currentRequest().orElse(null)
+      CompletableFuture.completedFuture([CHE: [new City(name: 'Bern')]])
+    }
+    ExpandDispatcher dispatcher = dispatcher(['cities'], batch) { String expandName, ExpandContext context -> [] }
+
+    and:
+    ExecutorService executor = Executors.newFixedThreadPool(2)
+    ExpandedGetResponseFilter filter = filter([dispatcher], executor, 4, 256)
+    HttpRequest<?> request = request('cities')
+
+    when:
+    CollectionModel<Country> body = expand(filter, request, collection([new Country(id: 'CHE'), new Country(id: 'DEU')])).body() as CollectionModel<Country>
+
+    then:
+    threads.size() == 1
+    !threads[0].is(caller)
+    currentRequests[0].is(request)
+
+    and:
+    expandsOf(body) == [['cities:Bern'], ['cities:']]
+
+    cleanup:
+    executor.shutdown()
+  }
+
+  protected ExpandedGetResponseFilter filter(List<ExpandDispatcher> dispatchers, ExecutorService executor, int maxConcurrency, int planCacheSize, HateoasMetrics metrics = null) {
+    return new ExpandedGetResponseFilter(applicationContext, router, contractRegistry, dispatchers, executor, maxConcurrency, planCacheSize, metrics)
+  }
+
+  protected MutableHttpResponse<?> expand(ExpandedGetResponseFilter filter, HttpRequest<?> request, Object body) {
+    ServerFilterChain chain = Stub()
+    chain.proceed(_) >> { Flowable.just(HttpResponseFactory.INSTANCE.ok(body)) }
+    return Flowable.fromPublisher(filter.doFilter(request, chain)).blockingSingle()
+  }
+
+  protected HttpRequest<?> request(String expands, Map<String, Object> variables = [:]) {
+    MutableHttpRequest<?> request = HttpRequestFactory.INSTANCE.get('/v1/countries')
+    request.parameters.add(ExpandedGetResponseFilter.EXPAND_PARAM_NAME, expands)
+
+    ExecutableMethod method = Stub()
+    method.getDeclaringType() >> CountriesResource
+
+    UriRouteInfo routeInfo = Stub()
+    routeInfo.getUriMatchTemplate() >> UriMatchTemplate.of('/v1/countries')
+
+    UriRouteMatch routeMatch = Stub()
+    routeMatch.getExecutableMethod() >> method
+    routeMatch.getVariableValues() >> variables
+    routeMatch.getRouteInfo() >> routeInfo
+    routeMatch.getUri() >> '/v1/countries'
+
+    request.setAttribute(HttpAttributes.ROUTE_MATCH, routeMatch)
+    return request
+  }
+
+  protected ExpandDispatcher dispatcher(List<String> expandNames, BatchExpandable<?, ?> batch = null, Closure<?> expand) {
+    ExpandDispatcher dispatcher = Stub()
+    dispatcher.getResourceClass() >> CountriesResource
+    dispatcher.getExpandNames() >> (expandNames as Set)
+    dispatcher.findBatchExpandable(_) >> Optional.ofNullable(batch)
+    dispatcher.expand(_, _) >> { String expandName, ExpandContext context -> expand.call(expandName, context) }
+    return dispatcher
+  }
+
+  protected UriRouteMatch subResourceRoute(Class<?> resourceClass, Closure<?> invoke) {
+    ExecutableMethod method = Stub()
+    method.getDeclaringType() >> resourceClass
+    method.getArguments() >> ([Argument.of(String, 'country')] as Argument[])
+    method.invoke(*_) >> { args -> invoke.call(args.flatten().tail()) }
+
+    UriRouteMatch routeMatch = Stub()
+    routeMatch.getExecutableMethod() >> method
+    return routeMatch
+  }
+
+  /** @return per entity the expands as {@code name:city names}. */
+  protected static List<List<String>> expandsOf(CollectionModel<?> body) {
+    return body.data.collect { EntityModel<?> entity ->
+      entity.expands.collect { "${it.name}:${it.data*.name.join(',')}".toString() }
+    }
+  }
+
+  protected static CollectionModel<Country> collection(List<Country> countries) {
+    CollectionModel<Country> collection = new CollectionModel<>()
+    countries.each { collection.data << new EntityModel<>(it) }
+    return collection
+  }
+
+  private ResourceContractProvider contractProvider() {
+    ResourceContract contract = new ResourceContract(
+        general: new GeneralDetails(name: 'countries'),
+        subresources: ['cities', 'lakes', 'rivers'].collect { String name ->
+          new SubResource(name: name, href: "/v1/countries/{:entity}/${name}", expandable: name != 'rivers')
+        })
+
+    ResourceContractProvider provider = Stub()
+    provider.getResourceClass() >> CountriesResource
+    provider.getContract() >> contract
+    return provider
+  }
+
+  static class CountriesResource {
+  }
+
+  static class CitiesResource {
+  }
+
+  static class LakesResource {
+  }
+
+  static class Country implements ResourceModel, Identifiable<String> {
+    String id
+  }
+
+  static class City implements ResourceModel {
+    String name
+  }
+}
@@ -0,0 +1,148 @@
+package ch.silviowangler.rest.micronaut
+
+import ch.silviowangler.rest.contract.model.v1.GeneralDetails
+import ch.silviowangler.rest.contract.model.v1.ResourceContract
+import ch.silviowangler.rest.contract.model.v1.SubResource
+import ch.silviowangler.rest.model.EntityModel
+import ch.silviowangler.rest.model.Identifiable
+import ch.silviowangler.rest.model.ResourceLink
+import ch.silviowangler.rest.model.ResourceModel
+import io.micronaut.context.ApplicationContext
+import io.micronaut.http.HttpAttributes
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpRequestFactory
+import io.micronaut.http.HttpResponseFactory
+import io.micronaut.http.MediaType
+import io.micronaut.http.MutableHttpRequest
+import io.micronaut.http.MutableHttpResponse
+import io.micronaut.http.filter.ServerFilterChain
+import io.micronaut.http.uri.UriMatchTemplate
+import io.micronaut.inject.ExecutableMethod
+import io.micronaut.web.router.Router
+import io.micronaut.web.router.UriRouteInfo
+import io.micronaut.web.router.UriRouteMatch
+import io.reactivex.Flowable
+import jdk.jfr.consumer.RecordedEvent
+import jdk.jfr.consumer.RecordingStream
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.time.Duration
+import java.util.concurrent.CopyOnWriteArrayList
+
+class FlightRecorderEventsSpec extends Specification {
+
+  RecordingStream recording = new RecordingStream()
+  List<RecordedEvent> events = new CopyOnWriteArrayList<>()
+
+  void setup() {
+    recording.enable('ch.silviowangler.rest.HateoasWrapping')
+    recording.enable('ch.silviowangler.rest.LinkProvider')
+    recording.enable('ch.silviowangler.rest.Expand')
+    recording.onEvent { events << it }
+    recording.startAsync()
+  }
+
+  void cleanup() {
+    recording.close()
+  }
+
+  void "Wrapping an entity and calling its link providers emits events"() {
+
+    given:
+    LinkProvider provider = Stub()
+    provider.getRouteTemplates() >> ([] as Set)
+    provider.getResourceClasses() >> ([] as Set)
+    provider.getLinkCacheTtl() >> Duration.ZERO
+    provider.getLinks(_, _) >> [ResourceLink.relLink('edit', '/v1/countries/CHE/edit')]
+
+    and:
+    HateoasResponseFilter filter = new HateoasResponseFilter([provider], "")
+    ServerFilterChain chain = Stub()
+    chain.proceed(_) >> { Flowable.just(entityResponse(new Country(id: 'CHE'))) }
+
+    when:
+    Flowable.fromPublisher(filter.doFilter(HttpRequestFactory.INSTANCE.get('/v1/countries/CHE'), chain)).blockingSingle()
+
+    then:
+    new PollingConditions(timeout: 10).eventually {
+      RecordedEvent wrapping = events.find { it.eventType.name == 'ch.silviowangler.rest.HateoasWrapping' }
+      wrapping.getString('route') == '/v1/countries/{id}'
+      wrapping.getString('body') == Country.name
+
+      RecordedEvent links = events.find { it.eventType.name == 'ch.silviowangler.rest.LinkProvider' }
+      links.getString('route') == '/v1/countries/{id}'
+      links.getInt('entityCount') == 1
+    }
+  }
+
+  void "Expanding a sub resource emits an event"() {
+
+    given:
+    ExpandDispatcher dispatcher = Stub()
+    dispatcher.getResourceClass() >> CountriesResource
+    dispatcher.getExpandNames() >> (['cities'] as Set)
+    dispatcher.expand('cities', _) >> [new Country(id: 'ZRH')]
+
+    and:
+    ResourceContractProvider contractProvider = Stub()
+    contractProvider.getResourceClass() >> CountriesResource
+    contractProvider.getContract() >> new ResourceContract(
+        general: new GeneralDetails(name: 'countries'),
+        subresources: [new SubResource(name: 'cities', href: '/v1/countries/{:entity}/cities', expandable: true)])
+
+    and:
+    ExpandedGetResponseFilter filter = new ExpandedGetResponseFilter(Stub(ApplicationContext), Stub(Router), new ContractRegistry([contractProvider], null), [dispatcher], null, 4, 256)
+    ServerFilterChain chain = Stub()
+    chain.proceed(_) >> { Flowable.just(HttpResponseFactory.INSTANCE.ok(new EntityModel<>(new Country(id: 'CHE')))) }
+
+    when:
+    Flowable.fromPublisher(filter.doFilter(expandRequest('cities'), chain)).blockingSingle()
+
+    then:
+    new PollingConditions(timeout: 10).eventually {
+      RecordedEvent expand = events.find { it.eventType.name == 'ch.silviowangler.rest.Expand' }
+      expand.getString('route') == '/v1/countries/{id}'
+      expand.getString('subResource') == 'cities'
+      expand.getInt('entityCount') == 1
+      !expand.getBoolean('failed')
+    }
+  }
+
+  private HttpRequest<?> expandRequest(String expands) {
+    MutableHttpRequest<?> request = HttpRequestFactory.INSTANCE.get('/v1/countries/CHE')
+    request.parameters.add(ExpandedGetResponseFilter.EXPAND_PARAM_NAME, expands)
+
+    ExecutableMethod method = Stub()
+    method.getDeclaringType() >> CountriesResource
+    UriRouteInfo routeInfo = Stub()
+    routeInfo.getUriMatchTemplate() >> UriMatchTemplate.of('/v1/countries/{id}')
+    UriRouteMatch routeMatch = Stub()
+    routeMatch.getExecutableMethod() >> method
+    routeMatch.getVariableValues() >> [id: 'CHE']
+    routeMatch.getRouteInfo() >> routeInfo
+
+    request.setAttribute(HttpAttributes.ROUTE_MATCH, routeMatch)
+    return request
+  }
+
+  private MutableHttpResponse<?> entityResponse(ResourceModel model) {
+    MutableHttpResponse<?> response = HttpResponseFactory.INSTANCE.ok()
+    UriRouteMatch uriRouteMatch = Stub()
+    UriRouteInfo routeInfo = Stub()
+    uriRouteMatch.getUri() >> "/v1/countries/${(model as Identifiable).id}"
+    uriRouteMatch.getRouteInfo() >> routeInfo
+    routeInfo.getProduces() >> [MediaType.APPLICATION_JSON_TYPE]
+    routeInfo.getUriMatchTemplate() >> UriMatchTemplate.of('/v1/countries/{id}')
+    response.attributes.put(HttpAttributes.ROUTE_MATCH.toString(), uriRouteMatch)
+    response.body(model)
+    return response
+  }
+
+  static class CountriesResource {
+  }
+
+  static class Country implements ResourceModel, Identifiable<String> {
+    String id
+  }
+}
@@ -1,9 +1,16 @@
 package ch.silviowangler.rest.micronaut
 
+import ch.silviowangler.rest.model.CollectionModel
+import ch.silviowangler.rest.model.EntityModel
+import ch.silviowangler.rest.model.Identifiable
 import ch.silviowangler.rest.model.ResourceLink
+import ch.silviowangler.rest.model.ResourceModel
 import ch.silviowangler.rest.model.pagination.DefaultPage
 import ch.silviowangler.rest.model.pagination.DefaultPageable
 import ch.silviowangler.rest.model.pagination.Slice
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import io.micronaut.context.ApplicationContext
+import io.micronaut.core.type.Argument
 import io.micronaut.http.HttpAttributes
 import io.micronaut.http.HttpRequest
 import io.micronaut.http.HttpRequestFactory
@@ -11,13 +18,23 @@ import io.micronaut.http.HttpResponseFactory
 import io.micronaut.http.MediaType
 import io.micronaut.http.MutableHttpResponse
 import io.micronaut.http.filter.ServerFilterChain
+import io.micronaut.http.uri.UriMatchTemplate
+import io.micronaut.inject.qualifiers.Qualifiers
+import io.micronaut.serde.ObjectMapper
 import io.micronaut.web.router.RouteInfo
 import io.micronaut.web.router.UriRouteInfo
 import io.micronaut.web.router.UriRouteMatch
 import io.reactivex.Flowable
+import org.reactivestreams.Publisher
 import spock.lang.Specification
 import spock.lang.Subject
 
+import java.nio.charset.StandardCharsets
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
 class HateoasResponseFilterSpec extends Specification {
 
   @Subject
@@ -123,4 +140,351 @@ class HateoasResponseFilterSpec extends Specification {
     then: "ensure self link parameters exist"
     enrichedLinks.find { it["rel"] == "self" }["href"].toString() == expectedPageLink
   }
+
+  void "Results of asynchronous delegates are resolved before they are wrapped"() {
+
+    given: "a request"
+    HttpRequest<?> request = HttpRequestFactory.INSTANCE.get("/api/endpoint")
+
+    and: "a response of a delegate returning a CompletionStage"
+    MutableHttpResponse<?> response = HttpResponseFactory.INSTANCE.ok()
+    Slice model = new DefaultPage([], new DefaultPageable(0, 10), 10)
+    UriRouteMatch uriRouteMatch = Mock()
+    UriRouteInfo routeInfo = Mock()
+    _ * uriRouteMatch.getUri() >> "/endpoint"
+    _ * uriRouteMatch.getRouteInfo() >> routeInfo
+    _ * routeInfo.getProduces() >> [MediaType.APPLICATION_JSON_TYPE]
+    response.attributes.put(HttpAttributes.ROUTE_MATCH.toString(), uriRouteMatch)
+    response.body(CompletableFuture.completedFuture(model))
+
+    and:
+    ServerFilterChain chain = Mock()
+    _ * chain.proceed(_) >> { Flowable.just(response) }
+
+    when:
+    MutableHttpResponse<?> filteredResponse = Flowable.fromPublisher(hateoasResponseFilter.doFilter(request, chain)).blockingSingle()
+
+    then:
+    filteredResponse.body() instanceof CollectionModel
+    (filteredResponse.body() as CollectionModel).links.find { it.rel == "first" }.href.toString() == "/api/endpoint?page=0&limit=10"
+  }
+
+  void "Elements of reactive delegates are collected before they are wrapped"() {
+
+    given: "a request"
+    HttpRequest<?> request = HttpRequestFactory.INSTANCE.get("/api/endpoint")
+
+    and: "a response of a delegate returning a Publisher"
+    MutableHttpResponse<?> response = HttpResponseFactory.INSTANCE.ok()
+    UriRouteMatch uriRouteMatch = Mock()
+    UriRouteInfo routeInfo = Mock()
+    _ * uriRouteMatch.getUri() >> "/endpoint"
+    _ * uriRouteMatch.getRouteInfo() >> routeInfo
+    _ * routeInfo.getProduces() >> [MediaType.APPLICATION_JSON_TYPE]
+    response.attributes.put(HttpAttributes.ROUTE_MATCH.toString(), uriRouteMatch)
+    response.body(Flowable.just(new ResourceModel() {}, new ResourceModel() {}))
+
+    and:
+    ServerFilterChain chain = Mock()
+    _ * chain.proceed(_) >> { Flowable.just(response) }
+
+    when:
+    MutableHttpResponse<?> filteredResponse = Flowable.fromPublisher(hateoasResponseFilter.doFilter(request, chain)).blockingSingle()
+
+    then:
+    filteredResponse.body() instanceof CollectionModel
+    (filteredResponse.body() as CollectionModel).data.size() == 2
+  }
+
+  void "Link providers are only called for the routes they apply to"() {
+
+    given:
+    LinkProvider unrestricted = Mock()
+    _ * unrestricted.getRouteTemplates() >> [] as Set
+    _ * unrestricted.getResourceClasses() >> [] as Set
+    _ * unrestricted.getLinkCacheTtl() >> Duration.ZERO
+
+    LinkProvider otherRoute = Mock()
+    _ * otherRoute.getRouteTemplates() >> ['/other/{id}'] as Set
+    _ * otherRoute.getResourceClasses() >> [] as Set
+    _ * otherRoute.getLinkCacheTtl() >> Duration.ZERO
+
+    and:
+    HateoasResponseFilter filter = new HateoasResponseFilter([unrestricted, otherRoute], "")
+    ServerFilterChain chain = Mock()
+    _ * chain.proceed(_) >> { Flowable.just(entityResponse('/endpoint/{id}', new Country(id: 'CHE'))) }
+
+    when:
+    MutableHttpResponse<?> first = Flowable.fromPublisher(filter.doFilter(HttpRequestFactory.INSTANCE.get("/endpoint/CHE"), chain)).blockingSingle()
+    Flowable.fromPublisher(filter.doFilter(HttpRequestFactory.INSTANCE.get("/endpoint/CHE"), chain)).blockingSingle()
+
+    then:
+    2 * unrestricted.getLinks(_, _) >> [ResourceLink.relLink('edit', '/endpoint/CHE/edit')]
+    0 * otherRoute.getLinks(_, _)
+
+    and:
+    (first.body() as EntityModel).links*.rel == ['edit', 'self']
+  }
+
+  void "Links of providers with a TTL are cached per route and entity"() {
+
+    given:
+    LinkProvider cached = Mock()
+    _ * cached.getRouteTemplates() >> [] as Set
+    _ * cached.getResourceClasses() >> [] as Set
+    _ * cached.getLinkCacheTtl() >> Duration.ofMinutes(5)
+
+    and:
+    HateoasResponseFilter filter = new HateoasResponseFilter([cached], "/api")
+    ServerFilterChain chain = Mock()
+    _ * chain.proceed({ it.path.endsWith('CHE') }) >> { Flowable.just(entityResponse('/endpoint/{id}', new Country(id: 'CHE'))) }
+    _ * chain.proceed({ it.path.endsWith('DEU') }) >> { Flowable.just(entityResponse('/endpoint/{id}', new Country(id: 'DEU'))) }
+
+    when:
+    MutableHttpResponse<?> first = Flowable.fromPublisher(filter.doFilter(HttpRequestFactory.INSTANCE.get("/endpoint/CHE"), chain)).blockingSingle()
+    MutableHttpResponse<?> second = Flowable.fromPublisher(filter.doFilter(HttpRequestFactory.INSTANCE.get("/endpoint/CHE"), chain)).blockingSingle()
+    Flowable.fromPublisher(filter.doFilter(HttpRequestFactory.INSTANCE.get("/endpoint/DEU"), chain)).blockingSingle()
+
+    then: 'the provider is called once per entity'
+    2 * cached.getLinks(_, _) >> { routeMatch, Country model -> [ResourceLink.relLink('edit', "/endpoint/${model.id}/edit")] }
+
+    and: 'the base URL is part of the cached links'
+    (first.body() as EntityModel).links.find { it.rel == 'edit' }.href.toString() == '/api/endpoint/CHE/edit'
+    (second.body() as EntityModel).links.find { it.rel == 'edit' }.href.toString() == '/api/endpoint/CHE/edit'
+  }
+
+  void "Cached links of nested routes are not shared between parents"() {
+
+    given:
+    LinkProvider cached = Mock()
+    _ * cached.getRouteTemplates() >> [] as Set
+    _ * cached.getResourceClasses() >> [] as Set
+    _ * cached.getLinkCacheTtl() >> Duration.ofMinutes(5)
+
+    and: 'a city with the same id in two countries'
+    HateoasResponseFilter filter = new HateoasResponseFilter([cached], "/api")
+    ServerFilterChain chain = Mock()
+    _ * chain.proceed(_) >> { HttpRequest<?> request ->
+      String country = request.path.split('/')[2]
+      Flowable.just(entityResponse('/countries/{country}/cities/{id}', new Country(id: '1'), [country: country, id: '1']))
+    }
+
+    when:
+    List<MutableHttpResponse<?>> responses = ['CHE', 'DEU', 'CHE'].collect { String country ->
+      Flowable.fromPublisher(filter.doFilter(HttpRequestFactory.INSTANCE.get("/countries/${country}/cities/1"), chain)).blockingSingle()
+    }
+
+    then: 'the provider is called once per country'
+    2 * cached.getLinks(_, _) >> { UriRouteMatch routeMatch, Country model ->
+      [ResourceLink.relLink('edit', "/countries/${routeMatch.variableValues.country}/cities/${model.id}/edit")]
+    }
+
+    and:
+    responses.collect { (it.body() as EntityModel).links.find { it.rel == 'edit' }.href.toString() } == [
+        '/api/countries/CHE/cities/1/edit',
+        '/api/countries/DEU/cities/1/edit',
+        '/api/countries/CHE/cities/1/edit'
+    ]
+  }
+
+  void "Batch link providers are called once per collection"() {
+
+    given:
+    BatchLinkProvider batch = Mock()
+    _ * batch.getRouteTemplates() >> [] as Set
+    _ * batch.getResourceClasses() >> [] as Set
+    _ * batch.getLinkCacheTtl() >> Duration.ZERO
+
+    LinkProvider single = Mock()
+    _ * single.getRouteTemplates() >> [] as Set
+    _ * single.getResourceClasses() >> [] as Set
+    _ * single.getLinkCacheTtl() >> Duration.ZERO
+
+    and: 'the providers run concurrently'
+    ExecutorService executor = Executors.newFixedThreadPool(2)
+    HateoasResponseFilter filter = new HateoasResponseFilter([batch, single], "", 0, executor, 2)
+
+    and:
+    List<Country> countries = [new Country(id: 'CHE'), new Country(id: 'DEU'), new Country(id: 'AUT')]
+    MutableHttpResponse<?> response = HttpResponseFactory.INSTANCE.ok()
+    UriRouteMatch uriRouteMatch = Mock()
+    UriRouteInfo routeInfo = Mock()
+    _ * uriRouteMatch.getUri() >> "/endpoint"
+    _ * uriRouteMatch.getRouteInfo() >> routeInfo
+    _ * routeInfo.getProduces() >> [MediaType.APPLICATION_JSON_TYPE]
+    response.attributes.put(HttpAttributes.ROUTE_MATCH.toString(), uriRouteMatch)
+    response.body(countries)
+
+    and:
+    ServerFilterChain chain = Mock()
+    _ * chain.proceed(_) >> { Flowable.just(response) }
+
+    when:
+    MutableHttpResponse<?> filteredResponse = Flowable.fromPublisher(filter.doFilter(HttpRequestFactory.INSTANCE.get("/endpoint"), chain)).blockingSingle()
+
+    then:
+    1 * batch.getLinks(_, countries) >> { routeMatch, List<Country> models -> models.collect { [ResourceLink.relLink('edit', "/endpoint/${it.id}/edit")] } }
+    3 * single.getLinks(_, _) >> { routeMatch, Country model -> [ResourceLink.relLink('audit', "/audit/${model.id}")] }
+
+    and: 'the links are attached to their entities in the order of the providers'
+    with(filteredResponse.body() as CollectionModel) {
+      data.collect { it.links*.rel } == [['edit', 'audit', 'self']] * 3
+      data.collect { it.links.collect { it.href.toString() } } == [
+        ['/endpoint/CHE/edit', '/audit/CHE', '/endpoint/CHE'],
+        ['/endpoint/DEU/edit', '/audit/DEU', '/endpoint/DEU'],
+        ['/endpoint/AUT/edit', '/audit/AUT', '/endpoint/AUT']
+      ]
+    }
+
+    cleanup:
+    executor.shutdown()
+  }
+
+  void "Large collections are written as a JSON stream in chunks"() {
+
+    given: 'a writer that streams collections of at least two entities in chunks of two'
+    StreamingCollectionWriter writer = new StreamingCollectionWriter(jsonStub(), 2, 2)
+    HateoasResponseFilter filter = new HateoasResponseFilter([], "/api", 0, null, 1, writer)
+
+    and:
+    ServerFilterChain chain = Mock()
+    _ * chain.proceed(_) >> { Flowable.just(collectionResponse(body)) }
+
+    when:
+    MutableHttpResponse<?> filteredResponse = Flowable.fromPublisher(filter.doFilter(HttpRequestFactory.INSTANCE.get("/api/endpoint"), chain)).blockingSingle()
+    List<byte[]> chunks = Flowable.fromPublisher(filteredResponse.body() as Publisher<byte[]>).toList().blockingGet()
+
+    then: 'the envelope start, two chunks of entities and the envelope end are written'
+    chunks.collect { new String(it, StandardCharsets.UTF_8) } == [
+      '{"data":[',
+      '{"id":"CHE","self":"/api/endpoint/CHE"},{"id":"DEU","self":"/api/endpoint/DEU"}',
+      ',{"id":"AUT","self":"/api/endpoint/AUT"}',
+      '],"links":["/api/endpoint"]}'
+    ]
+
+    where:
+    body << [
+      [new Country(id: 'CHE'), new Country(id: 'DEU'), new Country(id: 'AUT')],
+      Flowable.just(new Country(id: 'CHE'), new Country(id: 'DEU'), new Country(id: 'AUT'))
+    ]
+  }
+
+  void "Collections are not streamed if they are small or sub resources are expanded"() {
+
+    given:
+    StreamingCollectionWriter writer = new StreamingCollectionWriter(jsonStub(), 2, 2)
+    HateoasResponseFilter filter = new HateoasResponseFilter([], "/api", 0, null, 1, writer)
+
+    and:
+    HttpRequest<?> request = HttpRequestFactory.INSTANCE.get("/api/endpoint")
+    if (expands) {
+      request.parameters.add("expands", "*")
+    }
+
+    and:
+    ServerFilterChain chain = Mock()
+    _ * chain.proceed(_) >> { Flowable.just(collectionResponse(body)) }
+
+    when:
+    MutableHttpResponse<?> filteredResponse = Flowable.fromPublisher(filter.doFilter(request, chain)).blockingSingle()
+
+    then:
+    (filteredResponse.body() as CollectionModel).data*.data*.id == body*.id
+
+    where:
+    body                                                   | expands
+    [new Country(id: 'CHE')]                               | false
+    [new Country(id: 'CHE'), new Country(id: 'DEU')]       | true
+  }
+
+  void "Wrapping and link providers are recorded per route template"() {
+
+    given:
+    LinkProvider provider = Stub()
+    provider.getRouteTemplates() >> ([] as Set)
+    provider.getResourceClasses() >> ([] as Set)
+    provider.getLinkCacheTtl() >> Duration.ZERO
+    provider.getLinks(_, _) >> []
+
+    and:
+    SimpleMeterRegistry registry = new SimpleMeterRegistry()
+    HateoasResponseFilter filter = new HateoasResponseFilter([provider], "", 0, null, 1, null, new MicrometerHateoasMetrics(registry))
+    ServerFilterChain chain = Mock()
+    _ * chain.proceed({ it.path.endsWith('CHE') }) >> { Flowable.just(entityResponse('/endpoint/{id}', new Country(id: 'CHE'))) }
+    _ * chain.proceed({ it.path.endsWith('DEU') }) >> { Flowable.just(entityResponse('/endpoint/{id}', new Country(id: 'DEU'))) }
+
+    when:
+    Flowable.fromPublisher(filter.doFilter(HttpRequestFactory.INSTANCE.get("/endpoint/CHE"), chain)).blockingSingle()
+    Flowable.fromPublisher(filter.doFilter(HttpRequestFactory.INSTANCE.get("/endpoint/DEU"), chain)).blockingSingle()
+
+    then: 'both requests share the meters of their route'
+    registry.get('restapi.hateoas.wrapping').tag('route', '/endpoint/{id}').timer().count() == 2
+    registry.get('restapi.hateoas.link.provider').tag('route', '/endpoint/{id}').timer().count() == 2
+    registry.find('restapi.hateoas.wrapping').timers().size() == 1
+  }
+
+  void "The executor of the link providers does not depend on the executor of the expands"() {
+
+    given:
+    ApplicationContext context = ApplicationContext.run([
+        'restapi.hateoas.expands.concurrent': String.valueOf(expandsConcurrent),
+        'restapi.hateoas.links.concurrent'  : String.valueOf(linksConcurrent)
+    ])
+
+    expect:
+    context.containsBean(ExecutorService, Qualifiers.byName(LinkExecutorFactory.EXECUTOR_NAME)) == linksConcurrent
+    context.containsBean(ExecutorService, Qualifiers.byName(ExpandExecutorFactory.EXECUTOR_NAME)) == expandsConcurrent
+
+    cleanup:
+    context.close()
+
+    where:
+    expandsConcurrent | linksConcurrent
+    true              | false
+    false             | true
+    true              | true
+  }
+
+  private MutableHttpResponse<?> collectionResponse(Object body) {
+    MutableHttpResponse<?> response = HttpResponseFactory.INSTANCE.ok()
+    UriRouteMatch uriRouteMatch = Mock()
+    UriRouteInfo routeInfo = Mock()
+    _ * uriRouteMatch.getUri() >> "/endpoint"
+    _ * uriRouteMatch.getRouteInfo() >> routeInfo
+    _ * routeInfo.getProduces() >> [MediaType.APPLICATION_JSON_TYPE]
+    response.attributes.put(HttpAttributes.ROUTE_MATCH.toString(), uriRouteMatch)
+    response.body(body)
+    return response
+  }
+
+  /** Writes entities as their id and self link and links as their hrefs. */
+  private ObjectMapper jsonStub() {
+    ObjectMapper objectMapper = Stub()
+    objectMapper.writeValueAsBytes(_) >> { Object value ->
+      EntityModel entity = value as EntityModel
+      "{\"id\":\"${entity.data.id}\",\"self\":\"${entity.links.find { it.rel == 'self' }.href}\"}".bytes
+    }
+    objectMapper.writeValueAsBytes(_, _) >> { Argument type, List<ResourceLink> links ->
+      ('[' + links.collect { "\"${it.href}\"" }.join(',') + ']').bytes
+    }
+    return objectMapper
+  }
+
+  private MutableHttpResponse<?> entityResponse(String template, ResourceModel model, Map<String, Object> variables = [:]) {
+    MutableHttpResponse<?> response = HttpResponseFactory.INSTANCE.ok()
+    UriRouteMatch uriRouteMatch = Mock()
+    UriRouteInfo routeInfo = Mock()
+    _ * uriRouteMatch.getUri() >> "/endpoint/${(model as Identifiable).id}"
+    _ * uriRouteMatch.getVariableValues() >> variables
+    _ * uriRouteMatch.getRouteInfo() >> routeInfo
+    _ * routeInfo.getProduces() >> [MediaType.APPLICATION_JSON_TYPE]
+    _ * routeInfo.getUriMatchTemplate() >> UriMatchTemplate.of(template)
+    response.attributes.put(HttpAttributes.ROUTE_MATCH.toString(), uriRouteMatch)
+    response.body(model)
+    return response
+  }
+
+  static class Country implements ResourceModel, Identifiable<String> {
+    String id
+  }
 }
@@ -0,0 +1,57 @@
+package ch.silviowangler.rest.micronaut
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import spock.lang.Specification
+import spock.lang.Subject
+
+class MicrometerHateoasMetricsSpec extends Specification {
+
+  SimpleMeterRegistry registry = new SimpleMeterRegistry()
+
+  @Subject
+  MicrometerHateoasMetrics metrics = new MicrometerHateoasMetrics(registry)
+
+  void "Requested and skipped expands are counted per route"() {
+
+    when:
+    metrics.recordExpandsRequested('/v1/countries/{id}', 3, 1)
+    metrics.recordExpandsRequested('/v1/countries/{id}', 2, 0)
+
+    then:
+    registry.get('restapi.hateoas.expands.requested').tag('route', '/v1/countries/{id}').counter().count() == 5
+    registry.get('restapi.hateoas.expands.skipped').tag('route', '/v1/countries/{id}').counter().count() == 1
+  }
+
+  void "Expands are timed per sub resource and failures are counted"() {
+
+    when:
+    metrics.recordExpand('/v1/countries/{id}', 'cities', 1_000_000, false)
+    metrics.recordExpand('/v1/countries/{id}', 'cities', 3_000_000, true)
+
+    then:
+    registry.get('restapi.hateoas.expand').tags('route', '/v1/countries/{id}', 'expand', 'cities').timer().count() == 2
+    registry.get('restapi.hateoas.expands.failed').tags('route', '/v1/countries/{id}', 'expand', 'cities').counter().count() == 1
+  }
+
+  void "The number of entities per collection is recorded"() {
+
+    when:
+    metrics.recordCollectionSize('/v1/countries', 10)
+    metrics.recordCollectionSize('/v1/countries', 30)
+
+    then:
+    registry.get('restapi.hateoas.collection.size').summary().mean() == 20
+  }
+
+  void "Response cache hits and misses are counted per route"() {
+
+    when:
+    metrics.recordResponseCache('/v1/countries', false)
+    metrics.recordResponseCache('/v1/countries', true)
+    metrics.recordResponseCache('/v1/countries', true)
+
+    then:
+    registry.get('restapi.cache.requests').tags('route', '/v1/countries', 'result', 'hit').counter().count() == 2
+    registry.get('restapi.cache.requests').tags('route', '/v1/countries', 'result', 'miss').counter().count() == 1
+  }
+}
@@ -0,0 +1,83 @@
+package ch.silviowangler.rest.micronaut
+
+import io.micronaut.http.MediaType
+import io.micronaut.serde.ObjectMapper
+import io.reactivex.Flowable
+import org.reactivestreams.Publisher
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.nio.charset.StandardCharsets
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+class RepresentationWriterSpec extends Specification {
+
+  @AutoCleanup('shutdown')
+  ExecutorService executor = Executors.newSingleThreadExecutor()
+
+  ObjectMapper objectMapper = Stub() {
+    writeValueAsBytes(_) >> { Object row -> "{\"id\":\"${(row as Map).id}\"}".bytes }
+  }
+
+  RepresentationWriter writer = new RepresentationWriter(objectMapper, executor, 2)
+
+  void "Rows are written as CSV with a header line"() {
+
+    given:
+    List<Map> rows = [[id: 'CHE', name: 'Switzerland'], [id: 'DEU', name: 'Germany, "Deutschland"'], [id: 'AUT', name: null]]
+
+    when:
+    List<String> chunks = chunks(writer.csv(rows.iterator(), ['id', 'name'], { Map row -> [row.id, row.name] as Object[] }, MediaType.of('text/csv')).body())
+
+    then: 'the header and two chunks of rows are written'
+    chunks == [
+      'id,name\r\n',
+      'CHE,Switzerland\r\nDEU,"Germany, ""Deutschland"""\r\n',
+      'AUT,\r\n'
+    ]
+  }
+
+  void "Rows of a publisher are written as NDJSON"() {
+
+    when:
+    List<String> chunks = chunks(writer.ndjson(Flowable.just([id: 'CHE'], [id: 'DEU'], [id: 'AUT']), MediaType.of('application/x-ndjson')).body())
+
+    then:
+    chunks.join() == '{"id":"CHE"}\n{"id":"DEU"}\n{"id":"AUT"}\n'
+  }
+
+  void "Closeable iterators are closed once all rows are written"() {
+
+    given:
+    CloseableIterator rows = new CloseableIterator(['CHE', 'DEU'].collect { [id: it] }.iterator())
+
+    when:
+    chunks(writer.ndjson(rows, MediaType.of('application/x-ndjson')).body())
+
+    then: 'the iterator is closed after the last chunk was emitted'
+    new PollingConditions(timeout: 1).eventually {
+      assert rows.closed
+    }
+  }
+
+  private static List<String> chunks(Publisher<byte[]> body) {
+    Flowable.fromPublisher(body).map { new String(it, StandardCharsets.UTF_8) }.toList().blockingGet()
+  }
+
+  static class CloseableIterator implements Iterator<Map>, AutoCloseable {
+    @Delegate
+    Iterator<Map> rows
+    boolean closed
+
+    CloseableIterator(Iterator<Map> rows) {
+      this.rows = rows
+    }
+
+    @Override
+    void close() {
+      closed = true
+    }
+  }
+}
@@ -0,0 +1,337 @@
+package ch.silviowangler.rest.micronaut
+
+import io.micronaut.http.HttpAttributes
+import io.micronaut.http.HttpHeaders
+import io.micronaut.http.HttpMethod
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpRequestFactory
+import io.micronaut.http.HttpResponseFactory
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.MediaType
+import io.micronaut.http.MutableHttpResponse
+import io.micronaut.http.filter.HttpServerFilter
+import io.micronaut.http.filter.ServerFilterChain
+import io.micronaut.http.uri.UriMatchTemplate
+import io.micronaut.serde.ObjectMapper
+import io.micronaut.web.router.UriRouteInfo
+import io.micronaut.web.router.UriRouteMatch
+import io.reactivex.Flowable
+import spock.lang.Specification
+
+import java.security.Principal
+import java.time.Duration
+
+class ResponseCacheSpec extends Specification {
+
+  ResponseCache responseCache = new ResponseCache([resource('lakes', '/v1/lakes', Duration.ZERO), resource('countries', '/v1/countries', Duration.ofHours(1))], 100, Duration.ofMinutes(1))
+
+  void "The key does not depend on the order of the query parameters"() {
+
+    given:
+    HttpRequest<?> first = HttpRequestFactory.INSTANCE.get("/v1/countries?expands=cities&limit=10&page=2")
+    HttpRequest<?> second = HttpRequestFactory.INSTANCE.get("/v1/countries?page=2&limit=10&expands=cities")
+    HttpRequest<?> otherPage = HttpRequestFactory.INSTANCE.get("/v1/countries?page=3&limit=10&expands=cities")
+    HttpRequest<?> otherLanguage = HttpRequestFactory.INSTANCE.get("/v1/countries?expands=cities&limit=10&page=2")
+    otherLanguage.header(HttpHeaders.ACCEPT_LANGUAGE, 'de-CH')
+
+    expect:
+    responseCache.key(first) == responseCache.key(second)
+    responseCache.key(first) != responseCache.key(otherPage)
+    responseCache.key(first) != responseCache.key(otherLanguage)
+  }
+
+  void "The TTL of the most specific resource applies"() {
+
+    expect:
+    responseCache.ttl(path) == ttl
+
+    where:
+    path                      | ttl
+    '/v1/countries'           | Duration.ofHours(1)
+    '/v1/countries/CHE/cities' | Duration.ofHours(1)
+    '/v1/countries-archive'   | Duration.ofMinutes(1)
+    '/v1/lakes/1'             | Duration.ZERO
+  }
+
+  void "Resources with a TTL of zero are not cached"() {
+
+    when:
+    put(responseCache, 'lakes', '/v1/lakes', '[]'.bytes)
+
+    then:
+    responseCache.size() == 0
+  }
+
+  void "A modification invalidates the collection and the parents of the resource"() {
+
+    given:
+    ['/v1/countries', '/v1/countries/CHE', '/v1/countries/CHE/cities', '/v1/countries/CHE/cities/1', '/v1/countries/DEU', '/v1/cities'].each {
+      put(responseCache, it, it, '{}'.bytes)
+    }
+
+    when:
+    responseCache.invalidate(method, path)
+
+    then:
+    ['/v1/countries', '/v1/countries/CHE', '/v1/countries/CHE/cities', '/v1/countries/CHE/cities/1', '/v1/countries/DEU', '/v1/cities'].findAll {
+      responseCache.get(it).isPresent()
+    } == remaining
+
+    where:
+    method            | path                        | remaining
+    HttpMethod.POST   | '/v1/countries/CHE/cities'  | ['/v1/countries/DEU', '/v1/cities']
+    HttpMethod.PUT    | '/v1/countries/CHE/cities/1' | ['/v1/countries/DEU', '/v1/cities']
+    HttpMethod.DELETE | '/v1/countries/DEU'         | ['/v1/cities']
+  }
+
+  void "The least recently used responses are evicted"() {
+
+    given:
+    ResponseCache cache = new ResponseCache([], 2, Duration.ofMinutes(1))
+
+    when:
+    put(cache, 'a', '/a', 'a'.bytes)
+    put(cache, 'b', '/b', 'b'.bytes)
+    cache.get('a')
+    put(cache, 'c', '/c', 'c'.bytes)
+
+    then:
+    cache.size() == 2
+    cache.get('a').isPresent()
+    !cache.get('b').isPresent()
+    cache.evictionCount == 1
+  }
+
+  void "The filter serves repeated GET requests from the cache"() {
+
+    given:
+    ObjectMapper objectMapper = Stub()
+    objectMapper.writeValueAsBytes(_) >> '{"id":"CHE"}'.bytes
+    List<HttpServerFilter> filters = cacheFilters(objectMapper)
+
+    and:
+    ServerFilterChain chain = Mock()
+
+    when:
+    MutableHttpResponse<?> first = send(filters, HttpRequestFactory.INSTANCE.get('/v1/countries/CHE'), chain)
+    MutableHttpResponse<?> second = send(filters, HttpRequestFactory.INSTANCE.get('/v1/countries/CHE'), chain)
+
+    then:
+    1 * chain.proceed(_) >> { Flowable.just(jsonResponse([id: 'CHE'])) }
+    new String(first.body() as byte[]) == '{"id":"CHE"}'
+    new String(second.body() as byte[]) == '{"id":"CHE"}'
+    second.contentType.get() == MediaType.APPLICATION_JSON_TYPE
+    responseCache.hitCount == 1
+    responseCache.missCount == 1
+  }
+
+  void "The filter invalidates the cache after a successful modification"() {
+
+    given:
+    ResponseCacheFilter filter = new ResponseCacheFilter(responseCache)
+    put(responseCache, responseCache.key(HttpRequestFactory.INSTANCE.get('/v1/countries')), '/v1/countries', '[]'.bytes)
+
+    and:
+    ServerFilterChain chain = Stub()
+    chain.proceed(_) >> { Flowable.just(HttpResponseFactory.INSTANCE.status(status)) }
+
+    when:
+    Flowable.fromPublisher(filter.doFilter(HttpRequestFactory.INSTANCE.post('/v1/countries', [id: 'CHE']), chain)).blockingSingle()
+
+    then:
+    responseCache.size() == size
+
+    where:
+    status                                  | size
+    HttpStatus.CREATED     | 0
+    HttpStatus.BAD_REQUEST | 1
+  }
+
+  void "Requests of authenticated users bypass the cache"() {
+
+    given:
+    List<HttpServerFilter> filters = cacheFilters(Stub(ObjectMapper) { writeValueAsBytes(_) >> '{}'.bytes })
+    ServerFilterChain chain = Mock()
+
+    when:
+    2.times {
+      HttpRequest<?> request = HttpRequestFactory.INSTANCE.get('/v1/countries/CHE')
+      authenticate(request)
+      send(filters, request, chain)
+    }
+
+    then:
+    2 * chain.proceed(_) >> { Flowable.just(jsonResponse([id: 'CHE'])) }
+    responseCache.size() == 0
+
+    where:
+    authenticate << [
+        { HttpRequest<?> request -> request.header(HttpHeaders.AUTHORIZATION, 'Bearer token') },
+        { HttpRequest<?> request -> request.setAttribute(HttpAttributes.PRINCIPAL, { 'jane' } as Principal) }
+    ]
+  }
+
+  void "Cached responses are sent with their headers"() {
+
+    given:
+    List<HttpServerFilter> filters = cacheFilters(Stub(ObjectMapper) { writeValueAsBytes(_) >> '{"id":"CHE"}'.bytes })
+    ServerFilterChain chain = Stub()
+    chain.proceed(_) >> {
+      Flowable.just(jsonResponse([id: 'CHE'])
+          .header(HttpHeaders.ETAG, 'W/"1"')
+          .header(HttpHeaders.CACHE_CONTROL, 'max-age=60')
+          .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_LANGUAGE)
+          .header(HttpHeaders.SET_COOKIE, 'session=1'))
+    }
+
+    when:
+    send(filters, HttpRequestFactory.INSTANCE.get('/v1/countries/CHE'), chain)
+    MutableHttpResponse<?> cached = send(filters, HttpRequestFactory.INSTANCE.get('/v1/countries/CHE'), chain)
+
+    then:
+    responseCache.hitCount == 1
+    cached.header(HttpHeaders.ETAG) == 'W/"1"'
+    cached.header(HttpHeaders.CACHE_CONTROL) == 'max-age=60'
+    cached.header(HttpHeaders.VARY) == HttpHeaders.ACCEPT_LANGUAGE
+    cached.contentType.get() == MediaType.APPLICATION_JSON_TYPE
+
+    and: 'headers of a single exchange are not replayed'
+    cached.header(HttpHeaders.SET_COOKIE) == null
+  }
+
+  void "Responses with Cache-Control #cacheControl are not cached"() {
+
+    given:
+    List<HttpServerFilter> filters = cacheFilters(Stub(ObjectMapper) { writeValueAsBytes(_) >> '{}'.bytes })
+    ServerFilterChain chain = Stub()
+    chain.proceed(_) >> { Flowable.just(jsonResponse([id: 'CHE']).header(HttpHeaders.CACHE_CONTROL, cacheControl)) }
+
+    when:
+    send(filters, HttpRequestFactory.INSTANCE.get('/v1/countries/CHE'), chain)
+
+    then:
+    responseCache.size() == 0
+
+    where:
+    cacheControl << ['private, max-age=60', 'no-store']
+  }
+
+  void "A response read before a concurrent invalidation is not cached"() {
+
+    given:
+    List<HttpServerFilter> filters = cacheFilters(Stub(ObjectMapper) { writeValueAsBytes(_) >> '{}'.bytes })
+
+    and: 'the resource is modified while the response is read'
+    ServerFilterChain chain = Stub()
+    chain.proceed(_) >> {
+      responseCache.invalidate(HttpMethod.PUT, '/v1/countries/CHE')
+      Flowable.just(jsonResponse([id: 'CHE']))
+    }
+
+    when:
+    send(filters, HttpRequestFactory.INSTANCE.get('/v1/countries/CHE'), chain)
+
+    then:
+    responseCache.size() == 0
+
+    and: 'responses of the current generation are cached'
+    responseCache.put('/v1/countries/CHE', '/v1/countries/CHE', '{}'.bytes, [:], responseCache.generation)
+    !responseCache.put('/v1/countries/DEU', '/v1/countries/DEU', '{}'.bytes, [:], responseCache.generation - 1)
+    responseCache.size() == 1
+  }
+
+  void "Hits and misses are recorded per route"() {
+
+    given:
+    HateoasMetrics metrics = Mock()
+    List<HttpServerFilter> filters = cacheFilters(Stub(ObjectMapper) { writeValueAsBytes(_) >> '{}'.bytes }, false, metrics)
+    ServerFilterChain chain = Stub()
+    chain.proceed(_) >> { Flowable.just(jsonResponse([id: 'CHE'])) }
+
+    when:
+    2.times {
+      send(filters, routedRequest('/v1/countries/CHE', '/v1/countries/{id}'), chain)
+    }
+
+    then:
+    1 * metrics.recordResponseCache('/v1/countries/{id}', false)
+
+    then:
+    1 * metrics.recordResponseCache('/v1/countries/{id}', true)
+  }
+
+  void "A conditional request of a cached response is answered with 304"() {
+
+    given:
+    List<HttpServerFilter> filters = cacheFilters(Stub(ObjectMapper) { writeValueAsBytes(_) >> '{"id":"CHE"}'.bytes }, true)
+    ServerFilterChain chain = Mock()
+
+    when: 'the first request caches the response with its ETag'
+    MutableHttpResponse<?> first = send(filters, HttpRequestFactory.INSTANCE.get('/v1/countries/CHE'), chain)
+
+    and: 'the second request has the ETag of the cached response'
+    HttpRequest<?> conditionalRequest = HttpRequestFactory.INSTANCE.get('/v1/countries/CHE')
+    conditionalRequest.header(HttpHeaders.IF_NONE_MATCH, first.header(HttpHeaders.ETAG))
+    MutableHttpResponse<?> second = send(filters, conditionalRequest, chain)
+
+    then:
+    1 * chain.proceed(_) >> { Flowable.just(jsonResponse([id: 'CHE'])) }
+    first.status() == HttpStatus.OK
+    first.header(HttpHeaders.ETAG) != null
+    responseCache.hitCount == 1
+
+    and:
+    second.status() == HttpStatus.NOT_MODIFIED
+    second.header(HttpHeaders.ETAG) == first.header(HttpHeaders.ETAG)
+    second.body() == null
+  }
+
+  /** The filters of the cache (and the ETags) in the order of {@link FilterOrder}. */
+  private List<HttpServerFilter> cacheFilters(ObjectMapper objectMapper, boolean etags = false, HateoasMetrics metrics = null) {
+    List<HttpServerFilter> filters = [new SerializedResponseFilter(objectMapper, responseCache, etags), new ResponseCacheFilter(responseCache, metrics)]
+    if (etags) {
+      filters << new EtagFilter()
+    }
+    return filters.sort { it.order }
+  }
+
+  /** Sends a request through the filters, the filter with the lowest order is the outermost. */
+  private static MutableHttpResponse<?> send(List<HttpServerFilter> filters, HttpRequest<?> request, ServerFilterChain chain) {
+    ServerFilterChain outermost = filters.reverse().inject(chain) { ServerFilterChain next, HttpServerFilter filter ->
+      { HttpRequest<?> nextRequest -> filter.doFilter(nextRequest, next) } as ServerFilterChain
+    }
+    return Flowable.fromPublisher(outermost.proceed(request)).blockingSingle()
+  }
+
+  private static void put(ResponseCache cache, String key, String path, byte[] body) {
+    cache.put(key, path, body, [(HttpHeaders.CONTENT_TYPE): ['application/json']], cache.generation)
+  }
+
+  private static ResponseCacheConfiguration resource(String name, String route, Duration ttl) {
+    ResponseCacheConfiguration resource = new ResponseCacheConfiguration(name)
+    resource.route = route
+    resource.ttl = ttl
+    return resource
+  }
+
+  private HttpRequest<?> routedRequest(String path, String template) {
+    HttpRequest<?> request = HttpRequestFactory.INSTANCE.get(path)
+    UriRouteMatch uriRouteMatch = Stub()
+    UriRouteInfo routeInfo = Stub()
+    uriRouteMatch.getRouteInfo() >> routeInfo
+    routeInfo.getUriMatchTemplate() >> UriMatchTemplate.of(template)
+    request.setAttribute(HttpAttributes.ROUTE_MATCH, uriRouteMatch)
+    return request
+  }
+
+  private MutableHttpResponse<?> jsonResponse(Object body) {
+    MutableHttpResponse<?> response = HttpResponseFactory.INSTANCE.ok()
+    UriRouteMatch uriRouteMatch = Stub()
+    UriRouteInfo routeInfo = Stub()
+    uriRouteMatch.getRouteInfo() >> routeInfo
+    routeInfo.getProduces() >> [MediaType.APPLICATION_JSON_TYPE]
+    response.attributes.put(HttpAttributes.ROUTE_MATCH.toString(), uriRouteMatch)
+    response.body(body)
+    return response
+  }
+}
@@ -51,4 +51,12 @@ class UriPlaceholderReplacerSpec extends Specification {
 
     }
 
+    void "placeholder values are percent-encoded"() {
+
+        when:
+        String result = replacePlaceholders('/v1/countries/{:entity}/cities/', ['id': 'a b/c'])
+
+        then:
+        result == '/v1/countries/a%20b%2Fc/cities/'
+    }
 }
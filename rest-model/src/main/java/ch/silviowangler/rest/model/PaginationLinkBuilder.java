@@ -0,0 +1,183 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.model;
+
+import ch.silviowangler.rest.model.pagination.CursorSlice;
+import ch.silviowangler.rest.model.pagination.Page;
+import ch.silviowangler.rest.model.pagination.Slice;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the pagination links ({@code first}, {@code previous}, {@code next}, {@code last} and
+ * {@code self}) of a {@link Slice}.
+ *
+ * <p>The query parameters of the request except the paging parameters are encoded once and the
+ * prefix (base URL and path) is shared by all links. The links keep their href as a string, it is
+ * parsed into a {@link java.net.URI} only when it is read (usually when the link is serialized).
+ * Slices are paginated with {@code page} and {@code limit}, a {@link CursorSlice} with {@code
+ * cursor} and {@code limit}.
+ *
+ * @author Silvio Wangler
+ */
+public final class PaginationLinkBuilder {
+
+  public static final String PAGE = "page";
+  public static final String LIMIT = "limit";
+  public static final String CURSOR = "cursor";
+
+  private final String baseUrl;
+  private final String path;
+  private final Iterable<? extends Map.Entry<String, ? extends List<String>>> parameters;
+
+  /**
+   * @param baseUrl the base URL prepended to all links (may be empty).
+   * @param path the path of the collection.
+   * @param parameters the query parameters of the request.
+   */
+  public PaginationLinkBuilder(
+      String baseUrl,
+      String path,
+      Iterable<? extends Map.Entry<String, ? extends List<String>>> parameters) {
+    this.baseUrl = baseUrl;
+    this.path = path;
+    this.parameters = parameters;
+  }
+
+  /**
+   * @param slice the slice of the response.
+   * @return the pagination links of the slice, the {@code self} link is the last one.
+   */
+  public List<ResourceLink> build(Slice<?> slice) {
+    if (slice instanceof CursorSlice) {
+      return buildCursorLinks((CursorSlice<?>) slice);
+    }
+    return buildPageLinks(slice);
+  }
+
+  private List<ResourceLink> buildPageLinks(Slice<?> slice) {
+    Links links = new Links(encodeQuery(false));
+    int size = slice.getSize();
+
+    links.add("first", 0, size);
+
+    if (slice instanceof Page) {
+      Page<?> page = (Page<?>) slice;
+
+      if (page.getPageNumber() > 0 && page.getTotalPages() >= page.getPageNumber()) {
+        links.add("previous", slice.getPageNumber() - 1, size);
+      }
+
+      if (!page.isLastPage()) {
+        links.add("next", slice.getPageNumber() + 1, size);
+      }
+
+      links.add("last", page.getTotalPages() - 1, size);
+    }
+
+    links.add("self", slice.getPageNumber(), size);
+    return links.result;
+  }
+
+  private List<ResourceLink> buildCursorLinks(CursorSlice<?> slice) {
+    Links links = new Links(encodeQuery(true));
+    int size = slice.getSize();
+
+    links.add("first", null, size);
+
+    if (slice.getPreviousCursor() != null) {
+      links.add("previous", slice.getPreviousCursor(), size);
+    }
+
+    if (slice.getNextCursor() != null) {
+      links.add("next", slice.getNextCursor(), size);
+    }
+
+    links.add("self", slice.getCursor(), size);
+    return links.result;
+  }
+
+  /** Encodes all query parameters but the paging parameters, e.g. {@code &a=1&b=x+y}. */
+  private String encodeQuery(boolean cursor) {
+    StringBuilder query = new StringBuilder();
+
+    for (Map.Entry<String, ? extends List<String>> parameter : parameters) {
+      String name = parameter.getKey();
+
+      if (LIMIT.equals(name) || (cursor ? CURSOR.equals(name) : PAGE.equals(name))) {
+        continue;
+      }
+
+      String encodedName = encode(name);
+      for (String value : parameter.getValue()) {
+        query.append('&').append(encodedName).append('=').append(encode(value));
+      }
+    }
+    return query.toString();
+  }
+
+  private static String encode(String value) {
+    return URLEncoder.encode(value, StandardCharsets.UTF_8);
+  }
+
+  /** Collects the links of a slice, all links share the prefix of the builder. */
+  private final class Links {
+
+    private final List<ResourceLink> result = new ArrayList<>(5);
+    private final StringBuilder href;
+    private final int prefixLength;
+    private final String query;
+
+    private Links(String query) {
+      this.query = query;
+      this.href = new StringBuilder(baseUrl.length() + path.length() + 32 + query.length());
+      this.href.append(baseUrl).append(path).append('?');
+      this.prefixLength = href.length();
+    }
+
+    private void add(String rel, int page, int limit) {
+      href.setLength(prefixLength);
+      href.append(PAGE).append('=').append(page);
+      href.append('&').append(LIMIT).append('=').append(limit);
+      addLink(rel);
+    }
+
+    private void add(String rel, String cursor, int limit) {
+      href.setLength(prefixLength);
+      if (cursor != null) {
+        href.append(CURSOR).append('=').append(encode(cursor)).append('&');
+      }
+      href.append(LIMIT).append('=').append(limit);
+      addLink(rel);
+    }
+
+    private void addLink(String rel) {
+      href.append(query);
+      result.add(new ResourceLink(rel, "GET", href.toString()));
+    }
+  }
+}
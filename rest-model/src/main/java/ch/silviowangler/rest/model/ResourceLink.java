@@ -42,6 +42,7 @@ public class ResourceLink implements Serializable {
   private String rel;
   private String method;
   private URI href;
+  private String unparsedHref;
   private List<LinkParameter> params;
 
   // for jackson
@@ -61,6 +62,17 @@ public class ResourceLink implements Serializable {
     this.params = Collections.emptyList();
   }
 
+  /**
+   * Keeps the href as a string, it is parsed on the first call of {@link #getHref()} (usually when
+   * the link is serialized).
+   */
+  ResourceLink(String rel, String method, String href) {
+    this.rel = rel;
+    this.method = method;
+    this.unparsedHref = href;
+    this.params = Collections.emptyList();
+  }
+
   public ResourceLink(String rel, String method, URI href, List<LinkParameter> params) {
     this.rel = rel;
     this.method = method;
@@ -85,11 +97,15 @@ public class ResourceLink implements Serializable {
   }
 
   public URI getHref() {
+    if (href == null && unparsedHref != null) {
+      href = URI.create(unparsedHref);
+    }
     return href;
   }
 
   public void setHref(URI href) {
     this.href = href;
+    this.unparsedHref = null;
   }
 
   public List<LinkParameter> getParams() {
@@ -121,13 +137,13 @@ public class ResourceLink implements Serializable {
     ResourceLink that = (ResourceLink) o;
     return Objects.equals(rel, that.rel)
         && Objects.equals(method, that.method)
-        && Objects.equals(href, that.href)
+        && Objects.equals(getHref(), that.getHref())
         && Objects.equals(params, that.params);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(rel, method, href, params);
+    return Objects.hash(rel, method, getHref(), params);
   }
 
   @Override
@@ -135,7 +151,7 @@ public class ResourceLink implements Serializable {
     return new StringJoiner(", ", ResourceLink.class.getSimpleName() + "[", "]")
         .add("rel='" + rel + "'")
         .add("method='" + method + "'")
-        .add("href=" + href)
+        .add("href=" + getHref())
         .add("params=" + params)
         .toString();
   }
@@ -0,0 +1,270 @@
+/*
+ * MIT License
+ * <p>
+ * Copyright (c) 2016 - 2026 Silvio Wangler (silvio.wangler@gmail.com)
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package ch.silviowangler.rest.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A URI template with placeholders such as {@code /v1/countries/{:country}/cities/{:entity}}.
+ *
+ * <p>The template is parsed once into literal and variable segments. Rendering appends the
+ * segments to a {@link StringBuilder} (which may be reused across links) and percent-encodes the
+ * variable values as path segments, i.e. without any regular expression or format calls.
+ * Placeholders are written as {@code {:name}} (as in the resource contracts) or {@code {name}}.
+ *
+ * <p>Use {@link #of(String)} for templates that are rendered repeatedly (e.g. the {@code href} of
+ * a sub resource), the parsed templates are cached.
+ *
+ * @author Silvio Wangler
+ */
+public final class UriTemplate {
+
+  private static final int CACHE_LIMIT = 1024;
+  private static final Map<String, UriTemplate> CACHE = new ConcurrentHashMap<>();
+  private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+  private final String template;
+  // literals[i] precedes variables[i], the last literal follows the last variable
+  private final String[] literals;
+  private final String[] variables;
+  private final int literalLength;
+
+  private UriTemplate(String template, List<String> literals, List<String> variables) {
+    this.template = template;
+    this.literals = literals.toArray(new String[0]);
+    this.variables = variables.toArray(new String[0]);
+
+    int length = 0;
+    for (String literal : this.literals) {
+      length += literal.length();
+    }
+    this.literalLength = length;
+  }
+
+  /**
+   * Returns the parsed template from the cache or parses and caches it. At most 1024 templates are
+   * cached, further templates are parsed on every call.
+   *
+   * @param template the template.
+   * @return the parsed template.
+   * @throws IllegalArgumentException if the template contains an invalid placeholder.
+   */
+  public static UriTemplate of(String template) {
+    UriTemplate uriTemplate = CACHE.get(template);
+
+    if (uriTemplate == null) {
+      uriTemplate = parse(template);
+
+      if (CACHE.size() < CACHE_LIMIT) {
+        CACHE.putIfAbsent(template, uriTemplate);
+      }
+    }
+    return uriTemplate;
+  }
+
+  /**
+   * Parses a template without caching it.
+   *
+   * @param template the template.
+   * @return the parsed template.
+   * @throws IllegalArgumentException if the template contains an invalid placeholder.
+   */
+  public static UriTemplate parse(String template) {
+    Objects.requireNonNull(template, "template must not be null");
+
+    List<String> literals = new ArrayList<>();
+    List<String> variables = new ArrayList<>();
+    int literalStart = 0;
+    int index = template.indexOf('{');
+
+    while (index != -1) {
+      int end = template.indexOf('}', index);
+      int nameStart = index + 1;
+
+      if (nameStart < template.length() && template.charAt(nameStart) == ':') {
+        nameStart++;
+      }
+
+      if (end == -1 || end == nameStart || template.lastIndexOf('{', end) != index) {
+        throw new IllegalArgumentException(
+            String.format("Invalid placeholder at position %d in %s", index, template));
+      }
+
+      literals.add(template.substring(literalStart, index));
+      variables.add(template.substring(nameStart, end));
+      literalStart = end + 1;
+      index = template.indexOf('{', literalStart);
+    }
+    literals.add(template.substring(literalStart));
+
+    return new UriTemplate(template, literals, variables);
+  }
+
+  /** @return the template this instance was parsed from. */
+  public String getTemplate() {
+    return template;
+  }
+
+  /** @return the names of the placeholders in the order of their appearance. */
+  public List<String> getVariableNames() {
+    return Collections.unmodifiableList(Arrays.asList(variables));
+  }
+
+  /**
+   * Renders the template.
+   *
+   * @param values the values of the placeholders by name.
+   * @return the rendered URI.
+   * @throws IllegalArgumentException if there is no value for a placeholder.
+   */
+  public String expand(Map<String, ?> values) {
+    return expand(new StringBuilder(literalLength + 16 * variables.length), values::get)
+        .toString();
+  }
+
+  /**
+   * Appends the rendered template to the given builder.
+   *
+   * @param target the builder to append to.
+   * @param values resolves the value of a placeholder by its name.
+   * @return the given builder.
+   * @throws IllegalArgumentException if there is no value for a placeholder.
+   */
+  public StringBuilder expand(StringBuilder target, Function<String, ?> values) {
+    for (int i = 0; i < variables.length; i++) {
+      target.append(literals[i]);
+
+      Object value = values.apply(variables[i]);
+      if (value == null) {
+        throw new IllegalArgumentException(
+            String.format("No value for placeholder %s in %s", variables[i], template));
+      }
+      appendPathSegment(target, value.toString());
+    }
+    return target.append(literals[variables.length]);
+  }
+
+  /**
+   * Appends a value as URI path segment, i.e. percent-encodes all characters (UTF-8) that are not
+   * allowed in a path segment (RFC 3986) including {@code /}.
+   *
+   * @param target the builder to append to.
+   * @param value the unencoded value.
+   * @return the given builder.
+   */
+  public static StringBuilder appendPathSegment(StringBuilder target, String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+
+      if (isPathSegmentChar(c)) {
+        target.append(c);
+        continue;
+      }
+
+      int codePoint = value.codePointAt(i);
+      if (Character.isSupplementaryCodePoint(codePoint)) {
+        i++;
+      } else if (Character.isSurrogate(c)) {
+        // unpaired surrogate, cannot be encoded as UTF-8
+        codePoint = '?';
+      }
+
+      if (codePoint < 0x80) {
+        appendEscaped(target, codePoint);
+      } else if (codePoint < 0x800) {
+        appendEscaped(target, 0xC0 | (codePoint >> 6));
+        appendEscaped(target, 0x80 | (codePoint & 0x3F));
+      } else if (codePoint < 0x10000) {
+        appendEscaped(target, 0xE0 | (codePoint >> 12));
+        appendEscaped(target, 0x80 | ((codePoint >> 6) & 0x3F));
+        appendEscaped(target, 0x80 | (codePoint & 0x3F));
+      } else {
+        appendEscaped(target, 0xF0 | (codePoint >> 18));
+        appendEscaped(target, 0x80 | ((codePoint >> 12) & 0x3F));
+        appendEscaped(target, 0x80 | ((codePoint >> 6) & 0x3F));
+        appendEscaped(target, 0x80 | (codePoint & 0x3F));
+      }
+    }
+    return target;
+  }
+
+  private static boolean isPathSegmentChar(char c) {
+    if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+      return true;
+    }
+    switch (c) {
+        // unreserved
+      case '-':
+      case '.':
+      case '_':
+      case '~':
+        // sub-delims
+      case '!':
+      case '$':
+      case '&':
+      case '\'':
+      case '(':
+      case ')':
+      case '*':
+      case '+':
+      case ',':
+      case ';':
+      case '=':
+        // pchar
+      case ':':
+      case '@':
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private static void appendEscaped(StringBuilder target, int octet) {
+    target.append('%').append(HEX[(octet >> 4) & 0xF]).append(HEX[octet & 0xF]);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    return template.equals(((UriTemplate) o).template);
+  }
+
+  @Override
+  public int hashCode() {
+    return template.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return template;
+  }
+}
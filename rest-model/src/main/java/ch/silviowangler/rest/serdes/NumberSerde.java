@@ -31,10 +31,22 @@ import io.micronaut.serde.Decoder;
 import io.micronaut.serde.Deserializer;
 import jakarta.inject.Singleton;
 import java.io.IOException;
+import java.math.BigDecimal;
 
+/**
+ * Deserializes {@link Number}s straight from the {@link Decoder}, without reading them into a tree
+ * node first.
+ *
+ * <p>The number keeps the type the JSON parser reads it as: integral values become an {@link
+ * Integer}, a {@link Long} or a {@link java.math.BigInteger}, fractional values a {@link Double}
+ * (as they did when the numbers were read into a tree node).
+ *
+ * @author Silvio Wangler
+ */
 @Singleton
 @Secondary
 public class NumberSerde implements Deserializer<Number> {
+
   @Override
   public @Nullable Number deserialize(
       @NonNull Decoder decoder,
@@ -42,6 +54,15 @@ public class NumberSerde implements Deserializer<Number> {
       @NonNull Argument<? super Number> type)
       throws IOException {
 
-    return decoder.decodeNode().getNumberValue();
+    Object value = decoder.decodeArbitrary();
+
+    if (value instanceof BigDecimal) {
+      // parsers configured to read floats as BigDecimal
+      return ((BigDecimal) value).doubleValue();
+    }
+    if (value == null || value instanceof Number) {
+      return (Number) value;
+    }
+    throw decoder.createDeserializationException("Expected a number but got: " + value, value);
   }
 }
@@ -29,16 +29,34 @@ import io.micronaut.context.annotation.Secondary;
 import io.micronaut.core.annotation.NonNull;
 import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.beans.BeanIntrospection;
+import io.micronaut.core.beans.BeanProperty;
 import io.micronaut.core.type.Argument;
 import io.micronaut.json.tree.JsonNode;
 import io.micronaut.serde.Decoder;
 import io.micronaut.serde.Deserializer;
 import jakarta.inject.Singleton;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Deserializes resource models by the class name in their {@code @class} property.
+ *
+ * <p>The introspection of a class and the deserializers of its properties are looked up once per
+ * class name and cached. The properties are decoded straight from the stream with their
+ * deserializers. Only properties preceding {@code @class} (which is written first by this library)
+ * have to be buffered as tree and converted.
+ */
 @Singleton
 @Secondary
 public class ResourceModelDeserializer implements Deserializer<ResourceModel> {
+
+  private static final String CLASS_PROPERTY = JsonTypeInfo.Id.CLASS.getDefaultPropertyName();
+
+  private final Map<String, ModelType> modelTypes = new ConcurrentHashMap<>();
+
   @Override
   public @Nullable ResourceModel deserialize(
       @NonNull Decoder decoder,
@@ -46,32 +64,142 @@ public class ResourceModelDeserializer implements Deserializer<ResourceModel> {
       @NonNull Argument<? super ResourceModel> type)
       throws IOException {
 
-    JsonNode jsonNode = decoder.decodeNode();
-    JsonNode classValue = jsonNode.get(JsonTypeInfo.Id.CLASS.getDefaultPropertyName());
-
-    try {
-      Class<ResourceModel> clazz =
-          (Class<ResourceModel>) Class.forName(classValue.getStringValue());
-      BeanIntrospection<ResourceModel> introspection = BeanIntrospection.getIntrospection(clazz);
-
-      ResourceModel resourceModel = introspection.instantiate();
-      introspection
-          .getBeanProperties()
-          .forEach(
-              beanProperty ->
-                  beanProperty.set(
-                      resourceModel,
-                      context
-                          .getConversionService()
-                          .convert(
-                              jsonNode.get(beanProperty.getName()).getValue(),
-                              beanProperty.getType())
-                          .orElseThrow()));
-
-      return resourceModel;
-
-    } catch (ClassNotFoundException e) {
-      throw new RuntimeException(e);
+    DeserializationEvent event = new DeserializationEvent();
+    event.begin();
+
+    Decoder objectDecoder = decoder.decodeObject(type);
+    Map<String, JsonNode> bufferedProperties = null;
+    ModelType modelType = null;
+    String key;
+
+    // the properties written before the type are rare and therefore decoded as tree
+    while ((key = objectDecoder.decodeKey()) != null) {
+      if (CLASS_PROPERTY.equals(key)) {
+        modelType = modelType(objectDecoder.decodeString());
+        break;
+      }
+      if (bufferedProperties == null) {
+        bufferedProperties = new LinkedHashMap<>();
+      }
+      bufferedProperties.put(key, objectDecoder.decodeNode());
+    }
+
+    if (modelType == null) {
+      throw objectDecoder.createDeserializationException(
+          "Missing property " + CLASS_PROPERTY + " of resource model", null);
+    }
+
+    ResourceModel resourceModel = modelType.introspection.instantiate();
+
+    if (bufferedProperties != null) {
+      for (Map.Entry<String, JsonNode> property : bufferedProperties.entrySet()) {
+        modelType.convert(resourceModel, property.getKey(), property.getValue(), context);
+      }
+    }
+
+    while ((key = objectDecoder.decodeKey()) != null) {
+      PropertyBinding binding = modelType.properties.get(key);
+
+      if (binding == null) {
+        objectDecoder.skipValue();
+      } else {
+        binding.deserialize(resourceModel, objectDecoder, context);
+      }
+    }
+    objectDecoder.finishStructure();
+
+    event.end();
+    if (event.shouldCommit()) {
+      event.resourceModel = modelType.introspection.getBeanType().getName();
+      event.properties = modelType.properties.size();
+      event.commit();
+    }
+    return resourceModel;
+  }
+
+  private ModelType modelType(String className) {
+    ModelType modelType = modelTypes.get(className);
+
+    if (modelType == null) {
+      // no computeIfAbsent, loading the class might deserialize resource models itself
+      modelType = new ModelType(className);
+      modelTypes.putIfAbsent(className, modelType);
+    }
+    return modelType;
+  }
+
+  /** The introspection and the property bindings of a resource model class. */
+  private static final class ModelType {
+
+    private final BeanIntrospection<ResourceModel> introspection;
+    private final Map<String, PropertyBinding> properties;
+
+    @SuppressWarnings("unchecked")
+    private ModelType(String className) {
+      try {
+        Class<ResourceModel> clazz = (Class<ResourceModel>) Class.forName(className);
+        this.introspection = BeanIntrospection.getIntrospection(clazz);
+      } catch (ClassNotFoundException e) {
+        throw new RuntimeException(e);
+      }
+
+      Map<String, PropertyBinding> bindings = new HashMap<>();
+      for (BeanProperty<ResourceModel, Object> property : introspection.getBeanProperties()) {
+        if (!property.isReadOnly()) {
+          bindings.put(property.getName(), new PropertyBinding(property));
+        }
+      }
+      this.properties = Map.copyOf(bindings);
+    }
+
+    private void convert(
+        ResourceModel resourceModel, String name, JsonNode value, DecoderContext context) {
+      PropertyBinding binding = properties.get(name);
+
+      if (binding != null) {
+        binding.property.set(
+            resourceModel,
+            context
+                .getConversionService()
+                .convert(value.getValue(), binding.property.getType())
+                .orElseThrow());
+      }
+    }
+  }
+
+  /** Sets a property of a resource model from the stream. */
+  private static final class PropertyBinding {
+
+    private final BeanProperty<ResourceModel, Object> property;
+    private final Argument<Object> argument;
+    private volatile Deserializer<?> deserializer;
+
+    private PropertyBinding(BeanProperty<ResourceModel, Object> property) {
+      this.property = property;
+      this.argument = property.asArgument();
+    }
+
+    private void deserialize(ResourceModel resourceModel, Decoder decoder, DecoderContext context)
+        throws IOException {
+
+      if (decoder.decodeNull()) {
+        if (!argument.isPrimitive()) {
+          property.set(resourceModel, null);
+        }
+        return;
+      }
+      property.set(resourceModel, deserializer(context).deserialize(decoder, context, argument));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Deserializer<Object> deserializer(DecoderContext context) throws IOException {
+      Deserializer<?> result = deserializer;
+
+      if (result == null) {
+        result = context.findDeserializer(argument).createSpecific(context, argument);
+        deserializer = result;
+      }
+      return (Deserializer<Object>) result;
     }
   }
 }
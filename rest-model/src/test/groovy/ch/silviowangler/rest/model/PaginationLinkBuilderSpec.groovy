@@ -0,0 +1,96 @@
+package ch.silviowangler.rest.model
+
+import ch.silviowangler.rest.model.pagination.DefaultCursorSlice
+import ch.silviowangler.rest.model.pagination.DefaultPage
+import ch.silviowangler.rest.model.pagination.DefaultPageable
+import ch.silviowangler.rest.model.pagination.DefaultSlice
+import spock.lang.Specification
+
+class PaginationLinkBuilderSpec extends Specification {
+
+  Map<String, List<String>> parameters = [page: ['2'], limit: ['10'], q: ['hello world'], status: ['NEW', 'MODIFIED'], empty: []]
+
+  void "Build the links of a page"() {
+
+    given:
+    PaginationLinkBuilder builder = new PaginationLinkBuilder('/api', '/persons', parameters.entrySet())
+
+    when:
+    List<ResourceLink> links = builder.build(new DefaultPage([], new DefaultPageable(2, 10), 50))
+
+    then:
+    links*.rel == ['first', 'previous', 'next', 'last', 'self']
+    links*.method.unique() == ['GET']
+    links*.href*.toString() == [
+      '/api/persons?page=0&limit=10&q=hello+world&status=NEW&status=MODIFIED',
+      '/api/persons?page=1&limit=10&q=hello+world&status=NEW&status=MODIFIED',
+      '/api/persons?page=3&limit=10&q=hello+world&status=NEW&status=MODIFIED',
+      '/api/persons?page=4&limit=10&q=hello+world&status=NEW&status=MODIFIED',
+      '/api/persons?page=2&limit=10&q=hello+world&status=NEW&status=MODIFIED'
+    ]
+  }
+
+  void "The first and the last page have no previous and next link"() {
+
+    given:
+    PaginationLinkBuilder builder = new PaginationLinkBuilder('', '/persons', [:].entrySet())
+
+    expect:
+    builder.build(new DefaultPage([], new DefaultPageable(0, 10), 20))*.rel == ['first', 'next', 'last', 'self']
+    builder.build(new DefaultPage([], new DefaultPageable(1, 10), 20))*.rel == ['first', 'previous', 'last', 'self']
+  }
+
+  void "A slice has a first and a self link"() {
+
+    given:
+    PaginationLinkBuilder builder = new PaginationLinkBuilder('', '/persons', [:].entrySet())
+
+    when:
+    List<ResourceLink> links = builder.build(new DefaultSlice([], new DefaultPageable(3, 5)))
+
+    then:
+    links*.rel == ['first', 'self']
+    links*.href*.toString() == ['/persons?page=0&limit=5', '/persons?page=3&limit=5']
+  }
+
+  void "Build the links of a cursor slice"() {
+
+    given:
+    PaginationLinkBuilder builder = new PaginationLinkBuilder('/api', '/persons', [cursor: ['b'], limit: ['10'], page: ['1']].entrySet())
+
+    when:
+    List<ResourceLink> links = builder.build(new DefaultCursorSlice([], 10, 'b', 'c/d', 'a'))
+
+    then: 'the cursors are encoded and page is an ordinary query parameter in cursor mode'
+    links*.rel == ['first', 'previous', 'next', 'self']
+    links*.href*.toString() == [
+      '/api/persons?limit=10&page=1',
+      '/api/persons?cursor=a&limit=10&page=1',
+      '/api/persons?cursor=c%2Fd&limit=10&page=1',
+      '/api/persons?cursor=b&limit=10&page=1'
+    ]
+  }
+
+  void "The last cursor slice has no next link"() {
+
+    given:
+    PaginationLinkBuilder builder = new PaginationLinkBuilder('', '/persons', [:].entrySet())
+
+    expect:
+    builder.build(new DefaultCursorSlice([], 10, null, null, null))*.rel == ['first', 'self']
+  }
+
+  void "A link with an unparsed href equals the link with the parsed URI"() {
+
+    given:
+    PaginationLinkBuilder builder = new PaginationLinkBuilder('', '/persons', [:].entrySet())
+
+    when:
+    ResourceLink selfLink = builder.build(new DefaultSlice([], new DefaultPageable(3, 5))).last()
+
+    then:
+    selfLink == ResourceLink.relLink('self', '/persons?page=3&limit=5')
+    selfLink.hashCode() == ResourceLink.relLink('self', '/persons?page=3&limit=5').hashCode()
+    selfLink.href == URI.create('/persons?page=3&limit=5')
+  }
+}
@@ -0,0 +1,85 @@
+package ch.silviowangler.rest.model
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class UriTemplateSpec extends Specification {
+
+  void "Parse literals and placeholders"() {
+
+    when:
+    UriTemplate template = UriTemplate.parse('/v1/countries/{:country}/cities/{id}')
+
+    then:
+    template.variableNames == ['country', 'id']
+    template.expand([country: 'CHE', id: 'ZH']) == '/v1/countries/CHE/cities/ZH'
+  }
+
+  void "A template without placeholders renders as is"() {
+
+    expect:
+    UriTemplate.parse('/v1/countries/').expand([:]) == '/v1/countries/'
+  }
+
+  void "Templates are cached"() {
+
+    expect:
+    UriTemplate.of('/v1/countries/{:entity}/cities/').is(UriTemplate.of('/v1/countries/{:entity}/cities/'))
+  }
+
+  void "Render into a reused builder"() {
+
+    given:
+    UriTemplate template = UriTemplate.of('/v1/countries/{:entity}')
+    StringBuilder builder = new StringBuilder('/api')
+
+    when:
+    template.expand(builder, { 'CHE' })
+    builder.setLength(4)
+    template.expand(builder, { 'DEU' })
+
+    then:
+    builder.toString() == '/api/v1/countries/DEU'
+  }
+
+  @Unroll
+  void "Percent-encode '#value' as path segment"() {
+
+    expect:
+    UriTemplate.appendPathSegment(new StringBuilder(), value).toString() == expected
+
+    where:
+    value       || expected
+    'CHE'       || 'CHE'
+    'a b'       || 'a%20b'
+    'a/b?c#d'   || 'a%2Fb%3Fc%23d'
+    'a:b@c'     || 'a:b@c'
+    '100%'      || '100%25'
+    'Zürich'    || 'Z%C3%BCrich'
+    '€'         || '%E2%82%AC'
+    '😀'        || '%F0%9F%98%80'
+  }
+
+  void "A missing value is rejected"() {
+
+    when:
+    UriTemplate.parse('/v1/countries/{:entity}').expand([:])
+
+    then:
+    IllegalArgumentException e = thrown()
+    e.message == 'No value for placeholder entity in /v1/countries/{:entity}'
+  }
+
+  @Unroll
+  void "Reject the invalid template '#template'"() {
+
+    when:
+    UriTemplate.parse(template)
+
+    then:
+    thrown(IllegalArgumentException)
+
+    where:
+    template << ['/v1/{:entity', '/v1/{}', '/v1/{:}', '/v1/{a{b}']
+  }
+}
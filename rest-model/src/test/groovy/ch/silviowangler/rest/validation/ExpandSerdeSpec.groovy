@@ -4,10 +4,14 @@ import ch.silviowangler.rest.model.Expand
 import io.micronaut.serde.ObjectMapper
 import io.micronaut.test.extensions.spock.annotation.MicronautTest
 import jakarta.inject.Inject
+import jdk.jfr.consumer.RecordedEvent
+import jdk.jfr.consumer.RecordingStream
 import spock.lang.Shared
 import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
 
 import java.time.LocalDate
+import java.util.concurrent.CopyOnWriteArrayList
 
 @MicronautTest
 class ExpandSerdeSpec extends Specification {
@@ -47,4 +51,53 @@ class ExpandSerdeSpec extends Specification {
       res.dob == LocalDate.of(1978, 11, 1)
     }
   }
+
+  void "Deserialize resource models with properties before the type, unknown properties and nulls"() {
+
+    given:
+    final String json = '{"name":"aaa","data":[' +
+        '{"id":"hh","number":12,"@class":"ch.silviowangler.rest.validation.ActivitiesGetResourceModel","unknown":{"a":[1,2]},"key":null,"dob":"1978-11-01"},' +
+        '{"@class":"ch.silviowangler.rest.validation.ActivitiesGetResourceModel","id":"ii","dob":null}' +
+        ']}'
+
+    when:
+    Expand result = objectMapper.readValue(json, Expand)
+
+    then:
+    with(result.data[0]) { ActivitiesGetResourceModel res ->
+      res.id == 'hh'
+      res.number == 12
+      res.key == null
+      res.dob == LocalDate.of(1978, 11, 1)
+    }
+
+    and:
+    with(result.data[1]) { ActivitiesGetResourceModel res ->
+      res.id == 'ii'
+      res.number == null
+      res.dob == null
+    }
+  }
+
+  void "Deserializing a resource model emits a flight recorder event"() {
+
+    given:
+    final String json = objectMapper.writeValueAsString(expand)
+    List<RecordedEvent> events = new CopyOnWriteArrayList<>()
+    RecordingStream recording = new RecordingStream()
+    recording.enable('ch.silviowangler.rest.Deserialization')
+    recording.onEvent { events << it }
+    recording.startAsync()
+
+    when:
+    objectMapper.readValue(json, Expand)
+
+    then:
+    new PollingConditions(timeout: 10).eventually {
+      events.any { it.getString('resourceModel') == ActivitiesGetResourceModel.name }
+    }
+
+    cleanup:
+    recording.close()
+  }
 }
@@ -2,10 +2,12 @@ package ch.silviowangler.rest.validation
 
 
 import ch.silviowangler.rest.contract.model.v1.ResourceContract
+import ch.silviowangler.rest.contract.model.v1.ResourceField
 import io.micronaut.serde.ObjectMapper
 import io.micronaut.test.extensions.spock.annotation.MicronautTest
 import jakarta.inject.Inject
 import spock.lang.Specification
+import spock.lang.Unroll
 
 @MicronautTest
 class ResourceContractSerdeSpec extends Specification {
@@ -122,4 +124,27 @@ class ResourceContractSerdeSpec extends Specification {
     and:
     !contract.fields.isEmpty()
   }
+
+  @Unroll
+  void "Deserialize the min value #json of a field as #expected (#expected.class.simpleName)"() {
+
+    when:
+    ResourceField field = objectMapper.readValue('{"name":"a","min":' + json + '}', ResourceField)
+
+    then:
+    field.min == expected
+
+    and:
+    field.min.getClass() == expected.getClass()
+
+    where:
+    json                    || expected
+    '1'                     || 1
+    '-2147483649'           || -2147483649L
+    '9223372036854775807'   || Long.MAX_VALUE
+    '9223372036854775808'   || new BigDecimal('9223372036854775808')
+    '0.0'                   || 0.0d
+    '1.5'                   || 1.5d
+    '0.1000000000000000001' || new BigDecimal('0.1000000000000000001')
+  }
 }